@@ -0,0 +1,22 @@
+package com.ecommerce.api.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Idempotent Annotation
+ * 
+ * Marks an endpoint that honours the Idempotency-Key request header.
+ * A retried request carrying the same key gets the first response back
+ * instead of executing the operation again.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Idempotent {
+    
+    /**
+     * Request header carrying the client generated key
+     * @return header name (default: Idempotency-Key)
+     */
+    String header() default "Idempotency-Key";
+}
@@ -0,0 +1,138 @@
+package com.ecommerce.api.aspect;
+
+import com.ecommerce.api.annotation.Idempotent;
+import com.ecommerce.api.dto.ErrorCode;
+import com.ecommerce.api.exception.BusinessException;
+import com.ecommerce.infrastructure.idempotency.IdempotencyCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Idempotency Aspect
+ *
+ * Applies the Idempotency-Key header to endpoints marked with {@link Idempotent}.
+ * Requests without the header run as usual. Requests with it are executed once per
+ * endpoint, path variables, user and key; retries and concurrent duplicates receive the
+ * first response, flagged with the Idempotent-Replayed header. A key presented again with
+ * different arguments is rejected with IDEMPOTENCY_KEY_REUSED rather than replayed. A
+ * duplicate that outwaits the cache's wait timeout is answered with
+ * IDEMPOTENCY_REQUEST_IN_PROGRESS, and the client may retry it later.
+ */
+@Aspect
+@Component
+public class IdempotencyAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyAspect.class);
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final int MAX_KEY_LENGTH = 128;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+        .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final IdempotencyCache idempotencyCache;
+    private final boolean enabled;
+
+    public IdempotencyAspect(IdempotencyCache idempotencyCache,
+                           @Value("${ecommerce.idempotency.enabled:true}") boolean enabled) {
+        this.idempotencyCache = idempotencyCache;
+        this.enabled = enabled;
+    }
+
+    @Around("@annotation(idempotent)")
+    public Object applyIdempotency(ProceedingJoinPoint joinPoint, Idempotent idempotent) throws Throwable {
+        ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        String key = attrs != null ? attrs.getRequest().getHeader(idempotent.header()) : null;
+        if (!enabled || key == null || key.isBlank()) {
+            return joinPoint.proceed();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                idempotent.header() + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        // Scope keys per endpoint, resource and user so one key cannot replay another caller's response
+        JsonNode arguments = objectMapper.valueToTree(joinPoint.getArgs());
+        Map<String, String> pathVariables = pathVariables(attrs.getRequest());
+        String cacheKey = joinPoint.getSignature().getDeclaringTypeName() + "."
+            + joinPoint.getSignature().getName() + pathVariables
+            + "[user=" + userId(pathVariables, arguments) + "]:" + key;
+        IdempotencyCache.Outcome outcome;
+        try {
+            outcome = idempotencyCache.execute(cacheKey, fingerprint(arguments), joinPoint::proceed);
+        } catch (IdempotencyCache.KeyReusedException e) {
+            throw new BusinessException(ErrorCode.IDEMPOTENCY_KEY_REUSED,
+                idempotent.header() + " was already used for a different request: " + key);
+        } catch (IdempotencyCache.InProgressException e) {
+            throw new BusinessException(ErrorCode.IDEMPOTENCY_REQUEST_IN_PROGRESS,
+                "A request with " + idempotent.header() + " " + key + " is still in progress, retry later");
+        }
+
+        if (outcome.replayed()) {
+            HttpServletRequest request = attrs.getRequest();
+            logger.info("Replaying response for {} {} with {}: {}",
+                request.getMethod(), request.getRequestURI(), idempotent.header(), key);
+            HttpServletResponse response = attrs.getResponse();
+            if (response != null) {
+                response.setHeader(REPLAYED_HEADER, "true");
+            }
+        }
+        return outcome.value();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> pathVariables(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables instanceof Map<?, ?> map ? new TreeMap<>((Map<String, String>) map) : Map.of();
+    }
+
+    /**
+     * Caller the request acts for: the userId path variable, else a userId field of the request body
+     */
+    private static String userId(Map<String, String> pathVariables, JsonNode arguments) {
+        String fromPath = pathVariables.get("userId");
+        if (fromPath != null) {
+            return fromPath;
+        }
+        for (JsonNode argument : arguments) {
+            JsonNode userId = argument.get("userId");
+            if (userId != null && !userId.isNull()) {
+                return userId.asText();
+            }
+        }
+        return "";
+    }
+
+    /**
+     * SHA-256 of the handler arguments, i.e. the path variables and the bound request body
+     */
+    private static String fingerprint(JsonNode arguments) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(arguments)));
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException("Cannot fingerprint request arguments", e);
+        }
+    }
+}
@@ -17,8 +17,8 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import com.ecommerce.api.dto.ErrorResponse;
+import com.ecommerce.domain.PlatformClock;
 
-import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -53,7 +53,7 @@ public class ApiVersionController {
         // Basic version information
         versionInfo.put("currentVersion", ApiVersionConfig.DEFAULT_VERSION);
         versionInfo.put("supportedVersions", Arrays.asList(ApiVersionConfig.SUPPORTED_VERSIONS));
-        versionInfo.put("timestamp", LocalDateTime.now());
+        versionInfo.put("timestamp", PlatformClock.now());
         
         // Version control strategy
         Map<String, Object> strategy = new HashMap<>();
@@ -140,7 +140,7 @@ public class ApiVersionController {
                 Arrays.toString(ApiVersionConfig.SUPPORTED_VERSIONS));
         }
         
-        result.put("timestamp", LocalDateTime.now());
+        result.put("timestamp", PlatformClock.now());
         
         return ResponseEntity.ok(Result.success(result));
     }
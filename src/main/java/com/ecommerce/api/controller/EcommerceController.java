@@ -1,14 +1,23 @@
 package com.ecommerce.api.controller;
 
+import com.ecommerce.application.service.AsyncPurchaseService;
 import com.ecommerce.application.service.EcommerceService;
 import com.ecommerce.application.service.ProductService;
 import com.ecommerce.application.dto.PurchaseRequest;
 import com.ecommerce.application.dto.PurchaseResponse;
+import com.ecommerce.application.dto.PurchaseStatusResponse;
+import com.ecommerce.application.dto.CheckoutRequest;
+import com.ecommerce.application.dto.CheckoutResponse;
+import com.ecommerce.application.dto.ReservationResponse;
+import com.ecommerce.api.dto.ErrorCode;
 import com.ecommerce.api.dto.Result;
+import com.ecommerce.api.exception.BusinessException;
 import com.ecommerce.domain.product.Product;
+import com.ecommerce.api.annotation.Idempotent;
 import com.ecommerce.api.annotation.ApiVersion;
 import com.ecommerce.api.annotation.ApiTimeout;
 import com.ecommerce.api.config.ApiVersionConfig;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
@@ -18,6 +27,7 @@ import jakarta.validation.constraints.NotBlank;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -47,26 +57,37 @@ public class EcommerceController {
     
     private final EcommerceService ecommerceService;
     private final ProductService productService;
+    private final AsyncPurchaseService asyncPurchaseService;
     
-    public EcommerceController(EcommerceService ecommerceService, ProductService productService) {
+    public EcommerceController(EcommerceService ecommerceService, ProductService productService,
+                             AsyncPurchaseService asyncPurchaseService) {
         this.ecommerceService = ecommerceService;
         this.productService = productService;
+        this.asyncPurchaseService = asyncPurchaseService;
     }
     
     /**
      * Purchase Product (API v1)
      * POST /api/v1/ecommerce/purchase
      */
+    @Idempotent
     @PostMapping("/purchase")
     @ApiTimeout(value = 10, unit = TimeUnit.SECONDS, message = "Purchase operation timeout")
-    @Operation(summary = "Purchase Product", description = "Process product purchase with inventory and payment validation")
+    @Operation(summary = "Purchase Product", description = "Process product purchase with inventory and payment validation. " +
+               "When async purchases are enabled the purchase is accepted with 202 and its result is polled via the status endpoint")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Purchase completed successfully",
                     content = @Content(mediaType = "application/json", 
                                      schema = @Schema(implementation = Result.class),
                                      examples = @ExampleObject(
                                          name = "Success Response",
-                                         value = "{\"code\":\"SUCCESS\",\"message\":\"Purchase completed successfully\",\"data\":{\"orderNumber\":\"ORD-2025-001\",\"userId\":1,\"merchantId\":1,\"sku\":\"PHONE-001\",\"quantity\":1,\"totalAmount\":999.00,\"currency\":\"CNY\",\"orderStatus\":\"COMPLETED\"},\"timestamp\":\"2025-07-11T12:00:00\"}"))),
+                                         value = "{\"code\":\"SUCCESS\",\"message\":\"Purchase completed successfully\",\"data\":{\"orderNumber\":\"ORD0202031235072000001\",\"userId\":1,\"merchantId\":1,\"sku\":\"PHONE-001\",\"quantity\":1,\"totalAmount\":999.00,\"currency\":\"CNY\",\"orderStatus\":\"COMPLETED\"},\"timestamp\":\"2025-07-11T12:00:00\"}"))),
+        @ApiResponse(responseCode = "202", description = "Purchase accepted for asynchronous processing",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = Result.class),
+                                     examples = @ExampleObject(
+                                         name = "Accepted Response",
+                                         value = "{\"code\":\"SUCCESS\",\"message\":\"Purchase accepted\",\"data\":{\"orderNumber\":\"ORD0202031235072000001\",\"userId\":1,\"sku\":\"PHONE-001\",\"quantity\":1},\"timestamp\":\"2025-07-11T12:00:00\"}"))),
         @ApiResponse(responseCode = "400", description = "Invalid request data or business validation failed",
                     content = @Content(mediaType = "application/json", 
                                      schema = @Schema(implementation = ErrorResponse.class),
@@ -80,9 +101,20 @@ public class EcommerceController {
                                          name = "Product Not Found",
                                          value = "{\"code\":\"RESOURCE_NOT_FOUND\",\"message\":\"Product not found\",\"timestamp\":\"2025-07-11T12:00:00\"}")))
     })
+    @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, required = false,
+               description = "Client generated key; retries with the same key return the first response", example = "5f0c1a9e-7b7d-4c52-9a43-3c1e2f7d8a10")
     public ResponseEntity<Result<PurchaseResponse>> purchaseProduct(@Valid @RequestBody PurchaseRequest request) {
         logger.info("Processing purchase request: {}", request);
         
+        if (asyncPurchaseService.isEnabled()) {
+            PurchaseStatusResponse accepted = asyncPurchaseService.submit(request);
+            PurchaseResponse response = new PurchaseResponse(accepted.getOrderNumber(), request.getUserId(), null,
+                                                             request.getSku(), null, request.getQuantity(), null);
+            
+            logger.info("Purchase accepted: {}", accepted.getOrderNumber());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Result.successWithMessage("Purchase accepted", response));
+        }
+        
         // Process purchase - exceptions will be handled by GlobalExceptionHandler
         PurchaseResponse response = ecommerceService.processPurchase(request);
         
@@ -90,6 +122,153 @@ public class EcommerceController {
         return ResponseEntity.ok(Result.successWithMessage("Purchase completed successfully", response));
     }
     
+    /**
+     * Get Purchase Status (API v1)
+     * GET /api/v1/ecommerce/purchases/{orderNumber}/status
+     */
+    @GetMapping("/purchases/{orderNumber}/status")
+    @Operation(summary = "Get Purchase Status", description = "Poll the result of a purchase accepted for asynchronous processing")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Purchase status retrieved successfully",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = Result.class),
+                                     examples = @ExampleObject(
+                                         name = "Success Response",
+                                         value = "{\"code\":\"SUCCESS\",\"message\":\"Operation completed successfully\",\"data\":{\"orderNumber\":\"ORD0202031235072000001\",\"status\":\"FAILED\",\"errorCode\":\"INSUFFICIENT_INVENTORY\",\"errorMessage\":\"Insufficient inventory. Required: 2, Available: 1\"},\"timestamp\":\"2025-07-11T12:00:00\"}"))),
+        @ApiResponse(responseCode = "404", description = "Purchase unknown or its status already evicted",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ErrorResponse.class),
+                                     examples = @ExampleObject(
+                                         name = "Purchase Not Found",
+                                         value = "{\"code\":\"RESOURCE_NOT_FOUND\",\"message\":\"Purchase not found\",\"timestamp\":\"2025-07-11T12:00:00\"}")))
+    })
+    public ResponseEntity<Result<PurchaseStatusResponse>> getPurchaseStatus(
+            @Parameter(description = "Order number", required = true, example = "ORD0202031235072000001")
+            @PathVariable String orderNumber) {
+        PurchaseStatusResponse status = asyncPurchaseService.getStatus(orderNumber)
+            .orElseThrow(() -> new BusinessException(ErrorCode.RESOURCE_NOT_FOUND, "Purchase not found: " + orderNumber));
+        return ResponseEntity.ok(Result.success(status));
+    }
+    
+    /**
+     * Checkout Cart (API v1)
+     * POST /api/v1/ecommerce/checkout
+     */
+    @Idempotent
+    @PostMapping("/checkout")
+    @ApiTimeout(value = 10, unit = TimeUnit.SECONDS, message = "Checkout operation timeout")
+    @Operation(summary = "Checkout Cart", description = "Buy several products of one merchant as a single order with one payment")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Checkout completed successfully",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = Result.class),
+                                     examples = @ExampleObject(
+                                         name = "Success Response",
+                                         value = "{\"code\":\"SUCCESS\",\"message\":\"Checkout completed successfully\",\"data\":{\"orderNumber\":\"ORD0202031235072000001\",\"userId\":1,\"merchantId\":1,\"items\":[{\"sku\":\"PHONE-001\",\"productName\":\"iPhone 16 Pro\",\"quantity\":1,\"subtotal\":{\"amount\":7999.00,\"currency\":\"CNY\"}}],\"totalQuantity\":1,\"totalAmount\":{\"amount\":7999.00,\"currency\":\"CNY\"}},\"timestamp\":\"2025-07-11T12:00:00\"}"))),
+        @ApiResponse(responseCode = "400", description = "Invalid cart, items from several merchants, or business validation failed",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ErrorResponse.class),
+                                     examples = @ExampleObject(
+                                         name = "Insufficient Inventory",
+                                         value = "{\"code\":\"INSUFFICIENT_INVENTORY\",\"message\":\"Insufficient product inventory\",\"timestamp\":\"2025-07-11T12:00:00\"}"))),
+        @ApiResponse(responseCode = "404", description = "User, product, or merchant not found",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ErrorResponse.class),
+                                     examples = @ExampleObject(
+                                         name = "Product Not Found",
+                                         value = "{\"code\":\"RESOURCE_NOT_FOUND\",\"message\":\"Product not found\",\"timestamp\":\"2025-07-11T12:00:00\"}")))
+    })
+    @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, required = false,
+               description = "Client generated key; retries with the same key return the first response", example = "5f0c1a9e-7b7d-4c52-9a43-3c1e2f7d8a10")
+    public ResponseEntity<Result<CheckoutResponse>> checkout(@Valid @RequestBody CheckoutRequest request) {
+        logger.info("Processing checkout request: {}", request);
+        
+        CheckoutResponse response = ecommerceService.processCheckout(request);
+        
+        logger.info("Checkout completed successfully: {}", response.getOrderNumber());
+        return ResponseEntity.ok(Result.successWithMessage("Checkout completed successfully", response));
+    }
+    
+    /**
+     * Reserve Product (API v1)
+     * POST /api/v1/ecommerce/reservations
+     */
+    @Idempotent
+    @PostMapping("/reservations")
+    @Operation(summary = "Reserve Product", description = "Hold inventory for a new order that is paid later. " +
+               "The hold is released and the order cancelled if it is not paid within the order timeout")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Inventory reserved",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = Result.class),
+                                     examples = @ExampleObject(
+                                         name = "Success Response",
+                                         value = "{\"code\":\"SUCCESS\",\"message\":\"Inventory reserved, awaiting payment\",\"data\":{\"orderNumber\":\"ORD0202031235072000001\",\"userId\":1,\"merchantId\":1,\"sku\":\"PHONE-001\",\"productName\":\"iPhone 16 Pro\",\"quantity\":1,\"totalAmount\":{\"amount\":7999.00,\"currency\":\"CNY\"},\"expiresAt\":\"2025-07-11T12:30:00\"},\"timestamp\":\"2025-07-11T12:00:00\"}"))),
+        @ApiResponse(responseCode = "400", description = "Invalid request data or insufficient inventory",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ErrorResponse.class),
+                                     examples = @ExampleObject(
+                                         name = "Insufficient Inventory",
+                                         value = "{\"code\":\"INSUFFICIENT_INVENTORY\",\"message\":\"Insufficient product inventory\",\"timestamp\":\"2025-07-11T12:00:00\"}"))),
+        @ApiResponse(responseCode = "404", description = "User, product, or merchant not found",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ErrorResponse.class),
+                                     examples = @ExampleObject(
+                                         name = "Product Not Found",
+                                         value = "{\"code\":\"RESOURCE_NOT_FOUND\",\"message\":\"Product not found\",\"timestamp\":\"2025-07-11T12:00:00\"}")))
+    })
+    @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, required = false,
+               description = "Client generated key; retries with the same key return the first response", example = "5f0c1a9e-7b7d-4c52-9a43-3c1e2f7d8a10")
+    public ResponseEntity<Result<ReservationResponse>> reserveProduct(@Valid @RequestBody PurchaseRequest request) {
+        logger.info("Processing reservation request: {}", request);
+        
+        ReservationResponse response = ecommerceService.reservePurchase(request);
+        
+        logger.info("Inventory reserved for order {} until {}", response.getOrderNumber(), response.getExpiresAt());
+        return ResponseEntity.ok(Result.successWithMessage("Inventory reserved, awaiting payment", response));
+    }
+    
+    /**
+     * Pay Reserved Order (API v1)
+     * POST /api/v1/ecommerce/orders/{orderNumber}/pay
+     */
+    @Idempotent
+    @PostMapping("/orders/{orderNumber}/pay")
+    @ApiTimeout(value = 10, unit = TimeUnit.SECONDS, message = "Payment operation timeout")
+    @Operation(summary = "Pay Reserved Order", description = "Pay an order whose inventory is reserved and complete it")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Order paid and completed",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = Result.class),
+                                     examples = @ExampleObject(
+                                         name = "Success Response",
+                                         value = "{\"code\":\"SUCCESS\",\"message\":\"Payment completed successfully\",\"data\":{\"orderNumber\":\"ORD0202031235072000001\",\"userId\":1,\"merchantId\":1,\"sku\":\"PHONE-001\",\"productName\":\"iPhone 16 Pro\",\"quantity\":1,\"totalAmount\":{\"amount\":7999.00,\"currency\":\"CNY\"}},\"timestamp\":\"2025-07-11T12:00:00\"}"))),
+        @ApiResponse(responseCode = "400", description = "Order expired, already paid, or insufficient balance",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ErrorResponse.class),
+                                     examples = @ExampleObject(
+                                         name = "Reservation Expired",
+                                         value = "{\"code\":\"OPERATION_NOT_ALLOWED\",\"message\":\"Order was cancelled or its reservation expired: ORD0202031235072000001\",\"timestamp\":\"2025-07-11T12:00:00\"}"))),
+        @ApiResponse(responseCode = "404", description = "Order not found",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ErrorResponse.class),
+                                     examples = @ExampleObject(
+                                         name = "Order Not Found",
+                                         value = "{\"code\":\"RESOURCE_NOT_FOUND\",\"message\":\"Order not found\",\"timestamp\":\"2025-07-11T12:00:00\"}")))
+    })
+    @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, required = false,
+               description = "Client generated key; retries with the same key return the first response", example = "5f0c1a9e-7b7d-4c52-9a43-3c1e2f7d8a10")
+    public ResponseEntity<Result<PurchaseResponse>> payOrder(
+            @Parameter(description = "Order number", required = true, example = "ORD0202031235072000001")
+            @PathVariable String orderNumber) {
+        logger.info("Processing payment for order: {}", orderNumber);
+        
+        PurchaseResponse response = ecommerceService.payOrder(orderNumber);
+        
+        logger.info("Payment completed for order: {}", orderNumber);
+        return ResponseEntity.ok(Result.successWithMessage("Payment completed successfully", response));
+    }
+    
     /**
      * Cancel Order (API v1)
      * POST /api/v1/ecommerce/orders/{orderNumber}/cancel
@@ -102,7 +281,7 @@ public class EcommerceController {
                                      schema = @Schema(implementation = Result.class),
                                      examples = @ExampleObject(
                                          name = "Success Response",
-                                         value = "{\"code\":\"SUCCESS\",\"message\":\"Order cancelled successfully\",\"data\":{\"orderNumber\":\"ORD-2025-001\",\"reason\":\"Customer request\"},\"timestamp\":\"2025-07-11T12:00:00\"}"))),
+                                         value = "{\"code\":\"SUCCESS\",\"message\":\"Order cancelled successfully\",\"data\":{\"orderNumber\":\"ORD0202031235072000001\",\"reason\":\"Customer request\"},\"timestamp\":\"2025-07-11T12:00:00\"}"))),
         @ApiResponse(responseCode = "400", description = "Invalid request data",
                     content = @Content(mediaType = "application/json", 
                                      schema = @Schema(implementation = ErrorResponse.class),
@@ -117,7 +296,7 @@ public class EcommerceController {
                                          value = "{\"code\":\"RESOURCE_NOT_FOUND\",\"message\":\"Order not found\",\"timestamp\":\"2025-07-11T12:00:00\"}")))
     })
     public ResponseEntity<Result<Map<String, Object>>> cancelOrder(
-            @Parameter(description = "Order number", required = true, example = "ORD-2025-001")
+            @Parameter(description = "Order number", required = true, example = "ORD0202031235072000001")
             @PathVariable String orderNumber, 
             @Valid @RequestBody CancelOrderRequest request) {
         logger.info("Cancelling order: {} with reason: {}", orderNumber, request.getReason());
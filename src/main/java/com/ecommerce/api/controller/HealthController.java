@@ -1,6 +1,7 @@
 package com.ecommerce.api.controller;
 
 import com.ecommerce.api.dto.Result;
+import com.ecommerce.domain.PlatformClock;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,7 +13,6 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
@@ -38,13 +38,13 @@ public class HealthController {
     public ResponseEntity<Result<Map<String, Object>>> health() {
         Map<String, Object> healthInfo = new HashMap<>();
         healthInfo.put("status", "UP");
-        healthInfo.put("timestamp", LocalDateTime.now());
+        healthInfo.put("timestamp", PlatformClock.now());
         healthInfo.put("service", "ecommerce-platform");
         healthInfo.put("version", "1.0.0");
         
         // Add proper headers including Date
         HttpHeaders headers = new HttpHeaders();
-        headers.set("Date", LocalDateTime.now().format(DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss")));
+        headers.set("Date", PlatformClock.now().format(DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss")));
         
         return ResponseEntity.ok()
                 .headers(headers)
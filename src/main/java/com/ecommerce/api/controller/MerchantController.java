@@ -40,6 +40,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import com.ecommerce.api.dto.ErrorResponse;
 import com.ecommerce.domain.settlement.Settlement;
+import com.ecommerce.domain.PlatformClock;
 
 /**
  * Merchant Controller (API v1)
@@ -324,6 +325,48 @@ public class MerchantController {
         return ResponseEntity.ok(Result.success(response));
     }
     
+    /**
+     * Mark Product Hot (API v1)
+     * PUT /api/v1/merchants/{merchantId}/products/{sku}/hot
+     */
+    @PutMapping("/{merchantId}/products/{sku}/hot")
+    @Operation(summary = "Mark Product Hot", description = "Switch a product in or out of flash-sale mode, where its stock is split over sharded counters")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Flash-sale mode updated successfully",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = Result.class),
+                                     examples = @ExampleObject(
+                                         name = "Success Response",
+                                         value = "{\"code\":\"SUCCESS\",\"message\":\"Operation completed successfully\",\"data\":{\"sku\":\"PHONE-001\",\"productName\":\"iPhone 15 Pro\",\"hot\":true,\"availableInventory\":50},\"timestamp\":\"2025-07-11T12:00:00\"}"))),
+        @ApiResponse(responseCode = "404", description = "Merchant or product not found",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ErrorResponse.class),
+                                     examples = @ExampleObject(
+                                         name = "Product Not Found",
+                                         value = "{\"code\":\"RESOURCE_NOT_FOUND\",\"message\":\"Product not found\",\"timestamp\":\"2025-07-11T12:00:00\"}")))
+    })
+    public ResponseEntity<Result<HotProductResponse>> markProductHot(
+            @Parameter(description = "Merchant ID", required = true, example = "1")
+            @PathVariable Long merchantId,
+            @Parameter(description = "Product SKU", required = true, example = "PHONE-001")
+            @PathVariable String sku,
+            @Valid @RequestBody HotProductRequest request) {
+        logger.info("Setting flash-sale mode for merchant {}, product {}: hot={}", merchantId, sku, request.isHot());
+        
+        validateMerchantAndProduct(merchantId, sku);
+        
+        Product product = productService.markProductHot(sku, request.isHot());
+        
+        HotProductResponse response = new HotProductResponse(
+            product.getSku(),
+            product.getName(),
+            product.isHot(),
+            product.getAvailableInventory()
+        );
+        
+        return ResponseEntity.ok(Result.success(response));
+    }
+    
     /**
      * Validates that merchant exists and product belongs to the merchant
      */
@@ -406,7 +449,7 @@ public class MerchantController {
         // Use provided date or default to today
         LocalDate settlementDate = (request != null && request.getSettlementDate() != null) 
             ? request.getSettlementDate() 
-            : LocalDate.now();
+            : PlatformClock.now().toLocalDate();
         
         Settlement settlement = settlementService.executeMerchantSettlement(merchantId, settlementDate);
         
@@ -448,14 +491,14 @@ public class MerchantController {
         // Use provided date or default to today
         LocalDate settlementDate = (request != null && request.getSettlementDate() != null) 
             ? request.getSettlementDate() 
-            : LocalDate.now();
+            : PlatformClock.now().toLocalDate();
         
         // Execute global settlement
         settlementService.executeSettlement();
         
         GlobalSettlementResponse response = new GlobalSettlementResponse(
             settlementDate,
-            LocalDateTime.now()
+            PlatformClock.now()
         );
         
         logger.info("Global settlement completed for date: {}", settlementDate);
@@ -841,6 +884,45 @@ public class MerchantController {
         public void setQuantity(int quantity) { this.quantity = quantity; }
     }
     
+    @Schema(description = "Flash-sale mode request")
+    public static class HotProductRequest {
+        @Schema(description = "Whether the product is in flash-sale mode", example = "true", required = true)
+        private boolean hot;
+        
+        public HotProductRequest() {}
+        
+        public boolean isHot() { return hot; }
+        public void setHot(boolean hot) { this.hot = hot; }
+    }
+    
+    @Schema(description = "Flash-sale mode response")
+    public static class HotProductResponse {
+        @Schema(description = "Product SKU", example = "PHONE-001")
+        private String sku;
+        
+        @Schema(description = "Product name", example = "iPhone 15 Pro")
+        private String productName;
+        
+        @Schema(description = "Whether the product is in flash-sale mode", example = "true")
+        private boolean hot;
+        
+        @Schema(description = "Available inventory", example = "100")
+        private int availableInventory;
+        
+        public HotProductResponse(String sku, String productName, boolean hot, int availableInventory) {
+            this.sku = sku;
+            this.productName = productName;
+            this.hot = hot;
+            this.availableInventory = availableInventory;
+        }
+        
+        // Getters
+        public String getSku() { return sku; }
+        public String getProductName() { return productName; }
+        public boolean isHot() { return hot; }
+        public int getAvailableInventory() { return availableInventory; }
+    }
+    
     @Schema(description = "Inventory operation response")
     public static class InventoryResponse {
         @Schema(description = "Product SKU", example = "PHONE-001")
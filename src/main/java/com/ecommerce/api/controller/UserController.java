@@ -1,9 +1,13 @@
 package com.ecommerce.api.controller;
 
+import com.ecommerce.application.dto.OrderHistoryPage;
+import com.ecommerce.application.service.OrderService;
 import com.ecommerce.application.service.UserService;
 import com.ecommerce.domain.Money;
 import com.ecommerce.domain.user.User;
+import com.ecommerce.domain.user.UserNotFoundException;
 import com.ecommerce.api.dto.Result;
+import com.ecommerce.api.annotation.Idempotent;
 import com.ecommerce.api.annotation.ApiVersion;
 import com.ecommerce.api.config.ApiVersionConfig;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +25,7 @@ import org.springframework.context.annotation.Profile;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -28,8 +33,11 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import com.ecommerce.api.dto.ErrorResponse;
+import com.ecommerce.domain.PlatformClock;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import jakarta.validation.constraints.NotNull;
 
@@ -46,9 +54,11 @@ public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
     
     private final UserService userService;
+    private final OrderService orderService;
     
-    public UserController(UserService userService) {
+    public UserController(UserService userService, OrderService orderService) {
         this.userService = userService;
+        this.orderService = orderService;
     }
     
     /**
@@ -151,6 +161,7 @@ public class UserController {
      * Recharge User Account (API v1)
      * POST /api/v1/users/{userId}/recharge
      */
+    @Idempotent
     @PostMapping("/{userId}/recharge")
     @Operation(summary = "Recharge User Account", description = "Add funds to user's account balance")
     @ApiResponses(value = {
@@ -173,6 +184,8 @@ public class UserController {
                                          name = "User Not Found",
                                          value = "{\"code\":\"RESOURCE_NOT_FOUND\",\"message\":\"User not found\",\"timestamp\":\"2025-07-11T12:00:00\"}")))
     })
+    @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, required = false,
+               description = "Client generated key; retries with the same key return the first response", example = "5f0c1a9e-7b7d-4c52-9a43-3c1e2f7d8a10")
     public ResponseEntity<Result<BalanceResponse>> rechargeUser(
             @Parameter(description = "User ID", required = true, example = "1")
             @PathVariable Long userId,
@@ -230,6 +243,66 @@ public class UserController {
         return ResponseEntity.ok(Result.success(response));
     }
 
+    /**
+     * Get User Orders (API v1)
+     * GET /api/v1/users/{userId}/orders?cursor=...&limit=20
+     * 
+     * Newest orders first. Pages are keyed on (orderTime, id): pass nextCursor of the
+     * previous page as cursor to get the next one.
+     */
+    @GetMapping("/{userId}/orders")
+    @Operation(summary = "Get User Orders", description = "List a user's orders, newest first, with cursor pagination")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Orders retrieved successfully",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = Result.class),
+                                     examples = @ExampleObject(
+                                         name = "Success Response",
+                                         value = "{\"code\":\"SUCCESS\",\"message\":\"Operation completed successfully\",\"data\":{\"userId\":1,\"orders\":[{\"orderNumber\":\"ORD0202031235072000001\",\"merchantId\":2,\"status\":\"COMPLETED\",\"totalAmount\":178.00,\"currency\":\"CNY\",\"totalQuantity\":2,\"orderTime\":\"2025-07-11T12:00:00\"}],\"count\":1,\"nextCursor\":null,\"hasMore\":false},\"timestamp\":\"2025-07-11T12:00:00\"}"))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ErrorResponse.class),
+                                     examples = @ExampleObject(
+                                         name = "Invalid Cursor",
+                                         value = "{\"code\":\"VALIDATION_ERROR\",\"message\":\"Invalid cursor: abc\",\"timestamp\":\"2025-07-11T12:00:00\"}"))),
+        @ApiResponse(responseCode = "404", description = "User not found",
+                    content = @Content(mediaType = "application/json", 
+                                     schema = @Schema(implementation = ErrorResponse.class),
+                                     examples = @ExampleObject(
+                                         name = "User Not Found",
+                                         value = "{\"code\":\"RESOURCE_NOT_FOUND\",\"message\":\"User not found\",\"timestamp\":\"2025-07-11T12:00:00\"}")))
+    })
+    public ResponseEntity<Result<UserOrderListResponse>> getUserOrders(
+            @Parameter(description = "User ID", required = true, example = "1")
+            @PathVariable Long userId,
+            @Parameter(description = "nextCursor of the previous page; omit for the first page", required = false)
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Page size (1-100)", required = false, example = "20")
+            @RequestParam(value = "limit", defaultValue = "" + OrderService.DEFAULT_PAGE_SIZE) int limit) {
+        if (!userService.userExists(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        
+        OrderHistoryPage page = orderService.getUserOrders(userId, cursor, limit);
+        
+        List<UserOrderResponse> orders = page.orders().stream()
+            .map(order -> new UserOrderResponse(
+                order.getOrderNumber(),
+                order.getMerchantId(),
+                order.getStatus().toString(),
+                order.getTotalAmount() != null ? order.getTotalAmount().getAmount() : null,
+                order.getTotalAmount() != null ? order.getTotalAmount().getCurrency() : null,
+                order.getTotalQuantity(),
+                order.getOrderTime()
+            ))
+            .toList();
+        
+        UserOrderListResponse response = new UserOrderListResponse(
+            userId, orders, orders.size(), page.nextCursor(), page.hasMore());
+        
+        return ResponseEntity.ok(Result.success(response));
+    }
+
     /**
      * Get All User IDs (Debug) (API v1)
      * GET /api/v1/users/debug/all-ids
@@ -245,7 +318,7 @@ public class UserController {
         var response = new java.util.HashMap<String, Object>();
         response.put("totalUsers", userCount);
         response.put("existingUserIds", userIds);
-        response.put("timestamp", java.time.LocalDateTime.now());
+        response.put("timestamp", PlatformClock.now());
         
         logger.info("Debug: Current system has {} users with IDs: {}", userCount, userIds);
         return ResponseEntity.ok(Result.successWithMessage("Debug information retrieved successfully", response));
@@ -406,5 +479,81 @@ public class UserController {
         public String getCurrency() { return currency; }
     }
     
-
-} 
\ No newline at end of file
+    @Schema(description = "Order in a user's order history")
+    public static class UserOrderResponse {
+        @Schema(description = "Order number", example = "ORD0202031235072000001")
+        private String orderNumber;
+        
+        @Schema(description = "Merchant ID", example = "2")
+        private Long merchantId;
+        
+        @Schema(description = "Order status", example = "COMPLETED")
+        private String status;
+        
+        @Schema(description = "Order total", example = "178.00")
+        private BigDecimal totalAmount;
+        
+        @Schema(description = "Currency code", example = "CNY")
+        private String currency;
+        
+        @Schema(description = "Total quantity of all items", example = "2")
+        private int totalQuantity;
+        
+        @Schema(description = "Time the order was placed", example = "2025-07-11T12:00:00")
+        private LocalDateTime orderTime;
+        
+        public UserOrderResponse(String orderNumber, Long merchantId, String status, BigDecimal totalAmount,
+                                 String currency, int totalQuantity, LocalDateTime orderTime) {
+            this.orderNumber = orderNumber;
+            this.merchantId = merchantId;
+            this.status = status;
+            this.totalAmount = totalAmount;
+            this.currency = currency;
+            this.totalQuantity = totalQuantity;
+            this.orderTime = orderTime;
+        }
+        
+        // Getters
+        public String getOrderNumber() { return orderNumber; }
+        public Long getMerchantId() { return merchantId; }
+        public String getStatus() { return status; }
+        public BigDecimal getTotalAmount() { return totalAmount; }
+        public String getCurrency() { return currency; }
+        public int getTotalQuantity() { return totalQuantity; }
+        public LocalDateTime getOrderTime() { return orderTime; }
+    }
+    
+    @Schema(description = "Page of a user's order history")
+    public static class UserOrderListResponse {
+        @Schema(description = "User ID", example = "1")
+        private Long userId;
+        
+        @Schema(description = "Orders, newest first")
+        private List<UserOrderResponse> orders;
+        
+        @Schema(description = "Number of orders on this page", example = "20")
+        private int count;
+        
+        @Schema(description = "Cursor for the next page, null on the last page")
+        private String nextCursor;
+        
+        @Schema(description = "Whether another page follows", example = "true")
+        private boolean hasMore;
+        
+        public UserOrderListResponse(Long userId, List<UserOrderResponse> orders, int count,
+                                     String nextCursor, boolean hasMore) {
+            this.userId = userId;
+            this.orders = orders;
+            this.count = count;
+            this.nextCursor = nextCursor;
+            this.hasMore = hasMore;
+        }
+        
+        // Getters
+        public Long getUserId() { return userId; }
+        public List<UserOrderResponse> getOrders() { return orders; }
+        public int getCount() { return count; }
+        public String getNextCursor() { return nextCursor; }
+        public boolean isHasMore() { return hasMore; }
+    }
+}
@@ -6,6 +6,7 @@ import com.ecommerce.domain.user.User;
 import com.ecommerce.api.dto.Result;
 import com.ecommerce.api.annotation.ApiVersion;
 import com.ecommerce.api.config.ApiVersionConfig;
+import com.ecommerce.domain.PlatformClock;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
@@ -137,7 +138,7 @@ public class UserV2Controller {
             userId,
             balance.getAmount(),
             balance.getCurrency(),
-            LocalDateTime.now(), // Use current time since we don't have user object
+            PlatformClock.now(), // Use current time since we don't have user object
             "ACTIVE" // Default to ACTIVE for simplicity
         );
         
@@ -168,7 +169,7 @@ public class UserV2Controller {
             request.getCurrency(),
             newBalance.getAmount(),
             newBalance.getCurrency(),
-            LocalDateTime.now(),
+            PlatformClock.now(),
             "COMPLETED",
             "SUCCESS"
         );
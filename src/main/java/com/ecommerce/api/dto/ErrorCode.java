@@ -21,6 +21,9 @@ public enum ErrorCode {
     RESOURCE_ALREADY_EXISTS("RESOURCE_ALREADY_EXISTS", "Resource already exists"),
     RESOURCE_INACTIVE("RESOURCE_INACTIVE", "Resource is not active"),
     OPERATION_NOT_ALLOWED("OPERATION_NOT_ALLOWED", "Operation not allowed"),
+    CONCURRENT_MODIFICATION("CONCURRENT_MODIFICATION", "Resource was modified concurrently, please retry"),
+    IDEMPOTENCY_KEY_REUSED("IDEMPOTENCY_KEY_REUSED", "Idempotency key was already used for a different request"),
+    IDEMPOTENCY_REQUEST_IN_PROGRESS("IDEMPOTENCY_REQUEST_IN_PROGRESS", "A request with this idempotency key is still in progress"),
     BUSINESS_ERROR("BUSINESS_ERROR", "Business logic error"),
     
     // System Errors
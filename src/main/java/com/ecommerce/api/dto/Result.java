@@ -1,5 +1,6 @@
 package com.ecommerce.api.dto;
 
+import com.ecommerce.domain.PlatformClock;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.time.LocalDateTime;
@@ -28,7 +29,7 @@ public class Result<T> {
         this.code = code;
         this.message = message;
         this.data = data;
-        this.timestamp = LocalDateTime.now();
+        this.timestamp = PlatformClock.now();
     }
     
     /**
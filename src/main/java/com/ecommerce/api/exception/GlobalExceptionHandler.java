@@ -4,6 +4,7 @@ import com.ecommerce.api.dto.ErrorCode;
 import com.ecommerce.api.dto.Result;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
@@ -166,6 +167,17 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(result);
     }
     
+    /**
+     * Handle optimistic locking conflicts that were not resolved by retrying
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Result<Void>> handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        logger.warn("Concurrent modification: {}", e.getMessage());
+        
+        Result<Void> result = Result.error(ErrorCode.CONCURRENT_MODIFICATION, ErrorCode.CONCURRENT_MODIFICATION.getDefaultMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+    }
+    
     /**
      * Handle runtime exceptions (fallback for legacy code)
      */
@@ -190,9 +202,12 @@ public class GlobalExceptionHandler {
             case VALIDATION_ERROR, BIND_ERROR, INSUFFICIENT_BALANCE, 
                  INSUFFICIENT_INVENTORY, INSUFFICIENT_FUNDS, OPERATION_NOT_ALLOWED,
                  INVALID_SETTLEMENT_DATE, BUSINESS_ERROR -> HttpStatus.BAD_REQUEST;
-            case RESOURCE_ALREADY_EXISTS -> HttpStatus.CONFLICT;
+            case RESOURCE_ALREADY_EXISTS, CONCURRENT_MODIFICATION,
+                 IDEMPOTENCY_REQUEST_IN_PROGRESS -> HttpStatus.CONFLICT;
+            case IDEMPOTENCY_KEY_REUSED -> HttpStatus.UNPROCESSABLE_ENTITY;
             case RESOURCE_INACTIVE -> HttpStatus.FORBIDDEN;
             case UNSUPPORTED_API_VERSION -> HttpStatus.NOT_ACCEPTABLE;
+            case RATE_LIMIT_EXCEEDED -> HttpStatus.TOO_MANY_REQUESTS;
             case INTERNAL_ERROR, SETTLEMENT_FAILED -> HttpStatus.INTERNAL_SERVER_ERROR;
             default -> HttpStatus.INTERNAL_SERVER_ERROR;
         };
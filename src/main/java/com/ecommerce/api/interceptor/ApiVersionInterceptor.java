@@ -2,6 +2,7 @@ package com.ecommerce.api.interceptor;
 
 import com.ecommerce.api.annotation.ApiVersion;
 import com.ecommerce.api.config.ApiVersionConfig;
+import com.ecommerce.domain.PlatformClock;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
@@ -49,7 +50,7 @@ public class ApiVersionInterceptor implements HandlerInterceptor {
             response.setContentType("application/json;charset=UTF-8");
             response.getWriter().write(String.format(
                 "{\"code\":\"UNSUPPORTED_API_VERSION\",\"message\":\"API version '%s' is not supported. Current version: '%s'\",\"timestamp\":\"%s\"}",
-                requestedVersion, methodVersion.value(), java.time.LocalDateTime.now()
+                requestedVersion, methodVersion.value(), PlatformClock.now()
             ));
             return false;
         }
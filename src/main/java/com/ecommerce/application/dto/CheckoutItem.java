@@ -0,0 +1,51 @@
+package com.ecommerce.application.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Checkout Item DTO
+ * One cart line: SKU and quantity
+ */
+@Schema(description = "Cart line")
+public class CheckoutItem {
+    
+    @Schema(description = "Product SKU", example = "PHONE-001", required = true)
+    @NotBlank(message = "SKU is required")
+    private String sku;
+    
+    @Schema(description = "Purchase quantity", example = "2", required = true)
+    @Min(value = 1, message = "Quantity must be positive")
+    private int quantity;
+    
+    // Constructor
+    public CheckoutItem() {}
+    
+    public CheckoutItem(String sku, int quantity) {
+        this.sku = sku;
+        this.quantity = quantity;
+    }
+    
+    // Getters and Setters
+    public String getSku() {
+        return sku;
+    }
+    
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+    
+    @Override
+    public String toString() {
+        return "CheckoutItem{sku='" + sku + "', quantity=" + quantity + '}';
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checkout Request DTO
+ * Cart of several SKUs from one merchant, bought as a single order
+ */
+@Schema(description = "Cart checkout request")
+public class CheckoutRequest {
+    
+    public static final int MAX_ITEMS = 50;
+    
+    @Schema(description = "User ID", example = "1", required = true)
+    @NotNull(message = "User ID is required")
+    private Long userId;
+    
+    @Schema(description = "Cart lines, all from the same merchant", required = true)
+    @NotEmpty(message = "Cart must contain at least one item")
+    @Size(max = MAX_ITEMS, message = "Cart cannot contain more than " + MAX_ITEMS + " items")
+    @Valid
+    private List<CheckoutItem> items = new ArrayList<>();
+    
+    // Constructor
+    public CheckoutRequest() {}
+    
+    public CheckoutRequest(Long userId, List<CheckoutItem> items) {
+        this.userId = userId;
+        this.items = items;
+    }
+    
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public List<CheckoutItem> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<CheckoutItem> items) {
+        this.items = items;
+    }
+    
+    @Override
+    public String toString() {
+        return "CheckoutRequest{userId=" + userId + ", items=" + items + '}';
+    }
+}
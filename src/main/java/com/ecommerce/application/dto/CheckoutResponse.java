@@ -0,0 +1,110 @@
+package com.ecommerce.application.dto;
+
+import com.ecommerce.domain.Money;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+/**
+ * Checkout Response DTO
+ */
+@Schema(description = "Cart checkout response")
+public class CheckoutResponse {
+    
+    @Schema(description = "Order number", example = "ORD0202031235072000001")
+    private String orderNumber;
+    
+    @Schema(description = "User ID", example = "1")
+    private Long userId;
+    
+    @Schema(description = "Merchant ID", example = "1")
+    private Long merchantId;
+    
+    @Schema(description = "Purchased lines")
+    private List<Line> items;
+    
+    @Schema(description = "Total quantity over all lines", example = "3")
+    private int totalQuantity;
+    
+    @Schema(description = "Total amount", example = "2087.00")
+    private Money totalAmount;
+    
+    // Constructor
+    public CheckoutResponse() {}
+    
+    public CheckoutResponse(String orderNumber, Long userId, Long merchantId, List<Line> items,
+                           int totalQuantity, Money totalAmount) {
+        this.orderNumber = orderNumber;
+        this.userId = userId;
+        this.merchantId = merchantId;
+        this.items = items;
+        this.totalQuantity = totalQuantity;
+        this.totalAmount = totalAmount;
+    }
+    
+    // Getters
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public Long getMerchantId() {
+        return merchantId;
+    }
+    
+    public List<Line> getItems() {
+        return items;
+    }
+    
+    public int getTotalQuantity() {
+        return totalQuantity;
+    }
+    
+    public Money getTotalAmount() {
+        return totalAmount;
+    }
+    
+    @Override
+    public String toString() {
+        return "CheckoutResponse{orderNumber='" + orderNumber + "', userId=" + userId + ", merchantId=" + merchantId
+            + ", items=" + items + ", totalQuantity=" + totalQuantity + ", totalAmount=" + totalAmount + '}';
+    }
+    
+    /**
+     * Purchased line
+     */
+    @Schema(description = "Purchased line")
+    public static class Line {
+        
+        @Schema(description = "Product SKU", example = "PHONE-001")
+        private String sku;
+        
+        @Schema(description = "Product name", example = "iPhone 15 Pro")
+        private String productName;
+        
+        @Schema(description = "Purchase quantity", example = "1")
+        private int quantity;
+        
+        @Schema(description = "Line amount", example = "1999.00")
+        private Money subtotal;
+        
+        public Line(String sku, String productName, int quantity, Money subtotal) {
+            this.sku = sku;
+            this.productName = productName;
+            this.quantity = quantity;
+            this.subtotal = subtotal;
+        }
+        
+        public String getSku() { return sku; }
+        public String getProductName() { return productName; }
+        public int getQuantity() { return quantity; }
+        public Money getSubtotal() { return subtotal; }
+        
+        @Override
+        public String toString() {
+            return "Line{sku='" + sku + "', quantity=" + quantity + ", subtotal=" + subtotal + '}';
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.application.dto;
+
+import com.ecommerce.domain.order.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Order Cursor
+ * Position in a user's order history: the (orderTime, id) of the last order on a page
+ *
+ * Clients treat the encoded form as opaque and pass it back to get the next page.
+ */
+public record OrderCursor(LocalDateTime orderTime, Long orderId) {
+
+    private static final char SEPARATOR = '|';
+
+    public OrderCursor {
+        if (orderTime == null || orderId == null) {
+            throw new IllegalArgumentException("Cursor needs an order time and an order ID");
+        }
+    }
+
+    public static OrderCursor of(Order order) {
+        return new OrderCursor(order.getOrderTime(), order.getId());
+    }
+
+    /**
+     * URL-safe form of the cursor
+     */
+    public String encode() {
+        String raw = orderTime.toString() + SEPARATOR + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value was not produced by encode()
+     */
+    public static OrderCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + encoded);
+            }
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                                   Long.valueOf(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + encoded, e);
+        }
+    }
+}
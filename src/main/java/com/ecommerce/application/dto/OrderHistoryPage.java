@@ -0,0 +1,18 @@
+package com.ecommerce.application.dto;
+
+import com.ecommerce.domain.order.Order;
+
+import java.util.List;
+
+/**
+ * Order History Page
+ * One page of a user's orders, newest first
+ *
+ * @param nextCursor encoded OrderCursor for the following page, null on the last page
+ */
+public record OrderHistoryPage(List<Order> orders, String nextCursor) {
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -9,7 +9,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 @Schema(description = "Product purchase response")
 public class PurchaseResponse {
     
-    @Schema(description = "Order number", example = "ORD20250101001")
+    @Schema(description = "Order number", example = "ORD0202031235072000001")
     private String orderNumber;
     
     @Schema(description = "User ID", example = "1")
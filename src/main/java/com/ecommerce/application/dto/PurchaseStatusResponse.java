@@ -0,0 +1,101 @@
+package com.ecommerce.application.dto;
+
+import com.ecommerce.api.dto.ErrorCode;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Purchase Status Response DTO
+ * State of a purchase accepted by the asynchronous pipeline
+ */
+@Schema(description = "Asynchronous purchase status")
+public class PurchaseStatusResponse {
+
+    /**
+     * Purchase processing state
+     */
+    public enum Status {
+        PENDING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Schema(description = "Order number", example = "ORD0202031235072000001")
+    private String orderNumber;
+
+    @Schema(description = "Processing status", example = "COMPLETED")
+    private Status status;
+
+    @Schema(description = "Purchase result, present once completed")
+    private PurchaseResponse result;
+
+    @Schema(description = "Error code, present when failed", example = "INSUFFICIENT_INVENTORY")
+    private String errorCode;
+
+    @Schema(description = "Error message, present when failed", example = "Insufficient inventory. Required: 2, Available: 1")
+    private String errorMessage;
+
+    // Constructor
+    public PurchaseStatusResponse() {}
+
+    public PurchaseStatusResponse(String orderNumber, Status status, PurchaseResponse result,
+                                  String errorCode, String errorMessage) {
+        this.orderNumber = orderNumber;
+        this.status = status;
+        this.result = result;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+    }
+
+    public static PurchaseStatusResponse pending(String orderNumber) {
+        return new PurchaseStatusResponse(orderNumber, Status.PENDING, null, null, null);
+    }
+
+    public static PurchaseStatusResponse completed(PurchaseResponse result) {
+        return new PurchaseStatusResponse(result.getOrderNumber(), Status.COMPLETED, result, null, null);
+    }
+
+    public static PurchaseStatusResponse failed(String orderNumber, ErrorCode errorCode, String errorMessage) {
+        return new PurchaseStatusResponse(orderNumber, Status.FAILED, null, errorCode.getCode(), errorMessage);
+    }
+
+    // Getters and Setters
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public PurchaseResponse getResult() {
+        return result;
+    }
+
+    public void setResult(PurchaseResponse result) {
+        this.result = result;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public void setErrorCode(String errorCode) {
+        this.errorCode = errorCode;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
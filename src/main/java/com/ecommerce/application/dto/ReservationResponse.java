@@ -0,0 +1,117 @@
+package com.ecommerce.application.dto;
+
+import com.ecommerce.domain.Money;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+
+/**
+ * Reservation Response DTO
+ * Inventory held for an order that still has to be paid
+ */
+@Schema(description = "Inventory reservation awaiting payment")
+public class ReservationResponse {
+
+    @Schema(description = "Order number", example = "ORD0202031235072000001")
+    private String orderNumber;
+
+    @Schema(description = "User ID", example = "1")
+    private Long userId;
+
+    @Schema(description = "Merchant ID", example = "1")
+    private Long merchantId;
+
+    @Schema(description = "Product SKU", example = "PHONE-001")
+    private String sku;
+
+    @Schema(description = "Product name", example = "iPhone 15 Pro")
+    private String productName;
+
+    @Schema(description = "Reserved quantity", example = "2")
+    private int quantity;
+
+    @Schema(description = "Amount due", example = "1998.00")
+    private Money totalAmount;
+
+    @Schema(description = "Time the reservation is released unless paid", example = "2025-07-11T12:30:00")
+    private LocalDateTime expiresAt;
+
+    // Constructor
+    public ReservationResponse() {}
+
+    public ReservationResponse(String orderNumber, Long userId, Long merchantId, String sku,
+                              String productName, int quantity, Money totalAmount, LocalDateTime expiresAt) {
+        this.orderNumber = orderNumber;
+        this.userId = userId;
+        this.merchantId = merchantId;
+        this.sku = sku;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.totalAmount = totalAmount;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getMerchantId() {
+        return merchantId;
+    }
+
+    public void setMerchantId(Long merchantId) {
+        this.merchantId = merchantId;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public Money getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Money totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
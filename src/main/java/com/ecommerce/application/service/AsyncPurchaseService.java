@@ -0,0 +1,202 @@
+package com.ecommerce.application.service;
+
+import com.ecommerce.api.dto.ErrorCode;
+import com.ecommerce.api.exception.BusinessException;
+import com.ecommerce.application.dto.PurchaseRequest;
+import com.ecommerce.application.dto.PurchaseResponse;
+import com.ecommerce.application.dto.PurchaseStatusResponse;
+import com.ecommerce.infrastructure.id.OrderNumberGenerator;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Async Purchase Service
+ * Accepts purchases, hands out the order number immediately and runs the purchase
+ * later on a virtual thread, so the request thread is released right away.
+ *
+ * Purchases are chained per user and per SKU: each one starts only after the previous
+ * purchase of the same user and the previous purchase of the same SKU have finished.
+ * Both chain tails are swapped under one short lock, so two purchases can never wait
+ * on each other. Results are kept in a bounded status store for polling.
+ */
+@Service
+public class AsyncPurchaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncPurchaseService.class);
+
+    public static final int DEFAULT_STATUS_CAPACITY = 10_000;
+    public static final int DEFAULT_MAX_PENDING = 10_000;
+
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+    private final EcommerceService ecommerceService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final boolean enabled;
+    private final int statusCapacity;
+    private final int maxPending;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ReentrantLock enqueueLock = new ReentrantLock();
+    private final Map<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+    private final Map<String, PurchaseStatusResponse> statuses = new ConcurrentHashMap<>();
+    private final Queue<String> statusOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public AsyncPurchaseService(EcommerceService ecommerceService, OrderNumberGenerator orderNumberGenerator,
+                              boolean enabled) {
+        this(ecommerceService, orderNumberGenerator, enabled, DEFAULT_STATUS_CAPACITY, DEFAULT_MAX_PENDING);
+    }
+
+    @Autowired
+    public AsyncPurchaseService(EcommerceService ecommerceService, OrderNumberGenerator orderNumberGenerator,
+                              @Value("${ecommerce.purchase.async.enabled:false}") boolean enabled,
+                              @Value("${ecommerce.purchase.async.status-capacity:10000}") int statusCapacity,
+                              @Value("${ecommerce.purchase.async.max-pending:10000}") int maxPending) {
+        if (statusCapacity <= 0 || maxPending <= 0) {
+            throw new IllegalArgumentException("Status capacity and max pending must be positive");
+        }
+        this.ecommerceService = ecommerceService;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.enabled = enabled;
+        this.statusCapacity = statusCapacity;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Accept a purchase for background processing
+     * Returns the pending status carrying the order number the purchase will complete under
+     */
+    public PurchaseStatusResponse submit(PurchaseRequest request) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            throw new BusinessException(ErrorCode.RATE_LIMIT_EXCEEDED,
+                "Too many purchases in progress, please retry later");
+        }
+
+        String orderNumber = orderNumberGenerator.nextOrderNumber();
+        PurchaseStatusResponse accepted = PurchaseStatusResponse.pending(orderNumber);
+        recordStatus(accepted);
+
+        String userKey = "user:" + request.getUserId();
+        String skuKey = "sku:" + request.getSku();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> previousForUser;
+        CompletableFuture<Void> previousForSku;
+        enqueueLock.lock();
+        try {
+            previousForUser = tails.put(userKey, done);
+            previousForSku = tails.put(skuKey, done);
+        } finally {
+            enqueueLock.unlock();
+        }
+
+        CompletableFuture.allOf(orDone(previousForUser), orDone(previousForSku))
+            .whenComplete((ignored, error) -> dispatch(request, orderNumber, done, userKey, skuKey));
+        return accepted;
+    }
+
+    /**
+     * Get the status of an accepted purchase
+     */
+    public Optional<PurchaseStatusResponse> getStatus(String orderNumber) {
+        return Optional.ofNullable(statuses.get(orderNumber));
+    }
+
+    /**
+     * Number of accepted purchases that have not finished yet
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Let accepted purchases finish before the application stops
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Async purchase pipeline stopped with {} purchases still pending", pending.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch(PurchaseRequest request, String orderNumber, CompletableFuture<Void> done,
+                          String userKey, String skuKey) {
+        try {
+            executor.execute(() -> process(request, orderNumber, done, userKey, skuKey));
+        } catch (RejectedExecutionException e) {
+            updateStatus(PurchaseStatusResponse.failed(orderNumber, ErrorCode.INTERNAL_ERROR,
+                "Purchase pipeline is shutting down"));
+            finish(done, userKey, skuKey);
+        }
+    }
+
+    private void process(PurchaseRequest request, String orderNumber, CompletableFuture<Void> done,
+                         String userKey, String skuKey) {
+        try {
+            PurchaseResponse response = ecommerceService.processPurchase(request, orderNumber);
+            updateStatus(PurchaseStatusResponse.completed(response));
+        } catch (BusinessException e) {
+            updateStatus(PurchaseStatusResponse.failed(orderNumber, e.getErrorCode(), e.getMessage()));
+        } catch (RuntimeException e) {
+            logger.error("Async purchase {} failed", orderNumber, e);
+            updateStatus(PurchaseStatusResponse.failed(orderNumber, ErrorCode.INTERNAL_ERROR,
+                "Purchase failed: " + e.getMessage()));
+        } finally {
+            finish(done, userKey, skuKey);
+        }
+    }
+
+    private void finish(CompletableFuture<Void> done, String userKey, String skuKey) {
+        // Only drop the tails if no later purchase has queued behind this one
+        tails.remove(userKey, done);
+        tails.remove(skuKey, done);
+        pending.decrementAndGet();
+        done.complete(null);
+    }
+
+    private void recordStatus(PurchaseStatusResponse status) {
+        statuses.put(status.getOrderNumber(), status);
+        statusOrder.offer(status.getOrderNumber());
+        // Evict oldest statuses first
+        while (statuses.size() > statusCapacity) {
+            String oldest = statusOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            statuses.remove(oldest);
+        }
+    }
+
+    private void updateStatus(PurchaseStatusResponse status) {
+        // A status already evicted stays evicted
+        statuses.replace(status.getOrderNumber(), status);
+    }
+
+    private static CompletableFuture<Void> orDone(CompletableFuture<Void> future) {
+        return future == null ? DONE : future;
+    }
+}
@@ -7,74 +7,338 @@ import com.ecommerce.domain.product.Product;
 import com.ecommerce.domain.order.Order;
 import com.ecommerce.application.dto.PurchaseRequest;
 import com.ecommerce.application.dto.PurchaseResponse;
+import com.ecommerce.application.dto.CheckoutItem;
+import com.ecommerce.application.dto.CheckoutRequest;
+import com.ecommerce.application.dto.CheckoutResponse;
+import com.ecommerce.application.dto.ReservationResponse;
+import com.ecommerce.infrastructure.concurrency.OptimisticRetry;
+import com.ecommerce.infrastructure.concurrency.PurchaseLockManager;
+import com.ecommerce.infrastructure.concurrency.StripedLocks.LockHandle;
+import com.ecommerce.infrastructure.id.OrderNumberGenerator;
+import com.ecommerce.infrastructure.id.SnowflakeOrderNumberGenerator;
+import com.ecommerce.infrastructure.scheduler.OrderExpiryScheduler;
+import com.ecommerce.infrastructure.transaction.TransactionEffects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Ecommerce Service
  * Handles the complete business process of user purchasing products
  * 
  * Performance Notes:
- * - For high-concurrency scenarios, consider implementing optimistic locking
+ * - Concurrent purchases are coordinated by PurchaseLockManager (striped locks on user, SKU and merchant by default)
+ * - Products with live inventory counters skip the SKU lock: stock is reserved by compare-and-set
+ * - Merchants with live income skip the merchant lock: sales are credited to a striped accumulator
  * - Inventory deduction could benefit from distributed locks (Redis) in clustered environments
- * - Order number generation is now thread-safe and includes business context
+ * - Order numbers come from a lock-free OrderNumberGenerator (time + node + sequence, unique across nodes)
+ * - Unpaid reservations expire through a hashed timer wheel rather than scans of the order repository
+ * - Saves are version-checked; an operation whose first save loses the race is re-run by
+ *   OptimisticRetry with a short backoff, re-reading everything it touches
+ * - The retried operations are not @Transactional themselves: with JPA, OptimisticRetry runs
+ *   every attempt in a transaction of its own, as a conflict dooms the transaction it occurs in
  */
 @Service
 public class EcommerceService {
     
+    private static final Logger logger = LoggerFactory.getLogger(EcommerceService.class);
+    
     private final UserService userService;
     private final MerchantService merchantService;
     private final ProductService productService;
     private final OrderService orderService;
-    
-    // Order number generation - format: ORD202507110001 (12 chars, supports 9999 orders/day)
-    private static final AtomicLong orderSequence = new AtomicLong(1);
-    private static final DateTimeFormatter ORDER_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
-    private static volatile String lastOrderDate = "";
+    private final PurchaseLockManager purchaseLockManager;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OrderExpiryScheduler orderExpiryScheduler;
+    private final OptimisticRetry optimisticRetry;
     
     public EcommerceService(UserService userService, MerchantService merchantService,
                           ProductService productService, OrderService orderService) {
+        this(userService, merchantService, productService, orderService, PurchaseLockManager.striped());
+    }
+    
+    public EcommerceService(UserService userService, MerchantService merchantService,
+                          ProductService productService, OrderService orderService,
+                          PurchaseLockManager purchaseLockManager) {
+        this(userService, merchantService, productService, orderService, purchaseLockManager,
+             new SnowflakeOrderNumberGenerator(0));
+    }
+    
+    public EcommerceService(UserService userService, MerchantService merchantService,
+                          ProductService productService, OrderService orderService,
+                          PurchaseLockManager purchaseLockManager, OrderNumberGenerator orderNumberGenerator) {
+        this(userService, merchantService, productService, orderService, purchaseLockManager, orderNumberGenerator,
+             new OrderExpiryScheduler(Duration.ofMinutes(30)));
+    }
+    
+    public EcommerceService(UserService userService, MerchantService merchantService,
+                          ProductService productService, OrderService orderService,
+                          PurchaseLockManager purchaseLockManager, OrderNumberGenerator orderNumberGenerator,
+                          OrderExpiryScheduler orderExpiryScheduler) {
+        this(userService, merchantService, productService, orderService, purchaseLockManager, orderNumberGenerator,
+             orderExpiryScheduler, OptimisticRetry.withDefaults());
+    }
+    
+    @Autowired
+    public EcommerceService(UserService userService, MerchantService merchantService,
+                          ProductService productService, OrderService orderService,
+                          PurchaseLockManager purchaseLockManager, OrderNumberGenerator orderNumberGenerator,
+                          OrderExpiryScheduler orderExpiryScheduler, OptimisticRetry optimisticRetry) {
         this.userService = userService;
         this.merchantService = merchantService;
         this.productService = productService;
         this.orderService = orderService;
+        this.purchaseLockManager = purchaseLockManager;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.orderExpiryScheduler = orderExpiryScheduler;
+        this.optimisticRetry = optimisticRetry;
     }
     
     /**
      * Process purchase request
      * Complete business flow: validate -> create order -> deduct inventory -> confirm order -> deduct money -> add money -> complete order
      * Requires transaction due to multiple atomic operations
+     * 
+     * Validation, execution and saving run while holding the purchase locks for
+     * (userId, sku, merchantId), so two buyers of the same SKU cannot both pass the
+     * inventory check, while purchases on unrelated keys proceed in parallel.
+     * Writers outside the locks (recharges, inventory updates) are caught by the
+     * version check on save, and the purchase is retried.
      */
-    @Transactional
     public PurchaseResponse processPurchase(PurchaseRequest request) {
+        return processPurchase(request, orderNumberGenerator.nextOrderNumber());
+    }
+    
+    /**
+     * Process purchase request under an order number that was handed out beforehand,
+     * e.g. by the asynchronous pipeline which answers the client before the work runs
+     */
+    public PurchaseResponse processPurchase(PurchaseRequest request, String orderNumber) {
         try {
-            // 1. Validate and prepare purchase entities
+            return optimisticRetry.execute("purchase", () -> attemptPurchase(request, orderNumber));
+            
+        } catch (com.ecommerce.api.exception.BusinessException e) {
+            // Business exceptions should be re-thrown as-is to preserve error codes
+            throw e;
+        } catch (OptimisticLockingFailureException e) {
+            throw concurrentModification("Purchase", e);
+        } catch (Exception e) {
+            // System exceptions get wrapped with generic error code
+            throw new com.ecommerce.api.exception.BusinessException(
+                com.ecommerce.api.dto.ErrorCode.INTERNAL_ERROR, 
+                "Purchase failed: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * One attempt at a purchase, re-run if its first save hits a version conflict
+     */
+    private PurchaseResponse attemptPurchase(PurchaseRequest request, String orderNumber) {
+        // 1. Check the request against cached state and find the keys to lock
+        Product located = locatePurchase(request);
+        
+        try (LockHandle ignored = lockPurchase(request.getUserId(), located)) {
+            // 2. Load under the locks, so no other purchase can save the entities meanwhile
             PurchaseContext context = preparePurchaseContext(request);
             
-            // 2. Validate business rules
+            // 3. Validate business rules
             validatePurchaseBusinessRules(context);
             
-            // 3. Execute purchase transaction
-            Order order = executePurchaseTransaction(context);
+            // 4. Execute purchase transaction
+            Order order = executePurchaseTransaction(context, orderNumber);
             
-            // 4. Save all changes
-            savePurchaseChanges(context, order);
+            // 5. Save all changes
+            try {
+                savePurchaseChanges(context, order, new Compensation());
+            } catch (RuntimeException e) {
+                // Nothing was written or it was undone; give the stock back before the purchase is retried
+                context.product.addInventory(context.quantity);
+                throw e;
+            }
+            releaseOnRollback(context.product, context.quantity);
             
-            // 5. Return response
+            // 6. Return response
             return createPurchaseResponse(context, order);
+        }
+    }
+    
+    /**
+     * Checkout a cart of several SKUs from one merchant as a single order
+     * Flow: load and lock -> validate -> reserve all lines -> deduct once -> credit once -> complete
+     * 
+     * Lines are merged per SKU and handled in SKU order; locks for the user, the merchant and
+     * every SKU are taken in one pass. If any line cannot be reserved, lines already reserved
+     * are released and nothing is charged.
+     */
+    public CheckoutResponse processCheckout(CheckoutRequest request) {
+        try {
+            return optimisticRetry.execute("checkout", () -> attemptCheckout(request));
             
         } catch (com.ecommerce.api.exception.BusinessException e) {
-            // Business exceptions should be re-thrown as-is to preserve error codes
             throw e;
+        } catch (OptimisticLockingFailureException e) {
+            throw concurrentModification("Checkout", e);
         } catch (Exception e) {
-            // System exceptions get wrapped with generic error code
             throw new com.ecommerce.api.exception.BusinessException(
-                com.ecommerce.api.dto.ErrorCode.INTERNAL_ERROR, 
-                "Purchase failed: " + e.getMessage(), e);
+                com.ecommerce.api.dto.ErrorCode.INTERNAL_ERROR,
+                "Checkout failed: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * One attempt at a checkout, re-run if its first save hits a version conflict
+     */
+    private CheckoutResponse attemptCheckout(CheckoutRequest request) {
+        // 1. Validate and prepare checkout entities
+        CheckoutContext located = prepareCheckoutContext(request);
+        
+        try (LockHandle ignored = purchaseLockManager.lockCheckout(
+                request.getUserId(), located.lockedSkus(), lockedMerchantId(located.merchant))) {
+            // 2. Load again under the locks, so no other purchase can save the entities meanwhile
+            CheckoutContext context = prepareCheckoutContext(request);
+            
+            // 3. Validate business rules
+            validateCheckoutBusinessRules(context);
+            
+            // 4. Execute checkout transaction
+            Order order = executeCheckoutTransaction(context);
+            
+            // 5. Save all changes
+            try {
+                userService.saveUser(context.user);
+                Compensation compensation = new Compensation();
+                compensation.add(() -> refundBuyer(context.user.getId(), order.getTotalAmount()));
+                saveRemaining(compensation, () -> {
+                    for (Map.Entry<String, Product> entry : context.products.entrySet()) {
+                        saveReservedStock(entry.getValue(), context.quantities.get(entry.getKey()), compensation);
+                    }
+                    completeSale(context.merchant, order.getTotalAmount(), order, compensation);
+                });
+            } catch (RuntimeException e) {
+                // Nothing was written or it was undone; give the stock back before the checkout is retried
+                context.products.forEach((sku, product) -> product.addInventory(context.quantities.get(sku)));
+                throw e;
+            }
+            context.products.forEach((sku, product) -> releaseOnRollback(product, context.quantities.get(sku)));
+            
+            // 6. Return response
+            return createCheckoutResponse(context, order);
+        }
+    }
+    
+    /**
+     * Load user, products and merchant for a cart
+     */
+    private CheckoutContext prepareCheckoutContext(CheckoutRequest request) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new com.ecommerce.api.exception.BusinessException(
+                com.ecommerce.api.dto.ErrorCode.VALIDATION_ERROR, "Cart must contain at least one item");
+        }
+        
+        // Merge duplicate SKUs; TreeMap keeps the global SKU order used for reservation
+        Map<String, Integer> quantities = new TreeMap<>();
+        for (CheckoutItem item : request.getItems()) {
+            if (item.getQuantity() <= 0) {
+                throw new com.ecommerce.api.exception.BusinessException(
+                    com.ecommerce.api.dto.ErrorCode.VALIDATION_ERROR, "Quantity must be positive");
+            }
+            quantities.merge(item.getSku(), item.getQuantity(), Math::addExact);
+        }
+        
+        User user = userService.getUserById(request.getUserId());
+        Map<String, Product> products = new TreeMap<>();
+        Long merchantId = null;
+        for (String sku : quantities.keySet()) {
+            Product product = productService.getProductBySku(sku);
+            if (merchantId == null) {
+                merchantId = product.getMerchantId();
+            } else if (!merchantId.equals(product.getMerchantId())) {
+                throw new com.ecommerce.api.exception.BusinessException(
+                    com.ecommerce.api.dto.ErrorCode.VALIDATION_ERROR,
+                    "All cart items must belong to the same merchant");
+            }
+            products.put(sku, product);
+        }
+        Merchant merchant = merchantService.getMerchantById(merchantId);
+        
+        return new CheckoutContext(user, products, quantities, merchant);
+    }
+    
+    /**
+     * Validate all business rules for the checkout
+     */
+    private void validateCheckoutBusinessRules(CheckoutContext context) {
+        for (Map.Entry<String, Product> entry : context.products.entrySet()) {
+            int quantity = context.quantities.get(entry.getKey());
+            validatePurchaseRequest(context.user, entry.getValue(), context.merchant, quantity);
+            if (!entry.getValue().hasEnoughInventory(quantity)) {
+                throw new com.ecommerce.domain.product.InsufficientInventoryException(
+                    "Insufficient inventory for product: " + entry.getKey() + ". Required: " + quantity
+                    + ", Available: " + entry.getValue().getAvailableInventory());
+            }
+        }
+    }
+    
+    /**
+     * Execute the core checkout transaction
+     */
+    private Order executeCheckoutTransaction(CheckoutContext context) {
+        Order order = new Order(orderNumberGenerator.nextOrderNumber(), context.user.getId(), context.merchant.getId());
+        for (Map.Entry<String, Product> entry : context.products.entrySet()) {
+            Product product = entry.getValue();
+            order.addOrderItem(product.getSku(), product.getName(), product.getPrice(), context.quantities.get(entry.getKey()));
+        }
+        Money totalPrice = order.getTotalAmount();
+        if (!context.user.canAfford(totalPrice)) {
+            throw new com.ecommerce.domain.user.InsufficientBalanceException(
+                "Insufficient balance. Required: " + totalPrice + ", Available: " + context.user.getBalance());
+        }
+        
+        // Reserve every line in SKU order, releasing what was taken if a later line fails
+        List<Product> reserved = new ArrayList<>(context.products.size());
+        try {
+            for (Map.Entry<String, Product> entry : context.products.entrySet()) {
+                entry.getValue().reduceInventory(context.quantities.get(entry.getKey()));
+                reserved.add(entry.getValue());
+            }
+            order.confirm();
+            context.user.deduct(totalPrice);
+            if (!context.merchant.hasLiveIncome()) {
+                context.merchant.receiveIncome(totalPrice);
+            }
+            order.processPayment();
+            order.complete();
+        } catch (RuntimeException e) {
+            for (Product product : reserved) {
+                product.addInventory(context.quantities.get(product.getSku()));
+            }
+            throw e;
         }
+        
+        return order;
+    }
+    
+    /**
+     * Create checkout response
+     */
+    private CheckoutResponse createCheckoutResponse(CheckoutContext context, Order order) {
+        List<CheckoutResponse.Line> lines = order.getItems().stream()
+            .map(item -> new CheckoutResponse.Line(item.getSku(), item.getProductName(), item.getQuantity(), item.getTotalPrice()))
+            .toList();
+        return new CheckoutResponse(order.getOrderNumber(), context.user.getId(), context.merchant.getId(),
+                                    lines, order.getTotalQuantity(), order.getTotalAmount());
     }
     
     /**
@@ -89,6 +353,38 @@ public class EcommerceService {
         return new PurchaseContext(user, product, merchant, request.getQuantity(), totalPrice);
     }
     
+    /**
+     * Check that user, product and merchant exist and are active, before taking any lock
+     * User and merchant statuses come from the services' near-caches, so this step usually
+     * loads neither; the aggregates are loaded and checked again under the locks.
+     * 
+     * @return the product, which decides the SKU and merchant to lock
+     */
+    private Product locatePurchase(PurchaseRequest request) {
+        userService.requireActiveUser(request.getUserId());
+        Product product = productService.getProductBySku(request.getSku());
+        merchantService.requireActiveMerchant(product.getMerchantId());
+        return product;
+    }
+    
+    /**
+     * Lock the purchase keys
+     * A live inventory counter reserves stock atomically and a live income accumulator takes
+     * credits atomically, so neither the SKU nor the merchant then needs locking
+     */
+    private LockHandle lockPurchase(Long userId, Product located) {
+        String sku = located.hasLiveInventory() ? null : located.getSku();
+        Long merchantId = merchantService.hasLiveIncome() ? null : located.getMerchantId();
+        return purchaseLockManager.lockPurchase(userId, sku, merchantId);
+    }
+    
+    /**
+     * Merchant key for a purchase lock, or null if the merchant takes credits without one
+     */
+    private static Long lockedMerchantId(Merchant merchant) {
+        return merchant.hasLiveIncome() ? null : merchant.getId();
+    }
+    
     /**
      * Validate all business rules for the purchase
      */
@@ -112,32 +408,196 @@ public class EcommerceService {
     /**
      * Execute the core purchase transaction
      */
-    private Order executePurchaseTransaction(PurchaseContext context) {
+    private Order executePurchaseTransaction(PurchaseContext context, String orderNumber) {
         // Create order
-        String orderNumber = generateOrderNumber();
         Order order = new Order(orderNumber, context.user.getId(), context.merchant.getId());
         order.addOrderItem(context.product.getSku(), context.product.getName(), 
                           context.product.getPrice(), context.quantity);
         
         // Execute transaction steps
         context.product.reduceInventory(context.quantity);
-        order.confirm();
-        context.user.deduct(context.totalPrice);
-        context.merchant.receiveIncome(context.totalPrice);
-        order.processPayment();
-        order.complete();
+        try {
+            order.confirm();
+            context.user.deduct(context.totalPrice);
+            if (!context.merchant.hasLiveIncome()) {
+                context.merchant.receiveIncome(context.totalPrice);
+            }
+            order.processPayment();
+            order.complete();
+        } catch (RuntimeException e) {
+            // Give the reserved stock back - a live counter would otherwise keep it
+            context.product.addInventory(context.quantity);
+            throw e;
+        }
         
         return order;
     }
     
     /**
      * Save all changes from the purchase
+     * The buyer is saved first, as recharges make it the likeliest conflict and nothing is
+     * written yet if it fails; the other saves are compensated by re-crediting the buyer.
      */
-    private void savePurchaseChanges(PurchaseContext context, Order order) {
+    private void savePurchaseChanges(PurchaseContext context, Order order, Compensation compensation) {
         userService.saveUser(context.user);
-        productService.saveProduct(context.product);
-        merchantService.saveMerchant(context.merchant);
+        compensation.add(() -> refundBuyer(context.user.getId(), context.totalPrice));
+        saveRemaining(compensation, () -> {
+            saveReservedStock(context.product, context.quantity, compensation);
+            completeSale(context.merchant, context.totalPrice, order, compensation);
+        });
+    }
+    
+    /**
+     * Persist stock taken for a sale once the buyer has been charged
+     * Live inventory is persisted by the asynchronous flush; if the sale fails, the caller
+     * gives the counter's reservation back.
+     */
+    private void saveReservedStock(Product product, int quantity, Compensation compensation) {
+        if (!product.hasLiveInventory()) {
+            productService.saveProduct(product);
+            compensation.add(() -> restoreStock(product.getSku(), quantity));
+        }
+    }
+    
+    /**
+     * Give stock held by a live counter back if the transaction of a successful attempt
+     * then fails to commit; a failure inside the attempt gives it back on the spot
+     */
+    private static void releaseOnRollback(Product product, int quantity) {
+        if (product.hasLiveInventory()) {
+            TransactionEffects.afterRollback(() -> product.addInventory(quantity));
+        }
+    }
+    
+    /**
+     * Persist the merchant's side of a sale and the order once the buyer has been charged
+     * A merchant with live income is only credited after the order is saved, and inside a
+     * transaction only once it commits: the accumulator is shared and persisted by the
+     * asynchronous flush, so no rollback or retry can take a credit made earlier back.
+     * Other merchants were credited on the loaded copy, which is saved here.
+     */
+    private void completeSale(Merchant merchant, Money amount, Order order, Compensation compensation) {
+        if (!merchant.hasLiveIncome()) {
+            merchantService.saveMerchant(merchant);
+            compensation.add(() -> reverseIncome(merchant.getId(), amount));
+        }
         orderService.saveOrder(order);
+        if (merchant.hasLiveIncome()) {
+            TransactionEffects.afterCommit(() -> merchant.receiveIncome(amount));
+        }
+    }
+    
+    /**
+     * Run the saves that follow the first save of an operation
+     * Without a transaction spanning several aggregates (in-memory and file repositories), once
+     * one of them is written the operation cannot be re-run: the saves made so far are undone
+     * by the compensation and a conflict is reported instead. Inside a transaction the earlier
+     * saves roll back with it, so the failure is passed on and a conflict retries the attempt.
+     */
+    private void saveRemaining(Compensation compensation, Runnable saves) {
+        try {
+            saves.run();
+        } catch (RuntimeException e) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                throw e;
+            }
+            compensation.run();
+            if (e instanceof OptimisticLockingFailureException) {
+                throw new com.ecommerce.api.exception.BusinessException(
+                    com.ecommerce.api.dto.ErrorCode.CONCURRENT_MODIFICATION,
+                    "Concurrent update after a partial save: " + e.getMessage(), e);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Give a charged buyer the money back after the rest of the sale failed to save
+     */
+    private void refundBuyer(Long userId, Money amount) {
+        optimisticRetry.run("compensation", () -> {
+            User user = userService.getUserById(userId);
+            user.recharge(amount);
+            userService.saveUser(user);
+        });
+    }
+    
+    /**
+     * Take a refund back from the buyer after the rest of the cancellation failed to save
+     */
+    private void chargeBack(Long userId, Money amount) {
+        optimisticRetry.run("compensation", () -> {
+            User user = userService.getUserById(userId);
+            user.deduct(amount);
+            userService.saveUser(user);
+        });
+    }
+    
+    /**
+     * Take back the income credited to a merchant whose sale failed to save
+     */
+    private void reverseIncome(Long merchantId, Money amount) {
+        optimisticRetry.run("compensation", () -> {
+            Merchant merchant = merchantService.getMerchantById(merchantId);
+            merchant.withdrawIncome(amount);
+            if (!merchant.hasLiveIncome()) {
+                merchantService.saveMerchant(merchant);
+            }
+        });
+    }
+    
+    /**
+     * Give a merchant back the income withdrawn for a refund after the cancellation failed to save
+     */
+    private void restoreIncome(Long merchantId, Money amount) {
+        optimisticRetry.run("compensation", () -> {
+            Merchant merchant = merchantService.getMerchantById(merchantId);
+            merchant.receiveIncome(amount);
+            if (!merchant.hasLiveIncome()) {
+                merchantService.saveMerchant(merchant);
+            }
+        });
+    }
+    
+    /**
+     * Take back the stock returned for an order whose cancellation failed to save
+     */
+    private void takeStockBack(String sku, int quantity) {
+        optimisticRetry.run("compensation", () -> {
+            Product product = productService.getProductBySku(sku);
+            product.reduceInventory(quantity);
+            if (!product.hasLiveInventory()) {
+                productService.saveProduct(product);
+            }
+        });
+    }
+    
+    /**
+     * Return stock to a product, re-reading it on every attempt
+     * A live counter only gets the stock once the transaction commits, as a rollback could
+     * not take it back again.
+     */
+    private void restoreStock(String sku, int quantity) {
+        optimisticRetry.run("inventoryRestore", () -> {
+            Product product = productService.getProductBySku(sku);
+            if (product.hasLiveInventory()) {
+                // Live inventory is persisted by the asynchronous flush
+                TransactionEffects.afterCommit(() -> product.addInventory(quantity));
+            } else {
+                product.addInventory(quantity);
+                productService.saveProduct(product);
+            }
+        });
+    }
+    
+    /**
+     * Report a version conflict that persisted through every retry
+     */
+    private com.ecommerce.api.exception.BusinessException concurrentModification(String operation,
+                                                                                 OptimisticLockingFailureException e) {
+        return new com.ecommerce.api.exception.BusinessException(
+            com.ecommerce.api.dto.ErrorCode.CONCURRENT_MODIFICATION,
+            operation + " failed: " + e.getMessage(), e);
     }
     
     /**
@@ -174,6 +634,33 @@ public class EcommerceService {
         }
     }
     
+    /**
+     * Inner class to hold checkout context data
+     */
+    private static class CheckoutContext {
+        final User user;
+        final Map<String, Product> products;
+        final Map<String, Integer> quantities;
+        final Merchant merchant;
+        
+        CheckoutContext(User user, Map<String, Product> products, Map<String, Integer> quantities, Merchant merchant) {
+            this.user = user;
+            this.products = products;
+            this.quantities = quantities;
+            this.merchant = merchant;
+        }
+        
+        /**
+         * SKUs that need a lock; live inventory counters reserve atomically on their own
+         */
+        List<String> lockedSkus() {
+            return products.values().stream()
+                .filter(product -> !product.hasLiveInventory())
+                .map(Product::getSku)
+                .toList();
+        }
+    }
+    
     private void validatePurchaseRequest(User user, Product product, Merchant merchant, int quantity) {
         if (!user.isActive()) {
             throw new com.ecommerce.domain.ResourceInactiveException("User is not active. User ID: " + user.getId());
@@ -193,14 +680,230 @@ public class EcommerceService {
         }
     }
     
+    /**
+     * Reserve inventory for an order that is paid later
+     * Flow: validate -> create order -> hold inventory -> confirm order -> schedule expiry
+     * 
+     * The order stays CONFIRMED (stock held, not yet paid) until payOrder is called. If the
+     * order timeout passes first, the hold is released and the order is cancelled.
+     */
+    public ReservationResponse reservePurchase(PurchaseRequest request) {
+        try {
+            return optimisticRetry.execute("reservation", () -> attemptReservation(request));
+            
+        } catch (com.ecommerce.api.exception.BusinessException e) {
+            throw e;
+        } catch (OptimisticLockingFailureException e) {
+            throw concurrentModification("Reservation", e);
+        } catch (Exception e) {
+            throw new com.ecommerce.api.exception.BusinessException(
+                com.ecommerce.api.dto.ErrorCode.INTERNAL_ERROR,
+                "Reservation failed: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * One attempt at a reservation, re-run if saving the held stock hits a version conflict
+     */
+    private ReservationResponse attemptReservation(PurchaseRequest request) {
+        // 1. Check the request against cached state and find the keys to lock
+        Product located = locatePurchase(request);
+        
+        PurchaseContext context;
+        Order order;
+        try (LockHandle ignored = lockPurchase(request.getUserId(), located)) {
+            context = preparePurchaseContext(request);
+            
+            // 2. Validate business rules; balance is checked on payment
+            validatePurchaseRequest(context.user, context.product, context.merchant, context.quantity);
+            if (!context.product.hasEnoughInventory(context.quantity)) {
+                throw new com.ecommerce.domain.product.InsufficientInventoryException(
+                    "Insufficient inventory. Required: " + context.quantity + ", Available: " + context.product.getAvailableInventory());
+            }
+            
+            // 3. Hold inventory for the new order
+            order = new Order(orderNumberGenerator.nextOrderNumber(), context.user.getId(), context.merchant.getId());
+            order.addOrderItem(context.product.getSku(), context.product.getName(),
+                              context.product.getPrice(), context.quantity);
+            context.product.reduceInventory(context.quantity);
+            try {
+                order.confirm();
+                if (!context.product.hasLiveInventory()) {
+                    productService.saveProduct(context.product);
+                }
+                orderService.saveOrder(order);
+            } catch (RuntimeException e) {
+                context.product.addInventory(context.quantity);
+                throw e;
+            }
+            releaseOnRollback(context.product, context.quantity);
+        }
+        
+        // 4. Release the hold if the order is not paid in time
+        String orderNumber = order.getOrderNumber();
+        LocalDateTime expiresAt = orderExpiryScheduler.schedule(orderNumber, () -> expireOrder(orderNumber));
+        
+        return new ReservationResponse(orderNumber, context.user.getId(), context.merchant.getId(),
+            context.product.getSku(), context.product.getName(), context.quantity, context.totalPrice, expiresAt);
+    }
+    
+    /**
+     * Pay a reserved order
+     * Flow: check still reserved -> deduct money -> add money -> complete order
+     * 
+     * Runs under the user and merchant locks, which expiry takes as well, so an order
+     * is either paid or released, never both.
+     */
+    public PurchaseResponse payOrder(String orderNumber) {
+        try {
+            return optimisticRetry.execute("payment", () -> attemptPayment(orderNumber));
+            
+        } catch (com.ecommerce.api.exception.BusinessException e) {
+            throw e;
+        } catch (OptimisticLockingFailureException e) {
+            throw concurrentModification("Payment", e);
+        } catch (Exception e) {
+            throw new com.ecommerce.api.exception.BusinessException(
+                com.ecommerce.api.dto.ErrorCode.INTERNAL_ERROR,
+                "Payment failed: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * One attempt at paying an order, re-run if its first save hits a version conflict
+     */
+    private PurchaseResponse attemptPayment(String orderNumber) {
+        Order located = orderService.getOrderByNumber(orderNumber);
+        
+        try (LockHandle ignored = purchaseLockManager.lockAccounts(located.getUserId(), located.getMerchantId())) {
+            // Re-read under the lock in case the reservation expired meanwhile
+            Order order = orderService.getOrderByNumber(orderNumber);
+            if (order.isCancelled()) {
+                throw new com.ecommerce.domain.order.InvalidOrderStateException(
+                    "Order was cancelled or its reservation expired: " + orderNumber);
+            }
+            if (!order.canBePaid()) {
+                throw new com.ecommerce.domain.order.InvalidOrderStateException(
+                    "Order is not awaiting payment. Current status: " + order.getStatus());
+            }
+            
+            User user = userService.getUserById(order.getUserId());
+            Merchant merchant = merchantService.getMerchantById(order.getMerchantId());
+            if (!user.isActive()) {
+                throw new com.ecommerce.domain.ResourceInactiveException("User is not active. User ID: " + user.getId());
+            }
+            if (!merchant.isActive()) {
+                throw new com.ecommerce.domain.ResourceInactiveException("Merchant is not active. Merchant ID: " + merchant.getId());
+            }
+            
+            Money totalAmount = order.getTotalAmount();
+            if (!user.canAfford(totalAmount)) {
+                throw new com.ecommerce.domain.user.InsufficientBalanceException(
+                    "Insufficient balance. Required: " + totalAmount + ", Available: " + user.getBalance());
+            }
+            
+            user.deduct(totalAmount);
+            if (!merchant.hasLiveIncome()) {
+                merchant.receiveIncome(totalAmount);
+            }
+            order.processPayment();
+            order.complete();
+            
+            userService.saveUser(user);
+            Compensation compensation = new Compensation();
+            compensation.add(() -> refundBuyer(user.getId(), totalAmount));
+            saveRemaining(compensation, () -> completeSale(merchant, totalAmount, order, compensation));
+            orderExpiryScheduler.cancel(orderNumber);
+            
+            var item = order.getItems().get(0);
+            return new PurchaseResponse(order.getOrderNumber(), user.getId(), merchant.getId(),
+                item.getSku(), item.getProductName(), order.getTotalQuantity(), totalAmount);
+        }
+    }
+    
+    /**
+     * Schedule the expiry of every reservation still awaiting payment
+     * Pending expiries are kept in memory only, so after a restart each unpaid reservation is
+     * picked up again: it expires at its order time plus the order timeout, or right away if
+     * that has passed. Reservations whose expiry is already pending are left alone.
+     * 
+     * @return number of reservations scheduled
+     */
+    public int recoverReservations() {
+        AtomicInteger scheduled = new AtomicInteger();
+        orderService.forEachOrderAwaitingPayment(order -> {
+            String orderNumber = order.getOrderNumber();
+            if (!orderExpiryScheduler.isScheduled(orderNumber)) {
+                orderExpiryScheduler.scheduleAt(orderNumber, order.getOrderTime().plus(orderExpiryScheduler.getTimeout()),
+                                                () -> expireOrder(orderNumber));
+                scheduled.incrementAndGet();
+            }
+        });
+        return scheduled.get();
+    }
+    
+    /**
+     * Release the inventory of a reservation that was not paid in time
+     * Called by the order expiry scheduler; does nothing if the order was paid or cancelled
+     * 
+     * @return true if the order was cancelled by this call
+     */
+    public boolean expireOrder(String orderNumber) {
+        return optimisticRetry.execute("expiry", () -> attemptExpiry(orderNumber));
+    }
+    
+    /**
+     * One attempt at expiring a reservation, re-run if returning its stock hits a version conflict
+     * Like a cancellation, the returned stock is taken back if the order then fails to save, so
+     * the reservation can still be paid without selling that stock twice.
+     */
+    private boolean attemptExpiry(String orderNumber) {
+        Order located = orderService.getOrderByNumber(orderNumber);
+        try (LockHandle ignored = purchaseLockManager.lockAccounts(located.getUserId(), located.getMerchantId())) {
+            Order order = orderService.getOrderByNumber(orderNumber);
+            if (!order.canBePaid()) {
+                return false;
+            }
+            Compensation compensation = new Compensation();
+            handleInventoryRestore(order, compensation);
+            order.cancel("Payment timeout");
+            saveRemaining(compensation, () -> orderService.saveOrder(order));
+            return true;
+        }
+    }
+    
     /**
      * Cancel order with proper refund and inventory restore handling
      * Requires transaction due to multiple atomic operations
+     * 
+     * Runs under the user and merchant locks, like payment and expiry, so an order
+     * cannot be paid and cancelled at the same time.
      */
-    @Transactional
     public void cancelOrder(String orderNumber, String reason) {
         try {
-            // 1. Get order
+            optimisticRetry.run("cancellation", () -> attemptCancellation(orderNumber, reason));
+            
+        } catch (com.ecommerce.api.exception.BusinessException e) {
+            // Business exceptions should be re-thrown as-is to preserve error codes
+            throw e;
+        } catch (OptimisticLockingFailureException e) {
+            throw concurrentModification("Cancellation", e);
+        } catch (Exception e) {
+            throw new com.ecommerce.api.exception.BusinessException(
+                com.ecommerce.api.dto.ErrorCode.INTERNAL_ERROR,
+                "Failed to cancel order: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * One attempt at cancelling an order, re-run if its first save hits a version conflict
+     */
+    private void attemptCancellation(String orderNumber, String reason) {
+        // 1. Get order
+        Order located = orderService.getOrderByNumber(orderNumber);
+        
+        try (LockHandle ignored = purchaseLockManager.lockAccounts(located.getUserId(), located.getMerchantId())) {
+            // Re-read under the lock in case it was paid or expired meanwhile
             Order order = orderService.getOrderByNumber(orderNumber);
             
             // 2. Check if order can be cancelled
@@ -213,45 +916,38 @@ public class EcommerceService {
             }
             
             // 3. Handle refund if needed
+            Compensation compensation = new Compensation();
             if (order.needsRefund()) {
-                handleRefund(order);
+                handleRefund(order, compensation);
             }
             
             // 4. Handle inventory restore if needed  
             if (order.needsInventoryRestore()) {
-                handleInventoryRestore(order);
+                handleInventoryRestore(order, compensation);
             }
             
             // 5. Cancel the order
             order.cancel(reason);
             
             // 6. Save changes
-            orderService.saveOrder(order);
-            
-        } catch (com.ecommerce.api.exception.BusinessException e) {
-            // Business exceptions should be re-thrown as-is to preserve error codes
-            throw e;
-        } catch (Exception e) {
-            throw new com.ecommerce.api.exception.BusinessException(
-                com.ecommerce.api.dto.ErrorCode.INTERNAL_ERROR,
-                "Failed to cancel order: " + e.getMessage(), e);
+            saveRemaining(compensation, () -> orderService.saveOrder(order));
+            orderExpiryScheduler.cancel(orderNumber);
         }
     }
     
     /**
      * Handle refund when cancelling paid order
      */
-    private void handleRefund(Order order) {
+    private void handleRefund(Order order, Compensation compensation) {
         // 1. Get user and merchant
         User user = userService.getUserById(order.getUserId());
         Merchant merchant = merchantService.getMerchantById(order.getMerchantId());
         
         Money refundAmount = order.getTotalAmount();
         
-        // 2. First deduct money from merchant (reverse the income)
-        if (merchant.canWithdraw(refundAmount)) {
-            merchant.withdrawIncome(refundAmount);
-        } else {
+        // 2. First make sure the merchant can pay the refund back
+        //    Debits hold the merchant lock, so the balance cannot drop below this meanwhile
+        if (!merchant.canWithdraw(refundAmount)) {
             // In real scenarios, this might need to be handled differently
             // e.g., create a debt record for the merchant
             throw new com.ecommerce.domain.merchant.InsufficientFundsException(
@@ -259,43 +955,58 @@ public class EcommerceService {
                 ", Available: " + merchant.getBalance());
         }
         
-        // 3. Then refund money to user (only after merchant deduction succeeds)
+        // 3. Then refund money to user
         user.recharge(refundAmount);
         
-        // 4. Save changes
+        // 4. Save the user, then deduct from the merchant (reverse the income)
+        //    Deducting only after the user's save means a retried cancellation never
+        //    debits a live income accumulator twice
         userService.saveUser(user);
-        merchantService.saveMerchant(merchant);
+        compensation.add(() -> chargeBack(user.getId(), refundAmount));
+        saveRemaining(compensation, () -> {
+            if (merchant.hasLiveIncome()) {
+                // Debits hold the merchant lock and the balance was checked above
+                TransactionEffects.afterCommit(() -> merchant.withdrawIncome(refundAmount));
+            } else {
+                merchant.withdrawIncome(refundAmount);
+                merchantService.saveMerchant(merchant);
+            }
+        });
+        compensation.add(() -> restoreIncome(merchant.getId(), refundAmount));
     }
     
     /**
      * Handle inventory restore when cancelling confirmed order
      */
-    private void handleInventoryRestore(Order order) {
+    private void handleInventoryRestore(Order order, Compensation compensation) {
         for (var item : order.getItems()) {
-            Product product = productService.getProductBySku(item.getSku());
-            product.addInventory(item.getQuantity());
-            productService.saveProduct(product);
+            // Returning stock does not depend on what changed meanwhile, so each product is
+            // re-read and retried on its own
+            saveRemaining(compensation, () -> restoreStock(item.getSku(), item.getQuantity()));
+            compensation.add(() -> takeStockBack(item.getSku(), item.getQuantity()));
         }
     }
-
-    private String generateOrderNumber() {
-        String currentDate = LocalDateTime.now().format(ORDER_DATE_FORMAT);
+    
+    /**
+     * Undo steps for the saves an operation has made so far, run newest first
+     * Only used without a transaction; with one, a failure rolls every save back. A step that
+     * fails is logged and the remaining steps still run.
+     */
+    private static final class Compensation {
+        private final Deque<Runnable> steps = new ArrayDeque<>();
         
-        // Reset sequence if date changed (new day)
-        if (!currentDate.equals(lastOrderDate)) {
-            synchronized (this) {
-                if (!currentDate.equals(lastOrderDate)) {
-                    lastOrderDate = currentDate;
-                    orderSequence.set(1);
-                }
-            }
+        void add(Runnable step) {
+            steps.push(step);
         }
         
-        // Generate sequence with fixed 4 digits (0001, 0002, ... 9999)
-        long sequence = orderSequence.getAndIncrement();
-        if (sequence > 9999) {
-            throw new IllegalStateException("Daily order limit exceeded (9999). Consider implementing additional scaling solutions.");
+        void run() {
+            while (!steps.isEmpty()) {
+                try {
+                    steps.pop().run();
+                } catch (RuntimeException e) {
+                    logger.error("Compensation step failed, manual correction needed: {}", e.getMessage(), e);
+                }
+            }
         }
-        return String.format("ORD%s%04d", currentDate, sequence);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
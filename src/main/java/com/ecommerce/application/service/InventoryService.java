@@ -0,0 +1,179 @@
+package com.ecommerce.application.service;
+
+import com.ecommerce.domain.product.AtomicInventoryCounter;
+import com.ecommerce.domain.product.InventoryCounter;
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.product.ShardedInventoryCounter;
+import com.ecommerce.infrastructure.cache.ProductCache;
+import com.ecommerce.infrastructure.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Inventory Service
+ * Lock-free inventory engine: keeps one atomic counter per SKU and writes changed
+ * counters back to the product repository asynchronously.
+ * 
+ * Counters are seeded from the persisted inventory the first time a SKU is read.
+ * Every Product loaded afterwards is attached to the same counter, so reservations
+ * never need the product to be re-saved on the purchase path.
+ * 
+ * Hot products get a sharded counter so that flash-sale buyers do not all contend
+ * on one cache line. Switching a product in or out of hot mode hands the stock over
+ * to a new counter; products still holding the old one are forwarded to it.
+ * 
+ * Products written by the flush are handed to the ProductCache, so cached copies keep
+ * the stored version.
+ * 
+ * Counters only work on a single node: each node would sell from its own count and
+ * write it back over the others'. With ecommerce.cluster.multi-node set they are refused
+ * and stock is reserved on the product row, where the version check on save keeps nodes
+ * from overwriting each other.
+ */
+@Service
+public class InventoryService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
+    
+    public static final int DEFAULT_HOT_SHARDS = 16;
+    
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final boolean enabled;
+    private final int hotShards;
+    private final Map<String, InventoryCounter> counters = new ConcurrentHashMap<>();
+    private final Queue<InventoryCounter> dirtyCounters = new ConcurrentLinkedQueue<>();
+    
+    public InventoryService(ProductRepository productRepository, boolean enabled) {
+        this(productRepository, enabled, DEFAULT_HOT_SHARDS);
+    }
+    
+    public InventoryService(ProductRepository productRepository, boolean enabled, int hotShards) {
+        this(productRepository, ProductCache.disabled(), enabled, hotShards);
+    }
+    
+    public InventoryService(ProductRepository productRepository, ProductCache productCache,
+                            boolean enabled, int hotShards) {
+        this(productRepository, productCache, enabled, hotShards, false);
+    }
+    
+    @Autowired
+    public InventoryService(ProductRepository productRepository, ProductCache productCache,
+                          @Value("${ecommerce.inventory.atomic-counters:true}") boolean enabled,
+                          @Value("${ecommerce.inventory.hot-shards:16}") int hotShards,
+                          @Value("${ecommerce.cluster.multi-node:false}") boolean multiNode) {
+        if (hotShards <= 0) {
+            throw new IllegalArgumentException("Hot shard count must be positive");
+        }
+        if (enabled && multiNode) {
+            logger.warn("Atomic inventory counters are per node and cannot be used with ecommerce.cluster.multi-node; "
+                + "reserving stock on the product rows instead");
+        }
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.enabled = enabled && !multiNode;
+        this.hotShards = hotShards;
+    }
+    
+    /**
+     * Attach the live counter for the product's SKU, creating it on first use
+     * The counter type follows the product's hot flag
+     */
+    public void attach(Product product) {
+        if (!enabled || product == null || product.getSku() == null) {
+            return;
+        }
+        InventoryCounter counter = counters.computeIfAbsent(product.getSku(),
+            sku -> newCounter(sku, product.getInventory().getQuantity(), product.isHot()));
+        if (isSharded(counter) != product.isHot()) {
+            counter = counters.compute(product.getSku(), (sku, current) ->
+                isSharded(current) == product.isHot() ? current : current.handOverTo(newCounter(sku, 0, product.isHot())));
+        }
+        product.attachInventoryCounter(counter);
+    }
+    
+    /**
+     * Get live available quantity, or -1 if the SKU has no counter yet
+     */
+    public int getAvailable(String sku) {
+        InventoryCounter counter = counters.get(sku);
+        return counter != null ? counter.available() : -1;
+    }
+    
+    /**
+     * Persist every counter changed since the last flush
+     * A counter whose write fails stays dirty and is retried on the next flush
+     * 
+     * @return number of products written
+     */
+    @PreDestroy
+    public synchronized int flush() {
+        int flushed = 0;
+        int pending = dirtyCounters.size();
+        for (int i = 0; i < pending; i++) {
+            InventoryCounter counter = dirtyCounters.poll();
+            if (counter == null) {
+                break;
+            }
+            if (!counter.clearDirty()) {
+                continue;
+            }
+            try {
+                Product product = productRepository.findBySku(counter.getSku()).orElse(null);
+                if (product == null) {
+                    logger.warn("Dropping inventory counter for unknown product: {}", counter.getSku());
+                    counters.remove(counter.getSku(), counter);
+                    continue;
+                }
+                // A counter replaced by a hot-mode switch forwards to its successor
+                product.attachInventoryCounter(counters.getOrDefault(counter.getSku(), counter));
+                product.syncInventory();
+                productRepository.save(product);
+                productCache.saved(product);
+                flushed++;
+            } catch (RuntimeException e) {
+                productCache.invalidate(counter.getSku());
+                logger.error("Failed to flush inventory for product {}: {}", counter.getSku(), e.getMessage(), e);
+                counter.markDirty();
+            }
+        }
+        return flushed;
+    }
+    
+    /**
+     * Number of stock buckets behind the SKU's counter, or 0 if it has none yet
+     */
+    public int getShardCount(String sku) {
+        InventoryCounter counter = counters.get(sku);
+        return counter != null ? counter.getShardCount() : 0;
+    }
+    
+    /**
+     * Number of counters waiting to be flushed
+     */
+    public int getPendingFlushCount() {
+        return dirtyCounters.size();
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    private InventoryCounter newCounter(String sku, int quantity, boolean hot) {
+        return hot
+            ? new ShardedInventoryCounter(sku, quantity, hotShards, dirtyCounters::offer)
+            : new AtomicInventoryCounter(sku, quantity, dirtyCounters::offer);
+    }
+    
+    private static boolean isSharded(InventoryCounter counter) {
+        return counter instanceof ShardedInventoryCounter;
+    }
+}
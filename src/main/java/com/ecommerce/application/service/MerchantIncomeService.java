@@ -0,0 +1,146 @@
+package com.ecommerce.application.service;
+
+import com.ecommerce.domain.merchant.Merchant;
+import com.ecommerce.domain.ledger.BalanceMovement;
+import com.ecommerce.domain.merchant.MerchantIncomeAccumulator;
+import com.ecommerce.infrastructure.ledger.AccountType;
+import com.ecommerce.infrastructure.ledger.BalanceLedger;
+import com.ecommerce.infrastructure.repository.MerchantRepository;
+import com.ecommerce.infrastructure.transaction.TransactionEffects;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Merchant Income Service
+ * Contention-free merchant income: keeps one accumulator per merchant and writes changed
+ * balances back to the merchant repository asynchronously.
+ * 
+ * Accumulators are seeded from the persisted account the first time a merchant is read.
+ * Every Merchant loaded afterwards is attached to the same accumulator, so crediting a
+ * sale never needs the merchant to be re-saved on the purchase path and purchases for
+ * one merchant no longer serialize on its row.
+ * 
+ * Accumulators only work on a single node: each node would write its own balance back
+ * over the others'. With ecommerce.cluster.multi-node set they are refused and income is
+ * credited on the merchant row, where the version check on save keeps nodes from
+ * overwriting each other.
+ */
+@Service
+public class MerchantIncomeService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MerchantIncomeService.class);
+    
+    private final MerchantRepository merchantRepository;
+    private final BalanceLedger balanceLedger;
+    private final boolean enabled;
+    private final Map<Long, MerchantIncomeAccumulator> accumulators = new ConcurrentHashMap<>();
+    private final Queue<MerchantIncomeAccumulator> dirtyAccumulators = new ConcurrentLinkedQueue<>();
+    
+    public MerchantIncomeService(MerchantRepository merchantRepository, BalanceLedger balanceLedger, boolean enabled) {
+        this(merchantRepository, balanceLedger, enabled, false);
+    }
+    
+    @Autowired
+    public MerchantIncomeService(MerchantRepository merchantRepository, BalanceLedger balanceLedger,
+                                 @Value("${ecommerce.merchant.income-accumulators:true}") boolean enabled,
+                                 @Value("${ecommerce.cluster.multi-node:false}") boolean multiNode) {
+        if (enabled && multiNode) {
+            logger.warn("Income accumulators are per node and cannot be used with ecommerce.cluster.multi-node; "
+                + "crediting income on the merchant rows instead");
+        }
+        this.merchantRepository = merchantRepository;
+        this.balanceLedger = balanceLedger;
+        this.enabled = enabled && !multiNode;
+    }
+    
+    /**
+     * Attach the live accumulator for the merchant, creating it on first use
+     */
+    public void attach(Merchant merchant) {
+        if (!enabled || merchant == null || merchant.getId() == null) {
+            return;
+        }
+        MerchantIncomeAccumulator accumulator = accumulators.computeIfAbsent(merchant.getId(),
+            id -> new MerchantIncomeAccumulator(id, merchant.getAccount(), dirtyAccumulators::offer));
+        merchant.attachIncomeAccumulator(accumulator);
+    }
+    
+    /**
+     * Persist every accumulator changed since the last flush
+     * An accumulator whose write fails stays dirty and is retried on the next flush
+     * 
+     * @return number of merchants written
+     */
+    @PreDestroy
+    public synchronized int flush() {
+        int flushed = 0;
+        int pending = dirtyAccumulators.size();
+        for (int i = 0; i < pending; i++) {
+            MerchantIncomeAccumulator accumulator = dirtyAccumulators.poll();
+            if (accumulator == null) {
+                break;
+            }
+            if (write(accumulator)) {
+                flushed++;
+            }
+        }
+        return flushed;
+    }
+    
+    /**
+     * Persist the merchant's accumulator now if it has unsaved changes
+     * Used before reading the persisted account, e.g. at settlement time
+     * 
+     * @return true if the merchant was written
+     */
+    public synchronized boolean flush(Long merchantId) {
+        MerchantIncomeAccumulator accumulator = merchantId != null ? accumulators.get(merchantId) : null;
+        // The queue entry is skipped by the next flush once the dirty flag is cleared
+        return accumulator != null && write(accumulator);
+    }
+    
+    /**
+     * Number of accumulators waiting to be flushed
+     */
+    public int getPendingFlushCount() {
+        return dirtyAccumulators.size();
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    private boolean write(MerchantIncomeAccumulator accumulator) {
+        if (!accumulator.clearDirty()) {
+            return false;
+        }
+        Long merchantId = accumulator.getMerchantId();
+        try {
+            Merchant merchant = merchantRepository.findById(merchantId).orElse(null);
+            if (merchant == null) {
+                logger.warn("Dropping income accumulator for unknown merchant: {}", merchantId);
+                accumulators.remove(merchantId, accumulator);
+                return false;
+            }
+            merchant.attachIncomeAccumulator(accumulator);
+            merchant.syncIncome();
+            merchantRepository.save(merchant);
+            List<BalanceMovement> movements = merchant.drainBalanceMovements();
+            TransactionEffects.afterCommit(() -> balanceLedger.record(AccountType.MERCHANT, merchantId, movements));
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Failed to flush income for merchant {}: {}", merchantId, e.getMessage(), e);
+            accumulator.markDirty();
+            return false;
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package com.ecommerce.application.service;
 
+import com.ecommerce.domain.ResourceInactiveException;
 import com.ecommerce.domain.merchant.Merchant;
+import com.ecommerce.domain.merchant.MerchantStatus;
 import com.ecommerce.domain.merchant.MerchantNotFoundException;
 import com.ecommerce.domain.merchant.DuplicateMerchantException;
 import com.ecommerce.domain.Money;
+import com.ecommerce.domain.ledger.BalanceMovement;
+import com.ecommerce.infrastructure.cache.StatusCache;
+import com.ecommerce.infrastructure.ledger.AccountType;
+import com.ecommerce.infrastructure.ledger.BalanceLedger;
 import com.ecommerce.infrastructure.repository.MerchantRepository;
+import com.ecommerce.infrastructure.transaction.TransactionEffects;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -13,14 +22,38 @@ import java.util.List;
 /**
  * Merchant Service
  * Manages merchant-related business operations
+ * 
+ * The status of every merchant loaded or saved here is kept in a near-cache, so that the
+ * purchase path can check that a merchant is active without loading it.
  */
 @Service
 public class MerchantService {
     
     private final MerchantRepository merchantRepository;
+    private final BalanceLedger balanceLedger;
+    private final MerchantIncomeService merchantIncomeService;
+    private final StatusCache<MerchantStatus> statusCache;
     
     public MerchantService(MerchantRepository merchantRepository) {
+        this(merchantRepository, new BalanceLedger());
+    }
+    
+    public MerchantService(MerchantRepository merchantRepository, BalanceLedger balanceLedger) {
+        this(merchantRepository, balanceLedger, new MerchantIncomeService(merchantRepository, balanceLedger, false));
+    }
+    
+    public MerchantService(MerchantRepository merchantRepository, BalanceLedger balanceLedger,
+                         MerchantIncomeService merchantIncomeService) {
+        this(merchantRepository, balanceLedger, merchantIncomeService, StatusCache.disabled());
+    }
+    
+    @Autowired
+    public MerchantService(MerchantRepository merchantRepository, BalanceLedger balanceLedger,
+                         MerchantIncomeService merchantIncomeService, StatusCache<MerchantStatus> statusCache) {
         this.merchantRepository = merchantRepository;
+        this.balanceLedger = balanceLedger;
+        this.merchantIncomeService = merchantIncomeService;
+        this.statusCache = statusCache;
     }
     
     /**
@@ -41,24 +74,66 @@ public class MerchantService {
         }
         
         Merchant merchant = new Merchant(merchantName, businessLicense, contactEmail, contactPhone);
-        return merchantRepository.save(merchant);
+        return save(merchant);
     }
     
     /**
      * Get merchant by ID
+     * The merchant comes back attached to its live income accumulator
      */
     @Transactional(readOnly = true)
     public Merchant getMerchantById(Long merchantId) {
-        return merchantRepository.findById(merchantId)
+        Merchant merchant = merchantRepository.findById(merchantId)
                 .orElseThrow(() -> new MerchantNotFoundException(merchantId));
+        statusCache.put(merchantId, merchant.getStatus(), merchant.getVersion());
+        merchantIncomeService.attach(merchant);
+        return merchant;
+    }
+    
+    /**
+     * Check that the merchant exists and is active
+     * An active status is served from the near-cache; any other answer is confirmed by
+     * loading the merchant, so a stale entry never refuses an active merchant. Callers that
+     * go on to change the merchant check the loaded aggregate again.
+     * 
+     * @throws MerchantNotFoundException if there is no such merchant
+     * @throws ResourceInactiveException if the merchant is not active
+     */
+    public void requireActiveMerchant(Long merchantId) {
+        if (statusCache.get(merchantId).orElse(null) == MerchantStatus.ACTIVE) {
+            return;
+        }
+        if (!getMerchantById(merchantId).isActive()) {
+            throw new ResourceInactiveException("Merchant is not active. Merchant ID: " + merchantId);
+        }
+    }
+    
+    /**
+     * Whether loaded merchants take income through live accumulators
+     * Such merchants are credited without being saved, so purchases need no merchant lock
+     */
+    public boolean hasLiveIncome() {
+        return merchantIncomeService.isEnabled();
     }
     
     /**
      * Save merchant
+     * Live income is copied into the persisted account first
      */
     @Transactional
     public void saveMerchant(Merchant merchant) {
-        merchantRepository.save(merchant);
+        merchant.syncIncome();
+        persist(merchant);
+    }
+    
+    /**
+     * Write the merchant's live income to the repository now
+     * Used before the persisted account is read, e.g. at settlement time. Commits on its own,
+     * so the ledger holds the flushed movements when the caller goes on to read it.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void flushIncome(Long merchantId) {
+        merchantIncomeService.flush(merchantId);
     }
     
     /**
@@ -93,6 +168,29 @@ public class MerchantService {
      */
     @Transactional(readOnly = true)
     public List<Merchant> getAllActiveMerchants() {
-        return merchantRepository.findAllActive();
+        List<Merchant> merchants = merchantRepository.findAllActive();
+        merchants.forEach(merchantIncomeService::attach);
+        return merchants;
+    }
+    
+    /**
+     * Save the merchant, then hand the balance movements it made to the ledger once they are committed
+     */
+    private void persist(Merchant merchant) {
+        save(merchant);
+        List<BalanceMovement> movements = merchant.drainBalanceMovements();
+        TransactionEffects.afterCommit(() -> balanceLedger.record(AccountType.MERCHANT, merchant.getId(), movements));
+    }
+    
+    private Merchant save(Merchant merchant) {
+        Merchant saved;
+        try {
+            saved = merchantRepository.save(merchant);
+        } catch (RuntimeException e) {
+            statusCache.invalidate(merchant.getId());
+            throw e;
+        }
+        statusCache.saved(merchant.getId(), merchant.getStatus(), merchant.getVersion());
+        return saved;
     }
 } 
\ No newline at end of file
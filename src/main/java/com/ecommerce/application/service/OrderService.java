@@ -1,15 +1,21 @@
 package com.ecommerce.application.service;
 
+import com.ecommerce.application.dto.OrderCursor;
+import com.ecommerce.application.dto.OrderHistoryPage;
+import com.ecommerce.domain.Money;
 import com.ecommerce.domain.order.Order;
 import com.ecommerce.domain.order.OrderStatus;
 import com.ecommerce.infrastructure.repository.OrderRepository;
 import com.ecommerce.api.dto.ErrorCode;
 import com.ecommerce.api.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Order Service
@@ -18,10 +24,26 @@ import java.util.List;
 @Service
 public class OrderService {
     
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int DEFAULT_FETCH_SIZE = 500;
+    
     private final OrderRepository orderRepository;
+    // Rows read per query by the bulk cursors
+    private final int fetchSize;
     
     public OrderService(OrderRepository orderRepository) {
+        this(orderRepository, DEFAULT_FETCH_SIZE);
+    }
+    
+    @Autowired
+    public OrderService(OrderRepository orderRepository,
+                        @Value("${ecommerce.order.fetch-size:500}") int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Order fetch size must be positive: " + fetchSize);
+        }
         this.orderRepository = orderRepository;
+        this.fetchSize = fetchSize;
     }
     
     /**
@@ -67,6 +89,17 @@ public class OrderService {
         return orderRepository.findByMerchantIdAndOrderTimeBetween(merchantId, start, end);
     }
     
+    /**
+     * Visit the orders of a merchant within a date range, oldest first
+     * For exports and reports: orders are read in chunks of the configured fetch size, so
+     * memory stays bounded however many orders the range holds
+     */
+    @Transactional(readOnly = true)
+    public void forEachOrderByMerchantAndDateRange(Long merchantId, LocalDateTime start, LocalDateTime end,
+                                                   Consumer<? super Order> visitor) {
+        orderRepository.forEachByMerchantIdAndOrderTimeBetween(merchantId, start, end, fetchSize, visitor);
+    }
+    
     /**
      * Get completed orders by merchant ID and date range
      * Used for settlement calculation
@@ -75,4 +108,45 @@ public class OrderService {
     public List<Order> getCompletedOrdersByMerchantAndDateRange(Long merchantId, LocalDateTime start, LocalDateTime end) {
         return orderRepository.findByMerchantIdAndStatusAndOrderTimeBetween(merchantId, OrderStatus.COMPLETED, start, end);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Visit the total amounts of orders the merchant completed within (after, until]
+     * Used for settlement, which starts after the previous settlement's watermark; totals are
+     * read in chunks of the configured fetch size
+     */
+    @Transactional(readOnly = true)
+    public void forEachOrderTotalCompletedByMerchant(Long merchantId, LocalDateTime after, LocalDateTime until,
+                                                     Consumer<? super Money> visitor) {
+        orderRepository.forEachTotalAmountByMerchantIdAndCompletedTimeIn(merchantId, after, until, fetchSize, visitor);
+    }
+    
+    /**
+     * Visit the orders reserved but not yet paid, oldest first
+     * Read in chunks of the configured fetch size; used to pick up reservations after a restart
+     */
+    @Transactional(readOnly = true)
+    public void forEachOrderAwaitingPayment(Consumer<? super Order> visitor) {
+        orderRepository.forEachByStatus(OrderStatus.CONFIRMED, fetchSize, visitor);
+    }
+    
+    /**
+     * Get a page of the user's orders, newest first
+     * Keyset pagination on (orderTime, id): every page costs the same however deep it is
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public OrderHistoryPage getUserOrders(Long userId, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        OrderCursor after = cursor == null || cursor.isBlank() ? null : OrderCursor.decode(cursor);
+        // One extra order tells whether another page follows
+        List<Order> orders = orderRepository.findByUserIdBefore(userId,
+            after != null ? after.orderTime() : null, after != null ? after.orderId() : null, limit + 1);
+        if (orders.size() <= limit) {
+            return new OrderHistoryPage(orders, null);
+        }
+        List<Order> page = orders.subList(0, limit);
+        return new OrderHistoryPage(List.copyOf(page), OrderCursor.of(page.get(limit - 1)).encode());
+    }
+}
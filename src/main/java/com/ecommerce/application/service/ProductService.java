@@ -4,7 +4,9 @@ import com.ecommerce.api.dto.ErrorCode;
 import com.ecommerce.api.exception.BusinessException;
 import com.ecommerce.domain.product.Product;
 import com.ecommerce.domain.Money;
+import com.ecommerce.infrastructure.cache.ProductCache;
 import com.ecommerce.infrastructure.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
@@ -13,14 +15,34 @@ import java.util.stream.Collectors;
 /**
  * Product Service
  * Manages product-related business operations
+ * 
+ * Products handed out by this service are attached to the live inventory counters of
+ * InventoryService; inventory changes on such products are persisted by the periodic flush.
+ * 
+ * Lookups by SKU are served from the ProductCache; every save here goes through it, and a
+ * failed save drops the SKU so that a retry reads the stored state.
  */
 @Service
 public class ProductService {
     
     private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
+    private final ProductCache productCache;
     
     public ProductService(ProductRepository productRepository) {
+        this(productRepository, new InventoryService(productRepository, false));
+    }
+    
+    public ProductService(ProductRepository productRepository, InventoryService inventoryService) {
+        this(productRepository, inventoryService, ProductCache.disabled());
+    }
+    
+    @Autowired
+    public ProductService(ProductRepository productRepository, InventoryService inventoryService,
+                          ProductCache productCache) {
         this.productRepository = productRepository;
+        this.inventoryService = inventoryService;
+        this.productCache = productCache;
     }
     
     /**
@@ -36,7 +58,7 @@ public class ProductService {
         }
         
         Product product = new Product(sku, name, description, price, merchantId, initialInventory);
-        return productRepository.save(product);
+        return save(product);
     }
     
     /**
@@ -44,7 +66,9 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public Product getProductBySku(String sku) {
-        return productRepository.findBySku(sku)
+        return productCache.get(sku)
+                .or(() -> productRepository.findBySku(sku).map(this::cache))
+                .map(this::attachInventory)
                 .orElseThrow(() -> new BusinessException(ErrorCode.RESOURCE_NOT_FOUND, 
                     "Product not found with SKU: " + sku));
     }
@@ -55,6 +79,7 @@ public class ProductService {
     @Transactional(readOnly = true)
     public Product getProductById(Long productId) {
         return productRepository.findById(productId)
+                .map(this::attachInventory)
                 .orElseThrow(() -> new BusinessException(ErrorCode.RESOURCE_NOT_FOUND, 
                     "Product not found with id: " + productId));
     }
@@ -64,7 +89,8 @@ public class ProductService {
      */
     @Transactional
     public void saveProduct(Product product) {
-        productRepository.save(product);
+        product.syncInventory();
+        save(product);
     }
     
     /**
@@ -75,7 +101,7 @@ public class ProductService {
     public void addInventory(String sku, int quantity) {
         Product product = getProductBySku(sku);
         product.addInventory(quantity);
-        productRepository.save(product);
+        saveUnlessLive(product);
     }
     
     /**
@@ -86,7 +112,7 @@ public class ProductService {
     public void reduceInventory(String sku, int quantity) {
         Product product = getProductBySku(sku);
         product.reduceInventory(quantity);
-        productRepository.save(product);
+        saveUnlessLive(product);
     }
     
     /**
@@ -106,7 +132,20 @@ public class ProductService {
             product.reduceInventory(currentInventory - quantity);
         }
         // If quantity == currentInventory, no change needed
-        productRepository.save(product);
+        saveUnlessLive(product);
+    }
+    
+    /**
+     * Mark product as hot (flash sale) or back to normal
+     * Hot products reserve stock from sharded counters
+     */
+    @Transactional
+    public Product markProductHot(String sku, boolean hot) {
+        Product product = getProductBySku(sku);
+        product.markHot(hot);
+        inventoryService.attach(product);
+        saveProduct(product);
+        return product;
     }
     
     /**
@@ -114,7 +153,7 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public List<Product> getProductsByMerchant(Long merchantId) {
-        return productRepository.findByMerchantId(merchantId);
+        return attachInventory(productRepository.findByMerchantId(merchantId));
     }
     
     /**
@@ -122,7 +161,7 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return attachInventory(productRepository.findAll());
     }
     
     /**
@@ -130,7 +169,7 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public List<Product> getAvailableProducts() {
-        return productRepository.findAll().stream()
+        return getAllProducts().stream()
                 .filter(Product::isAvailable)
                 .collect(Collectors.toList());
     }
@@ -145,7 +184,7 @@ public class ProductService {
         }
         
         String lowerSearchTerm = searchTerm.toLowerCase();
-        return productRepository.findAll().stream()
+        return getAllProducts().stream()
                 .filter(product -> product.getName().toLowerCase().contains(lowerSearchTerm) ||
                                  product.getDescription().toLowerCase().contains(lowerSearchTerm))
                 .collect(Collectors.toList());
@@ -188,10 +227,48 @@ public class ProductService {
         }
         
         String lowerSearchTerm = searchTerm.toLowerCase();
-        return productRepository.findAll().stream()
+        return getAllProducts().stream()
                 .filter(Product::isAvailable)
                 .filter(product -> product.getName().toLowerCase().contains(lowerSearchTerm) ||
                                  product.getDescription().toLowerCase().contains(lowerSearchTerm))
                 .collect(Collectors.toList());
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Persist inventory change unless the live counter already holds it
+     * Live counters are written back by InventoryService.flush
+     */
+    private void saveUnlessLive(Product product) {
+        if (!product.hasLiveInventory()) {
+            save(product);
+        }
+    }
+    
+    private Product save(Product product) {
+        Product saved;
+        try {
+            saved = productRepository.save(product);
+        } catch (RuntimeException e) {
+            // The cached copy may be the stale one that failed the version check
+            productCache.invalidate(product.getSku());
+            throw e;
+        }
+        productCache.saved(product);
+        return saved;
+    }
+    
+    private Product cache(Product product) {
+        productCache.put(product);
+        return product;
+    }
+    
+    private Product attachInventory(Product product) {
+        inventoryService.attach(product);
+        return product;
+    }
+    
+    private List<Product> attachInventory(List<Product> products) {
+        products.forEach(inventoryService::attach);
+        return products;
+    }
+}
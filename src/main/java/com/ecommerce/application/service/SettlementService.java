@@ -1,10 +1,16 @@
 package com.ecommerce.application.service;
 
 import com.ecommerce.domain.settlement.Settlement;
+import com.ecommerce.domain.Currency;
 import com.ecommerce.domain.Money;
-import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.MoneyAccumulator;
 import com.ecommerce.domain.merchant.Merchant;
+import com.ecommerce.domain.ledger.MovementType;
+import com.ecommerce.infrastructure.ledger.AccountType;
+import com.ecommerce.infrastructure.ledger.BalanceLedger;
 import com.ecommerce.infrastructure.repository.SettlementRepository;
+import com.ecommerce.domain.PlatformClock;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
@@ -26,22 +32,32 @@ public class SettlementService {
     private final SettlementRepository settlementRepository;
     private final MerchantService merchantService;
     private final OrderService orderService;
+    private final BalanceLedger balanceLedger;
     
     public SettlementService(SettlementRepository settlementRepository,
                            MerchantService merchantService, 
                            OrderService orderService) {
+        this(settlementRepository, merchantService, orderService, new BalanceLedger());
+    }
+    
+    @Autowired
+    public SettlementService(SettlementRepository settlementRepository,
+                           MerchantService merchantService, 
+                           OrderService orderService,
+                           BalanceLedger balanceLedger) {
         this.settlementRepository = settlementRepository;
         this.merchantService = merchantService;
         this.orderService = orderService;
+        this.balanceLedger = balanceLedger;
     }
     
     /**
      * Execute settlement for all active merchants (called by scheduler)
-     * Improved logic: Calculate orders from yesterday settlement to now and compare with current balance
+     * Improved logic: Calculate orders completed since the previous settlement and compare with current balance
      * No transaction needed - each merchant settlement has its own transaction
      */
     public void executeSettlement() {
-        LocalDate settlementDate = LocalDate.now(); // Settle today's data
+        LocalDate settlementDate = PlatformClock.now().toLocalDate(); // Settle today's data
         
         logger.info("Starting daily settlement for date: {}", settlementDate);
         
@@ -68,77 +84,123 @@ public class SettlementService {
     
     /**
      * Execute merchant settlement with improved logic
-     * Validates: Orders from yesterday settlement to now should match current balance
-     * If there was a settlement record yesterday, then: yesterday's balance + orders since yesterday = current balance
+     * Validates: Orders completed since the previous settlement should match current balance
+     * If the merchant was settled before, then: previous balance + orders completed since = current balance
+     * Otherwise the period starts when the merchant was created, with an empty account, or failing that
+     * the opening balance comes from the balance ledger; withdrawals in the period are read from it too.
+     * The ledger is a process-local cache: if its history does not reach back to the start of the period,
+     * the balance is recorded without being verified
+     * Each settlement records its settlement time as watermark, and the next one reads the orders completed
+     * in (watermark, settlement time], so every completed order is settled exactly once, whenever it was placed
+     * and however many days were skipped; a merchant already settled for the date is not settled again
      * Requires transaction for single merchant settlement atomicity
      */
     @Transactional
     public Settlement executeMerchantSettlement(Long merchantId, LocalDate settlementDate) {
         logger.info("Executing settlement for merchant {} on date {}", merchantId, settlementDate);
         
-        // Calculate date range: from yesterday settlement time to now
-        LocalDateTime startTime;
-        
-        // Check if there was a settlement record yesterday
-        Optional<Settlement> yesterdaySettlement = getSettlementByMerchantAndDate(merchantId, settlementDate.minusDays(1));
+        Optional<Settlement> existingSettlement = getSettlementByMerchantAndDate(merchantId, settlementDate);
+        if (existingSettlement.isPresent()) {
+            logger.info("Merchant {} already settled for {} up to {}, keeping that settlement", 
+                      merchantId, settlementDate, existingSettlement.get().getSettledUntil());
+            return existingSettlement.get();
+        }
         
-        if (yesterdaySettlement.isPresent()) {
-            // If there was a settlement yesterday, start from yesterday's settlement time
-            startTime = yesterdaySettlement.get().getCreatedAt();
-            logger.info("Found yesterday settlement for merchant {}, starting from: {}", merchantId, startTime);
+        // Calculate the period: from where the merchant's latest settlement stopped to now
+        LocalDateTime startTime;
+        Optional<Settlement> previousSettlement = settlementRepository.findTopByMerchantIdOrderBySettlementDateDesc(merchantId);
+        Merchant merchant = merchantService.getMerchantById(merchantId);
+        
+        if (previousSettlement.isPresent()) {
+            // Start from its watermark; settlements recorded before watermarks covered their whole date
+            Settlement previous = previousSettlement.get();
+            startTime = previous.getSettledUntil() != null
+                ? previous.getSettledUntil() : previous.getSettlementDate().plusDays(1).atStartOfDay();
+            logger.info("Found previous settlement for merchant {} on {}, starting from: {}", 
+                      merchantId, previous.getSettlementDate(), startTime);
+        } else if (merchant != null && merchant.getCreatedAt() != null) {
+            // Never settled: every order since the merchant was created
+            startTime = merchant.getCreatedAt();
+            logger.info("No previous settlement found for merchant {}, starting from its creation: {}", merchantId, startTime);
         } else {
-            // If no settlement yesterday, start from yesterday's start of day
             startTime = settlementDate.minusDays(1).atStartOfDay();
-            logger.info("No yesterday settlement found for merchant {}, starting from: {}", merchantId, startTime);
+            logger.info("No previous settlement found for merchant {}, starting from: {}", merchantId, startTime);
         }
         
+        // Bring the persisted account and the ledger up to date with live income
+        merchantService.flushIncome(merchantId);
+        
         // Set settlement time point to ensure data consistency between order query and balance retrieval
-        LocalDateTime settlementTime = LocalDateTime.now();
+        LocalDateTime settlementTime = PlatformClock.now();
          // Get current balance at the same time point as settlementTime
          Money currentBalance = merchantService.getMerchantBalance(merchantId);
          
-        // Get completed orders for the merchant from yesterday settlement to settlement time
-        List<Order> completedOrders = orderService.getCompletedOrdersByMerchantAndDateRange(
-            merchantId, startTime, settlementTime);
+        // Sum orders the merchant completed in (start, settlement time] as they stream in
+        MoneyAccumulator completedOrderTotals = new MoneyAccumulator();
+        orderService.forEachOrderTotalCompletedByMerchant(
+            merchantId, startTime, settlementTime, completedOrderTotals::add);
         
-        // Calculate expected income from completed orders (orders since yesterday settlement)
-        Money recentOrderIncome = calculateExpectedIncomeFromOrders(completedOrders);
+        // Calculate expected income from completed orders (orders completed since the previous settlement)
+        Money recentOrderIncome = calculateExpectedIncomeFromOrders(completedOrderTotals);
+        
+        // Withdrawals (refunds of cancelled orders) since the start come straight from the ledger
+        Money zero = Money.zero(recentOrderIncome.getCurrency());
+        Money recentWithdrawals = balanceLedger.netChange(AccountType.MERCHANT, merchantId,
+                startTime, settlementTime, MovementType.WITHDRAWAL).orElse(zero);
+        Money ledgerIncome = balanceLedger.netChange(AccountType.MERCHANT, merchantId,
+                startTime, settlementTime, MovementType.INCOME).orElse(zero);
         
         Money expectedBalance;
         String calculationNotes;
         
-        if (yesterdaySettlement.isPresent()) {
-            // If there was a settlement yesterday, calculate: yesterday's balance + orders since yesterday
-            Money yesterdayBalance = yesterdaySettlement.get().getActualBalance();
-            expectedBalance = yesterdayBalance.add(recentOrderIncome);
-            calculationNotes = String.format("Yesterday's balance: %s, Orders since yesterday: %s, Expected balance: %s", 
-                                          yesterdayBalance, recentOrderIncome, expectedBalance);
+        if (previousSettlement.isPresent()) {
+            // Settled before: previous balance + orders completed since
+            Money previousBalance = previousSettlement.get().getActualBalance();
+            expectedBalance = previousBalance.add(recentOrderIncome).add(recentWithdrawals);
+            calculationNotes = String.format("Previous balance (%s): %s, Orders since previous settlement: %s, Withdrawals: %s, Expected balance: %s", 
+                                          previousSettlement.get().getSettlementDate(), previousBalance, 
+                                          recentOrderIncome, recentWithdrawals, expectedBalance);
+        } else if (merchant != null && merchant.getCreatedAt() != null && !merchant.getCreatedAt().isBefore(startTime)) {
+            // A merchant opened during the period started with an empty account
+            expectedBalance = zero.add(recentOrderIncome).add(recentWithdrawals);
+            calculationNotes = String.format("No previous settlement found, Opening balance: %s (merchant created in period), Recent orders income: %s, Withdrawals: %s", 
+                                          zero, recentOrderIncome, recentWithdrawals);
+        } else if (balanceLedger.covers(startTime)) {
+            // Never settled: the opening balance is read from the ledger snapshots;
+            // an account the ledger has not seen has not moved since its history starts
+            Money openingBalance = balanceLedger.balanceAt(AccountType.MERCHANT, merchantId, startTime).orElse(currentBalance);
+            expectedBalance = openingBalance.add(recentOrderIncome).add(recentWithdrawals);
+            calculationNotes = String.format("No previous settlement found, Opening balance: %s, Recent orders income: %s, Withdrawals: %s", 
+                                          openingBalance, recentOrderIncome, recentWithdrawals);
         } else {
-            // If no settlement yesterday, assume current balance should match recent orders
-            expectedBalance = recentOrderIncome;
-            calculationNotes = String.format("No previous settlement found, Recent orders income: %s", recentOrderIncome);
+            // Neither a settlement nor ledger history to take the opening balance from
+            expectedBalance = null;
+            calculationNotes = String.format("No previous settlement found, No ledger history since %s (ledger starts %s), Recent orders income: %s", 
+                                          startTime, balanceLedger.historyStart(), recentOrderIncome);
         }
+        calculationNotes += String.format(", Ledger income: %s", ledgerIncome);
         
         // Validate: Expected balance should match current balance
-        boolean isMatched = expectedBalance.equals(currentBalance);
+        boolean isVerified = expectedBalance != null;
+        boolean isMatched = isVerified && expectedBalance.equals(currentBalance);
         
         logger.info("Settlement calculation for merchant {}: {} completed orders from {} to {}", 
-                  merchantId, completedOrders.size(), startTime, settlementTime);
+                  merchantId, completedOrderTotals.count(), startTime, settlementTime);
         logger.info("Recent order income: {}, Current balance: {}, Expected balance: {}, Match: {}", 
                   recentOrderIncome, currentBalance, expectedBalance, isMatched);
         
-        if (!isMatched) {
+        if (isVerified && !isMatched) {
             logger.warn("Balance mismatch for merchant {}: expected={}, actual={}", 
                        merchantId, expectedBalance, currentBalance);
         }
         
         // Create settlement record
-        Settlement settlement = new Settlement(merchantId, settlementDate, recentOrderIncome, currentBalance);
+        Settlement settlement = new Settlement(merchantId, settlementDate, recentOrderIncome, currentBalance, settlementTime);
         
         // Add detailed notes about the calculation
         String notes = String.format("%s, Current balance: %s, Match: %s", 
                                    calculationNotes, currentBalance,
-                                   isMatched ? "Yes" : "No");
+                                   !isVerified ? "Unverified" : isMatched ? "Yes" : "No");
         settlement.addNotes(notes);
         
         return settlementRepository.save(settlement);
@@ -146,33 +208,21 @@ public class SettlementService {
     
     /**
      * Get settlement by merchant ID and date
-     * 
-     * Note: This is a placeholder implementation for demo purposes.
-     * In a real implementation, this would query the repository with:
-     * settlementRepository.findByMerchantIdAndSettlementDate(merchantId, settlementDate)
      */
     @Transactional(readOnly = true)
     public Optional<Settlement> getSettlementByMerchantAndDate(Long merchantId, LocalDate settlementDate) {
-        // Demo implementation - always return empty to simulate first-time settlement
-        // This ensures the settlement logic calculates from beginning of day
-        return Optional.empty();
+        return settlementRepository.findByMerchantIdAndSettlementDate(merchantId, settlementDate);
     }
     
     /**
      * Calculate expected income from completed orders
      */
-    private Money calculateExpectedIncomeFromOrders(List<Order> completedOrders) {
-        if (completedOrders.isEmpty()) {
-            return Money.zero("CNY");
-        }
-        
-        // Sum up total amounts from all completed orders
-        Money totalExpectedIncome = completedOrders.stream()
-                .map(Order::getTotalAmount)
-                .reduce(Money.zero("CNY"), Money::add);
+    private Money calculateExpectedIncomeFromOrders(MoneyAccumulator completedOrderTotals) {
+        // Totals were summed in minor units; one Money at the end
+        Money totalExpectedIncome = completedOrderTotals.total(Currency.CNY);
         
         logger.debug("Calculated expected income from {} orders: {}", 
-                   completedOrders.size(), totalExpectedIncome);
+                   completedOrderTotals.count(), totalExpectedIncome);
         
         return totalExpectedIncome;
     }
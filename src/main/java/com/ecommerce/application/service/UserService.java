@@ -1,25 +1,51 @@
 package com.ecommerce.application.service;
 
+import com.ecommerce.domain.ResourceInactiveException;
 import com.ecommerce.domain.user.User;
 import com.ecommerce.domain.user.UserNotFoundException;
 import com.ecommerce.domain.user.DuplicateUserException;
+import com.ecommerce.domain.user.UserStatus;
 import com.ecommerce.domain.Money;
+import com.ecommerce.domain.ledger.BalanceMovement;
+import com.ecommerce.infrastructure.cache.StatusCache;
+import com.ecommerce.infrastructure.ledger.AccountType;
+import com.ecommerce.infrastructure.ledger.BalanceLedger;
 import com.ecommerce.infrastructure.repository.UserRepository;
+import com.ecommerce.infrastructure.transaction.TransactionEffects;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
 import java.util.Set;
 
 /**
  * User Service
  * Manages user-related business operations
+ * 
+ * The status of every user loaded or saved here is kept in a near-cache, so that the
+ * purchase path can check that a user is active without loading the account.
  */
 @Service
 public class UserService {
     
     private final UserRepository userRepository;
+    private final BalanceLedger balanceLedger;
+    private final StatusCache<UserStatus> statusCache;
     
     public UserService(UserRepository userRepository) {
+        this(userRepository, new BalanceLedger());
+    }
+    
+    public UserService(UserRepository userRepository, BalanceLedger balanceLedger) {
+        this(userRepository, balanceLedger, StatusCache.disabled());
+    }
+    
+    @Autowired
+    public UserService(UserRepository userRepository, BalanceLedger balanceLedger,
+                      StatusCache<UserStatus> statusCache) {
         this.userRepository = userRepository;
+        this.balanceLedger = balanceLedger;
+        this.statusCache = statusCache;
     }
     
     /**
@@ -39,15 +65,35 @@ public class UserService {
         }
         
         User user = new User(username, email, phone, currency);
-        return userRepository.save(user);
+        return save(user);
     }
     
     /**
      * Get user by ID
      */
     public User getUserById(Long userId) {
-        return userRepository.findById(userId)
+        User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(userId));
+        statusCache.put(userId, user.getStatus(), user.getVersion());
+        return user;
+    }
+    
+    /**
+     * Check that the user exists and is active
+     * An active status is served from the near-cache; any other answer is confirmed by
+     * loading the user, so a stale entry never refuses an active user. Callers that go on
+     * to change the user check the loaded aggregate again.
+     * 
+     * @throws UserNotFoundException if there is no such user
+     * @throws ResourceInactiveException if the user is not active
+     */
+    public void requireActiveUser(Long userId) {
+        if (statusCache.get(userId).orElse(null) == UserStatus.ACTIVE) {
+            return;
+        }
+        if (!getUserById(userId).isActive()) {
+            throw new ResourceInactiveException("User is not active. User ID: " + userId);
+        }
     }
     
     /**
@@ -58,7 +104,7 @@ public class UserService {
     public void rechargeUser(Long userId, Money amount) {
         User user = getUserById(userId);
         user.recharge(amount);
-        userRepository.save(user);
+        persist(user);
     }
     
     /**
@@ -66,7 +112,7 @@ public class UserService {
      */
     @Transactional
     public void saveUser(User user) {
-        userRepository.save(user);
+        persist(user);
     }
     
     /**
@@ -114,4 +160,25 @@ public class UserService {
     public int getUserCount() {
         return userRepository.count();
     }
+    
+    /**
+     * Save the user, then hand the balance movements it made to the ledger once they are committed
+     */
+    private void persist(User user) {
+        save(user);
+        List<BalanceMovement> movements = user.drainBalanceMovements();
+        TransactionEffects.afterCommit(() -> balanceLedger.record(AccountType.USER, user.getId(), movements));
+    }
+    
+    private User save(User user) {
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (RuntimeException e) {
+            statusCache.invalidate(user.getId());
+            throw e;
+        }
+        statusCache.saved(user.getId(), user.getStatus(), user.getVersion());
+        return saved;
+    }
 } 
\ No newline at end of file
@@ -8,10 +8,21 @@ import java.util.Objects;
  * Base Entity Class containing common fields and methods
  */
 @MappedSuperclass
-public abstract class BaseEntity {
-    
+public abstract class BaseEntity implements Cloneable {
+
+    /**
+     * Number of ids reserved from the sequence table per round trip
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Ids come in pooled blocks from a sequence table, one row per entity table, so they are
+    // known before the INSERT and Hibernate can batch inserts such as an order's items.
+    // In-memory stores assign ids themselves and ignore this mapping.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "id_sequences")
+    @TableGenerator(name = "id_sequences", table = "id_sequences",
+                    pkColumnName = "sequence_name", valueColumnName = "next_val",
+                    allocationSize = ID_ALLOCATION_SIZE)
     @Column(name = "id")
     private Long id;
     
@@ -25,14 +36,18 @@ public abstract class BaseEntity {
     @Column(name = "version", nullable = false)
     private Long version;
     
+    // Version of the stored row this instance was read from or last written to; null if never stored
+    @Transient
+    private Long persistedVersion;
+    
     protected BaseEntity() {
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.createdAt = PlatformClock.now();
+        this.updatedAt = this.createdAt;
         this.version = 0L;
     }
     
     protected void markAsUpdated() {
-        this.updatedAt = LocalDateTime.now();
+        this.updatedAt = PlatformClock.now();
         // In non-JPA environments (like unit tests), manually increment version
         // In JPA environments, @Version will handle this automatically
         this.version++;
@@ -72,6 +87,49 @@ public abstract class BaseEntity {
         this.version = version;
     }
     
+    /**
+     * Version the store held when this instance was read or last saved
+     * A save is rejected if the stored version has moved on since
+     */
+    public Long getPersistedVersion() {
+        return persistedVersion;
+    }
+    
+    /**
+     * Record that the current state has been written to the store
+     */
+    public void markPersisted() {
+        this.persistedVersion = this.version;
+    }
+
+    // Rows loaded by JPA hold the stored version
+    @PostLoad
+    void markLoaded() {
+        markPersisted();
+    }
+
+    /**
+     * Take over the version held by the store
+     * For stores that maintain the version themselves, like JPA with @Version: the version is
+     * reset to the one read before a merge, then set to the one written by it
+     */
+    public void syncVersion(Long storedVersion) {
+        this.version = storedVersion;
+    }
+    
+    /**
+     * Detached copy of this entity, including its persisted version
+     * In-memory stores keep and hand out copies so that callers never share an instance;
+     * entities holding mutable collections override this to copy them as well
+     */
+    public BaseEntity copy() {
+        try {
+            return (BaseEntity) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,127 @@
+package com.ecommerce.domain;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Currency Value Object
+ * Registry of the supported ISO 4217 currencies with their minor-unit scale
+ *
+ * There is exactly one instance per code, so currencies compare by reference. Each
+ * instance caches its zero amount. Looking up an exact upper-case code allocates nothing;
+ * other spellings (lower case, surrounding blanks) are normalized first.
+ */
+public final class Currency {
+
+    // Position in declaration order; no initializer, so the constants below see it counting up
+    private static int declared;
+
+    public static final Currency CNY = new Currency("CNY", 2);
+    public static final Currency USD = new Currency("USD", 2);
+    public static final Currency EUR = new Currency("EUR", 2);
+    public static final Currency GBP = new Currency("GBP", 2);
+    public static final Currency JPY = new Currency("JPY", 0);
+    public static final Currency HKD = new Currency("HKD", 2);
+    public static final Currency SGD = new Currency("SGD", 2);
+    public static final Currency AUD = new Currency("AUD", 2);
+    public static final Currency CAD = new Currency("CAD", 2);
+
+    private static final List<Currency> VALUES = List.of(CNY, USD, EUR, GBP, JPY, HKD, SGD, AUD, CAD);
+
+    private static final Set<String> CODES = Set.copyOf(VALUES.stream().map(Currency::getCode).toList());
+
+    private final String code;
+    private final int scale;
+    private final int ordinal;
+    private final Money zero;
+
+    private Currency(String code, int scale) {
+        this.code = code;
+        this.scale = scale;
+        this.ordinal = declared++;
+        this.zero = Money.ofMinorUnits(0L, this);
+    }
+
+    /**
+     * Look up a supported currency by code
+     * @throws IllegalArgumentException if the code is blank or not supported
+     */
+    public static Currency of(String code) {
+        if (code == null) {
+            throw new IllegalArgumentException("Currency cannot be null or empty");
+        }
+        Currency currency = lookup(code);
+        if (currency != null) {
+            return currency;
+        }
+        String normalizedCode = code.toUpperCase().trim();
+        if (normalizedCode.isEmpty()) {
+            throw new IllegalArgumentException("Currency cannot be null or empty");
+        }
+        currency = lookup(normalizedCode);
+        if (currency == null) {
+            throw new IllegalArgumentException("Unsupported currency: " + code +
+                ". Supported currencies: " + CODES);
+        }
+        return currency;
+    }
+
+    private static Currency lookup(String code) {
+        return switch (code) {
+            case "CNY" -> CNY;
+            case "USD" -> USD;
+            case "EUR" -> EUR;
+            case "GBP" -> GBP;
+            case "JPY" -> JPY;
+            case "HKD" -> HKD;
+            case "SGD" -> SGD;
+            case "AUD" -> AUD;
+            case "CAD" -> CAD;
+            default -> null;
+        };
+    }
+
+    /**
+     * All supported currencies
+     */
+    public static List<Currency> values() {
+        return VALUES;
+    }
+
+    /**
+     * Codes of all supported currencies
+     */
+    public static Set<String> codes() {
+        return CODES;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Number of decimal places of the minor unit, e.g. 2 for cents and 0 for yen
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Index of this currency in values()
+     */
+    int ordinal() {
+        return ordinal;
+    }
+
+    /**
+     * Zero amount in this currency
+     */
+    public Money zero() {
+        return zero;
+    }
+
+    @Override
+    public String toString() {
+        return code;
+    }
+}
@@ -2,8 +2,11 @@ package com.ecommerce.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.Access;
+import jakarta.persistence.AccessType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
+import jakarta.persistence.Transient;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Objects;
@@ -11,60 +14,66 @@ import java.util.Set;
 
 /**
  * Money Value Object
- * Uses BigDecimal to ensure precision, follows immutability principle
+ * Follows immutability principle; amounts are rounded (HALF_UP) to the currency's
+ * minor unit, e.g. cents for CNY and whole yen for JPY
  * Includes comprehensive validation for currency and amount operations
+ * 
+ * The amount is held as a long count of minor units, so arithmetic and comparisons are
+ * plain long operations. A BigDecimal is only kept for amounts that do not fit in a long,
+ * and every operation falls back to BigDecimal arithmetic when a long result would
+ * overflow. Currencies are interned Currency instances, so same-currency checks are
+ * reference comparisons.
+ * 
+ * JPA reads and writes the amount through getAmount/setAmount; the columns are unchanged.
  */
 @Embeddable
+@Access(AccessType.FIELD)
 @JsonIgnoreProperties({"zero", "positive", "negative"})
 public final class Money {
     
-    private static final int DEFAULT_SCALE = 2;
     private static final RoundingMode DEFAULT_ROUNDING_MODE = RoundingMode.HALF_UP;
     
-    // Supported currencies (ISO 4217 compliant)
-    private static final Set<String> SUPPORTED_CURRENCIES = Set.of(
-        "CNY", "USD", "EUR", "GBP", "JPY", "HKD", "SGD", "AUD", "CAD"
-    );
+    // Amount in minor units; only meaningful while inflated is null
+    @Transient
+    private long minorUnits;
     
-    @Column(name = "amount", precision = 19, scale = 2, nullable = false)
-    private final BigDecimal amount;
+    // Amount at the currency's scale, set only when it does not fit in a long of minor units
+    @Transient
+    private BigDecimal inflated;
     
-    @Column(name = "currency", length = 3, nullable = false)
-    private final String currency;
+    @Transient
+    private Currency currency;
     
     // Default constructor for JPA
     protected Money() {
-        this.amount = BigDecimal.ZERO;
-        this.currency = "CNY";
+        this.currency = Currency.CNY;
+    }
+    
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
     }
     
-    private Money(BigDecimal amount, String currency) {
-        this.amount = amount.setScale(DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+    private Money(BigDecimal amount, Currency currency) {
         this.currency = currency;
+        setScaledAmount(amount.setScale(currency.getScale(), DEFAULT_ROUNDING_MODE));
     }
     
-    // Unified validation method
-    private static void validateInput(BigDecimal amount, String currency) {
+    public static Money of(BigDecimal amount, Currency currency) {
         if (amount == null) {
             throw new IllegalArgumentException("Amount cannot be null");
         }
-        if (currency == null || currency.trim().isEmpty()) {
+        if (currency == null) {
             throw new IllegalArgumentException("Currency cannot be null or empty");
         }
-        validateCurrency(currency);
-    }
-    
-    private static void validateCurrency(String currency) {
-        String normalizedCurrency = currency.toUpperCase().trim();
-        if (!SUPPORTED_CURRENCIES.contains(normalizedCurrency)) {
-            throw new IllegalArgumentException("Unsupported currency: " + currency + 
-                ". Supported currencies: " + SUPPORTED_CURRENCIES);
-        }
+        return new Money(amount, currency);
     }
     
     public static Money of(BigDecimal amount, String currency) {
-        validateInput(amount, currency);
-        return new Money(amount, currency.toUpperCase());
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount cannot be null");
+        }
+        return new Money(amount, Currency.of(currency));
     }
     
     public static Money of(double amount, String currency) {
@@ -78,12 +87,32 @@ public final class Money {
         return of(new BigDecimal(amount), currency);
     }
     
+    /**
+     * Create money from an amount in the currency's minor units, e.g. cents or yen
+     */
+    public static Money ofMinorUnits(long minorUnits, Currency currency) {
+        if (currency == null) {
+            throw new IllegalArgumentException("Currency cannot be null or empty");
+        }
+        return new Money(minorUnits, currency);
+    }
+    
+    /**
+     * Create money from an amount in the currency's minor units, e.g. cents or yen
+     */
+    public static Money ofMinorUnits(long minorUnits, String currency) {
+        return new Money(minorUnits, Currency.of(currency));
+    }
+    
     public static Money zero(String currency) {
-        if (currency == null || currency.trim().isEmpty()) {
+        return Currency.of(currency).zero();
+    }
+    
+    public static Money zero(Currency currency) {
+        if (currency == null) {
             throw new IllegalArgumentException("Currency cannot be null or empty");
         }
-        validateCurrency(currency);
-        return new Money(BigDecimal.ZERO, currency.toUpperCase());
+        return currency.zero();
     }
     
     /**
@@ -92,7 +121,14 @@ public final class Money {
      */
     public Money add(Money other) {
         validateSameCurrency(other);
-        return new Money(this.amount.add(other.amount), this.currency);
+        if (this.inflated == null && other.inflated == null) {
+            long sum = this.minorUnits + other.minorUnits;
+            // Overflow iff both operands have the same sign and the result's sign differs
+            if (((this.minorUnits ^ sum) & (other.minorUnits ^ sum)) >= 0) {
+                return new Money(sum, this.currency);
+            }
+        }
+        return new Money(this.decimalAmount().add(other.decimalAmount()), this.currency);
     }
     
     /**
@@ -101,7 +137,14 @@ public final class Money {
      */
     public Money subtract(Money other) {
         validateSameCurrency(other);
-        return new Money(this.amount.subtract(other.amount), this.currency);
+        if (this.inflated == null && other.inflated == null) {
+            long difference = this.minorUnits - other.minorUnits;
+            // Overflow iff the operands have different signs and the result's sign differs from this
+            if (((this.minorUnits ^ other.minorUnits) & (this.minorUnits ^ difference)) >= 0) {
+                return new Money(difference, this.currency);
+            }
+        }
+        return new Money(this.decimalAmount().subtract(other.decimalAmount()), this.currency);
     }
     
     /**
@@ -112,7 +155,15 @@ public final class Money {
         if (factor < 0) {
             throw new IllegalArgumentException("Factor cannot be negative in money operations. Factor: " + factor);
         }
-        return new Money(this.amount.multiply(BigDecimal.valueOf(factor)), this.currency);
+        if (this.inflated == null) {
+            long high = Math.multiplyHigh(this.minorUnits, factor);
+            long product = this.minorUnits * factor;
+            // The product fits in a long iff the high word is just the sign extension of the low word
+            if (high == (product >> 63)) {
+                return new Money(product, this.currency);
+            }
+        }
+        return new Money(this.decimalAmount().multiply(BigDecimal.valueOf(factor)), this.currency);
     }
     
     /**
@@ -123,72 +174,142 @@ public final class Money {
         if (factor == null) {
             throw new IllegalArgumentException("Factor cannot be null");
         }
-        if (factor.compareTo(BigDecimal.ZERO) < 0) {
+        if (factor.signum() < 0) {
             throw new IllegalArgumentException("Factor cannot be negative in money operations. Factor: " + factor);
         }
-        return new Money(this.amount.multiply(factor), this.currency);
+        return new Money(this.decimalAmount().multiply(factor), this.currency);
     }
     
     // Comparison methods
     @com.fasterxml.jackson.annotation.JsonIgnore
     public boolean isZero() {
-        return this.amount.compareTo(BigDecimal.ZERO) == 0;
+        return signum() == 0;
     }
     
     public boolean isGreaterThan(Money other) {
-        validateSameCurrency(other);
-        return this.amount.compareTo(other.amount) > 0;
+        return compareAmount(other) > 0;
     }
     
     public boolean isGreaterThanOrEqual(Money other) {
-        validateSameCurrency(other);
-        return this.amount.compareTo(other.amount) >= 0;
+        return compareAmount(other) >= 0;
     }
     
     public boolean isLessThan(Money other) {
-        validateSameCurrency(other);
-        return this.amount.compareTo(other.amount) < 0;
+        return compareAmount(other) < 0;
     }
     
     public boolean isLessThanOrEqual(Money other) {
+        return compareAmount(other) <= 0;
+    }
+    
+    private int compareAmount(Money other) {
         validateSameCurrency(other);
-        return this.amount.compareTo(other.amount) <= 0;
+        if (this.inflated == null && other.inflated == null) {
+            return Long.compare(this.minorUnits, other.minorUnits);
+        }
+        return this.decimalAmount().compareTo(other.decimalAmount());
     }
     
     private void validateSameCurrency(Money other) {
         if (other == null) {
             throw new IllegalArgumentException("Other money cannot be null");
         }
-        if (!this.currency.equals(other.currency)) {
+        if (this.currency != other.currency) {
             throw new IllegalArgumentException(
                 String.format("Currency mismatch: %s vs %s", this.currency, other.currency));
         }
     }
     
+    private int signum() {
+        return inflated != null ? inflated.signum() : Long.signum(minorUnits);
+    }
+    
+    private BigDecimal decimalAmount() {
+        return inflated != null ? inflated : BigDecimal.valueOf(minorUnits, currency.getScale());
+    }
+    
+    /**
+     * Store an amount already at the currency's scale, as minor units whenever it fits
+     */
+    private void setScaledAmount(BigDecimal scaled) {
+        if (scaled.unscaledValue().bitLength() < Long.SIZE) {
+            this.minorUnits = scaled.unscaledValue().longValue();
+            this.inflated = null;
+        } else {
+            this.minorUnits = 0;
+            this.inflated = scaled;
+        }
+    }
+    
     // Getters
+    @Access(AccessType.PROPERTY)
+    @Column(name = "amount", precision = 19, scale = 2, nullable = false)
     public BigDecimal getAmount() {
-        return amount;
+        return decimalAmount();
     }
     
+    @Access(AccessType.PROPERTY)
+    @Column(name = "currency", length = 3, nullable = false)
     public String getCurrency() {
+        return currency.getCode();
+    }
+    
+    @JsonIgnore
+    public Currency getCurrencyUnit() {
         return currency;
     }
     
+    // Setters for JPA only; Money is immutable to everyone else
+    @SuppressWarnings("unused")
+    private void setAmount(BigDecimal amount) {
+        setScaledAmount(amount.setScale(currency.getScale(), DEFAULT_ROUNDING_MODE));
+    }
+    
+    @SuppressWarnings("unused")
+    private void setCurrency(String code) {
+        Currency loaded = Currency.of(code);
+        if (loaded.getScale() != currency.getScale()) {
+            // The amount may have been loaded first, at the default currency's scale
+            BigDecimal amount = decimalAmount();
+            this.currency = loaded;
+            setAmount(amount);
+        }
+        this.currency = loaded;
+    }
+    
+    /**
+     * Amount as a BigDecimal if it does not fit in a long of minor units, otherwise null
+     */
+    BigDecimal inflatedAmount() {
+        return inflated;
+    }
+    
+    /**
+     * Amount in the currency's minor units, e.g. cents or yen
+     */
+    public long toMinorUnits() {
+        if (inflated != null) {
+            // Always out of range, so this throws like any amount too large for a long
+            return inflated.unscaledValue().longValueExact();
+        }
+        return minorUnits;
+    }
+    
     @JsonIgnore
     public boolean isPositive() {
-        return amount.compareTo(BigDecimal.ZERO) > 0;
+        return signum() > 0;
     }
     
     @JsonIgnore
     public boolean isNegative() {
-        return amount.compareTo(BigDecimal.ZERO) < 0;
+        return signum() < 0;
     }
     
     /**
      * Get list of supported currencies
      */
     public static Set<String> getSupportedCurrencies() {
-        return Set.copyOf(SUPPORTED_CURRENCIES);
+        return Currency.codes();
     }
     
     @Override
@@ -196,16 +317,18 @@ public final class Money {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Money money = (Money) o;
-        return Objects.equals(amount, money.amount) && Objects.equals(currency, money.currency);
+        // Amounts have one representation each: minor units if they fit, otherwise inflated
+        return currency == money.currency && minorUnits == money.minorUnits
+            && Objects.equals(inflated, money.inflated);
     }
     
     @Override
     public int hashCode() {
-        return Objects.hash(amount, currency);
+        return 31 * (inflated != null ? inflated.hashCode() : Long.hashCode(minorUnits)) + currency.hashCode();
     }
     
     @Override
     public String toString() {
-        return String.format("%s %s", amount.toPlainString(), currency);
+        return String.format("%s %s", decimalAmount().toPlainString(), currency);
     }
-} 
\ No newline at end of file
+}
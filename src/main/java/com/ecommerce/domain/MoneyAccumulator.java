@@ -0,0 +1,120 @@
+package com.ecommerce.domain;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Money Accumulator
+ * Mutable running total of many Money amounts, kept as primitive minor units per currency
+ * 
+ * Adding an amount is a long addition into the slot of its currency, so summing a large
+ * collection allocates nothing until the total is materialized as a single Money. Sums
+ * that would overflow a long are carried over into a BigDecimal for that currency.
+ * 
+ * Not thread-safe; use one accumulator per thread, like a StringBuilder.
+ */
+public final class MoneyAccumulator {
+    
+    private final long[] sums = new long[Currency.values().size()];
+    // Per currency, the part of the total that no longer fits in sums; null until needed
+    private BigDecimal[] carried;
+    // Bit per currency that has been added to
+    private int used;
+    private long count;
+    
+    /**
+     * Sum one amount per item
+     * 
+     * @param ifEmpty currency of the zero returned when there are no items
+     * @throws IllegalArgumentException if the amounts are not all in one currency
+     */
+    public static <T> Money sum(Iterable<? extends T> items, Function<? super T, Money> amount, Currency ifEmpty) {
+        MoneyAccumulator accumulator = new MoneyAccumulator();
+        for (T item : items) {
+            accumulator.add(amount.apply(item));
+        }
+        return accumulator.total(ifEmpty);
+    }
+    
+    /**
+     * Add an amount to the total of its currency
+     */
+    public MoneyAccumulator add(Money money) {
+        if (money == null) {
+            throw new IllegalArgumentException("Money cannot be null");
+        }
+        int slot = money.getCurrencyUnit().ordinal();
+        BigDecimal inflated = money.inflatedAmount();
+        if (inflated != null) {
+            carry(slot, inflated);
+        } else {
+            long minorUnits = money.toMinorUnits();
+            long sum = sums[slot] + minorUnits;
+            if (((sums[slot] ^ sum) & (minorUnits ^ sum)) < 0) {
+                // Overflow: move the running sum out and start again from this amount
+                carry(slot, BigDecimal.valueOf(sums[slot], money.getCurrencyUnit().getScale()));
+                sum = minorUnits;
+            }
+            sums[slot] = sum;
+        }
+        used |= 1 << slot;
+        count++;
+        return this;
+    }
+    
+    /**
+     * Total of the amounts added in the given currency, zero if there were none
+     */
+    public Money totalIn(Currency currency) {
+        int slot = currency.ordinal();
+        if (carried == null || carried[slot] == null) {
+            return Money.ofMinorUnits(sums[slot], currency);
+        }
+        return Money.of(carried[slot].add(BigDecimal.valueOf(sums[slot], currency.getScale())), currency);
+    }
+    
+    /**
+     * Total of all amounts added, which must share one currency
+     * 
+     * @param ifEmpty currency of the zero returned when nothing was added
+     * @throws IllegalArgumentException if amounts in several currencies were added
+     */
+    public Money total(Currency ifEmpty) {
+        if (used == 0) {
+            return Money.zero(ifEmpty);
+        }
+        if (Integer.bitCount(used) > 1) {
+            throw new IllegalArgumentException("Currency mismatch: " + currencies());
+        }
+        return totalIn(Currency.values().get(Integer.numberOfTrailingZeros(used)));
+    }
+    
+    /**
+     * Currencies that have been added to
+     */
+    public Set<Currency> currencies() {
+        Set<Currency> currencies = new LinkedHashSet<>();
+        for (Currency currency : Currency.values()) {
+            if ((used & (1 << currency.ordinal())) != 0) {
+                currencies.add(currency);
+            }
+        }
+        return currencies;
+    }
+    
+    /**
+     * Number of amounts added
+     */
+    public long count() {
+        return count;
+    }
+    
+    private void carry(int slot, BigDecimal amount) {
+        if (carried == null) {
+            carried = new BigDecimal[sums.length];
+        }
+        carried[slot] = carried[slot] == null ? amount : carried[slot].add(amount);
+    }
+}
@@ -0,0 +1,254 @@
+package com.ecommerce.domain;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * Platform Clock
+ * Source of the current time for entities, DTOs and services
+ *
+ * LocalDateTime.now() looks up the default time zone on every call. The platform clock
+ * resolves the zone once and comes in three kinds:
+ * - precise: reads the system clock on every call
+ * - coarse: a daemon thread refreshes a cached time every tick, so reading the time is a
+ *   volatile read; timestamps may lag by up to one tick
+ * - fixed: stands still until advanced, for tests and deterministic benchmarks
+ *
+ * Entities and DTOs, which have no access to Spring beans, read PlatformClock.now(), which
+ * goes to the installed clock. ClockConfig installs the configured one at startup.
+ */
+public abstract class PlatformClock extends Clock implements AutoCloseable {
+
+    private static volatile PlatformClock installed = precise(ZoneId.systemDefault());
+
+    protected final ZoneId zone;
+
+    private PlatformClock(ZoneId zone) {
+        this.zone = Objects.requireNonNull(zone, "Zone cannot be null");
+    }
+
+    /**
+     * Current local date-time of the installed clock
+     */
+    public static LocalDateTime now() {
+        return installed.dateTime();
+    }
+
+    /**
+     * Clock used by PlatformClock.now()
+     */
+    public static PlatformClock installed() {
+        return installed;
+    }
+
+    /**
+     * Make the clock the one behind PlatformClock.now()
+     * @return the clock it replaces
+     */
+    public static PlatformClock install(PlatformClock clock) {
+        PlatformClock previous = installed;
+        installed = Objects.requireNonNull(clock, "Clock cannot be null");
+        return previous;
+    }
+
+    /**
+     * Clock reading the system time on every call
+     */
+    public static PlatformClock precise(ZoneId zone) {
+        return new Precise(zone);
+    }
+
+    /**
+     * Clock refreshed by a daemon thread every tick; close it to stop the thread
+     */
+    public static PlatformClock coarse(ZoneId zone, Duration tick) {
+        return new Coarse(zone, tick);
+    }
+
+    /**
+     * Clock standing at the given time until advanced
+     */
+    public static FixedClock fixed(LocalDateTime start, ZoneId zone) {
+        return new FixedClock(start, zone);
+    }
+
+    /**
+     * Current local date-time in the clock's zone
+     */
+    public abstract LocalDateTime dateTime();
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * The same clock read in another zone
+     * The view shares this clock's instants, so a fixed clock stays fixed and a coarse one
+     * keeps its tick rather than turning into the system clock
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this.zone.equals(zone) ? this : new ZoneView(this, zone);
+    }
+
+    /**
+     * Release resources held by the clock; a no-op except for coarse clocks
+     */
+    @Override
+    public void close() {
+    }
+
+    private static final class ZoneView extends Clock {
+
+        private final PlatformClock source;
+        private final ZoneId zone;
+
+        ZoneView(PlatformClock source, ZoneId zone) {
+            this.source = source;
+            this.zone = Objects.requireNonNull(zone, "Zone cannot be null");
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return source.withZone(zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return source.instant();
+        }
+
+        @Override
+        public long millis() {
+            return source.millis();
+        }
+    }
+
+    private static final class Precise extends PlatformClock {
+
+        private final Clock system;
+
+        Precise(ZoneId zone) {
+            super(zone);
+            this.system = Clock.system(zone);
+        }
+
+        @Override
+        public LocalDateTime dateTime() {
+            return LocalDateTime.now(system);
+        }
+
+        @Override
+        public Instant instant() {
+            return system.instant();
+        }
+
+        @Override
+        public long millis() {
+            return system.millis();
+        }
+    }
+
+    private static final class Coarse extends PlatformClock {
+
+        private final Clock system;
+        private final long tickMillis;
+        private final Thread ticker;
+        private volatile Reading reading;
+
+        private record Reading(Instant instant, LocalDateTime dateTime) {
+        }
+
+        Coarse(ZoneId zone, Duration tick) {
+            super(zone);
+            if (tick == null || tick.toMillis() <= 0) {
+                throw new IllegalArgumentException("Tick must be at least one millisecond");
+            }
+            this.system = Clock.system(zone);
+            this.tickMillis = tick.toMillis();
+            refresh();
+            this.ticker = Thread.ofPlatform().name("platform-clock-ticker").daemon(true).start(this::tick);
+        }
+
+        private void tick() {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(tickMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                refresh();
+            }
+        }
+
+        private void refresh() {
+            Instant instant = system.instant();
+            reading = new Reading(instant, LocalDateTime.ofInstant(instant, zone));
+        }
+
+        @Override
+        public LocalDateTime dateTime() {
+            return reading.dateTime();
+        }
+
+        @Override
+        public Instant instant() {
+            return reading.instant();
+        }
+
+        @Override
+        public void close() {
+            ticker.interrupt();
+            synchronized (PlatformClock.class) {
+                // Do not leave PlatformClock.now() frozen at the last tick
+                if (installed == this) {
+                    installed = precise(zone);
+                }
+            }
+        }
+    }
+
+    /**
+     * Clock that only moves when told to
+     */
+    public static final class FixedClock extends PlatformClock {
+
+        private volatile LocalDateTime dateTime;
+
+        FixedClock(LocalDateTime start, ZoneId zone) {
+            super(zone);
+            this.dateTime = Objects.requireNonNull(start, "Start time cannot be null");
+        }
+
+        /**
+         * Move the clock forward
+         */
+        public synchronized void advance(Duration duration) {
+            if (duration.isNegative()) {
+                throw new IllegalArgumentException("A clock cannot be moved backwards");
+            }
+            dateTime = dateTime.plus(duration);
+        }
+
+        @Override
+        public LocalDateTime dateTime() {
+            return dateTime;
+        }
+
+        @Override
+        public Instant instant() {
+            return dateTime.atZone(zone).toInstant();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.domain.ledger;
+
+import com.ecommerce.domain.Money;
+
+/**
+ * Balance Movement Value Object
+ * One change to an account balance, recorded by the aggregate that made it
+ *
+ * @param amount       unsigned amount moved; the type gives the direction
+ * @param balanceAfter account balance once the movement was applied
+ */
+public record BalanceMovement(MovementType type, Money amount, Money balanceAfter) {
+    
+    public BalanceMovement {
+        if (type == null || amount == null || balanceAfter == null) {
+            throw new IllegalArgumentException("Movement type, amount and resulting balance are required");
+        }
+        if (amount.isNegative()) {
+            throw new IllegalArgumentException("Movement amount cannot be negative: " + amount);
+        }
+    }
+    
+    /**
+     * Signed change in minor units: positive for credits, negative for debits
+     */
+    public long signedMinorUnits() {
+        return type.getSign() * amount.toMinorUnits();
+    }
+}
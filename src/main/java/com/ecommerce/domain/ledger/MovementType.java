@@ -0,0 +1,32 @@
+package com.ecommerce.domain.ledger;
+
+/**
+ * Movement Type Enumeration
+ * Kinds of change to a user or merchant balance
+ */
+public enum MovementType {
+    OPENING("Opening balance", 1),
+    RECHARGE("Recharge", 1),
+    DEDUCTION("Deduction", -1),
+    INCOME("Income", 1),
+    WITHDRAWAL("Withdrawal", -1);
+    
+    private final String description;
+    private final int sign;
+    
+    MovementType(String description, int sign) {
+        this.description = description;
+        this.sign = sign;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    /**
+     * Direction of the movement: 1 for credits, -1 for debits
+     */
+    public int getSign() {
+        return sign;
+    }
+}
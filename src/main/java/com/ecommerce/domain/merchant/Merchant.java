@@ -3,8 +3,13 @@ package com.ecommerce.domain.merchant;
 import com.ecommerce.domain.BaseEntity;
 import com.ecommerce.domain.Money;
 import com.ecommerce.domain.ResourceInactiveException;
+import com.ecommerce.domain.ledger.BalanceMovement;
+import com.ecommerce.domain.ledger.MovementType;
 import jakarta.persistence.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Merchant Aggregate Root
  * Contains merchant basic information and income account
@@ -42,6 +47,14 @@ public class Merchant extends BaseEntity {
     @Column(name = "status", nullable = false, length = 20)
     private MerchantStatus status;
     
+    // Balance movements not yet handed to the ledger
+    @Transient
+    private List<BalanceMovement> pendingMovements = new ArrayList<>();
+    
+    // Live income shared by every loaded copy of this merchant; the persisted account lags behind it
+    @Transient
+    private MerchantIncomeAccumulator incomeAccumulator;
+    
     // Constructor
     protected Merchant() {
         super();
@@ -71,7 +84,12 @@ public class Merchant extends BaseEntity {
         if (amount == null || amount.isZero()) {
             throw new IllegalArgumentException("Income amount must be positive");
         }
+        if (incomeAccumulator != null) {
+            incomeAccumulator.credit(amount);
+            return;
+        }
         this.account = this.account.addIncome(amount);
+        this.pendingMovements.add(new BalanceMovement(MovementType.INCOME, amount, this.account.getBalance()));
         this.markAsUpdated();
     }
     
@@ -88,7 +106,12 @@ public class Merchant extends BaseEntity {
             throw new InsufficientFundsException("Insufficient funds for withdrawal. Required: " + amount + ", Available: " + getBalance());
         }
         
+        if (incomeAccumulator != null) {
+            incomeAccumulator.debit(amount);
+            return;
+        }
         this.account = this.account.withdraw(amount);
+        this.pendingMovements.add(new BalanceMovement(MovementType.WITHDRAWAL, amount, this.account.getBalance()));
         this.markAsUpdated();
     }
     
@@ -96,21 +119,66 @@ public class Merchant extends BaseEntity {
      * Check if can withdraw specified amount
      */
     public boolean canWithdraw(Money amount) {
-        return this.account.hasEnoughBalance(amount);
+        return getAccount().hasEnoughBalance(amount);
     }
     
     /**
      * Get account balance
      */
     public Money getBalance() {
-        return this.account.getBalance();
+        return getAccount().getBalance();
     }
     
     /**
      * Get total income
      */
     public Money getTotalIncome() {
-        return this.account.getTotalIncome();
+        return getAccount().getTotalIncome();
+    }
+    
+    /**
+     * Attach the live income accumulator for this merchant
+     * From then on income, withdrawals and balance reads go through the accumulator
+     */
+    public void attachIncomeAccumulator(MerchantIncomeAccumulator accumulator) {
+        if (accumulator != null && !accumulator.getMerchantId().equals(getId())) {
+            throw new IllegalArgumentException("Income accumulator of merchant " + accumulator.getMerchantId()
+                + " does not belong to merchant: " + getId());
+        }
+        this.incomeAccumulator = accumulator;
+    }
+    
+    /**
+     * Check if income is served by a live accumulator
+     */
+    public boolean hasLiveIncome() {
+        return incomeAccumulator != null;
+    }
+    
+    /**
+     * Copy the live accumulator value into the persisted account before saving
+     * The difference is recorded as income and withdrawal movements for the ledger
+     */
+    public void syncIncome() {
+        if (incomeAccumulator == null) {
+            return;
+        }
+        MerchantAccount live = incomeAccumulator.snapshot();
+        if (live.equals(this.account)) {
+            return;
+        }
+        Money income = live.getTotalIncome().subtract(this.account.getTotalIncome());
+        if (income.isPositive()) {
+            this.account = this.account.addIncome(income);
+            this.pendingMovements.add(new BalanceMovement(MovementType.INCOME, income, this.account.getBalance()));
+        }
+        Money withdrawn = this.account.getBalance().subtract(live.getBalance());
+        if (withdrawn.isPositive()) {
+            this.account = this.account.withdraw(withdrawn);
+            this.pendingMovements.add(new BalanceMovement(MovementType.WITHDRAWAL, withdrawn, this.account.getBalance()));
+        }
+        this.account = live;
+        this.markAsUpdated();
     }
     
     /**
@@ -139,6 +207,29 @@ public class Merchant extends BaseEntity {
         return MerchantStatus.ACTIVE.equals(this.status);
     }
     
+    /**
+     * Take the balance movements made since the last call
+     * Called once the merchant has been saved, so that every movement reaches the ledger exactly once
+     */
+    public List<BalanceMovement> drainBalanceMovements() {
+        if (pendingMovements.isEmpty()) {
+            return List.of();
+        }
+        List<BalanceMovement> drained = List.copyOf(pendingMovements);
+        pendingMovements.clear();
+        return drained;
+    }
+    
+    /**
+     * Copies start without pending movements; those belong to the instance that made them
+     */
+    @Override
+    public Merchant copy() {
+        Merchant copy = (Merchant) super.copy();
+        copy.pendingMovements = new ArrayList<>();
+        return copy;
+    }
+    
     // Getters
     public String getMerchantName() {
         return merchantName;
@@ -161,6 +252,9 @@ public class Merchant extends BaseEntity {
     }
     
     public MerchantAccount getAccount() {
+        if (incomeAccumulator != null) {
+            return incomeAccumulator.snapshot();
+        }
         return account;
     }
     
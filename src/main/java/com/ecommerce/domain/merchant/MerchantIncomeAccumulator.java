@@ -0,0 +1,134 @@
+package com.ecommerce.domain.merchant;
+
+import com.ecommerce.domain.Money;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Merchant Income Accumulator
+ * Contention-free income counter for one merchant, in minor units
+ *
+ * Credits go to a LongAdder, which stripes the sum over per-thread cells, so concurrent
+ * purchases for a hot merchant never contend on one value or serialize on the merchant
+ * row. The accumulator starts from the persisted account and becomes the live source of
+ * truth for the merchant's balance and total income once attached; the persisted
+ * MerchantAccount is brought up to date asynchronously.
+ *
+ * Reads sum the cells and are therefore only a snapshot under contention. Debits are
+ * rare (refunds) and must be serialized by the caller, which holds the merchant lock,
+ * so a balance check followed by a debit cannot be undercut by another debit.
+ */
+public final class MerchantIncomeAccumulator {
+
+    private final Long merchantId;
+    private final String currency;
+    private final long initialBalance;
+    private final long initialIncome;
+    private final LongAdder credited = new LongAdder();
+    private final LongAdder debited = new LongAdder();
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final Consumer<MerchantIncomeAccumulator> onDirty;
+
+    public MerchantIncomeAccumulator(Long merchantId, MerchantAccount account) {
+        this(merchantId, account, accumulator -> { });
+    }
+
+    /**
+     * @param account persisted account the accumulator starts from
+     * @param onDirty called once each time the accumulator goes from clean to dirty
+     */
+    public MerchantIncomeAccumulator(Long merchantId, MerchantAccount account,
+                                     Consumer<MerchantIncomeAccumulator> onDirty) {
+        if (merchantId == null) {
+            throw new IllegalArgumentException("Merchant ID cannot be null");
+        }
+        this.merchantId = merchantId;
+        this.currency = account.getBalance().getCurrency();
+        this.initialBalance = account.getBalance().toMinorUnits();
+        this.initialIncome = account.getTotalIncome().toMinorUnits();
+        this.onDirty = onDirty;
+    }
+
+    /**
+     * Add income
+     */
+    public void credit(Money amount) {
+        credited.add(minorUnits(amount));
+        markDirty();
+    }
+
+    /**
+     * Take money out of the balance; total income is unchanged
+     * Callers serialize debits and check the balance first
+     */
+    public void debit(Money amount) {
+        debited.add(minorUnits(amount));
+        markDirty();
+    }
+
+    /**
+     * Live balance and total income, each cell set read once
+     */
+    public MerchantAccount snapshot() {
+        long credits = credited.sum();
+        long debits = debited.sum();
+        return new MerchantAccount(
+            Money.ofMinorUnits(initialBalance + credits - debits, currency),
+            Money.ofMinorUnits(initialIncome + credits, currency));
+    }
+
+    public Money balance() {
+        return snapshot().getBalance();
+    }
+
+    public Money totalIncome() {
+        return snapshot().getTotalIncome();
+    }
+
+    public Long getMerchantId() {
+        return merchantId;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Clear the dirty flag before persisting the current value
+     * A change racing with the flush marks the accumulator dirty again
+     */
+    public boolean clearDirty() {
+        return dirty.getAndSet(false);
+    }
+
+    public boolean isDirty() {
+        return dirty.get();
+    }
+
+    /**
+     * Flag the accumulator as needing a flush, e.g. after a failed write
+     */
+    public void markDirty() {
+        if (!dirty.get() && dirty.compareAndSet(false, true)) {
+            onDirty.accept(this);
+        }
+    }
+
+    private long minorUnits(Money amount) {
+        if (amount == null || !amount.isPositive()) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (!currency.equals(amount.getCurrency())) {
+            throw new IllegalArgumentException(String.format("Currency mismatch for merchant %d: %s vs %s",
+                merchantId, currency, amount.getCurrency()));
+        }
+        return amount.toMinorUnits();
+    }
+
+    @Override
+    public String toString() {
+        return "MerchantIncomeAccumulator{merchantId=" + merchantId + ", balance=" + balance() + '}';
+    }
+}
@@ -2,6 +2,7 @@ package com.ecommerce.domain.order;
 
 import com.ecommerce.domain.BaseEntity;
 import com.ecommerce.domain.Money;
+import com.ecommerce.domain.PlatformClock;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -10,14 +11,19 @@ import java.util.List;
 /**
  * Order Aggregate Root
  * Handles the complete process of user purchasing products
+ * 
+ * Order history and merchant range cursors seek on (order_time, id) within one user or
+ * merchant, so their indexes carry both columns and a page never has to sort the rest
  */
 @Entity
 @Table(name = "orders", indexes = {
     @Index(name = "idx_order_number", columnList = "order_number", unique = true),
-    @Index(name = "idx_order_user", columnList = "user_id"),
-    @Index(name = "idx_order_merchant", columnList = "merchant_id"),
-    @Index(name = "idx_order_status", columnList = "status"),
-    @Index(name = "idx_order_time", columnList = "order_time")
+    @Index(name = "idx_order_user_time", columnList = "user_id, order_time, id"),
+    @Index(name = "idx_order_merchant_time", columnList = "merchant_id, order_time, id"),
+    @Index(name = "idx_order_merchant_status_time", columnList = "merchant_id, status, order_time"),
+    @Index(name = "idx_order_status_time", columnList = "status, order_time"),
+    @Index(name = "idx_order_time", columnList = "order_time"),
+    @Index(name = "idx_order_merchant_completed", columnList = "merchant_id, completed_time")
 })
 public class Order extends BaseEntity {
     
@@ -64,7 +70,7 @@ public class Order extends BaseEntity {
         this.items = new ArrayList<>();
         this.totalAmount = null; // Will be set when first item is added
         this.status = OrderStatus.PENDING;
-        this.orderTime = LocalDateTime.now();
+        this.orderTime = PlatformClock.now();
     }
     
     /**
@@ -119,7 +125,7 @@ public class Order extends BaseEntity {
             throw new InvalidOrderStateException("Order must be paid before completion. Current status: " + this.status);
         }
         this.status = OrderStatus.COMPLETED;
-        this.completedTime = LocalDateTime.now();
+        this.completedTime = PlatformClock.now();
         this.markAsUpdated();
     }
     
@@ -223,6 +229,21 @@ public class Order extends BaseEntity {
         return completedTime;
     }
     
+    /**
+     * Copy the order together with its items, which point back at the copy
+     */
+    @Override
+    public Order copy() {
+        Order copy = (Order) super.copy();
+        copy.items = new ArrayList<>(items.size());
+        for (OrderItem item : items) {
+            OrderItem itemCopy = (OrderItem) item.copy();
+            itemCopy.setOrder(copy);
+            copy.items.add(itemCopy);
+        }
+        return copy;
+    }
+    
     // Package private setters for JPA
     void setOrderNumber(String orderNumber) {
         this.orderNumber = orderNumber;
@@ -0,0 +1,76 @@
+package com.ecommerce.domain.product;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Atomic Inventory Counter
+ * Single AtomicInteger updated with a compare-and-set loop
+ */
+public final class AtomicInventoryCounter extends InventoryCounter {
+    
+    // Marks a counter whose stock was handed over to a successor
+    private static final int SEALED = Integer.MIN_VALUE;
+    
+    private final AtomicInteger available;
+    
+    public AtomicInventoryCounter(String sku, int initialQuantity) {
+        this(sku, initialQuantity, counter -> { });
+    }
+    
+    /**
+     * @param onDirty called once each time the counter goes from clean to dirty
+     */
+    public AtomicInventoryCounter(String sku, int initialQuantity, Consumer<InventoryCounter> onDirty) {
+        super(sku, onDirty);
+        if (initialQuantity < 0) {
+            throw new IllegalArgumentException("Inventory quantity cannot be negative");
+        }
+        this.available = new AtomicInteger(initialQuantity);
+    }
+    
+    @Override
+    protected boolean doReserve(int quantity) {
+        for (;;) {
+            int current = available.get();
+            if (current == SEALED || current < quantity) {
+                return false;
+            }
+            if (available.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+    
+    @Override
+    protected boolean doRelease(int quantity) {
+        for (;;) {
+            int current = available.get();
+            if (current == SEALED) {
+                return false;
+            }
+            if (current > Integer.MAX_VALUE - quantity) {
+                throw new IllegalArgumentException("Inventory quantity overflow for product: " + getSku());
+            }
+            if (available.compareAndSet(current, current + quantity)) {
+                return true;
+            }
+        }
+    }
+    
+    @Override
+    protected int doAvailable() {
+        return Math.max(available.get(), 0);
+    }
+    
+    @Override
+    protected int seal() {
+        int remaining = available.getAndSet(SEALED);
+        return remaining == SEALED ? 0 : remaining;
+    }
+    
+    @Override
+    public int getShardCount() {
+        return 1;
+    }
+}
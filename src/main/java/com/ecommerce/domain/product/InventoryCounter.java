@@ -0,0 +1,142 @@
+package com.ecommerce.domain.product;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Inventory Counter
+ * Lock-free per-SKU stock counter. Reservations never block and never take the stock
+ * below zero.
+ * 
+ * The counter becomes the live source of truth for a product's stock once attached;
+ * the persisted ProductInventory is brought up to date asynchronously.
+ * 
+ * A counter can hand its stock over to a successor (e.g. when a product switches to
+ * sharded flash-sale mode). The old counter is sealed and forwards every later call,
+ * so products still holding it can neither oversell nor lose a release.
+ */
+public abstract class InventoryCounter {
+    
+    private final String sku;
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final Consumer<InventoryCounter> onDirty;
+    private volatile InventoryCounter successor;
+    
+    protected InventoryCounter(String sku, Consumer<InventoryCounter> onDirty) {
+        this.sku = sku;
+        this.onDirty = onDirty;
+    }
+    
+    /**
+     * Atomically take quantity units if that many are available
+     * @return false if there is not enough stock, leaving the counter unchanged
+     */
+    public final boolean tryReserve(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Reserve quantity must be positive");
+        }
+        if (doReserve(quantity)) {
+            markDirty();
+            return true;
+        }
+        // Sealed counters always refuse, the successor holds the stock now
+        InventoryCounter next = successor;
+        return next != null && next.tryReserve(quantity);
+    }
+    
+    /**
+     * Return quantity units to stock (cancelled reservation or restock)
+     */
+    public final void release(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Release quantity must be positive");
+        }
+        if (doRelease(quantity)) {
+            markDirty();
+        } else {
+            successor.release(quantity);
+        }
+    }
+    
+    public final int available() {
+        InventoryCounter next = successor;
+        return next != null ? next.available() : doAvailable();
+    }
+    
+    /**
+     * Move all stock into the successor and forward later calls to it
+     * @return the successor
+     */
+    public final InventoryCounter handOverTo(InventoryCounter next) {
+        if (!next.getSku().equals(sku)) {
+            throw new IllegalArgumentException("Inventory counter " + next.getSku() + " does not belong to product: " + sku);
+        }
+        // Publish the successor before sealing, so a refused caller always finds it
+        this.successor = next;
+        int remaining = seal();
+        if (remaining > 0) {
+            next.release(remaining);
+        }
+        return next;
+    }
+    
+    public String getSku() {
+        return sku;
+    }
+    
+    /**
+     * Number of independent stock buckets
+     */
+    public abstract int getShardCount();
+    
+    /**
+     * Clear the dirty flag before persisting the current value
+     * A change racing with the flush marks the counter dirty again
+     */
+    public boolean clearDirty() {
+        return dirty.getAndSet(false);
+    }
+    
+    public boolean isDirty() {
+        return dirty.get();
+    }
+    
+    /**
+     * Flag the counter as needing a flush, e.g. after a failed write
+     */
+    public void markDirty() {
+        if (!dirty.get() && dirty.compareAndSet(false, true)) {
+            onDirty.accept(this);
+        }
+    }
+    
+    /**
+     * @return false if not enough stock or the counter is sealed
+     */
+    protected abstract boolean doReserve(int quantity);
+    
+    /**
+     * @return false if the counter is sealed
+     */
+    protected abstract boolean doRelease(int quantity);
+    
+    protected abstract int doAvailable();
+    
+    /**
+     * Atomically drain the counter and refuse every later reserve and release
+     * @return the stock that was left
+     */
+    protected abstract int seal();
+    
+    /**
+     * Pass stock that reached a sealed counter on to its successor
+     */
+    protected final void forwardToSuccessor(int quantity) {
+        successor.release(quantity);
+    }
+    
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{sku='" + sku + "', available=" + available() + '}';
+    }
+}
@@ -46,6 +46,14 @@ public class Product extends BaseEntity {
     @Column(name = "status", nullable = false, length = 20)
     private ProductStatus status;
     
+    // Flash-sale mode: live stock is split over sharded buckets
+    @Column(name = "hot", nullable = false)
+    private boolean hot;
+    
+    // Live stock shared by every loaded copy of this SKU; persisted inventory lags behind it
+    @Transient
+    private InventoryCounter inventoryCounter;
+    
     // Constructor
     protected Product() {
         super();
@@ -71,6 +79,10 @@ public class Product extends BaseEntity {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be positive");
         }
+        if (inventoryCounter != null) {
+            inventoryCounter.release(quantity);
+            return;
+        }
         this.inventory = this.inventory.add(quantity);
         this.markAsUpdated();
     }
@@ -83,6 +95,12 @@ public class Product extends BaseEntity {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be positive");
         }
+        if (inventoryCounter != null) {
+            if (!inventoryCounter.tryReserve(quantity)) {
+                throw new InsufficientInventoryException("Insufficient inventory for product: " + sku + ". Required: " + quantity + ", Available: " + getAvailableInventory());
+            }
+            return;
+        }
         if (!hasEnoughInventory(quantity)) {
             throw new InsufficientInventoryException("Insufficient inventory for product: " + sku + ". Required: " + quantity + ", Available: " + getAvailableInventory());
         }
@@ -94,9 +112,44 @@ public class Product extends BaseEntity {
      * Check if has enough inventory
      */
     public boolean hasEnoughInventory(int quantity) {
+        if (inventoryCounter != null) {
+            return inventoryCounter.available() >= quantity;
+        }
         return this.inventory.hasEnoughInventory(quantity);
     }
     
+    /**
+     * Attach the live inventory counter for this SKU
+     * From then on inventory reads and changes go through the counter
+     */
+    public void attachInventoryCounter(InventoryCounter counter) {
+        if (counter != null && !counter.getSku().equals(sku)) {
+            throw new IllegalArgumentException("Inventory counter " + counter.getSku() + " does not belong to product: " + sku);
+        }
+        this.inventoryCounter = counter;
+    }
+    
+    /**
+     * Check if inventory is served by a live counter
+     */
+    public boolean hasLiveInventory() {
+        return inventoryCounter != null;
+    }
+    
+    /**
+     * Copy the live counter value into the persisted inventory before saving
+     */
+    public void syncInventory() {
+        if (inventoryCounter == null) {
+            return;
+        }
+        int live = inventoryCounter.available();
+        if (live != this.inventory.getQuantity()) {
+            this.inventory = new ProductInventory(live);
+            this.markAsUpdated();
+        }
+    }
+    
     /**
      * Calculate total price
      */
@@ -135,6 +188,17 @@ public class Product extends BaseEntity {
         this.markAsUpdated();
     }
     
+    /**
+     * Mark product as hot (flash sale) or back to normal
+     */
+    public void markHot(boolean hot) {
+        validateActiveStatus();
+        if (this.hot != hot) {
+            this.hot = hot;
+            this.markAsUpdated();
+        }
+    }
+    
     private void validateActiveStatus() {
         if (!isActive()) {
             throw new ResourceInactiveException("Product is not active: " + sku);
@@ -171,10 +235,16 @@ public class Product extends BaseEntity {
     }
     
     public ProductInventory getInventory() {
+        if (inventoryCounter != null) {
+            return new ProductInventory(inventoryCounter.available());
+        }
         return inventory;
     }
     
     public int getAvailableInventory() {
+        if (inventoryCounter != null) {
+            return inventoryCounter.available();
+        }
         return inventory.getQuantity();
     }
     
@@ -182,6 +252,10 @@ public class Product extends BaseEntity {
         return status;
     }
     
+    public boolean isHot() {
+        return hot;
+    }
+    
     // Package private setters for JPA
     void setSku(String sku) {
         this.sku = sku;
@@ -210,4 +284,8 @@ public class Product extends BaseEntity {
     void setStatus(ProductStatus status) {
         this.status = status;
     }
+    
+    void setHot(boolean hot) {
+        this.hot = hot;
+    }
 } 
\ No newline at end of file
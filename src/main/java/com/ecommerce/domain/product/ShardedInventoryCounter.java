@@ -0,0 +1,210 @@
+package com.ecommerce.domain.product;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+
+/**
+ * Sharded Inventory Counter
+ * Flash-sale counter for hot products: the stock is split over several buckets, each
+ * on its own cache line, and every thread starts at the bucket picked by its thread
+ * hash. When the home bucket runs short the reservation steals from sibling buckets.
+ * 
+ * available() sums the buckets and is therefore only a snapshot under contention.
+ * A reservation that has to gather stock from several buckets may be refused while
+ * other threads are briefly holding the units it needs; it retries a few times first.
+ */
+public final class ShardedInventoryCounter extends InventoryCounter {
+    
+    private static final int SEALED = Integer.MIN_VALUE;
+    
+    // 32 ints = 128 bytes between buckets, clear of adjacent-line prefetch
+    private static final int STRIDE = 32;
+    private static final int MAX_GATHER_ATTEMPTS = 4;
+    
+    // Outcomes of a single-bucket take
+    private static final int TAKEN = 0;
+    private static final int SHORT = 1;
+    private static final int SEALED_SHARD = 2;
+    
+    private final AtomicIntegerArray buckets;
+    private final int mask;
+    
+    public ShardedInventoryCounter(String sku, int initialQuantity, int shards) {
+        this(sku, initialQuantity, shards, counter -> { });
+    }
+    
+    /**
+     * @param shards number of buckets, rounded up to a power of two
+     * @param onDirty called once each time the counter goes from clean to dirty
+     */
+    public ShardedInventoryCounter(String sku, int initialQuantity, int shards, Consumer<InventoryCounter> onDirty) {
+        super(sku, onDirty);
+        if (initialQuantity < 0) {
+            throw new IllegalArgumentException("Inventory quantity cannot be negative");
+        }
+        if (shards <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        int size = shards == 1 ? 1 : Integer.highestOneBit(shards - 1) << 1;
+        this.mask = size - 1;
+        // One spare slot of padding on each side of the bucket range
+        this.buckets = new AtomicIntegerArray((size + 2) * STRIDE);
+        int share = initialQuantity / size;
+        int extra = initialQuantity % size;
+        for (int shard = 0; shard < size; shard++) {
+            buckets.set(slot(shard), share + (shard < extra ? 1 : 0));
+        }
+    }
+    
+    @Override
+    protected boolean doReserve(int quantity) {
+        int home = homeShard();
+        for (int attempt = 0; attempt < MAX_GATHER_ATTEMPTS; attempt++) {
+            int fastPath = takeFrom(home, quantity);
+            if (fastPath != SHORT) {
+                return fastPath == TAKEN;
+            }
+            int outcome = gather(home, quantity);
+            if (outcome >= 0) {
+                return outcome == 1;
+            }
+            if (doAvailable() < quantity) {
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+        return false;
+    }
+    
+    @Override
+    protected boolean doRelease(int quantity) {
+        int slot = slot(homeShard());
+        for (;;) {
+            int current = buckets.get(slot);
+            if (current == SEALED) {
+                return false;
+            }
+            if (current > Integer.MAX_VALUE - quantity) {
+                throw new IllegalArgumentException("Inventory quantity overflow for product: " + getSku());
+            }
+            if (buckets.compareAndSet(slot, current, current + quantity)) {
+                return true;
+            }
+        }
+    }
+    
+    @Override
+    protected int doAvailable() {
+        long total = 0;
+        for (int shard = 0; shard <= mask; shard++) {
+            total += Math.max(buckets.get(slot(shard)), 0);
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+    
+    @Override
+    protected int seal() {
+        int remaining = 0;
+        for (int shard = 0; shard <= mask; shard++) {
+            int value = buckets.getAndSet(slot(shard), SEALED);
+            if (value != SEALED) {
+                remaining += value;
+            }
+        }
+        return remaining;
+    }
+    
+    @Override
+    public int getShardCount() {
+        return mask + 1;
+    }
+    
+    /**
+     * Bucket the calling thread starts from
+     */
+    int homeShard() {
+        long h = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 40) & mask;
+    }
+    
+    int bucketValue(int shard) {
+        return Math.max(buckets.get(slot(shard)), 0);
+    }
+    
+    private int takeFrom(int shard, int quantity) {
+        int slot = slot(shard);
+        for (;;) {
+            int current = buckets.get(slot);
+            if (current == SEALED) {
+                return SEALED_SHARD;
+            }
+            if (current < quantity) {
+                return SHORT;
+            }
+            if (buckets.compareAndSet(slot, current, current - quantity)) {
+                return TAKEN;
+            }
+        }
+    }
+    
+    /**
+     * Work-stealing slow path: take what each bucket has, starting at home
+     * @return 1 if the full quantity was taken, 0 if the counter is sealed,
+     *         -1 if there was not enough and everything taken was put back
+     */
+    private int gather(int home, int quantity) {
+        int[] taken = new int[mask + 1];
+        int remaining = quantity;
+        boolean sealed = false;
+        for (int i = 0; i <= mask && remaining > 0 && !sealed; i++) {
+            int shard = (home + i) & mask;
+            int slot = slot(shard);
+            for (;;) {
+                int current = buckets.get(slot);
+                if (current == SEALED) {
+                    sealed = true;
+                    break;
+                }
+                if (current == 0) {
+                    break;
+                }
+                int take = Math.min(current, remaining);
+                if (buckets.compareAndSet(slot, current, current - take)) {
+                    taken[shard] += take;
+                    remaining -= take;
+                    break;
+                }
+            }
+        }
+        if (remaining == 0) {
+            return 1;
+        }
+        putBack(taken);
+        return sealed ? 0 : -1;
+    }
+    
+    private void putBack(int[] taken) {
+        for (int shard = 0; shard <= mask; shard++) {
+            int quantity = taken[shard];
+            if (quantity == 0) {
+                continue;
+            }
+            int slot = slot(shard);
+            for (;;) {
+                int current = buckets.get(slot);
+                if (current == SEALED) {
+                    // Sealed while we held the units - they belong to the successor now
+                    forwardToSuccessor(quantity);
+                    break;
+                }
+                if (buckets.compareAndSet(slot, current, current + quantity)) {
+                    break;
+                }
+            }
+        }
+    }
+    
+    private static int slot(int shard) {
+        return (shard + 1) * STRIDE;
+    }
+}
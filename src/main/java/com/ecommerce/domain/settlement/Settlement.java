@@ -4,6 +4,7 @@ import com.ecommerce.domain.BaseEntity;
 import com.ecommerce.domain.Money;
 import jakarta.persistence.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * Settlement Aggregate Root
@@ -51,6 +52,9 @@ public class Settlement extends BaseEntity {
     @Column(name = "notes", length = 1000)
     private String notes;
     
+    @Column(name = "settled_until")
+    private LocalDateTime settledUntil;  // Orders and ledger movements up to here are covered
+    
     // Constructor
     protected Settlement() {
         super();
@@ -58,6 +62,11 @@ public class Settlement extends BaseEntity {
     
     public Settlement(Long merchantId, LocalDate settlementDate, 
                      Money expectedIncome, Money actualBalance) {
+        this(merchantId, settlementDate, expectedIncome, actualBalance, null);
+    }
+    
+    public Settlement(Long merchantId, LocalDate settlementDate, 
+                     Money expectedIncome, Money actualBalance, LocalDateTime settledUntil) {
         super();
         this.merchantId = merchantId;
         this.settlementDate = settlementDate;
@@ -66,6 +75,7 @@ public class Settlement extends BaseEntity {
         this.difference = calculateDifference();
         this.status = determineStatus();
         this.notes = "";
+        this.settledUntil = settledUntil;
     }
     
     /**
@@ -149,6 +159,14 @@ public class Settlement extends BaseEntity {
         return notes;
     }
     
+    /**
+     * Watermark of this settlement: the next settlement of the merchant starts here
+     * Settlements recorded without one fall back to their creation time
+     */
+    public LocalDateTime getSettledUntil() {
+        return settledUntil != null ? settledUntil : getCreatedAt();
+    }
+    
     // Package private setters for JPA
     void setMerchantId(Long merchantId) {
         this.merchantId = merchantId;
@@ -177,4 +195,8 @@ public class Settlement extends BaseEntity {
     void setNotes(String notes) {
         this.notes = notes;
     }
+    
+    void setSettledUntil(LocalDateTime settledUntil) {
+        this.settledUntil = settledUntil;
+    }
 } 
\ No newline at end of file
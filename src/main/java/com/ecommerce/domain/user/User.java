@@ -3,8 +3,13 @@ package com.ecommerce.domain.user;
 import com.ecommerce.domain.BaseEntity;
 import com.ecommerce.domain.Money;
 import com.ecommerce.domain.ResourceInactiveException;
+import com.ecommerce.domain.ledger.BalanceMovement;
+import com.ecommerce.domain.ledger.MovementType;
 import jakarta.persistence.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * User Aggregate Root
  * Contains user basic information and prepaid account
@@ -35,6 +40,10 @@ public class User extends BaseEntity {
     @Column(name = "status", nullable = false, length = 20)
     private UserStatus status;
     
+    // Balance movements not yet handed to the ledger
+    @Transient
+    private List<BalanceMovement> pendingMovements = new ArrayList<>();
+    
     // Constructor
     protected User() {
         super();
@@ -58,6 +67,7 @@ public class User extends BaseEntity {
             throw new IllegalArgumentException("Recharge amount must be positive");
         }
         this.account = this.account.addBalance(amount);
+        this.pendingMovements.add(new BalanceMovement(MovementType.RECHARGE, amount, this.account.getBalance()));
         this.markAsUpdated();
     }
     
@@ -73,6 +83,7 @@ public class User extends BaseEntity {
             throw new InsufficientBalanceException("Insufficient balance for deduction. Required: " + amount + ", Available: " + getBalance());
         }
         this.account = this.account.deduct(amount);
+        this.pendingMovements.add(new BalanceMovement(MovementType.DEDUCTION, amount, this.account.getBalance()));
         this.markAsUpdated();
     }
     
@@ -116,6 +127,29 @@ public class User extends BaseEntity {
         return UserStatus.ACTIVE.equals(this.status);
     }
     
+    /**
+     * Take the balance movements made since the last call
+     * Called once the user has been saved, so that every movement reaches the ledger exactly once
+     */
+    public List<BalanceMovement> drainBalanceMovements() {
+        if (pendingMovements.isEmpty()) {
+            return List.of();
+        }
+        List<BalanceMovement> drained = List.copyOf(pendingMovements);
+        pendingMovements.clear();
+        return drained;
+    }
+    
+    /**
+     * Copies start without pending movements; those belong to the instance that made them
+     */
+    @Override
+    public User copy() {
+        User copy = (User) super.copy();
+        copy.pendingMovements = new ArrayList<>();
+        return copy;
+    }
+    
     // Getters
     public String getUsername() {
         return username;
@@ -0,0 +1,298 @@
+package com.ecommerce.infrastructure.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Near Cache
+ * Bounded in-process cache of values read from a repository, ordered by entity version
+ *
+ * A put never replaces a value with an older version, so a slow reader cannot overwrite
+ * what a later save published. Saves publish their value once the transaction commits;
+ * until then the key is not cached, and a rollback leaves it uncached. Reads inside a
+ * transaction that wrote the key bypass the cache so that uncommitted state never reaches it.
+ *
+ * Eviction is CLOCK, an approximation of LRU: hits only set a flag on the entry, and when
+ * the cache is full entries are swept in insertion order, sparing each recently used one
+ * once. A max-entries of 0 turns the cache off. Invalidation only drops the key from the map;
+ * its stale clock entry is skipped by the next sweep, and the clock is compacted once it
+ * holds more than twice max-entries, so invalidating stays O(1) on the save path.
+ *
+ * Metrics are registered under the given name: name.requests (result hit/miss), name.evictions
+ * (cause size/invalidated), name.hit.ratio and name.entries.
+ */
+public final class NearCache<K, V> {
+
+    private final class Entry {
+        final K key;
+        volatile V value;
+        volatile boolean referenced;
+
+        Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final int maxEntries;
+    private final Function<V, Long> versionOf;
+    private final Map<K, Entry> entries = new ConcurrentHashMap<>();
+    // Sweep order of the clock; may briefly hold entries that were invalidated meanwhile
+    private final Queue<Entry> clock = new ConcurrentLinkedQueue<>();
+    // ConcurrentLinkedQueue.size() walks the queue, so its length is tracked separately
+    private final AtomicInteger clockSize = new AtomicInteger();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter invalidations;
+
+    public NearCache(String name, int maxEntries, Function<V, Long> versionOf, MeterRegistry meterRegistry) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Cache max entries must not be negative: " + name);
+        }
+        this.maxEntries = maxEntries;
+        this.versionOf = versionOf;
+        this.hits = Counter.builder(name + ".requests")
+            .description("Cache lookups")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter.builder(name + ".requests")
+            .description("Cache lookups")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        this.evictions = Counter.builder(name + ".evictions")
+            .description("Entries dropped from the cache")
+            .tag("cause", "size")
+            .register(meterRegistry);
+        this.invalidations = Counter.builder(name + ".evictions")
+            .description("Entries dropped from the cache")
+            .tag("cause", "invalidated")
+            .register(meterRegistry);
+        Gauge.builder(name + ".hit.ratio", this, NearCache::getHitRatio)
+            .description("Share of lookups served from the cache")
+            .register(meterRegistry);
+        meterRegistry.gauge(name + ".entries", entries, Map::size);
+    }
+
+    /**
+     * Cached value, or empty on a miss
+     */
+    public Optional<V> get(K key) {
+        if (!isEnabled() || key == null) {
+            return Optional.empty();
+        }
+        Entry entry = writtenInTransaction(key) ? null : entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        entry.referenced = true;
+        hits.increment();
+        return Optional.of(entry.value);
+    }
+
+    /**
+     * Cache a value just read from the repository
+     */
+    public void put(K key, V value) {
+        if (!isEnabled() || key == null || writtenInTransaction(key)) {
+            return;
+        }
+        store(key, value);
+    }
+
+    /**
+     * Record the value written by a save
+     * The key is dropped now and the value cached once the transaction commits
+     */
+    public void saved(K key, V value) {
+        if (!isEnabled() || key == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            store(key, value);
+            return;
+        }
+        invalidate(key);
+        Set<K> written = writtenKeys();
+        if (written.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(NearCache.this);
+                }
+            });
+        }
+        written.add(key);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                store(key, value);
+            }
+        });
+    }
+
+    /**
+     * Drop the key, e.g. after a save of it failed
+     */
+    public void invalidate(K key) {
+        if (key == null) {
+            return;
+        }
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            invalidations.increment();
+        }
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return (long) hits.count();
+    }
+
+    public long getMissCount() {
+        return (long) misses.count();
+    }
+
+    /**
+     * Number of entries evicted to stay within the size bound
+     */
+    public long getEvictionCount() {
+        return (long) evictions.count();
+    }
+
+    /**
+     * Hits per lookup, 0 before the first lookup
+     */
+    public double getHitRatio() {
+        double lookups = hits.count() + misses.count();
+        return lookups == 0 ? 0 : hits.count() / lookups;
+    }
+
+    private void store(K key, V value) {
+        boolean added = false;
+        Entry created = new Entry(key, value);
+        Entry entry = entries.computeIfAbsent(key, k -> created);
+        if (entry == created) {
+            added = true;
+        } else {
+            entries.computeIfPresent(key, (k, current) -> {
+                if (isNewer(value, current.value)) {
+                    current.value = value;
+                }
+                return current;
+            });
+        }
+        if (added) {
+            clock.offer(created);
+            clockSize.incrementAndGet();
+            evict();
+        }
+    }
+
+    private void evict() {
+        // One sweeper at a time is enough; anyone else finds the cache trimmed afterwards
+        if ((entries.size() <= maxEntries && clockSize.get() <= 2 * maxEntries) || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            if (clockSize.get() > 2 * maxEntries) {
+                compact();
+            }
+            while (entries.size() > maxEntries) {
+                Entry entry = clock.poll();
+                if (entry == null) {
+                    return;
+                }
+                if (!isLive(entry)) {
+                    clockSize.decrementAndGet();
+                    continue;
+                }
+                if (entry.referenced) {
+                    // Second chance: used since the last sweep
+                    entry.referenced = false;
+                    clock.offer(entry);
+                } else {
+                    clockSize.decrementAndGet();
+                    if (entries.remove(entry.key, entry)) {
+                        evictions.increment();
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Drop clock entries whose key was invalidated or replaced since they were queued
+     * Called under the eviction lock
+     */
+    private void compact() {
+        clock.removeIf(entry -> {
+            if (isLive(entry)) {
+                return false;
+            }
+            clockSize.decrementAndGet();
+            return true;
+        });
+    }
+
+    private boolean isLive(Entry entry) {
+        return entries.get(entry.key) == entry;
+    }
+
+    /**
+     * Number of entries in the sweep order, including stale ones not yet compacted
+     */
+    int clockLength() {
+        return clockSize.get();
+    }
+
+    private boolean isNewer(V candidate, V current) {
+        Long candidateVersion = versionOf.apply(candidate);
+        Long currentVersion = versionOf.apply(current);
+        return currentVersion == null || (candidateVersion != null && candidateVersion >= currentVersion);
+    }
+
+    private boolean writtenInTransaction(K key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        Set<K> written = (Set<K>) TransactionSynchronizationManager.getResource(this);
+        return written != null && written.contains(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<K> writtenKeys() {
+        Set<K> written = (Set<K>) TransactionSynchronizationManager.getResource(this);
+        if (written == null) {
+            written = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, written);
+        }
+        return written;
+    }
+}
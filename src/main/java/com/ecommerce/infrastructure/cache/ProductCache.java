@@ -0,0 +1,113 @@
+package com.ecommerce.infrastructure.cache;
+
+import com.ecommerce.domain.product.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Product Cache
+ * Bounded read-through cache of products by SKU, in front of ProductRepository
+ *
+ * Entries hold a detached copy and every hit hands out a fresh copy, so callers never share
+ * an instance. Each copy keeps the version it was read at: saving a copy that has gone stale
+ * fails the repository's version check, and the caller drops the SKU and reads it again.
+ * Versioning, transactions and eviction are handled by NearCache; metrics are registered
+ * as ecommerce.product.cache.*.
+ */
+@Component
+public class ProductCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final NearCache<String, Product> cache;
+
+    public ProductCache(int maxEntries, MeterRegistry meterRegistry) {
+        this.cache = new NearCache<>("ecommerce.product.cache", maxEntries, Product::getVersion, meterRegistry);
+    }
+
+    @Autowired
+    public ProductCache(@Value("${ecommerce.product-cache.max-entries:10000}") int maxEntries,
+                        ObjectProvider<MeterRegistry> meterRegistry) {
+        this(maxEntries, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    /**
+     * Cache that stores nothing, for services built without one
+     */
+    public static ProductCache disabled() {
+        return new ProductCache(0, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Copy of the cached product, or empty on a miss
+     */
+    public Optional<Product> get(String sku) {
+        return cache.get(sku).map(ProductCache::copyOf);
+    }
+
+    /**
+     * Cache a product just read from the repository
+     */
+    public void put(Product product) {
+        if (cache.isEnabled()) {
+            cache.put(product.getSku(), copyOf(product));
+        }
+    }
+
+    /**
+     * Record that a product has been saved
+     * The SKU is dropped now and the saved state cached once the transaction commits
+     */
+    public void saved(Product product) {
+        if (cache.isEnabled()) {
+            cache.saved(product.getSku(), copyOf(product));
+        }
+    }
+
+    /**
+     * Drop the SKU, e.g. after a save of it failed
+     */
+    public void invalidate(String sku) {
+        cache.invalidate(sku);
+    }
+
+    public boolean isEnabled() {
+        return cache.isEnabled();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * Number of products evicted to stay within the size bound
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    /**
+     * Hits per lookup, 0 before the first lookup
+     */
+    public double getHitRatio() {
+        return cache.getHitRatio();
+    }
+
+    private static Product copyOf(Product product) {
+        return (Product) product.copy();
+    }
+}
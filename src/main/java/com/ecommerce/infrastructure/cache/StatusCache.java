@@ -0,0 +1,70 @@
+package com.ecommerce.infrastructure.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.Optional;
+
+/**
+ * Status Cache
+ * Near-cache of the status of an aggregate by id, e.g. whether a user or merchant is active
+ *
+ * Lets hot paths check a status without loading the whole aggregate. The owning service
+ * puts the status of every aggregate it loads and reports every save, so the cache follows
+ * status changes; entries carry the version they were read at. Versioning, transactions
+ * and eviction are handled by NearCache.
+ */
+public final class StatusCache<S extends Enum<S>> {
+
+    private record Snapshot<S>(S status, Long version) {
+    }
+
+    private final NearCache<Long, Snapshot<S>> cache;
+
+    public StatusCache(String name, int maxEntries, MeterRegistry meterRegistry) {
+        this.cache = new NearCache<>(name, maxEntries, Snapshot::version, meterRegistry);
+    }
+
+    /**
+     * Cache that stores nothing, for services built without one
+     */
+    public static <S extends Enum<S>> StatusCache<S> disabled() {
+        return new StatusCache<>("ecommerce.status.cache", 0, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Cached status, or empty on a miss
+     */
+    public Optional<S> get(Long id) {
+        return cache.get(id).map(Snapshot::status);
+    }
+
+    /**
+     * Cache the status of an aggregate just read from the repository
+     */
+    public void put(Long id, S status, Long version) {
+        cache.put(id, new Snapshot<>(status, version));
+    }
+
+    /**
+     * Record the status written by a save
+     */
+    public void saved(Long id, S status, Long version) {
+        cache.saved(id, new Snapshot<>(status, version));
+    }
+
+    /**
+     * Drop the id, e.g. after a save of it failed
+     */
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public double getHitRatio() {
+        return cache.getHitRatio();
+    }
+}
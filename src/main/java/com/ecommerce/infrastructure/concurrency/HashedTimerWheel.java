@@ -0,0 +1,319 @@
+package com.ecommerce.infrastructure.concurrency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed Timer Wheel
+ * One-shot timeouts at O(1) cost each: a timeout is hashed into the bucket of the tick
+ * it expires on and a single worker visits one bucket per tick. Timeouts more than one
+ * revolution away stay in their bucket until their tick comes round.
+ *
+ * Scheduling and cancelling only enqueue; the worker moves new timeouts into buckets and
+ * unlinks cancelled ones, so buckets need no locking. Expired tasks are handed to the
+ * task executor so a slow task cannot hold up the wheel. Timeouts fire at most one tick
+ * late and never early.
+ */
+public class HashedTimerWheel implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashedTimerWheel.class);
+
+    // Upper bound on new timeouts moved into buckets per tick, so a burst cannot stall expiry
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private static final int WORKER_INIT = 0;
+    private static final int WORKER_STARTED = 1;
+    private static final int WORKER_SHUTDOWN = 2;
+
+    private static final int ST_INIT = 0;
+    private static final int ST_CANCELLED = 1;
+    private static final int ST_EXPIRED = 2;
+
+    private static final AtomicIntegerFieldUpdater<Node> STATE =
+        AtomicIntegerFieldUpdater.newUpdater(Node.class, "state");
+
+    /**
+     * Handle of a scheduled task
+     */
+    public interface Timeout {
+        /**
+         * Cancel the task; returns false if it already expired or was cancelled
+         */
+        boolean cancel();
+
+        boolean isCancelled();
+
+        boolean isExpired();
+    }
+
+    private final long tickMillis;
+    private final int mask;
+    private final Bucket[] buckets;
+    private final Executor taskExecutor;
+    private final LongSupplier clock;
+    private final ThreadFactory threadFactory;
+    private final long startTime;
+    private final Queue<Node> scheduledTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Node> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicInteger workerState = new AtomicInteger(WORKER_INIT);
+    private volatile Thread worker;
+    // Next tick to process; only touched under advanceTo
+    private long nextTick;
+
+    public HashedTimerWheel(Duration tick, int wheelSize, Executor taskExecutor, String threadName) {
+        this(tick.toMillis(), wheelSize, taskExecutor, () -> System.nanoTime() / 1_000_000,
+             runnable -> Thread.ofPlatform().name(threadName).daemon(true).unstarted(runnable));
+    }
+
+    /**
+     * @param threadFactory worker thread factory, or null to drive the wheel through advanceTo only
+     */
+    HashedTimerWheel(long tickMillis, int wheelSize, Executor taskExecutor, LongSupplier clock,
+                     ThreadFactory threadFactory) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        // Round up to a power of two so the bucket index is a mask
+        int size = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.taskExecutor = taskExecutor;
+        this.clock = clock;
+        this.threadFactory = threadFactory;
+        this.startTime = clock.getAsLong();
+    }
+
+    /**
+     * Run the task once the delay has passed
+     * The worker thread is started on first use
+     */
+    public Timeout schedule(Runnable task, Duration delay) {
+        if (workerState.get() == WORKER_SHUTDOWN) {
+            throw new IllegalStateException("Timer wheel has been closed");
+        }
+        startWorker();
+        long deadline = clock.getAsLong() - startTime + Math.max(0, delay.toMillis());
+        Node node = new Node(task, deadline);
+        pendingCount.incrementAndGet();
+        scheduledTimeouts.add(node);
+        return node;
+    }
+
+    /**
+     * Number of timeouts that have neither expired nor been cancelled
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    public int getWheelSize() {
+        return buckets.length;
+    }
+
+    /**
+     * Stop the worker; pending timeouts are dropped
+     */
+    @Override
+    public void close() {
+        if (workerState.getAndSet(WORKER_SHUTDOWN) != WORKER_STARTED) {
+            return;
+        }
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (pendingCount.get() > 0) {
+            logger.info("Timer wheel closed with {} pending timeouts", pendingCount.get());
+        }
+    }
+
+    /**
+     * Process every tick that has started by the given time, measured in millis since creation
+     */
+    synchronized void advanceTo(long elapsedMillis) {
+        while (nextTick * tickMillis <= elapsedMillis) {
+            processTick(nextTick);
+            nextTick++;
+        }
+    }
+
+    private void startWorker() {
+        if (threadFactory == null || workerState.get() != WORKER_INIT
+                || !workerState.compareAndSet(WORKER_INIT, WORKER_STARTED)) {
+            return;
+        }
+        Thread thread = threadFactory.newThread(this::runWorker);
+        worker = thread;
+        thread.start();
+    }
+
+    private void runWorker() {
+        while (workerState.get() == WORKER_STARTED) {
+            long elapsed = clock.getAsLong() - startTime;
+            long sleepMillis;
+            synchronized (this) {
+                sleepMillis = nextTick * tickMillis - elapsed;
+            }
+            if (sleepMillis > 0) {
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    // close() interrupts; the loop condition decides whether to stop
+                }
+                continue;
+            }
+            try {
+                advanceTo(elapsed);
+            } catch (RuntimeException e) {
+                logger.error("Timer wheel tick failed", e);
+            }
+        }
+    }
+
+    private void processTick(long tick) {
+        removeCancelled();
+        transferScheduled(tick);
+        Bucket bucket = buckets[(int) (tick & mask)];
+        Node node = bucket.head;
+        while (node != null) {
+            Node next = node.next;
+            if (node.isCancelled()) {
+                bucket.remove(node);
+            } else if (node.tick <= tick) {
+                bucket.remove(node);
+                node.expire();
+            }
+            node = next;
+        }
+    }
+
+    private void transferScheduled(long currentTick) {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Node node = scheduledTimeouts.poll();
+            if (node == null) {
+                return;
+            }
+            if (node.isCancelled()) {
+                continue;
+            }
+            // Round the deadline up to a tick so nothing fires early; late arrivals go in the current tick
+            node.tick = Math.max(Math.ceilDiv(node.deadline, tickMillis), currentTick);
+            buckets[(int) (node.tick & mask)].add(node);
+        }
+    }
+
+    private void removeCancelled() {
+        for (Node node = cancelledTimeouts.poll(); node != null; node = cancelledTimeouts.poll()) {
+            if (node.bucket != null) {
+                node.bucket.remove(node);
+            }
+        }
+    }
+
+    private final class Node implements Timeout {
+        final Runnable task;
+        final long deadline;
+        volatile int state = ST_INIT;
+        // Worker-only fields
+        long tick;
+        Node prev;
+        Node next;
+        Bucket bucket;
+
+        Node(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            pendingCount.decrementAndGet();
+            cancelledTimeouts.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        void expire() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            pendingCount.decrementAndGet();
+            try {
+                taskExecutor.execute(task);
+            } catch (RuntimeException e) {
+                logger.error("Failed to run expired timer task", e);
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of the timeouts hashed to one tick slot
+     */
+    private static final class Bucket {
+        HashedTimerWheel.Node head;
+        HashedTimerWheel.Node tail;
+
+        void add(HashedTimerWheel.Node node) {
+            node.bucket = this;
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void remove(HashedTimerWheel.Node node) {
+            if (node.bucket != this) {
+                return;
+            }
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.ecommerce.infrastructure.concurrency;
+
+import com.ecommerce.infrastructure.repository.VersionConflictException;
+import com.ecommerce.infrastructure.transaction.OperationScope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Optimistic Retry
+ * Re-runs an operation whose save lost a version compare-and-set
+ *
+ * The operation must re-read what it changes on every attempt. Between attempts it backs off
+ * for a random time up to base * 2^(attempt - 1), capped at the maximum backoff, so that
+ * writers colliding on one aggregate spread out. Retries and give-ups are counted per
+ * aggregate type:
+ * - ecommerce.optimistic.retries{aggregate, operation}
+ * - ecommerce.optimistic.exhausted{aggregate, operation}
+ *
+ * With a transaction manager every attempt runs in a transaction of its own: a conflict
+ * leaves the transaction rollback-only and the persistence context holding the failed
+ * state, so the next attempt starts from a rolled back transaction and a cleared
+ * EntityManager. Called inside a transaction that is already running, the action is not
+ * retried in place, as the conflict has doomed that transaction; it is left to whoever
+ * retries the enclosing one. Without a transaction manager every attempt runs as one
+ * operation of the store instead (see OperationScope), so the file store logs an attempt
+ * as a whole.
+ */
+@Component
+public class OptimisticRetry {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+    public static final Duration DEFAULT_BASE_BACKOFF = Duration.ofMillis(2);
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofMillis(50);
+
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+    private final MeterRegistry meterRegistry;
+    // Both null without a transaction manager (mock and file profiles)
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final OperationScope operationScope;
+
+    public OptimisticRetry(int maxAttempts, Duration baseBackoff, Duration maxBackoff, MeterRegistry meterRegistry) {
+        this(maxAttempts, baseBackoff, maxBackoff, meterRegistry, null, null, OperationScope.NONE);
+    }
+
+    /**
+     * @param transactionManager runs each attempt in its own transaction, or null to run attempts as they are
+     * @param entityManagerFactory persistence context cleared between attempts, or null
+     */
+    public OptimisticRetry(int maxAttempts, Duration baseBackoff, Duration maxBackoff, MeterRegistry meterRegistry,
+                           PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory) {
+        this(maxAttempts, baseBackoff, maxBackoff, meterRegistry, transactionManager, entityManagerFactory,
+             OperationScope.NONE);
+    }
+
+    /**
+     * @param operationScope groups the writes of each attempt when there is no transaction manager
+     */
+    public OptimisticRetry(int maxAttempts, Duration baseBackoff, Duration maxBackoff, MeterRegistry meterRegistry,
+                           PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+                           OperationScope operationScope) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Max attempts must be positive");
+        }
+        if (baseBackoff.isNegative() || maxBackoff.compareTo(baseBackoff) < 0) {
+            throw new IllegalArgumentException("Backoff must satisfy 0 <= base <= max");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffNanos = baseBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = transactionManager != null ? new TransactionTemplate(transactionManager) : null;
+        this.entityManagerFactory = entityManagerFactory;
+        this.operationScope = operationScope;
+    }
+
+    @Autowired
+    public OptimisticRetry(@Value("${ecommerce.concurrency.optimistic-retry.max-attempts:4}") int maxAttempts,
+                           @Value("${ecommerce.concurrency.optimistic-retry.base-backoff:2ms}") Duration baseBackoff,
+                           @Value("${ecommerce.concurrency.optimistic-retry.max-backoff:50ms}") Duration maxBackoff,
+                           ObjectProvider<MeterRegistry> meterRegistry,
+                           ObjectProvider<PlatformTransactionManager> transactionManager,
+                           ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                           ObjectProvider<OperationScope> operationScope) {
+        this(maxAttempts, baseBackoff, maxBackoff, meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+             transactionManager.getIfAvailable(), entityManagerFactory.getIfAvailable(),
+             operationScope.getIfAvailable(() -> OperationScope.NONE));
+    }
+
+    /**
+     * Default settings with metrics kept in a private registry
+     */
+    public static OptimisticRetry withDefaults() {
+        return new OptimisticRetry(DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_BACKOFF, DEFAULT_MAX_BACKOFF,
+                                   new SimpleMeterRegistry());
+    }
+
+    /**
+     * Run the action, retrying it on version conflicts
+     * The last conflict is rethrown once every attempt has failed
+     *
+     * @param operation name of the operation, used as a metric tag
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        if (transactionTemplate != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate != null
+                    ? transactionTemplate.execute(status -> action.get())
+                    : operationScope.run(action);
+            } catch (OptimisticLockingFailureException e) {
+                clearPersistenceContext();
+                String aggregate = aggregateOf(e);
+                if (attempt >= maxAttempts) {
+                    counter("ecommerce.optimistic.exhausted", aggregate, operation).increment();
+                    throw e;
+                }
+                counter("ecommerce.optimistic.retries", aggregate, operation).increment();
+                if (!backOff(attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Run the action, retrying it on version conflicts
+     */
+    public void run(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Drop what the failed attempt left in an EntityManager bound to the thread, e.g. by open-in-view
+     */
+    private void clearPersistenceContext() {
+        if (entityManagerFactory != null
+                && TransactionSynchronizationManager.getResource(entityManagerFactory) instanceof EntityManagerHolder holder) {
+            holder.getEntityManager().clear();
+        }
+    }
+
+    /**
+     * Sleep before the next attempt
+     * @return false if interrupted, in which case no further attempt is made
+     */
+    private boolean backOff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, baseBackoffNanos << Math.min(attempt - 1, 30));
+        if (ceiling <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Counter counter(String name, String aggregate, String operation) {
+        return Counter.builder(name)
+            .description("Operations re-run or abandoned after an optimistic version conflict")
+            .tag("aggregate", aggregate)
+            .tag("operation", operation)
+            .register(meterRegistry);
+    }
+
+    private static String aggregateOf(OptimisticLockingFailureException e) {
+        if (e instanceof VersionConflictException conflict) {
+            return conflict.getEntityType();
+        }
+        if (e instanceof ObjectOptimisticLockingFailureException jpaConflict
+                && jpaConflict.getPersistentClassName() != null) {
+            String className = jpaConflict.getPersistentClassName();
+            return className.substring(className.lastIndexOf('.') + 1);
+        }
+        return "unknown";
+    }
+}
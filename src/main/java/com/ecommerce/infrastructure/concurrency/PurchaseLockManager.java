@@ -0,0 +1,114 @@
+package com.ecommerce.infrastructure.concurrency;
+
+import com.ecommerce.infrastructure.concurrency.StripedLocks.LockHandle;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+
+/**
+ * Purchase Lock Manager
+ * Serializes purchases that touch the same user, product or merchant while letting
+ * purchases on unrelated keys run in parallel.
+ * 
+ * In STRIPED mode the user, SKU and merchant keys are hashed onto a shared stripe pool
+ * and the resulting stripes are taken in ascending index order - a single global order
+ * that rules out lock-ordering deadlocks between concurrent purchases.
+ * 
+ * A null key is not locked, so callers can leave out keys whose state is already
+ * updated atomically (live inventory counters, live merchant income).
+ */
+public class PurchaseLockManager {
+    
+    public static final int DEFAULT_STRIPES = 1024;
+    
+    // Distinct salts so that user 1 and merchant 1 do not always share a stripe
+    private static final int USER_SALT = 0x2545F491;
+    private static final int SKU_SALT = 0x6C8E9CF5;
+    private static final int MERCHANT_SALT = 0x3C6EF372;
+    
+    private final PurchaseLockMode mode;
+    private final StripedLocks locks;
+    
+    public PurchaseLockManager(PurchaseLockMode mode, int stripes) {
+        if (mode == null) {
+            throw new IllegalArgumentException("Lock mode cannot be null");
+        }
+        this.mode = mode;
+        this.locks = new StripedLocks(mode == PurchaseLockMode.STRIPED ? stripes : 1);
+    }
+    
+    /**
+     * Default manager used outside of Spring wiring: striped locks with default stripe count
+     */
+    public static PurchaseLockManager striped() {
+        return new PurchaseLockManager(PurchaseLockMode.STRIPED, DEFAULT_STRIPES);
+    }
+    
+    /**
+     * Acquire the locks guarding a single-SKU purchase
+     * The returned handle must be closed, typically with try-with-resources
+     */
+    public LockHandle lockPurchase(Long userId, String sku, Long merchantId) {
+        return lockKeys(userId, Collections.singletonList(sku), merchantId);
+    }
+    
+    /**
+     * Acquire the locks guarding a multi-SKU checkout
+     * All stripes are taken in one ascending pass, so carts never deadlock each other
+     */
+    public LockHandle lockCheckout(Long userId, Collection<String> skus, Long merchantId) {
+        return lockKeys(userId, skus, merchantId);
+    }
+    
+    /**
+     * Acquire only the user and merchant locks
+     * Used when stock is reserved through a lock-free inventory counter
+     */
+    public LockHandle lockAccounts(Long userId, Long merchantId) {
+        return lockKeys(userId, Collections.emptyList(), merchantId);
+    }
+    
+    private LockHandle lockKeys(Long userId, Collection<String> skus, Long merchantId) {
+        return switch (mode) {
+            case NONE -> LockHandle.empty();
+            case GLOBAL -> locks.lockStripes(0);
+            case STRIPED -> {
+                int[] stripes = new int[skus.size() + 2];
+                int i = 0;
+                if (userId != null) {
+                    stripes[i++] = locks.stripeFor(userHash(userId));
+                }
+                if (merchantId != null) {
+                    stripes[i++] = locks.stripeFor(merchantHash(merchantId));
+                }
+                for (String sku : skus) {
+                    if (sku != null) {
+                        stripes[i++] = locks.stripeFor(skuHash(sku));
+                    }
+                }
+                yield locks.lockStripes(Arrays.copyOf(stripes, i));
+            }
+        };
+    }
+    
+    public PurchaseLockMode getMode() {
+        return mode;
+    }
+    
+    public int getStripeCount() {
+        return locks.size();
+    }
+    
+    static int userHash(Long userId) {
+        return Objects.hashCode(userId) ^ USER_SALT;
+    }
+    
+    static int skuHash(String sku) {
+        return Objects.hashCode(sku) ^ SKU_SALT;
+    }
+    
+    static int merchantHash(Long merchantId) {
+        return Objects.hashCode(merchantId) ^ MERCHANT_SALT;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.infrastructure.concurrency;
+
+/**
+ * Purchase Lock Mode Enum
+ * Controls how concurrent purchases coordinate access to user, product and merchant
+ */
+public enum PurchaseLockMode {
+    /**
+     * No coordination - only safe with a single request thread
+     */
+    NONE,
+    
+    /**
+     * One global lock - every purchase is serialized
+     */
+    GLOBAL,
+    
+    /**
+     * Fine-grained striped locks on (userId, sku, merchantId)
+     */
+    STRIPED
+}
@@ -0,0 +1,115 @@
+package com.ecommerce.infrastructure.concurrency;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped Locks
+ * A fixed pool of locks addressed by key hash. Several stripes are always acquired
+ * in ascending stripe order, so two callers locking overlapping key sets cannot deadlock.
+ */
+public final class StripedLocks {
+    
+    private final ReentrantLock[] locks;
+    private final int mask;
+    
+    public StripedLocks(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        // Round up to a power of two so the stripe index is a simple mask
+        int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+    
+    /**
+     * Map a pre-computed key hash to its stripe index
+     */
+    public int stripeFor(int hash) {
+        // Spread the hash so that sequential ids do not cluster in neighbouring stripes
+        int h = hash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+    
+    /**
+     * Lock all given stripes in ascending order, skipping duplicates
+     */
+    public LockHandle lockStripes(int... stripes) {
+        int[] ordered = stripes.clone();
+        Arrays.sort(ordered);
+        int count = 0;
+        for (int i = 0; i < ordered.length; i++) {
+            if (i == 0 || ordered[i] != ordered[i - 1]) {
+                ordered[count++] = ordered[i];
+            }
+        }
+        
+        ReentrantLock[] acquired = new ReentrantLock[count];
+        int locked = 0;
+        try {
+            for (int i = 0; i < count; i++) {
+                ReentrantLock lock = locks[ordered[i]];
+                lock.lock();
+                acquired[locked++] = lock;
+            }
+        } catch (RuntimeException | Error e) {
+            unlock(acquired, locked);
+            throw e;
+        }
+        return new LockHandle(acquired, locked);
+    }
+    
+    /**
+     * Number of stripes (always a power of two)
+     */
+    public int size() {
+        return locks.length;
+    }
+    
+    private static void unlock(ReentrantLock[] acquired, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            acquired[i].unlock();
+        }
+    }
+    
+    /**
+     * Handle for a set of held stripes, released in reverse acquisition order
+     */
+    public static final class LockHandle implements AutoCloseable {
+        
+        private final ReentrantLock[] acquired;
+        private final int count;
+        private boolean released;
+        
+        private LockHandle(ReentrantLock[] acquired, int count) {
+            this.acquired = acquired;
+            this.count = count;
+        }
+        
+        /**
+         * Handle that holds nothing, used when locking is disabled
+         */
+        static LockHandle empty() {
+            return new LockHandle(new ReentrantLock[0], 0);
+        }
+        
+        /**
+         * Number of distinct stripes held by this handle
+         */
+        public int getHeldStripes() {
+            return count;
+        }
+        
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                unlock(acquired, count);
+            }
+        }
+    }
+}
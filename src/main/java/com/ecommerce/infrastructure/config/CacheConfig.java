@@ -0,0 +1,44 @@
+package com.ecommerce.infrastructure.config;
+
+import com.ecommerce.domain.merchant.MerchantStatus;
+import com.ecommerce.domain.user.UserStatus;
+import com.ecommerce.infrastructure.cache.StatusCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache Configuration
+ * Binds ecommerce.status-cache.* settings and exposes the user and merchant status caches
+ */
+@Configuration
+@ConfigurationProperties("ecommerce.status-cache")
+public class CacheConfig {
+
+    // Statuses kept per cache; 0 turns the caches off
+    private int maxEntries = 100_000;
+
+    @Bean
+    public StatusCache<UserStatus> userStatusCache(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new StatusCache<>("ecommerce.user.status.cache", maxEntries,
+                                 meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    public StatusCache<MerchantStatus> merchantStatusCache(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new StatusCache<>("ecommerce.merchant.status.cache", maxEntries,
+                                 meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    // Getters and Setters
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.infrastructure.config;
+
+import com.ecommerce.domain.PlatformClock;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+/**
+ * Clock Configuration
+ * Binds ecommerce.clock.* settings and installs the platform clock
+ */
+@Configuration
+@ConfigurationProperties("ecommerce.clock")
+public class ClockConfig {
+
+    public enum Mode {
+        // Reads the system clock on every call
+        PRECISE,
+        // Cached time refreshed every tick; timestamps may lag by up to one tick
+        COARSE
+    }
+
+    private Mode mode = Mode.PRECISE;
+    private long tickMillis = 10;
+    // Empty means the JVM default zone
+    private String zone = "";
+
+    @Bean(destroyMethod = "close")
+    public PlatformClock platformClock() {
+        ZoneId zoneId = zone == null || zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+        PlatformClock clock = mode == Mode.COARSE
+            ? PlatformClock.coarse(zoneId, Duration.ofMillis(tickMillis))
+            : PlatformClock.precise(zoneId);
+        PlatformClock.install(clock);
+        return clock;
+    }
+
+    // Getters and Setters
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public void setTickMillis(long tickMillis) {
+        this.tickMillis = tickMillis;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+}
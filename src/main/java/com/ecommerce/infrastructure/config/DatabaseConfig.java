@@ -8,6 +8,9 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 /**
  * Database Configuration
  * Only enabled for MySQL profile
+ *
+ * The DataSource and Hibernate auto-configuration are excluded in application.yml so that
+ * the in-memory profiles start without a database; the mysql profile lifts the exclusion.
  */
 @Configuration
 @Profile("mysql")
@@ -15,4 +18,4 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 @EntityScan(basePackages = "com.ecommerce.domain")
 public class DatabaseConfig {
     // Configuration will be loaded when mysql profile is active
-} 
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.infrastructure.config;
+
+import com.ecommerce.infrastructure.id.OrderNumberGenerator;
+import com.ecommerce.infrastructure.id.SnowflakeOrderNumberGenerator;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Order Configuration
+ * Binds ecommerce.order.* settings and exposes order components
+ */
+@Configuration
+@ConfigurationProperties("ecommerce.order")
+public class OrderConfig {
+    
+    // Must be unique per running node, 0-1023
+    private int nodeId = 0;
+    // Unpaid reservations are released after this long
+    private int timeoutMinutes = 30;
+    private long expiryTickMillis = 1000;
+    private int expiryWheelSize = 512;
+    
+    @Bean
+    public OrderNumberGenerator orderNumberGenerator() {
+        return new SnowflakeOrderNumberGenerator(nodeId);
+    }
+    
+    // Getters and Setters
+    public int getNodeId() {
+        return nodeId;
+    }
+    
+    public void setNodeId(int nodeId) {
+        this.nodeId = nodeId;
+    }
+    
+    public int getTimeoutMinutes() {
+        return timeoutMinutes;
+    }
+    
+    public void setTimeoutMinutes(int timeoutMinutes) {
+        this.timeoutMinutes = timeoutMinutes;
+    }
+    
+    public long getExpiryTickMillis() {
+        return expiryTickMillis;
+    }
+    
+    public void setExpiryTickMillis(long expiryTickMillis) {
+        this.expiryTickMillis = expiryTickMillis;
+    }
+    
+    public int getExpiryWheelSize() {
+        return expiryWheelSize;
+    }
+    
+    public void setExpiryWheelSize(int expiryWheelSize) {
+        this.expiryWheelSize = expiryWheelSize;
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.infrastructure.config;
+
+import com.ecommerce.infrastructure.concurrency.PurchaseLockManager;
+import com.ecommerce.infrastructure.concurrency.PurchaseLockMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Purchase Configuration
+ * Binds ecommerce.purchase.* settings and exposes purchase concurrency components
+ */
+@Configuration
+@ConfigurationProperties("ecommerce.purchase")
+public class PurchaseConfig {
+    
+    private PurchaseLockMode lockMode = PurchaseLockMode.STRIPED;
+    private int lockStripes = PurchaseLockManager.DEFAULT_STRIPES;
+    
+    @Bean
+    public PurchaseLockManager purchaseLockManager() {
+        return new PurchaseLockManager(lockMode, lockStripes);
+    }
+    
+    // Getters and Setters
+    public PurchaseLockMode getLockMode() {
+        return lockMode;
+    }
+    
+    public void setLockMode(PurchaseLockMode lockMode) {
+        this.lockMode = lockMode;
+    }
+    
+    public int getLockStripes() {
+        return lockStripes;
+    }
+    
+    public void setLockStripes(int lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+}
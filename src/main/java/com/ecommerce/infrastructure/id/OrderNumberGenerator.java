@@ -0,0 +1,13 @@
+package com.ecommerce.infrastructure.id;
+
+/**
+ * Order Number Generator
+ * Produces unique order numbers; implementations must be safe for concurrent use
+ */
+public interface OrderNumberGenerator {
+    
+    /**
+     * Generate the next order number
+     */
+    String nextOrderNumber();
+}
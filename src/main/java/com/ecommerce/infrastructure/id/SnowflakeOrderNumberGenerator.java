@@ -0,0 +1,115 @@
+package com.ecommerce.infrastructure.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake Order Number Generator
+ * Lock-free time + node + sequence ids rendered as "ORD" followed by 19 zero-padded digits.
+ * 
+ * Id layout (63 bits): 41 bits milliseconds since 2024-01-01 UTC | 10 bits node | 12 bits sequence.
+ * That gives 4096 ids per millisecond per node, 1024 nodes and roughly 69 years of range.
+ * Fixed-width decimal keeps the string order equal to the numeric order, so order numbers
+ * sort by creation time.
+ * 
+ * The last timestamp and sequence are packed into one AtomicLong and advanced with a single
+ * compare-and-set. The generator never waits: when the clock moves backwards it keeps
+ * issuing from the last timestamp, and when a millisecond's sequence is used up it borrows
+ * the next millisecond. Either way ids stay unique and increasing, and the logical clock
+ * catches up with the wall clock as soon as real time passes it.
+ */
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+    
+    public static final String PREFIX = "ORD";
+    public static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int DIGITS = 19;
+    
+    private final long nodeBits;
+    private final LongSupplier clock;
+    // (milliseconds since epoch << SEQUENCE_BITS) | sequence of the last issued id
+    private final AtomicLong state = new AtomicLong();
+    
+    public SnowflakeOrderNumberGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+    
+    public SnowflakeOrderNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+    
+    @Override
+    public String nextOrderNumber() {
+        return format(nextId());
+    }
+    
+    /**
+     * Generate the next numeric id
+     */
+    public long nextId() {
+        for (;;) {
+            long last = state.get();
+            long lastMillis = last >>> SEQUENCE_BITS;
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            long next;
+            if (now > lastMillis) {
+                next = now << SEQUENCE_BITS;
+            } else if ((last & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                // Same millisecond, or the clock went back: continue from the last timestamp
+                next = last + 1;
+            } else {
+                // Sequence exhausted: borrow the next millisecond
+                next = (lastMillis + 1) << SEQUENCE_BITS;
+            }
+            if (state.compareAndSet(last, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+    
+    /**
+     * Render an id as PREFIX + 19 zero-padded digits
+     */
+    public static String format(long id) {
+        char[] chars = new char[PREFIX.length() + DIGITS];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        long value = id;
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = (char) ('0' + (value % 10));
+            value /= 10;
+        }
+        return new String(chars);
+    }
+    
+    /**
+     * Parse an order number produced by this generator back to its id
+     */
+    public static long parse(String orderNumber) {
+        if (orderNumber == null || orderNumber.length() != PREFIX.length() + DIGITS || !orderNumber.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Not a generated order number: " + orderNumber);
+        }
+        return Long.parseLong(orderNumber, PREFIX.length(), orderNumber.length(), 10);
+    }
+    
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+    
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+    
+    public static int sequenceOf(long id) {
+        return (int) (id & SEQUENCE_MASK);
+    }
+}
@@ -0,0 +1,236 @@
+package com.ecommerce.infrastructure.idempotency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * Idempotency Cache
+ * Remembers the result of an operation under a client supplied key so that a retried
+ * request gets the first result back instead of running the operation again.
+ *
+ * The first caller for a key runs the operation; concurrent duplicates wait for it and
+ * share its outcome. A duplicate waits at most the wait timeout and then gets an
+ * InProgressException, so a slow or stuck first request cannot hold its thread. Completed results expire after the TTL and the oldest completed
+ * results are evicted beyond the size bound. Failed operations are forgotten, so the
+ * client can retry them once the waiting duplicates have seen the error.
+ *
+ * Each entry remembers a fingerprint of the request that created it. A later request
+ * with the same key but a different fingerprint is a reused key rather than a retry and
+ * is refused instead of being handed someone else's result.
+ */
+@Component
+public class IdempotencyCache {
+
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    public static final Duration DEFAULT_WAIT_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * Operation guarded by the cache; may throw anything the caller throws
+     */
+    @FunctionalInterface
+    public interface Operation {
+        Object run() throws Throwable;
+    }
+
+    /**
+     * Result of an execution and whether it was replayed from an earlier one
+     */
+    public record Outcome(Object value, boolean replayed) {
+    }
+
+    /**
+     * Thrown when a key is presented again with a different request fingerprint
+     */
+    public static class KeyReusedException extends IllegalStateException {
+        public KeyReusedException(String key) {
+            super("Idempotency key was already used for a different request: " + key);
+        }
+    }
+
+    /**
+     * Thrown when a duplicate gives up waiting for the first request with its key
+     */
+    public static class InProgressException extends IllegalStateException {
+        public InProgressException(String key) {
+            super("Request with this idempotency key is still in progress: " + key);
+        }
+    }
+
+    private static final class Entry {
+        final String key;
+        final String fingerprint;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        volatile long expiresAt = Long.MAX_VALUE;
+
+        Entry(String key, String fingerprint) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+        }
+
+        boolean isExpired(long now) {
+            return result.isDone() && now - expiresAt >= 0;
+        }
+    }
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final long waitTimeoutNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public IdempotencyCache(Duration ttl, int maxEntries, MeterRegistry meterRegistry) {
+        this(ttl, maxEntries, DEFAULT_WAIT_TIMEOUT, meterRegistry);
+    }
+
+    public IdempotencyCache(Duration ttl, int maxEntries, Duration waitTimeout, MeterRegistry meterRegistry) {
+        this(ttl, maxEntries, waitTimeout, meterRegistry, System::nanoTime);
+    }
+
+    @Autowired
+    public IdempotencyCache(@Value("${ecommerce.idempotency.ttl:10m}") Duration ttl,
+                          @Value("${ecommerce.idempotency.max-entries:10000}") int maxEntries,
+                          @Value("${ecommerce.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                          ObjectProvider<MeterRegistry> meterRegistry) {
+        this(ttl, maxEntries, waitTimeout, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    IdempotencyCache(Duration ttl, int maxEntries, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this(ttl, maxEntries, DEFAULT_WAIT_TIMEOUT, meterRegistry, nanoClock);
+    }
+
+    IdempotencyCache(Duration ttl, int maxEntries, Duration waitTimeout, MeterRegistry meterRegistry,
+                     LongSupplier nanoClock) {
+        if (ttl.isNegative() || ttl.isZero() || maxEntries <= 0) {
+            throw new IllegalArgumentException("Idempotency TTL and max entries must be positive");
+        }
+        if (waitTimeout.isNegative() || waitTimeout.isZero()) {
+            throw new IllegalArgumentException("Idempotency wait timeout must be positive");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.nanoClock = nanoClock;
+        this.hits = Counter.builder("ecommerce.idempotency.requests")
+            .description("Requests carrying an idempotency key")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter.builder("ecommerce.idempotency.requests")
+            .description("Requests carrying an idempotency key")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        meterRegistry.gauge("ecommerce.idempotency.entries", entries, Map::size);
+    }
+
+    /**
+     * Run the operation once per key and return its result to every caller with that key
+     */
+    public Outcome execute(String key, Operation operation) throws Throwable {
+        return execute(key, "", operation);
+    }
+
+    /**
+     * Run the operation once per key; a caller presenting the key with another fingerprint
+     * gets a KeyReusedException while the first result is still cached
+     */
+    public Outcome execute(String key, String fingerprint, Operation operation) throws Throwable {
+        Entry mine = new Entry(key, fingerprint);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, mine);
+            if (existing == null) {
+                break;
+            }
+            if (existing.isExpired(nanoClock.getAsLong())) {
+                if (entries.replace(key, existing, mine)) {
+                    break;
+                }
+                continue;
+            }
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new KeyReusedException(key);
+            }
+            hits.increment();
+            return new Outcome(await(existing), true);
+        }
+
+        misses.increment();
+        insertionOrder.offer(mine);
+        evict();
+        try {
+            Object result = operation.run();
+            mine.expiresAt = nanoClock.getAsLong() + ttlNanos;
+            mine.result.complete(result);
+            return new Outcome(result, false);
+        } catch (Throwable e) {
+            entries.remove(key, mine);
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Number of cached and in-flight entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return (long) hits.count();
+    }
+
+    public long getMissCount() {
+        return (long) misses.count();
+    }
+
+    private void evict() {
+        long now = nanoClock.getAsLong();
+        // Entries are queued in arrival order, so expired ones collect at the head
+        for (Entry head = insertionOrder.peek(); head != null; head = insertionOrder.peek()) {
+            boolean stale = entries.get(head.key) != head;
+            if (!stale && !head.isExpired(now) && entries.size() <= maxEntries) {
+                break;
+            }
+            if (!stale && !head.result.isDone()) {
+                // Never drop a running operation; wait for it to finish
+                break;
+            }
+            if (insertionOrder.remove(head)) {
+                entries.remove(head.key, head);
+            }
+        }
+    }
+
+    private Object await(Entry entry) throws Throwable {
+        try {
+            return entry.result.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new InProgressException(entry.key);
+        } catch (ExecutionException | CompletionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.infrastructure.ledger;
+
+/**
+ * Account Type Enumeration
+ * Owners of the balances kept in the ledger
+ */
+public enum AccountType {
+    USER,
+    MERCHANT
+}
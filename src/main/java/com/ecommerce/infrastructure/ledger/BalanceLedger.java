@@ -0,0 +1,337 @@
+package com.ecommerce.infrastructure.ledger;
+
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.ledger.BalanceMovement;
+import com.ecommerce.domain.ledger.MovementType;
+import com.ecommerce.domain.PlatformClock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balance Ledger
+ * Append-only journal of user and merchant balance movements, in minor units
+ *
+ * Each account has its own journal. Entries are only ever appended, and every
+ * snapshotInterval entries the running balance is folded into a snapshot, so a balance
+ * is the latest snapshot plus the short tail after it. Balances at a point in time and
+ * changes over a period cost O(log n + snapshotInterval) instead of a scan of the history.
+ *
+ * The aggregates keep their own balances; the ledger is fed the movements they record
+ * once they have been committed (see UserService and MerchantService). An account seen for
+ * the first time is opened at the balance it had before its first movement, so accounts
+ * that predate the ledger still reconcile.
+ *
+ * The ledger is a process-local cache, not a record of its own: it starts empty, only
+ * sees movements committed by this process and keeps them for the retention period.
+ * History therefore only reaches back to historyStart(), the later of the ledger's start
+ * and the last trim. Questions about earlier times get no answer, and the persisted
+ * balances stay the source of truth.
+ */
+@Component
+public class BalanceLedger {
+
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 64;
+    public static final Duration DEFAULT_RETENTION = Duration.ofDays(7);
+
+    private final int snapshotInterval;
+    private final Duration retention;
+    private final ConcurrentMap<AccountKey, Journal> journals = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile LocalDateTime historyStart = PlatformClock.now();
+
+    public BalanceLedger() {
+        this(DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    public BalanceLedger(int snapshotInterval) {
+        this(snapshotInterval, DEFAULT_RETENTION);
+    }
+
+    @Autowired
+    public BalanceLedger(@Value("${ecommerce.ledger.snapshot-interval:64}") int snapshotInterval,
+                         @Value("${ecommerce.ledger.retention:7d}") Duration retention) {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+        }
+        if (retention.isNegative() || retention.isZero()) {
+            throw new IllegalArgumentException("Retention must be positive");
+        }
+        this.snapshotInterval = snapshotInterval;
+        this.retention = retention;
+    }
+
+    /**
+     * Earliest time the ledger holds every movement since
+     * An account it has not seen has not moved since then.
+     */
+    public LocalDateTime historyStart() {
+        return historyStart;
+    }
+
+    /**
+     * Whether the ledger holds every movement made since the given time
+     */
+    public boolean covers(LocalDateTime at) {
+        return !at.isBefore(historyStart);
+    }
+
+    /**
+     * Drop the history older than the retention period
+     * Each journal keeps the snapshot taken at or before the cutoff as its base, so balances
+     * from the cutoff on are still answered.
+     *
+     * @return number of entries dropped
+     */
+    public int trim() {
+        LocalDateTime cutoff = PlatformClock.now().minus(retention);
+        if (!cutoff.isAfter(historyStart)) {
+            return 0;
+        }
+        historyStart = cutoff;
+        int dropped = 0;
+        for (Journal journal : journals.values()) {
+            dropped += journal.trim(cutoff);
+        }
+        return dropped;
+    }
+
+    /**
+     * Append the movements of one account, in the order they were made
+     */
+    public void record(AccountType accountType, Long accountId, List<BalanceMovement> movements) {
+        if (accountId == null || movements.isEmpty()) {
+            return;
+        }
+        String currency = movements.get(0).balanceAfter().getCurrency();
+        journals.computeIfAbsent(new AccountKey(accountType, accountId), key -> new Journal(currency))
+                .append(accountType, accountId, movements);
+    }
+
+    /**
+     * Current balance of the account
+     * @return empty if the ledger has never seen the account
+     */
+    public Optional<Money> balance(AccountType accountType, Long accountId) {
+        return journal(accountType, accountId).map(Journal::balance);
+    }
+
+    /**
+     * Balance of the account after every entry recorded at or before the given time
+     * @return empty if the ledger has never seen the account or holds no history back to that time
+     */
+    public Optional<Money> balanceAt(AccountType accountType, Long accountId, LocalDateTime at) {
+        if (!covers(at)) {
+            return Optional.empty();
+        }
+        return journal(accountType, accountId).map(journal -> journal.balanceAt(at));
+    }
+
+    /**
+     * Net change of the account over (from, to], optionally only from movements of the given types
+     * @return empty if the ledger has never seen the account or holds no history back to the start
+     */
+    public Optional<Money> netChange(AccountType accountType, Long accountId,
+                                     LocalDateTime from, LocalDateTime to, MovementType... types) {
+        if (!covers(from)) {
+            return Optional.empty();
+        }
+        Set<MovementType> filter = types.length == 0 ? EnumSet.allOf(MovementType.class) : EnumSet.of(types[0], types);
+        return journal(accountType, accountId).map(journal -> journal.netChange(from, to, filter));
+    }
+
+    /**
+     * Entries of the account recorded in (from, to], oldest first
+     */
+    public List<LedgerEntry> entries(AccountType accountType, Long accountId, LocalDateTime from, LocalDateTime to) {
+        return journal(accountType, accountId).map(journal -> journal.entries(from, to)).orElse(List.of());
+    }
+
+    private Optional<Journal> journal(AccountType accountType, Long accountId) {
+        if (accountId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(journals.get(new AccountKey(accountType, accountId)));
+    }
+
+    private record AccountKey(AccountType type, Long id) {
+    }
+
+    /**
+     * Balance once the first entryCount entries are applied
+     */
+    private record Snapshot(int entryCount, long balanceMinor, LocalDateTime takenAt) {
+    }
+
+    /**
+     * Journal of a single account
+     * Entries are in sequence and recordedAt order; all access is synchronized on the journal.
+     * Snapshots count entries from the account's first one, including entries trimmed since.
+     */
+    private final class Journal {
+
+        private final String currency;
+        private final List<LedgerEntry> entries = new ArrayList<>();
+        private final List<Snapshot> snapshots = new ArrayList<>();
+        // Entries dropped by trimming, all folded into the first snapshot
+        private int trimmed;
+        // Sum of the entries after the latest snapshot
+        private long tailMinor;
+        private LocalDateTime lastRecordedAt;
+
+        Journal(String currency) {
+            this.currency = currency;
+        }
+
+        synchronized void append(AccountType accountType, Long accountId, List<BalanceMovement> movements) {
+            for (BalanceMovement movement : movements) {
+                if (!currency.equals(movement.amount().getCurrency())) {
+                    throw new IllegalArgumentException(String.format("Currency mismatch for %s %d: %s vs %s",
+                        accountType, accountId, currency, movement.amount().getCurrency()));
+                }
+                long change = movement.signedMinorUnits();
+                long expectedAfter = movement.balanceAfter().toMinorUnits();
+                if (lastRecordedAt == null && expectedAfter != change) {
+                    // The account held this balance since the history start, as it had not moved
+                    add(accountType, accountId, MovementType.OPENING, expectedAfter - change, historyStart);
+                }
+                add(accountType, accountId, movement.type(), change, PlatformClock.now());
+            }
+        }
+
+        private void add(AccountType accountType, Long accountId, MovementType type, long amountMinor,
+                         LocalDateTime now) {
+            // Keep the journal in time order even if the wall clock steps back
+            if (lastRecordedAt != null && now.isBefore(lastRecordedAt)) {
+                now = lastRecordedAt;
+            }
+            lastRecordedAt = now;
+            entries.add(new LedgerEntry(sequence.incrementAndGet(), accountType, accountId, type,
+                                        amountMinor, currency, now));
+            tailMinor = Math.addExact(tailMinor, amountMinor);
+            int count = trimmed + entries.size();
+            if (count % snapshotInterval == 0) {
+                snapshots.add(new Snapshot(count, balanceMinor(), now));
+                tailMinor = 0;
+            }
+        }
+
+        /**
+         * Drop the entries folded into the latest snapshot taken at or before the cutoff
+         */
+        synchronized int trim(LocalDateTime cutoff) {
+            int base = latestSnapshotAt(cutoff);
+            if (base <= 0 && (base < 0 || snapshots.get(0).entryCount() == trimmed)) {
+                return 0;
+            }
+            Snapshot snapshot = snapshots.get(base);
+            int dropped = snapshot.entryCount() - trimmed;
+            entries.subList(0, dropped).clear();
+            snapshots.subList(0, base).clear();
+            trimmed = snapshot.entryCount();
+            return dropped;
+        }
+
+        synchronized Money balance() {
+            return Money.ofMinorUnits(balanceMinor(), currency);
+        }
+
+        synchronized Money balanceAt(LocalDateTime at) {
+            return Money.ofMinorUnits(balanceMinorAt(at), currency);
+        }
+
+        synchronized Money netChange(LocalDateTime from, LocalDateTime to, Set<MovementType> types) {
+            if (!to.isAfter(from)) {
+                return Money.zero(currency);
+            }
+            if (types.size() == MovementType.values().length) {
+                return Money.ofMinorUnits(balanceMinorAt(to) - balanceMinorAt(from), currency);
+            }
+            long change = 0;
+            for (int i = firstEntryAfter(from); i < entries.size(); i++) {
+                LedgerEntry entry = entries.get(i);
+                if (entry.recordedAt().isAfter(to)) {
+                    break;
+                }
+                if (types.contains(entry.type())) {
+                    change = Math.addExact(change, entry.amountMinor());
+                }
+            }
+            return Money.ofMinorUnits(change, currency);
+        }
+
+        synchronized List<LedgerEntry> entries(LocalDateTime from, LocalDateTime to) {
+            List<LedgerEntry> result = new ArrayList<>();
+            for (int i = firstEntryAfter(from); i < entries.size(); i++) {
+                LedgerEntry entry = entries.get(i);
+                if (entry.recordedAt().isAfter(to)) {
+                    break;
+                }
+                result.add(entry);
+            }
+            return result;
+        }
+
+        private long balanceMinor() {
+            long base = snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1).balanceMinor();
+            return base + tailMinor;
+        }
+
+        private long balanceMinorAt(LocalDateTime at) {
+            int found = latestSnapshotAt(at);
+            int index = found >= 0 ? snapshots.get(found).entryCount() - trimmed : 0;
+            long balance = found >= 0 ? snapshots.get(found).balanceMinor() : 0;
+            for (; index < entries.size() && !entries.get(index).recordedAt().isAfter(at); index++) {
+                balance += entries.get(index).amountMinor();
+            }
+            return balance;
+        }
+
+        /**
+         * Index of the latest snapshot taken at or before the given time, or -1 if there is none
+         */
+        private int latestSnapshotAt(LocalDateTime at) {
+            int low = 0;
+            int high = snapshots.size() - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (snapshots.get(mid).takenAt().isAfter(at)) {
+                    high = mid - 1;
+                } else {
+                    found = mid;
+                    low = mid + 1;
+                }
+            }
+            return found;
+        }
+
+        /**
+         * Index of the first entry recorded strictly after the given time
+         */
+        private int firstEntryAfter(LocalDateTime from) {
+            int low = 0;
+            int high = entries.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (entries.get(mid).recordedAt().isAfter(from)) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+    }
+}
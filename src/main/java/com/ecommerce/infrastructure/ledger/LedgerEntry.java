@@ -0,0 +1,24 @@
+package com.ecommerce.infrastructure.ledger;
+
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.ledger.MovementType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ledger Entry
+ * One immutable line in an account's journal
+ *
+ * @param sequence   position in the ledger, increasing across all accounts
+ * @param amountMinor signed change in minor units: positive for credits, negative for debits
+ */
+public record LedgerEntry(long sequence, AccountType accountType, Long accountId, MovementType type,
+                          long amountMinor, String currency, LocalDateTime recordedAt) {
+    
+    /**
+     * Signed change as money
+     */
+    public Money amount() {
+        return Money.ofMinorUnits(amountMinor, currency);
+    }
+}
@@ -1,10 +1,12 @@
 package com.ecommerce.infrastructure.repository;
 
+import com.ecommerce.domain.Money;
 import com.ecommerce.domain.order.Order;
 import com.ecommerce.domain.order.OrderStatus;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Order Repository Interface
@@ -43,6 +45,35 @@ public interface OrderRepository {
      */
     List<Order> findByMerchantIdAndStatusAndOrderTimeBetween(Long merchantId, OrderStatus status, LocalDateTime start, LocalDateTime end);
     
+    /**
+     * Visit a merchant's orders within a date range, in order time then id order
+     * Cursor for bulk jobs such as exports: orders are read fetchSize at a time rather than
+     * all at once, so memory stays bounded however many orders the range holds
+     */
+    void forEachByMerchantIdAndOrderTimeBetween(Long merchantId, LocalDateTime start, LocalDateTime end,
+                                                int fetchSize, Consumer<? super Order> visitor);
+    
+    /**
+     * Visit the total amounts of a merchant's orders completed within (after, until], in completion order
+     * Settlement reads orders by completion rather than placement, so an order placed before a
+     * watermark and completed after it is counted by the next settlement, and only by it
+     */
+    void forEachTotalAmountByMerchantIdAndCompletedTimeIn(Long merchantId, LocalDateTime after, LocalDateTime until,
+                                                          int fetchSize, Consumer<? super Money> visitor);
+    
+    /**
+     * Visit the orders in a status, in order time then id order
+     * Cursor read fetchSize at a time; used on startup to find reservations still awaiting payment
+     */
+    void forEachByStatus(OrderStatus status, int fetchSize, Consumer<? super Order> visitor);
+    
+    /**
+     * Find a page of a user's orders, newest first
+     * Orders are ordered by order time, then id; the page holds up to limit orders placed
+     * strictly before (beforeTime, beforeId). A null beforeTime starts from the newest order.
+     */
+    List<Order> findByUserIdBefore(Long userId, LocalDateTime beforeTime, Long beforeId, int limit);
+    
     /**
      * Delete order by ID
      */
@@ -1,6 +1,7 @@
 package com.ecommerce.infrastructure.repository;
 
 import com.ecommerce.domain.settlement.Settlement;
+import java.time.LocalDate;
 import java.util.Optional;
 
 /**
@@ -19,6 +20,17 @@ public interface SettlementRepository {
      */
     Optional<Settlement> findById(Long id);
     
+    /**
+     * Find the settlement of a merchant for a date
+     * At most one exists per (merchant, date); see the unique index on Settlement
+     */
+    Optional<Settlement> findByMerchantIdAndSettlementDate(Long merchantId, LocalDate settlementDate);
+    
+    /**
+     * Find the merchant's latest settlement, by settlement date
+     */
+    Optional<Settlement> findTopByMerchantIdOrderBySettlementDateDesc(Long merchantId);
+    
     /**
      * Delete settlement by ID
      */
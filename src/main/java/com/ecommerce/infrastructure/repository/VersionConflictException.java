@@ -0,0 +1,55 @@
+package com.ecommerce.infrastructure.repository;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * Version Conflict Exception
+ * Thrown by a repository save when the stored entity changed after the caller read it
+ *
+ * Part of Spring's optimistic locking hierarchy, so callers handle it the same way as
+ * the conflicts reported by JPA for @Version columns.
+ */
+public class VersionConflictException extends OptimisticLockingFailureException {
+
+    private final String entityType;
+    private final Long entityId;
+    private final Long expectedVersion;
+    private final Long actualVersion;
+
+    /**
+     * @param expectedVersion version the caller read, or null if it never read the entity
+     * @param actualVersion version in the store, or null if the entity is no longer stored or the version is unknown
+     */
+    public VersionConflictException(Class<?> entityType, Long entityId, Long expectedVersion, Long actualVersion) {
+        this(entityType, entityId, expectedVersion, actualVersion, null);
+    }
+
+    /**
+     * @param cause the store's own report of the conflict, e.g. a stale UPDATE found on flush
+     */
+    public VersionConflictException(Class<?> entityType, Long entityId, Long expectedVersion, Long actualVersion,
+                                    Throwable cause) {
+        super(String.format("%s %d was modified concurrently (expected version %s, found %s)",
+            entityType.getSimpleName(), entityId, expectedVersion, actualVersion), cause);
+        this.entityType = entityType.getSimpleName();
+        this.entityId = entityId;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public Long getActualVersion() {
+        return actualVersion;
+    }
+}
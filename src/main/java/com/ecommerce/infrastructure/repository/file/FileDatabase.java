@@ -0,0 +1,466 @@
+package com.ecommerce.infrastructure.repository.file;
+
+import com.ecommerce.domain.BaseEntity;
+import com.ecommerce.domain.Money;
+import com.ecommerce.infrastructure.repository.mock.StorePersistence;
+import com.ecommerce.infrastructure.repository.mock.VersionedEntityStore;
+import com.ecommerce.infrastructure.transaction.OperationScope;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Transient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * File Database
+ * Durable storage behind the in-memory repositories under the file profile: a write-ahead
+ * log plus periodic snapshots
+ *
+ * The repositories keep serving reads from their in-memory stores and indexes. The changes
+ * an attached store makes are collected per operation (see OperationScope; a write outside
+ * one is an operation of its own) and appended as one log record when the operation ends,
+ * so a purchase that charges the buyer, takes the stock and stores the order is recovered
+ * whole or not at all. The operation then waits until its record is forced to disk (shared
+ * with concurrent writers, see WriteAheadLog).
+ *
+ * Concurrent operations may append changes of the same row in another order than they were
+ * made, so replay keeps the row with the highest version, and removed ids stay removed.
+ * Removed ids are kept in the snapshot as well and are never handed out again.
+ *
+ * Every snapshot-every records the tables are written to snapshot.json and the log
+ * segments it covers are deleted. Taking a snapshot briefly blocks appends while the log
+ * rolls and the rows are captured; the snapshot is only installed once every operation
+ * open at that moment has logged its record, so it never holds half an operation that the
+ * log lacks. Serializing and fsyncing happen on a background thread.
+ * On startup the snapshot is loaded and the log replayed on top of it.
+ */
+@Component
+@Profile("file")
+public class FileDatabase implements StorePersistence, OperationScope, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileDatabase.class);
+
+    private static final String SNAPSHOT = "snapshot.json";
+    private static final String SNAPSHOT_TMP = "snapshot.json.tmp";
+    private static final String PUT = "PUT";
+    private static final String DELETE = "DEL";
+
+    /**
+     * Log record of one change; row is null for a delete
+     */
+    private record Change(String table, String op, Long id, Object row) {
+    }
+
+    /**
+     * Log record of everything one operation changed
+     */
+    private record Batch(List<Change> changes) {
+    }
+
+    /**
+     * Changes of an open operation, and whether they made it into the log
+     */
+    private static final class Operation {
+        private final List<Change> changes = new ArrayList<>();
+        private final CompletableFuture<Void> logged = new CompletableFuture<>();
+    }
+
+    private final Path directory;
+    private final int snapshotEvery;
+    private final ObjectMapper mapper = createMapper();
+    // Appends share the read lock; a snapshot takes the write lock to roll the log
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // One snapshot at a time, so a later snapshot never gets overwritten by an earlier one
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final Map<String, VersionedEntityStore<?>> tables = new LinkedHashMap<>();
+    // Recovered rows of tables not yet attached
+    private final Map<String, Map<Long, JsonNode>> recovered = new LinkedHashMap<>();
+    // Ids removed from each table, recovered or since
+    private final Map<String, Set<Long>> removed = new ConcurrentHashMap<>();
+    private final ThreadLocal<Operation> currentOperation = new ThreadLocal<>();
+    private final Set<Operation> openOperations = ConcurrentHashMap.newKeySet();
+    private final boolean fresh;
+    private final WriteAheadLog wal;
+    private final ExecutorService snapshotter = Executors.newSingleThreadExecutor(runnable ->
+        Thread.ofPlatform().name("file-db-snapshot").daemon(true).unstarted(runnable));
+    private final AtomicLong sinceSnapshot = new AtomicLong();
+    private final AtomicBoolean snapshotScheduled = new AtomicBoolean();
+
+    public FileDatabase(@Value("${ecommerce.file-store.directory:./data}") String directory,
+                        @Value("${ecommerce.file-store.snapshot-every:10000}") int snapshotEvery) {
+        if (snapshotEvery <= 0) {
+            throw new IllegalArgumentException("snapshot-every must be positive");
+        }
+        this.directory = Paths.get(directory);
+        this.snapshotEvery = snapshotEvery;
+        try {
+            Files.createDirectories(this.directory);
+            Path snapshot = this.directory.resolve(SNAPSHOT);
+            long seq = Files.exists(snapshot) ? loadSnapshot(snapshot) : 0;
+            List<WriteAheadLog.Entry> entries = WriteAheadLog.recover(this.directory, seq);
+            for (WriteAheadLog.Entry entry : entries) {
+                replay(entry.payload());
+            }
+            long lastSeq = entries.isEmpty() ? seq : entries.get(entries.size() - 1).seq();
+            this.fresh = !Files.exists(snapshot) && entries.isEmpty();
+            this.sinceSnapshot.set(lastSeq - seq);
+            this.wal = new WriteAheadLog(this.directory, lastSeq);
+            logger.info("File database opened at {}: snapshot up to #{}, {} log records replayed",
+                        this.directory.toAbsolutePath(), seq, entries.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open file database at " + directory, e);
+        }
+    }
+
+    @Override
+    public boolean isFresh() {
+        return fresh;
+    }
+
+    /**
+     * Load the recovered rows of a table into an empty store and log its changes from now on
+     */
+    @Override
+    public synchronized <T extends BaseEntity> void attach(String table, VersionedEntityStore<T> store,
+                                                          Class<T> type) {
+        if (tables.containsKey(table)) {
+            throw new IllegalStateException("Table already attached: " + table);
+        }
+        Set<Long> removedIds = removedFrom(table);
+        store.addListener((id, before, after) -> {
+            Operation operation = currentOperation.get();
+            if (operation == null) {
+                throw new IllegalStateException("Change of table " + table + " outside of write()");
+            }
+            if (after == null) {
+                removedIds.add(id);
+            }
+            operation.changes.add(new Change(table, after != null ? PUT : DELETE, id, after));
+        });
+        removedIds.forEach(store::reserveId);
+        Map<Long, JsonNode> rows = recovered.remove(table);
+        if (rows != null) {
+            for (JsonNode row : rows.values()) {
+                try {
+                    store.restore(mapper.treeToValue(row, type));
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException("Unreadable row in table " + table, e);
+                }
+            }
+        }
+        tables.put(table, store);
+    }
+
+    /**
+     * Run a change against an attached store and wait until it is durable
+     * Inside an operation the change is logged with the rest of the operation.
+     * @throws UncheckedIOException if the change could not be logged
+     */
+    @Override
+    public <R> R write(Supplier<R> change) {
+        return run(change);
+    }
+
+    /**
+     * Run the action as one operation: everything it changes is logged as one record once
+     * it ends, also if it fails, as the stores keep what it changed. Returns when the record
+     * is durable; inside a running operation the action just joins it.
+     * @throws UncheckedIOException if the changes could not be logged
+     */
+    @Override
+    public <R> R run(Supplier<R> action) {
+        if (currentOperation.get() != null) {
+            return action.get();
+        }
+        Operation operation = new Operation();
+        openOperations.add(operation);
+        currentOperation.set(operation);
+        R result;
+        try {
+            result = action.get();
+        } catch (RuntimeException | Error e) {
+            finish(operation, e);
+            throw e;
+        }
+        finish(operation, null);
+        return result;
+    }
+
+    private void finish(Operation operation, Throwable failure) {
+        currentOperation.remove();
+        try {
+            log(operation.changes);
+            operation.logged.complete(null);
+        } catch (RuntimeException e) {
+            operation.logged.completeExceptionally(e);
+            if (failure == null) {
+                throw e;
+            }
+            failure.addSuppressed(e);
+        } finally {
+            openOperations.remove(operation);
+        }
+    }
+
+    private void log(List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        String record = serialize(new Batch(changes));
+        long seq;
+        lock.readLock().lock();
+        try {
+            seq = wal.append(record);
+        } finally {
+            lock.readLock().unlock();
+        }
+        wal.awaitDurable(seq);
+        if (sinceSnapshot.incrementAndGet() >= snapshotEvery && snapshotScheduled.compareAndSet(false, true)) {
+            snapshotter.execute(this::snapshotQuietly);
+        }
+    }
+
+    /**
+     * Write a snapshot of all tables and drop the log segments it covers
+     * Waits for the operations open meanwhile, so it must not be called from inside one.
+     */
+    public void snapshot() throws IOException {
+        if (currentOperation.get() != null) {
+            throw new IllegalStateException("Cannot take a snapshot inside an operation");
+        }
+        snapshotLock.lock();
+        try {
+            writeSnapshot();
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        long seq;
+        Map<String, Object> rows = new LinkedHashMap<>();
+        Map<String, Object> removedIds = new LinkedHashMap<>();
+        List<Operation> pending;
+        lock.writeLock().lock();
+        try {
+            seq = wal.roll();
+            sinceSnapshot.set(0);
+            synchronized (this) {
+                tables.forEach((table, store) -> rows.put(table, store.storedRows()));
+                recovered.forEach((table, raw) -> rows.put(table, new ArrayList<>(raw.values())));
+            }
+            removed.forEach((table, ids) -> removedIds.put(table, new ArrayList<>(ids)));
+            // Any operation whose changes were captured is still open or already logged
+            pending = new ArrayList<>(openOperations);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ObjectNode root = mapper.createObjectNode();
+        root.put("seq", seq);
+        root.set("tables", mapper.valueToTree(rows));
+        root.set("removed", mapper.valueToTree(removedIds));
+        for (Operation operation : pending) {
+            try {
+                operation.logged.join();
+            } catch (CompletionException e) {
+                throw new IOException("An operation captured by the snapshot was not logged", e.getCause());
+            }
+        }
+        writeAtomically(mapper.writeValueAsBytes(root));
+        wal.retire(seq);
+        logger.info("File database snapshot written up to #{}", seq);
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        snapshotter.shutdown();
+        try {
+            snapshotter.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        wal.close();
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            // The log still holds everything; the next trigger tries again
+            logger.error("File database snapshot failed", e);
+        } finally {
+            snapshotScheduled.set(false);
+        }
+    }
+
+    private void writeAtomically(byte[] content) throws IOException {
+        Path tmp = directory.resolve(SNAPSHOT_TMP);
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, directory.resolve(SNAPSHOT), StandardCopyOption.ATOMIC_MOVE,
+                   StandardCopyOption.REPLACE_EXISTING);
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not every platform can sync a directory; the rename itself is atomic
+            logger.debug("Could not sync directory {}", directory, e);
+        }
+    }
+
+    private long loadSnapshot(Path snapshot) throws IOException {
+        JsonNode root = mapper.readTree(snapshot.toFile());
+        Iterator<Map.Entry<String, JsonNode>> tableNodes = root.path("tables").fields();
+        while (tableNodes.hasNext()) {
+            Map.Entry<String, JsonNode> table = tableNodes.next();
+            Map<Long, JsonNode> rows = recovered.computeIfAbsent(table.getKey(), key -> new LinkedHashMap<>());
+            for (JsonNode row : table.getValue()) {
+                rows.put(row.get("id").asLong(), row);
+            }
+        }
+        Iterator<Map.Entry<String, JsonNode>> removedNodes = root.path("removed").fields();
+        while (removedNodes.hasNext()) {
+            Map.Entry<String, JsonNode> table = removedNodes.next();
+            for (JsonNode id : table.getValue()) {
+                removedFrom(table.getKey()).add(id.asLong());
+            }
+        }
+        return root.path("seq").asLong();
+    }
+
+    private void replay(String payload) throws IOException {
+        JsonNode record = mapper.readTree(payload);
+        if (record.has("changes")) {
+            for (JsonNode change : record.get("changes")) {
+                replayChange(change);
+            }
+        } else {
+            // Single change, as logged before changes were grouped by operation
+            replayChange(record);
+        }
+    }
+
+    private void replayChange(JsonNode change) {
+        String table = change.get("table").asText();
+        Map<Long, JsonNode> rows = recovered.computeIfAbsent(table, key -> new LinkedHashMap<>());
+        Set<Long> removedIds = removedFrom(table);
+        Long id = change.get("id").asLong();
+        if (PUT.equals(change.get("op").asText())) {
+            JsonNode row = change.get("row");
+            JsonNode current = rows.get(id);
+            if (!removedIds.contains(id)
+                    && (current == null || row.path("version").asLong() >= current.path("version").asLong())) {
+                rows.put(id, row);
+            }
+        } else {
+            rows.remove(id);
+            removedIds.add(id);
+        }
+    }
+
+    private Set<Long> removedFrom(String table) {
+        return removed.computeIfAbsent(table, key -> ConcurrentHashMap.newKeySet());
+    }
+
+    private String serialize(Batch batch) {
+        try {
+            return mapper.writeValueAsString(batch);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to serialize changes", e);
+        }
+    }
+
+    /**
+     * Mapper reading and writing entity fields directly, the way JPA would
+     * Transient state and back-references to a parent are skipped; Money is written as
+     * amount and currency code.
+     */
+    private static ObjectMapper createMapper() {
+        SimpleModule money = new SimpleModule("money");
+        money.addSerializer(Money.class, new JsonSerializer<>() {
+            @Override
+            public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+                gen.writeStartObject();
+                gen.writeStringField("amount", value.getAmount().toPlainString());
+                gen.writeStringField("currency", value.getCurrency());
+                gen.writeEndObject();
+            }
+        });
+        money.addDeserializer(Money.class, new JsonDeserializer<>() {
+            @Override
+            public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                JsonNode node = parser.readValueAsTree();
+                return Money.of(node.get("amount").asText(), node.get("currency").asText());
+            }
+        });
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(money);
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        mapper.setAnnotationIntrospector(new JacksonAnnotationIntrospector() {
+            @Override
+            public boolean hasIgnoreMarker(AnnotatedMember member) {
+                return member.hasAnnotation(Transient.class) || member.hasAnnotation(ManyToOne.class)
+                    || super.hasIgnoreMarker(member);
+            }
+        });
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return mapper;
+    }
+}
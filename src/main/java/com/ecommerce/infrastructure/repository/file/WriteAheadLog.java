@@ -0,0 +1,352 @@
+package com.ecommerce.infrastructure.repository.file;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-Ahead Log
+ * Append-only, group-committed log of records, split into segments
+ *
+ * Appending only queues a record and gives it the next sequence number. A single writer
+ * thread takes whatever has queued up, writes it in one go and forces it to disk once, so
+ * concurrent writers share a single fsync. Callers wait for their sequence number to become
+ * durable before acknowledging a write.
+ *
+ * Each line is "crc32-hex seq payload". Segments are named wal-<first seq>.log; rolling to
+ * a new segment lets a snapshot retire every older one. On recovery a torn or corrupt line
+ * ends the log, since nothing after a crash tail was ever acknowledged.
+ */
+final class WriteAheadLog implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+
+    /**
+     * Record read back from the log
+     */
+    record Entry(long seq, String payload) {
+    }
+
+    private record Pending(long seq, byte[] line) {
+    }
+
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition queued = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final Thread writer;
+
+    // Guarded by lock
+    private List<Pending> queue = new ArrayList<>();
+    private long lastSeq;
+    private long durableSeq;
+    private IOException failure;
+    private boolean closed;
+
+    // Owned by the writer thread, except while rolling with an empty queue
+    private FileChannel segment;
+
+    /**
+     * Open the log for appending after the given sequence number
+     */
+    WriteAheadLog(Path directory, long lastSeq) throws IOException {
+        this.directory = directory;
+        this.lastSeq = lastSeq;
+        this.durableSeq = lastSeq;
+        this.segment = openSegment(lastSeq + 1);
+        this.writer = Thread.ofPlatform().name("wal-writer").daemon(true).start(this::writeLoop);
+    }
+
+    /**
+     * Queue a record
+     * @return its sequence number
+     * @throws UncheckedIOException if the log has failed or is closed
+     */
+    long append(String payload) {
+        lock.lock();
+        try {
+            checkWritable();
+            long seq = ++lastSeq;
+            queue.add(new Pending(seq, encode(seq, payload)));
+            queued.signal();
+            return seq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sequence number of the last queued record
+     */
+    long lastSeq() {
+        lock.lock();
+        try {
+            return lastSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Block until every record up to seq is on disk
+     * @throws UncheckedIOException if writing failed
+     */
+    void awaitDurable(long seq) {
+        lock.lock();
+        try {
+            boolean interrupted = false;
+            while (durableSeq < seq && failure == null) {
+                try {
+                    durable.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (durableSeq < seq) {
+                throw new UncheckedIOException("Write-ahead log failed", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Start a new segment after everything queued so far is durable
+     * The caller must keep appends out while rolling.
+     * @return sequence number of the last record in the retired segments
+     */
+    long roll() throws IOException {
+        long upTo = lastSeq();
+        awaitDurable(upTo);
+        lock.lock();
+        try {
+            checkWritable();
+            segment.close();
+            segment = openSegment(upTo + 1);
+            return upTo;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delete segments holding only records up to seq
+     */
+    void retire(long seq) throws IOException {
+        List<Path> segments = segments(directory);
+        for (int i = 0; i < segments.size(); i++) {
+            long nextFirst = i + 1 < segments.size() ? firstSeq(segments.get(i + 1)) : Long.MAX_VALUE;
+            if (nextFirst <= seq + 1) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queued.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close write-ahead log segment", e);
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            List<Pending> batch;
+            lock.lock();
+            try {
+                while (queue.isEmpty() && !closed) {
+                    queued.awaitUninterruptibly();
+                }
+                if (queue.isEmpty()) {
+                    return;
+                }
+                batch = queue;
+                queue = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+            IOException error = null;
+            try {
+                write(batch);
+            } catch (IOException e) {
+                error = e;
+                logger.error("Write-ahead log write failed; rejecting further writes", e);
+            }
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableSeq = batch.get(batch.size() - 1).seq();
+                }
+                durable.signalAll();
+                if (failure != null) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) throws IOException {
+        int size = 0;
+        for (Pending pending : batch) {
+            size += pending.line().length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (Pending pending : batch) {
+            buffer.put(pending.line());
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        segment.force(false);
+    }
+
+    private void checkWritable() {
+        if (failure != null) {
+            throw new UncheckedIOException("Write-ahead log failed", failure);
+        }
+        if (closed) {
+            throw new UncheckedIOException(new IOException("Write-ahead log is closed"));
+        }
+    }
+
+    private FileChannel openSegment(long firstSeq) throws IOException {
+        return FileChannel.open(directory.resolve(PREFIX + firstSeq + SUFFIX),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static byte[] encode(long seq, String payload) {
+        String body = seq + " " + payload;
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return (Long.toHexString(crc.getValue()) + " " + body + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Records of all segments with a sequence number above afterSeq, in order
+     * The log is cut at the first torn or corrupt record: the segment is truncated there
+     * and later segments are deleted, so appends resume right after the last good record.
+     */
+    static List<Entry> recover(Path directory, long afterSeq) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long expected = -1;
+        List<Path> segments = segments(directory);
+        for (int i = 0; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            byte[] bytes = Files.readAllBytes(segment);
+            int offset = 0;
+            boolean corrupt = false;
+            while (offset < bytes.length) {
+                int end = indexOf(bytes, (byte) '\n', offset);
+                Entry entry = end < 0 ? null : decode(new String(bytes, offset, end - offset, StandardCharsets.UTF_8));
+                if (entry == null || (expected >= 0 && entry.seq() != expected)) {
+                    corrupt = true;
+                    break;
+                }
+                expected = entry.seq() + 1;
+                if (entry.seq() > afterSeq) {
+                    entries.add(entry);
+                }
+                offset = end + 1;
+            }
+            if (corrupt) {
+                logger.warn("Write-ahead log {} ends in a torn or corrupt record at byte {}; dropping the rest",
+                            segment.getFileName(), offset);
+                try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                    channel.truncate(offset);
+                    channel.force(true);
+                }
+                for (Path later : segments.subList(i + 1, segments.size())) {
+                    Files.deleteIfExists(later);
+                }
+                break;
+            }
+        }
+        return entries;
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Entry decode(String line) {
+        int first = line.indexOf(' ');
+        int second = first > 0 ? line.indexOf(' ', first + 1) : -1;
+        if (second < 0) {
+            return null;
+        }
+        try {
+            String body = line.substring(first + 1);
+            CRC32 crc = new CRC32();
+            crc.update(body.getBytes(StandardCharsets.UTF_8));
+            if (crc.getValue() != Long.parseLong(line.substring(0, first), 16)) {
+                return null;
+            }
+            return new Entry(Long.parseLong(line.substring(first + 1, second)), line.substring(second + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                })
+                .sorted((a, b) -> Long.compare(firstSeq(a), firstSeq(b)))
+                .toList();
+        }
+    }
+
+    private static long firstSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
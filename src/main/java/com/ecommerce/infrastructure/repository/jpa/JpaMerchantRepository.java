@@ -0,0 +1,61 @@
+package com.ecommerce.infrastructure.repository.jpa;
+
+import com.ecommerce.domain.merchant.Merchant;
+import com.ecommerce.domain.merchant.MerchantStatus;
+import com.ecommerce.infrastructure.repository.MerchantRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JPA Merchant Repository Implementation
+ * Saves are version-checked; see VersionedJpaRepository
+ */
+@Repository
+@Profile("mysql")
+public class JpaMerchantRepository extends VersionedJpaRepository<Merchant> implements MerchantRepository {
+    
+    private final MerchantJpaRepository merchants;
+    
+    public JpaMerchantRepository(MerchantJpaRepository merchants) {
+        super(Merchant.class);
+        this.merchants = merchants;
+    }
+    
+    @Override
+    public Optional<Merchant> findById(Long id) {
+        return id != null ? merchants.findById(id) : Optional.empty();
+    }
+    
+    @Override
+    public boolean existsById(Long id) {
+        return id != null && merchants.existsById(id);
+    }
+    
+    @Override
+    public Optional<Merchant> findByBusinessLicense(String businessLicense) {
+        return merchants.findByBusinessLicense(businessLicense);
+    }
+    
+    @Override
+    public Optional<Merchant> findByContactEmail(String contactEmail) {
+        return merchants.findByContactEmail(contactEmail);
+    }
+    
+    @Override
+    public boolean existsByBusinessLicense(String businessLicense) {
+        return merchants.existsByBusinessLicense(businessLicense);
+    }
+    
+    @Override
+    public boolean existsByContactEmail(String contactEmail) {
+        return merchants.existsByContactEmail(contactEmail);
+    }
+    
+    @Override
+    public List<Merchant> findAllActive() {
+        return merchants.findByStatus(MerchantStatus.ACTIVE);
+    }
+}
@@ -0,0 +1,153 @@
+package com.ecommerce.infrastructure.repository.jpa;
+
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.order.OrderStatus;
+import com.ecommerce.infrastructure.repository.OrderRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * JPA Order Repository Implementation
+ * Saves are version-checked; see VersionedJpaRepository
+ * Orders come with their items from a single fetch join; settlement sums read only the
+ * total amounts
+ * Cursors read fetchSize rows per query by keyset on (orderTime, id) and detach each chunk
+ * of orders once visited, so neither the result nor the persistence context grows with the range
+ */
+@Repository
+@Profile("mysql")
+public class JpaOrderRepository extends VersionedJpaRepository<Order> implements OrderRepository {
+    
+    private final OrderJpaRepository orders;
+    
+    public JpaOrderRepository(OrderJpaRepository orders) {
+        super(Order.class);
+        this.orders = orders;
+    }
+    
+    @Override
+    public Optional<Order> findById(Long id) {
+        return id != null ? orders.findWithItemsById(id) : Optional.empty();
+    }
+    
+    @Override
+    public Optional<Order> findByOrderNumber(String orderNumber) {
+        return orders.findWithItemsByOrderNumber(orderNumber);
+    }
+    
+    @Override
+    public boolean existsByOrderNumber(String orderNumber) {
+        return orders.existsByOrderNumber(orderNumber);
+    }
+    
+    @Override
+    public List<Order> findByMerchantIdAndOrderTimeBetween(Long merchantId, LocalDateTime start, LocalDateTime end) {
+        return orders.findWithItemsByMerchantIdAndOrderTimeBetween(merchantId, start, end);
+    }
+    
+    @Override
+    public List<Order> findByMerchantIdAndStatusAndOrderTimeBetween(Long merchantId, OrderStatus status, LocalDateTime start, LocalDateTime end) {
+        return orders.findWithItemsByMerchantIdAndStatusAndOrderTimeBetween(merchantId, status, start, end);
+    }
+    
+    @Override
+    public void forEachByMerchantIdAndOrderTimeBetween(Long merchantId, LocalDateTime start, LocalDateTime end,
+                                                       int fetchSize, Consumer<? super Order> visitor) {
+        if (merchantId == null || start == null || end == null) {
+            return;
+        }
+        Limit chunk = Limit.of(Math.max(1, fetchSize));
+        LocalDateTime afterTime = start;
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            List<Long> ids = orders.findIdsByMerchantIdAndOrderTimeBetweenAfter(merchantId, start, end,
+                                                                                 afterTime, afterId, chunk);
+            List<Order> page = findWithItemsInOrder(ids);
+            page.forEach(visitor);
+            page.forEach(entityManager::detach);
+            if (ids.size() < chunk.max() || page.isEmpty()) {
+                return;
+            }
+            Order last = page.get(page.size() - 1);
+            afterTime = last.getOrderTime();
+            afterId = last.getId();
+        }
+    }
+    
+    @Override
+    public void forEachTotalAmountByMerchantIdAndCompletedTimeIn(Long merchantId, LocalDateTime after, LocalDateTime until,
+                                                                 int fetchSize, Consumer<? super Money> visitor) {
+        if (merchantId == null || after == null || until == null) {
+            return;
+        }
+        Limit chunk = Limit.of(Math.max(1, fetchSize));
+        LocalDateTime afterTime = after;
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            List<OrderTotal> totals = orders.findTotalsByMerchantIdAndCompletedTimeInAfter(
+                merchantId, after, until, afterTime, afterId, chunk);
+            totals.forEach(total -> visitor.accept(total.totalAmount()));
+            if (totals.size() < chunk.max()) {
+                return;
+            }
+            OrderTotal last = totals.get(totals.size() - 1);
+            afterTime = last.time();
+            afterId = last.id();
+        }
+    }
+    
+    @Override
+    public void forEachByStatus(OrderStatus status, int fetchSize, Consumer<? super Order> visitor) {
+        if (status == null) {
+            return;
+        }
+        Limit chunk = Limit.of(Math.max(1, fetchSize));
+        List<Long> ids = orders.findFirstIdsByStatus(status, chunk);
+        while (true) {
+            List<Order> page = findWithItemsInOrder(ids);
+            page.forEach(visitor);
+            page.forEach(entityManager::detach);
+            if (ids.size() < chunk.max() || page.isEmpty()) {
+                return;
+            }
+            Order last = page.get(page.size() - 1);
+            ids = orders.findIdsByStatusAfter(status, last.getOrderTime(), last.getId(), chunk);
+        }
+    }
+    
+    @Override
+    public List<Order> findByUserIdBefore(Long userId, LocalDateTime beforeTime, Long beforeId, int limit) {
+        if (userId == null || limit <= 0) {
+            return List.of();
+        }
+        List<Long> ids = beforeTime == null
+            ? orders.findLatestIdsByUserId(userId, Limit.of(limit))
+            : orders.findIdsByUserIdBefore(userId, beforeTime, beforeId != null ? beforeId : Long.MAX_VALUE,
+                                           Limit.of(limit));
+        return findWithItemsInOrder(ids);
+    }
+    
+    private List<Order> findWithItemsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // The fetch join returns the page in any order; put it back in the order of the ids
+        Map<Long, Integer> position = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            position.put(ids.get(i), i);
+        }
+        return orders.findWithItemsByIdIn(ids).stream()
+                .sorted(Comparator.comparing(order -> position.get(order.getId())))
+                .toList();
+    }
+}
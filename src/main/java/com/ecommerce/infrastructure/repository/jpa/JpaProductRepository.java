@@ -0,0 +1,50 @@
+package com.ecommerce.infrastructure.repository.jpa;
+
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.infrastructure.repository.ProductRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JPA Product Repository Implementation
+ * Saves are version-checked; see VersionedJpaRepository
+ */
+@Repository
+@Profile("mysql")
+public class JpaProductRepository extends VersionedJpaRepository<Product> implements ProductRepository {
+    
+    private final ProductJpaRepository products;
+    
+    public JpaProductRepository(ProductJpaRepository products) {
+        super(Product.class);
+        this.products = products;
+    }
+    
+    @Override
+    public Optional<Product> findById(Long id) {
+        return id != null ? products.findById(id) : Optional.empty();
+    }
+    
+    @Override
+    public Optional<Product> findBySku(String sku) {
+        return products.findBySku(sku);
+    }
+    
+    @Override
+    public List<Product> findByMerchantId(Long merchantId) {
+        return products.findByMerchantId(merchantId);
+    }
+    
+    @Override
+    public List<Product> findAll() {
+        return products.findAll();
+    }
+    
+    @Override
+    public boolean existsBySku(String sku) {
+        return products.existsBySku(sku);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.infrastructure.repository.jpa;
+
+import com.ecommerce.domain.settlement.Settlement;
+import com.ecommerce.infrastructure.repository.SettlementRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * JPA Settlement Repository Implementation
+ * Saves are version-checked; see VersionedJpaRepository
+ */
+@Repository
+@Profile("mysql")
+public class JpaSettlementRepository extends VersionedJpaRepository<Settlement> implements SettlementRepository {
+    
+    private final SettlementJpaRepository settlements;
+    
+    public JpaSettlementRepository(SettlementJpaRepository settlements) {
+        super(Settlement.class);
+        this.settlements = settlements;
+    }
+    
+    @Override
+    public Optional<Settlement> findById(Long id) {
+        return id != null ? settlements.findById(id) : Optional.empty();
+    }
+    
+    @Override
+    public Optional<Settlement> findByMerchantIdAndSettlementDate(Long merchantId, LocalDate settlementDate) {
+        return settlements.findByMerchantIdAndSettlementDate(merchantId, settlementDate);
+    }
+    
+    @Override
+    public Optional<Settlement> findTopByMerchantIdOrderBySettlementDateDesc(Long merchantId) {
+        return merchantId != null ? settlements.findTopByMerchantIdOrderBySettlementDateDesc(merchantId) : Optional.empty();
+    }
+}
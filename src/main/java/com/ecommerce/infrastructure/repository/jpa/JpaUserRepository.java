@@ -0,0 +1,65 @@
+package com.ecommerce.infrastructure.repository.jpa;
+
+import com.ecommerce.domain.user.User;
+import com.ecommerce.infrastructure.repository.UserRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * JPA User Repository Implementation
+ * Saves are version-checked; see VersionedJpaRepository
+ */
+@Repository
+@Profile("mysql")
+public class JpaUserRepository extends VersionedJpaRepository<User> implements UserRepository {
+    
+    private final UserJpaRepository users;
+    
+    public JpaUserRepository(UserJpaRepository users) {
+        super(User.class);
+        this.users = users;
+    }
+    
+    @Override
+    public Optional<User> findById(Long id) {
+        return id != null ? users.findById(id) : Optional.empty();
+    }
+    
+    @Override
+    public Optional<User> findByPhone(String phone) {
+        return users.findByPhone(phone);
+    }
+    
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return users.findByEmail(email);
+    }
+    
+    @Override
+    public boolean existsByPhone(String phone) {
+        return users.existsByPhone(phone);
+    }
+    
+    @Override
+    public boolean existsByEmail(String email) {
+        return users.existsByEmail(email);
+    }
+    
+    @Override
+    public boolean existsById(Long id) {
+        return id != null && users.existsById(id);
+    }
+    
+    @Override
+    public Set<Long> getAllUserIds() {
+        return users.findAllIds();
+    }
+    
+    @Override
+    public int count() {
+        return Math.toIntExact(users.count());
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.infrastructure.repository.jpa;
+
+import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.order.OrderStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Spring Data queries behind JpaOrderRepository
+ * Orders are always loaded together with their items in one fetch join; paged queries
+ * first select the ids, since a fetch join cannot be limited in SQL. Cursors read chunks
+ * after a keyset position (afterTime, afterId) in (orderTime, id) order
+ */
+interface OrderJpaRepository extends JpaRepository<Order, Long> {
+
+    @Query("select o from Order o left join fetch o.items where o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") Long id);
+
+    @Query("select o from Order o left join fetch o.items where o.orderNumber = :orderNumber")
+    Optional<Order> findWithItemsByOrderNumber(@Param("orderNumber") String orderNumber);
+
+    @Query("select o from Order o left join fetch o.items where o.id in :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    boolean existsByOrderNumber(String orderNumber);
+
+    @Query("select o from Order o left join fetch o.items"
+         + " where o.merchantId = :merchantId and o.orderTime between :start and :end"
+         + " order by o.orderTime, o.id")
+    List<Order> findWithItemsByMerchantIdAndOrderTimeBetween(@Param("merchantId") Long merchantId,
+                                                             @Param("start") LocalDateTime start,
+                                                             @Param("end") LocalDateTime end);
+
+    @Query("select o from Order o left join fetch o.items"
+         + " where o.merchantId = :merchantId and o.status = :status and o.orderTime between :start and :end"
+         + " order by o.orderTime, o.id")
+    List<Order> findWithItemsByMerchantIdAndStatusAndOrderTimeBetween(@Param("merchantId") Long merchantId,
+                                                                      @Param("status") OrderStatus status,
+                                                                      @Param("start") LocalDateTime start,
+                                                                      @Param("end") LocalDateTime end);
+
+    @Query("select o.id from Order o where o.merchantId = :merchantId and o.orderTime between :start and :end"
+         + " and (o.orderTime > :afterTime or (o.orderTime = :afterTime and o.id > :afterId))"
+         + " order by o.orderTime, o.id")
+    List<Long> findIdsByMerchantIdAndOrderTimeBetweenAfter(@Param("merchantId") Long merchantId,
+                                                           @Param("start") LocalDateTime start,
+                                                           @Param("end") LocalDateTime end,
+                                                           @Param("afterTime") LocalDateTime afterTime,
+                                                           @Param("afterId") Long afterId,
+                                                           Limit limit);
+
+    @Query("select new com.ecommerce.infrastructure.repository.jpa.OrderTotal(o.id, o.completedTime, o.totalAmount)"
+         + " from Order o"
+         + " where o.merchantId = :merchantId and o.completedTime > :after and o.completedTime <= :until"
+         + " and (o.completedTime > :afterTime or (o.completedTime = :afterTime and o.id > :afterId))"
+         + " order by o.completedTime, o.id")
+    List<OrderTotal> findTotalsByMerchantIdAndCompletedTimeInAfter(@Param("merchantId") Long merchantId,
+                                                                   @Param("after") LocalDateTime after,
+                                                                   @Param("until") LocalDateTime until,
+                                                                   @Param("afterTime") LocalDateTime afterTime,
+                                                                   @Param("afterId") Long afterId,
+                                                                   Limit limit);
+
+    @Query("select o.id from Order o where o.status = :status order by o.orderTime, o.id")
+    List<Long> findFirstIdsByStatus(@Param("status") OrderStatus status, Limit limit);
+
+    @Query("select o.id from Order o where o.status = :status"
+         + " and (o.orderTime > :afterTime or (o.orderTime = :afterTime and o.id > :afterId))"
+         + " order by o.orderTime, o.id")
+    List<Long> findIdsByStatusAfter(@Param("status") OrderStatus status,
+                                    @Param("afterTime") LocalDateTime afterTime,
+                                    @Param("afterId") Long afterId,
+                                    Limit limit);
+
+    @Query("select o.id from Order o where o.userId = :userId order by o.orderTime desc, o.id desc")
+    List<Long> findLatestIdsByUserId(@Param("userId") Long userId, Limit limit);
+
+    @Query("select o.id from Order o where o.userId = :userId"
+         + " and (o.orderTime < :beforeTime or (o.orderTime = :beforeTime and o.id < :beforeId))"
+         + " order by o.orderTime desc, o.id desc")
+    List<Long> findIdsByUserIdBefore(@Param("userId") Long userId,
+                                     @Param("beforeTime") LocalDateTime beforeTime,
+                                     @Param("beforeId") Long beforeId,
+                                     Limit limit);
+}
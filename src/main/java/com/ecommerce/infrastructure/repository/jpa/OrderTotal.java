@@ -0,0 +1,12 @@
+package com.ecommerce.infrastructure.repository.jpa;
+
+import com.ecommerce.domain.Money;
+
+import java.time.LocalDateTime;
+
+/**
+ * Total amount of an order with its keyset position, for reading totals in chunks
+ * The time is the cursor's sort key: the order time or the completion time
+ */
+record OrderTotal(Long id, LocalDateTime time, Money totalAmount) {
+}
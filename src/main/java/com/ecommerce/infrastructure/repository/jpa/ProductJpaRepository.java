@@ -0,0 +1,19 @@
+package com.ecommerce.infrastructure.repository.jpa;
+
+import com.ecommerce.domain.product.Product;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Spring Data queries behind JpaProductRepository
+ */
+interface ProductJpaRepository extends JpaRepository<Product, Long> {
+
+    Optional<Product> findBySku(String sku);
+
+    List<Product> findByMerchantId(Long merchantId);
+
+    boolean existsBySku(String sku);
+}
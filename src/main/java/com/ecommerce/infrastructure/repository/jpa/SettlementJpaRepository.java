@@ -0,0 +1,17 @@
+package com.ecommerce.infrastructure.repository.jpa;
+
+import com.ecommerce.domain.settlement.Settlement;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Spring Data queries behind JpaSettlementRepository
+ */
+interface SettlementJpaRepository extends JpaRepository<Settlement, Long> {
+    
+    Optional<Settlement> findByMerchantIdAndSettlementDate(Long merchantId, LocalDate settlementDate);
+    
+    Optional<Settlement> findTopByMerchantIdOrderBySettlementDateDesc(Long merchantId);
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.infrastructure.repository.jpa;
+
+import com.ecommerce.domain.user.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Spring Data queries behind JpaUserRepository
+ */
+interface UserJpaRepository extends JpaRepository<User, Long> {
+
+    Optional<User> findByEmail(String email);
+
+    Optional<User> findByPhone(String phone);
+
+    boolean existsByEmail(String email);
+
+    boolean existsByPhone(String phone);
+
+    @Query("select u.id from User u")
+    Set<Long> findAllIds();
+}
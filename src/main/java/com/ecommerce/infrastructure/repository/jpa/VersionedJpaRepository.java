@@ -0,0 +1,80 @@
+package com.ecommerce.infrastructure.repository.jpa;
+
+import com.ecommerce.domain.BaseEntity;
+import com.ecommerce.infrastructure.repository.VersionConflictException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.StaleStateException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Objects;
+
+/**
+ * Versioned JPA Repository
+ * Saves and deletes with the same version semantics as the in-memory stores
+ *
+ * A save only succeeds if the stored version is still the one the caller read
+ * (BaseEntity.getPersistedVersion). Domain methods bump the version on every change, while
+ * @Version expects the version that was read, so the version is reset to it before the
+ * merge; the UPDATE ... WHERE version = ? then catches concurrent writers. Afterwards the
+ * caller's instance takes over the written version and is marked persisted, so it can be
+ * changed and saved again like with the other repositories.
+ *
+ * Changes are flushed before returning, so that conflicts and constraint violations
+ * surface at the save that caused them. A stale UPDATE found by the flush is reported as
+ * a VersionConflictException like the version check above, not as a raw JPA exception.
+ */
+@Repository
+@Transactional
+abstract class VersionedJpaRepository<T extends BaseEntity> {
+
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    private final Class<T> type;
+
+    protected VersionedJpaRepository(Class<T> type) {
+        this.type = type;
+    }
+
+    public T save(T entity) {
+        if (entity.getId() == null) {
+            entityManager.persist(entity);
+            entityManager.flush();
+            entity.markPersisted();
+            return entity;
+        }
+        Long expected = entity.getPersistedVersion();
+        if (!entityManager.contains(entity)) {
+            T current = entityManager.find(type, entity.getId());
+            Long actual = current != null ? current.getVersion() : null;
+            if (current == null || !Objects.equals(expected, actual)) {
+                throw new VersionConflictException(type, entity.getId(), expected, actual);
+            }
+        }
+        entity.syncVersion(expected);
+        T merged;
+        try {
+            merged = entityManager.merge(entity);
+            entityManager.flush();
+        } catch (OptimisticLockException | StaleStateException e) {
+            throw new VersionConflictException(type, entity.getId(), expected, null, e);
+        }
+        entity.syncVersion(merged.getVersion());
+        entity.markPersisted();
+        return entity;
+    }
+
+    public void deleteById(Long id) {
+        if (id == null) {
+            return;
+        }
+        T current = entityManager.find(type, id);
+        if (current != null) {
+            entityManager.remove(current);
+            entityManager.flush();
+        }
+    }
+}
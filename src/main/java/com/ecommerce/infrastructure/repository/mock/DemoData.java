@@ -0,0 +1,59 @@
+package com.ecommerce.infrastructure.repository.mock;
+
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.merchant.Merchant;
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.user.User;
+
+import java.util.List;
+
+/**
+ * Demo Data
+ * Users, merchants and products every in-memory store starts with, and the file store on
+ * its very first start
+ *
+ * Each call returns new, unsaved instances; saved in list order they get ids 1, 2, ...
+ */
+public final class DemoData {
+
+    private DemoData() {
+    }
+
+    public static List<User> users() {
+        // Create demo users with some balance
+        User user1 = new User("alice", "alice@example.com", "13800001111", "CNY");
+        user1.recharge(Money.of("1000.00", "CNY"));
+        
+        User user2 = new User("bob", "bob@example.com", "13800002222", "CNY");
+        user2.recharge(Money.of("500.00", "CNY"));
+        
+        User user3 = new User("charlie", "charlie@example.com", "13800003333", "CNY");
+        user3.recharge(Money.of("2000.00", "CNY"));
+        
+        return List.of(user1, user2, user3);
+    }
+
+    public static List<Merchant> merchants() {
+        return List.of(
+            new Merchant("Apple Store", "LICENSE-001", "apple@store.com", "400-666-8888"),
+            new Merchant("Tech Books Store", "LICENSE-002", "books@tech.com", "400-888-6666"));
+    }
+
+    public static List<Product> products() {
+        return List.of(
+            // Demo products for merchant 1
+            new Product("PHONE-001", "iPhone 16 Pro", "Latest iPhone with Pro camera system",
+                        Money.of("7999.00", "CNY"), 1L, 50),
+            new Product("PHONE-002", "Samsung Galaxy S24", "Latest Samsung flagship phone",
+                        Money.of("6999.00", "CNY"), 1L, 30),
+            new Product("LAPTOP-001", "MacBook Pro 16", "Apple MacBook Pro with M3 chip",
+                        Money.of("19999.00", "CNY"), 1L, 20),
+            // Demo products for merchant 2
+            new Product("BOOK-001", "Clean Code", "A handbook of agile software craftsmanship",
+                        Money.of("89.00", "CNY"), 2L, 100),
+            new Product("BOOK-002", "Design Patterns", "Elements of reusable object-oriented software",
+                        Money.of("79.00", "CNY"), 2L, 80),
+            new Product("HEADPHONE-001", "AirPods Pro", "Active noise cancellation wireless earbuds",
+                        Money.of("1999.00", "CNY"), 2L, 60));
+    }
+}
@@ -2,95 +2,92 @@ package com.ecommerce.infrastructure.repository.mock;
 
 import com.ecommerce.domain.merchant.Merchant;
 import com.ecommerce.infrastructure.repository.MerchantRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
-import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Mock Merchant Repository Implementation
  * Uses in-memory storage with pre-loaded demo data
+ * Saves are version-checked; see VersionedEntityStore
+ * Business license and contact email lookups go through unique indexes
+ * Under the file profile FileDatabase restores the store and logs its changes; demo data
+ * is loaded only into a fresh database
  */
 @Repository
-@Profile("mock")
+@Profile({"mock", "file"})
 public class MockMerchantRepository implements MerchantRepository {
     
-    private final Map<Long, Merchant> storage = new HashMap<>();
-    private final AtomicLong idGenerator = new AtomicLong(1);
+    private final StorePersistence persistence;
+    private final VersionedEntityStore<Merchant> storage = new VersionedEntityStore<>(Merchant.class);
+    private final VersionedEntityStore<Merchant>.UniqueIndex<String> licenseIndex =
+        storage.addIndex(Merchant::getBusinessLicense);
+    private final VersionedEntityStore<Merchant>.UniqueIndex<String> contactEmailIndex =
+        storage.addIndex(Merchant::getContactEmail);
     
     public MockMerchantRepository() {
-        initializeDemoData();
+        this(StorePersistence.IN_MEMORY);
     }
     
-    private void initializeDemoData() {
-        // Create demo merchants
-        Merchant merchant1 = new Merchant("Apple Store", "LICENSE-001", 
-                                         "apple@store.com", "400-666-8888");
-        merchant1.setId(idGenerator.getAndIncrement());
-        storage.put(merchant1.getId(), merchant1);
-        
-        Merchant merchant2 = new Merchant("Tech Books Store", "LICENSE-002", 
-                                         "books@tech.com", "400-888-6666");
-        merchant2.setId(idGenerator.getAndIncrement());
-        storage.put(merchant2.getId(), merchant2);
+    @Autowired
+    public MockMerchantRepository(ObjectProvider<StorePersistence> persistence) {
+        this(persistence.getIfAvailable(() -> StorePersistence.IN_MEMORY));
+    }
+    
+    public MockMerchantRepository(StorePersistence persistence) {
+        this.persistence = persistence;
+        persistence.attach("merchants", storage, Merchant.class);
+        if (persistence.isFresh()) {
+            DemoData.merchants().forEach(this::save);
+        }
     }
     
     @Override
     public Merchant save(Merchant merchant) {
-        if (merchant.getId() == null) {
-            merchant.setId(idGenerator.getAndIncrement());
-        }
-        storage.put(merchant.getId(), merchant);
-        return merchant;
+        return persistence.write(() -> storage.save(merchant));
     }
     
     @Override
     public Optional<Merchant> findById(Long id) {
-        return Optional.ofNullable(storage.get(id));
+        return storage.findById(id);
     }
     
     @Override
     public Optional<Merchant> findByBusinessLicense(String businessLicense) {
-        return storage.values().stream()
-                .filter(merchant -> businessLicense.equals(merchant.getBusinessLicense()))
-                .findFirst();
+        return storage.findBy(licenseIndex, businessLicense);
     }
     
     @Override
     public Optional<Merchant> findByContactEmail(String contactEmail) {
-        return storage.values().stream()
-                .filter(merchant -> contactEmail.equals(merchant.getContactEmail()))
-                .findFirst();
+        return storage.findBy(contactEmailIndex, contactEmail);
     }
     
     @Override
     public boolean existsByBusinessLicense(String businessLicense) {
-        return storage.values().stream()
-                .anyMatch(merchant -> businessLicense.equals(merchant.getBusinessLicense()));
+        return storage.existsBy(licenseIndex, businessLicense);
     }
     
     @Override
     public boolean existsByContactEmail(String contactEmail) {
-        return storage.values().stream()
-                .anyMatch(merchant -> contactEmail.equals(merchant.getContactEmail()));
+        return storage.existsBy(contactEmailIndex, contactEmail);
     }
     
     @Override
     public boolean existsById(Long id) {
-        return storage.containsKey(id);
+        return storage.containsId(id);
     }
     
     @Override
     public void deleteById(Long id) {
-        storage.remove(id);
+        persistence.write(() -> storage.remove(id));
     }
     
     @Override
     public List<Merchant> findAllActive() {
-        return storage.values().stream()
-                .filter(Merchant::isActive)
-                .collect(Collectors.toList());
+        return storage.findAll(Merchant::isActive);
     }
 } 
\ No newline at end of file
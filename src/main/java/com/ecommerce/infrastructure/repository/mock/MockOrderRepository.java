@@ -1,86 +1,127 @@
 package com.ecommerce.infrastructure.repository.mock;
 
+import com.ecommerce.domain.Money;
 import com.ecommerce.domain.order.Order;
 import com.ecommerce.domain.order.OrderStatus;
 import com.ecommerce.infrastructure.repository.OrderRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
-import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Mock Order Repository Implementation
  * Uses in-memory storage
+ * Saves are version-checked; see VersionedEntityStore
+ * Merchant range queries and user order history read time-ordered indexes per merchant
+ * and per user; settlement reads a per-merchant completion time index and the reservation
+ * sweep a per-status one
+ * Under the file profile FileDatabase restores the store and logs its changes
  */
 @Repository
-@Profile("mock")
+@Profile({"mock", "file"})
 public class MockOrderRepository implements OrderRepository {
     
-    private final Map<Long, Order> storage = new HashMap<>();
-    private final Map<String, Order> orderNumberIndex = new HashMap<>();
-    private final AtomicLong idGenerator = new AtomicLong(1);
+    private final StorePersistence persistence;
+    private final VersionedEntityStore<Order> storage = new VersionedEntityStore<>(Order.class);
+    private final VersionedEntityStore<Order>.UniqueIndex<String> orderNumberIndex =
+        storage.addIndex(Order::getOrderNumber);
+    private final VersionedEntityStore<Order>.SortedIndex<Long, LocalDateTime> merchantTimeIndex =
+        storage.addSortedIndex(Order::getMerchantId, Order::getOrderTime);
+    private final VersionedEntityStore<Order>.SortedIndex<Long, LocalDateTime> userTimeIndex =
+        storage.addSortedIndex(Order::getUserId, Order::getOrderTime);
+    private final VersionedEntityStore<Order>.SortedIndex<Long, LocalDateTime> merchantCompletedTimeIndex =
+        storage.addSortedIndex(Order::getMerchantId, Order::getCompletedTime);
+    private final VersionedEntityStore<Order>.SortedIndex<OrderStatus, LocalDateTime> statusTimeIndex =
+        storage.addSortedIndex(Order::getStatus, Order::getOrderTime);
+    
+    public MockOrderRepository() {
+        this(StorePersistence.IN_MEMORY);
+    }
+    
+    @Autowired
+    public MockOrderRepository(ObjectProvider<StorePersistence> persistence) {
+        this(persistence.getIfAvailable(() -> StorePersistence.IN_MEMORY));
+    }
+    
+    public MockOrderRepository(StorePersistence persistence) {
+        this.persistence = persistence;
+        persistence.attach("orders", storage, Order.class);
+    }
     
     @Override
     public Order save(Order order) {
-        if (order.getId() == null) {
-            order.setId(idGenerator.getAndIncrement());
-        }
-        storage.put(order.getId(), order);
-        orderNumberIndex.put(order.getOrderNumber(), order);
-        return order;
+        return persistence.write(() -> storage.save(order));
     }
     
     @Override
     public Optional<Order> findById(Long id) {
-        return Optional.ofNullable(storage.get(id));
+        return storage.findById(id);
     }
     
     @Override
     public Optional<Order> findByOrderNumber(String orderNumber) {
-        return Optional.ofNullable(orderNumberIndex.get(orderNumber));
+        return storage.findBy(orderNumberIndex, orderNumber);
     }
     
     @Override
     public boolean existsByOrderNumber(String orderNumber) {
-        return orderNumberIndex.containsKey(orderNumber);
+        return storage.existsBy(orderNumberIndex, orderNumber);
     }
     
     @Override
     public List<Order> findByMerchantIdAndOrderTimeBetween(Long merchantId, LocalDateTime start, LocalDateTime end) {
-        return storage.values().stream()
-                .filter(order -> Objects.equals(order.getMerchantId(), merchantId))
-                .filter(order -> {
-                    LocalDateTime orderTime = order.getOrderTime();
-                    return orderTime != null && 
-                           !orderTime.isBefore(start) && 
-                           !orderTime.isAfter(end);
-                })
-                .collect(Collectors.toList());
+        return storage.findRange(merchantTimeIndex, merchantId, start, end);
     }
     
     @Override
     public List<Order> findByMerchantIdAndStatusAndOrderTimeBetween(Long merchantId, OrderStatus status, LocalDateTime start, LocalDateTime end) {
-        // Filter orders by merchant ID, status and date range
-        return storage.values().stream()
-                .filter(order -> Objects.equals(order.getMerchantId(), merchantId))
-                .filter(order -> Objects.equals(order.getStatus(), status))
-                .filter(order -> {
-                    LocalDateTime orderTime = order.getOrderTime();
-                    return orderTime != null && 
-                           !orderTime.isBefore(start) && 
-                           !orderTime.isAfter(end);
-                })
-                .collect(Collectors.toList());
+        return storage.findRange(merchantTimeIndex, merchantId, start, end).stream()
+                .filter(order -> order.getStatus() == status)
+                .toList();
     }
     
     @Override
-    public void deleteById(Long id) {
-        Order order = storage.remove(id);
-        if (order != null) {
-            orderNumberIndex.remove(order.getOrderNumber());
+    public void forEachByMerchantIdAndOrderTimeBetween(Long merchantId, LocalDateTime start, LocalDateTime end,
+                                                       int fetchSize, Consumer<? super Order> visitor) {
+        // The rows are in memory already; the index is walked lazily and fetchSize is not needed
+        storage.forEachInRange(merchantTimeIndex, merchantId, start, end, visitor);
+    }
+    
+    @Override
+    public void forEachTotalAmountByMerchantIdAndCompletedTimeIn(Long merchantId, LocalDateTime after, LocalDateTime until,
+                                                                 int fetchSize, Consumer<? super Money> visitor) {
+        if (merchantId == null || after == null) {
+            return;
         }
+        // The index range is closed; orders completed exactly at the watermark were counted before
+        storage.forEachInRange(merchantCompletedTimeIndex, merchantId, after, until, order -> {
+            if (order.getCompletedTime().isAfter(after)) {
+                visitor.accept(order.getTotalAmount());
+            }
+        });
+    }
+    
+    @Override
+    public void forEachByStatus(OrderStatus status, int fetchSize, Consumer<? super Order> visitor) {
+        storage.forEachInRange(statusTimeIndex, status, LocalDateTime.MIN, LocalDateTime.MAX, visitor);
+    }
+    
+    @Override
+    public List<Order> findByUserIdBefore(Long userId, LocalDateTime beforeTime, Long beforeId, int limit) {
+        if (userId == null) {
+            return List.of();
+        }
+        return storage.findPageBefore(userTimeIndex, userId, beforeTime, beforeId, limit);
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        persistence.write(() -> storage.remove(id));
     }
 } 
\ No newline at end of file
@@ -1,99 +1,80 @@
 package com.ecommerce.infrastructure.repository.mock;
 
 import com.ecommerce.domain.product.Product;
-import com.ecommerce.domain.Money;
 import com.ecommerce.infrastructure.repository.ProductRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
-import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Mock Product Repository Implementation
  * Uses in-memory storage with pre-loaded demo data
+ * Saves are version-checked; see VersionedEntityStore
+ * Under the file profile FileDatabase restores the store and logs its changes; demo data
+ * is loaded only into a fresh database
  */
 @Repository
-@Profile("mock")
+@Profile({"mock", "file"})
 public class MockProductRepository implements ProductRepository {
     
-    private final Map<Long, Product> storage = new HashMap<>();
-    private final Map<String, Product> skuIndex = new HashMap<>();
-    private final AtomicLong idGenerator = new AtomicLong(1);
+    private final StorePersistence persistence;
+    private final VersionedEntityStore<Product> storage = new VersionedEntityStore<>(Product.class);
+    private final VersionedEntityStore<Product>.UniqueIndex<String> skuIndex = storage.addIndex(Product::getSku);
     
     public MockProductRepository() {
-        initializeDemoData();
+        this(StorePersistence.IN_MEMORY);
     }
     
-    private void initializeDemoData() {
-        // Create demo products for merchant 1
-        createProduct("PHONE-001", "iPhone 16 Pro", "Latest iPhone with Pro camera system", 
-                     Money.of("7999.00", "CNY"), 1L, 50);
-        createProduct("PHONE-002", "Samsung Galaxy S24", "Latest Samsung flagship phone", 
-                     Money.of("6999.00", "CNY"), 1L, 30);
-        createProduct("LAPTOP-001", "MacBook Pro 16", "Apple MacBook Pro with M3 chip", 
-                     Money.of("19999.00", "CNY"), 1L, 20);
-        
-        // Create demo products for merchant 2  
-        createProduct("BOOK-001", "Clean Code", "A handbook of agile software craftsmanship", 
-                     Money.of("89.00", "CNY"), 2L, 100);
-        createProduct("BOOK-002", "Design Patterns", "Elements of reusable object-oriented software", 
-                     Money.of("79.00", "CNY"), 2L, 80);
-        createProduct("HEADPHONE-001", "AirPods Pro", "Active noise cancellation wireless earbuds", 
-                     Money.of("1999.00", "CNY"), 2L, 60);
+    @Autowired
+    public MockProductRepository(ObjectProvider<StorePersistence> persistence) {
+        this(persistence.getIfAvailable(() -> StorePersistence.IN_MEMORY));
     }
     
-    private void createProduct(String sku, String name, String description, 
-                              Money price, Long merchantId, int inventory) {
-        Product product = new Product(sku, name, description, price, merchantId, inventory);
-        product.setId(idGenerator.getAndIncrement());
-        storage.put(product.getId(), product);
-        skuIndex.put(sku, product);
+    public MockProductRepository(StorePersistence persistence) {
+        this.persistence = persistence;
+        persistence.attach("products", storage, Product.class);
+        if (persistence.isFresh()) {
+            DemoData.products().forEach(this::save);
+        }
     }
     
     @Override
     public Product save(Product product) {
-        if (product.getId() == null) {
-            product.setId(idGenerator.getAndIncrement());
-        }
-        storage.put(product.getId(), product);
-        skuIndex.put(product.getSku(), product);
-        return product;
+        return persistence.write(() -> storage.save(product));
     }
     
     @Override
     public Optional<Product> findById(Long id) {
-        return Optional.ofNullable(storage.get(id));
+        return storage.findById(id);
     }
     
     @Override
     public Optional<Product> findBySku(String sku) {
-        return Optional.ofNullable(skuIndex.get(sku));
+        return storage.findBy(skuIndex, sku);
     }
     
     @Override
     public List<Product> findByMerchantId(Long merchantId) {
-        return storage.values().stream()
-                .filter(product -> Objects.equals(product.getMerchantId(), merchantId))
-                .collect(Collectors.toList());
+        return storage.findAll(product -> Objects.equals(product.getMerchantId(), merchantId));
     }
     
     @Override
     public List<Product> findAll() {
-        return new ArrayList<>(storage.values());
+        return storage.findAll(product -> true);
     }
     
     @Override
     public boolean existsBySku(String sku) {
-        return skuIndex.containsKey(sku);
+        return storage.existsBy(skuIndex, sku);
     }
     
     @Override
     public void deleteById(Long id) {
-        Product product = storage.remove(id);
-        if (product != null) {
-            skuIndex.remove(product.getSku());
-        }
+        persistence.write(() -> storage.remove(id));
     }
 } 
\ No newline at end of file
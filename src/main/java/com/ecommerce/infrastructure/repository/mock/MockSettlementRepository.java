@@ -2,39 +2,76 @@ package com.ecommerce.infrastructure.repository.mock;
 
 import com.ecommerce.domain.settlement.Settlement;
 import com.ecommerce.infrastructure.repository.SettlementRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
-import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
+import java.time.LocalDate;
+import java.util.Optional;
 
 /**
  * Mock Settlement Repository Implementation
  * Uses in-memory storage
+ * Saves are version-checked; see VersionedEntityStore
+ * Lookups by merchant and date go through a unique index; the latest settlement of a merchant
+ * is the last entry of its date-ordered index
+ * Under the file profile FileDatabase restores the store and logs its changes
  */
 @Repository
-@Profile("mock")
+@Profile({"mock", "file"})
 public class MockSettlementRepository implements SettlementRepository {
     
-    private final Map<Long, Settlement> storage = new HashMap<>();
-    private final AtomicLong idGenerator = new AtomicLong(1);
+    private final StorePersistence persistence;
+    private final VersionedEntityStore<Settlement> storage = new VersionedEntityStore<>(Settlement.class);
+    private final VersionedEntityStore<Settlement>.UniqueIndex<MerchantDate> merchantDateIndex =
+        storage.addIndex(settlement -> settlement.getMerchantId() != null && settlement.getSettlementDate() != null
+                             ? new MerchantDate(settlement.getMerchantId(), settlement.getSettlementDate()) : null);
+    private final VersionedEntityStore<Settlement>.SortedIndex<Long, LocalDate> merchantDateOrderIndex =
+        storage.addSortedIndex(Settlement::getMerchantId, Settlement::getSettlementDate);
+
+    private record MerchantDate(Long merchantId, LocalDate settlementDate) {
+    }
+    
+    public MockSettlementRepository() {
+        this(StorePersistence.IN_MEMORY);
+    }
+    
+    @Autowired
+    public MockSettlementRepository(ObjectProvider<StorePersistence> persistence) {
+        this(persistence.getIfAvailable(() -> StorePersistence.IN_MEMORY));
+    }
+    
+    public MockSettlementRepository(StorePersistence persistence) {
+        this.persistence = persistence;
+        persistence.attach("settlements", storage, Settlement.class);
+    }
     
     @Override
     public Settlement save(Settlement settlement) {
-        if (settlement.getId() == null) {
-            settlement.setId(idGenerator.getAndIncrement());
-        }
-        storage.put(settlement.getId(), settlement);
-        return settlement;
+        return persistence.write(() -> storage.save(settlement));
     }
     
     @Override
     public Optional<Settlement> findById(Long id) {
-        return Optional.ofNullable(storage.get(id));
+        return storage.findById(id);
+    }
+    
+    @Override
+    public Optional<Settlement> findByMerchantIdAndSettlementDate(Long merchantId, LocalDate settlementDate) {
+        return storage.findBy(merchantDateIndex, new MerchantDate(merchantId, settlementDate));
+    }
+    
+    @Override
+    public Optional<Settlement> findTopByMerchantIdOrderBySettlementDateDesc(Long merchantId) {
+        if (merchantId == null) {
+            return Optional.empty();
+        }
+        return storage.findPageBefore(merchantDateOrderIndex, merchantId, null, null, 1).stream().findFirst();
     }
     
     @Override
     public void deleteById(Long id) {
-        storage.remove(id);
+        persistence.write(() -> storage.remove(id));
     }
 } 
\ No newline at end of file
@@ -1,95 +1,87 @@
 package com.ecommerce.infrastructure.repository.mock;
 
 import com.ecommerce.domain.user.User;
-import com.ecommerce.domain.Money;
 import com.ecommerce.infrastructure.repository.UserRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
-import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Mock User Repository Implementation
  * Uses in-memory storage with pre-loaded demo data
+ * Saves are version-checked; see VersionedEntityStore
+ * Email and phone lookups go through unique indexes
+ * Under the file profile FileDatabase restores the store and logs its changes; demo data
+ * is loaded only into a fresh database
  */
 @Repository
-@Profile("mock")
+@Profile({"mock", "file"})
 public class MockUserRepository implements UserRepository {
     
-    private final Map<Long, User> storage = new HashMap<>();
-    private final AtomicLong idGenerator = new AtomicLong(1);
+    private final StorePersistence persistence;
+    private final VersionedEntityStore<User> storage = new VersionedEntityStore<>(User.class);
+    private final VersionedEntityStore<User>.UniqueIndex<String> emailIndex = storage.addIndex(User::getEmail);
+    private final VersionedEntityStore<User>.UniqueIndex<String> phoneIndex = storage.addIndex(User::getPhone);
     
     public MockUserRepository() {
-        initializeDemoData();
+        this(StorePersistence.IN_MEMORY);
     }
     
-    private void initializeDemoData() {
-        // Create demo users with some balance
-        User user1 = new User("alice", "alice@example.com", "13800001111", "CNY");
-        user1.setId(idGenerator.getAndIncrement());
-        user1.recharge(Money.of("1000.00", "CNY"));
-        storage.put(user1.getId(), user1);
-        
-        User user2 = new User("bob", "bob@example.com", "13800002222", "CNY");
-        user2.setId(idGenerator.getAndIncrement());
-        user2.recharge(Money.of("500.00", "CNY"));
-        storage.put(user2.getId(), user2);
-        
-        User user3 = new User("charlie", "charlie@example.com", "13800003333", "CNY");
-        user3.setId(idGenerator.getAndIncrement());
-        user3.recharge(Money.of("2000.00", "CNY"));
-        storage.put(user3.getId(), user3);
+    @Autowired
+    public MockUserRepository(ObjectProvider<StorePersistence> persistence) {
+        this(persistence.getIfAvailable(() -> StorePersistence.IN_MEMORY));
+    }
+    
+    public MockUserRepository(StorePersistence persistence) {
+        this.persistence = persistence;
+        persistence.attach("users", storage, User.class);
+        if (persistence.isFresh()) {
+            DemoData.users().forEach(this::save);
+        }
     }
     
     @Override
     public User save(User user) {
-        if (user.getId() == null) {
-            user.setId(idGenerator.getAndIncrement());
-        }
-        storage.put(user.getId(), user);
-        return user;
+        return persistence.write(() -> storage.save(user));
     }
     
     @Override
     public Optional<User> findById(Long id) {
-        return Optional.ofNullable(storage.get(id));
+        return storage.findById(id);
     }
     
     @Override
     public Optional<User> findByPhone(String phone) {
-        return storage.values().stream()
-                .filter(user -> phone.equals(user.getPhone()))
-                .findFirst();
+        return storage.findBy(phoneIndex, phone);
     }
     
     @Override
     public Optional<User> findByEmail(String email) {
-        return storage.values().stream()
-                .filter(user -> email.equals(user.getEmail()))
-                .findFirst();
+        return storage.findBy(emailIndex, email);
     }
     
     @Override
     public boolean existsByPhone(String phone) {
-        return storage.values().stream()
-                .anyMatch(user -> phone.equals(user.getPhone()));
+        return storage.existsBy(phoneIndex, phone);
     }
     
     @Override
     public boolean existsByEmail(String email) {
-        return storage.values().stream()
-                .anyMatch(user -> email.equals(user.getEmail()));
+        return storage.existsBy(emailIndex, email);
     }
 
     @Override
     public boolean existsById(Long id) {
-        return storage.containsKey(id);
+        return storage.containsId(id);
     }
     
     @Override
     public Set<Long> getAllUserIds() {
-        return new HashSet<>(storage.keySet());
+        return storage.ids();
     }
     
     @Override
@@ -99,6 +91,6 @@ public class MockUserRepository implements UserRepository {
     
     @Override
     public void deleteById(Long id) {
-        storage.remove(id);
+        persistence.write(() -> storage.remove(id));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.ecommerce.infrastructure.repository.mock;
+
+import com.ecommerce.domain.BaseEntity;
+
+import java.util.function.Supplier;
+
+/**
+ * Store Persistence
+ * Hook through which the in-memory repositories are made durable
+ *
+ * IN_MEMORY keeps everything in memory, as the mock profile does; under the file profile
+ * FileDatabase restores the stores on attach and logs every change they make.
+ */
+public interface StorePersistence {
+
+    StorePersistence IN_MEMORY = new StorePersistence() {
+        @Override
+        public boolean isFresh() {
+            return true;
+        }
+
+        @Override
+        public <T extends BaseEntity> void attach(String table, VersionedEntityStore<T> store, Class<T> type) {
+        }
+
+        @Override
+        public <R> R write(Supplier<R> change) {
+            return change.get();
+        }
+    };
+
+    /**
+     * True if nothing has ever been stored, e.g. to seed demo data
+     */
+    boolean isFresh();
+
+    /**
+     * Load the stored rows of a table into an empty store and keep its changes from now on
+     */
+    <T extends BaseEntity> void attach(String table, VersionedEntityStore<T> store, Class<T> type);
+
+    /**
+     * Run a change against an attached store and return once it is kept
+     */
+    <R> R write(Supplier<R> change);
+}
@@ -0,0 +1,412 @@
+package com.ecommerce.infrastructure.repository.mock;
+
+import com.ecommerce.domain.BaseEntity;
+import com.ecommerce.infrastructure.repository.VersionConflictException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Versioned Entity Store
+ * Thread-safe in-memory table behind the mock and file repositories
+ *
+ * The store keeps private copies: every read hands out a fresh copy and every save stores
+ * one, so callers never share an instance. Saving is a compare-and-set on the version -
+ * it only succeeds if the stored version is still the one the caller read, otherwise the
+ * save fails with VersionConflictException and nothing is written.
+ *
+ * Secondary indexes are updated within the same compute as the row, so a save or remove
+ * moves the row and its keys together:
+ * - unique indexes map a key such as an email to the entity id
+ * - sorted indexes group ids by a key such as the merchant and keep each group ordered by
+ *   a second key such as the order time, for range queries in O(log n + k)
+ *
+ * Change listeners run in that compute too, before the indexes; a listener that throws
+ * rejects the change and nothing is written.
+ */
+public final class VersionedEntityStore<T extends BaseEntity> {
+
+    private final Class<T> type;
+    private final ConcurrentMap<Long, T> entries = new ConcurrentHashMap<>();
+    private final AtomicLong idGenerator = new AtomicLong(1);
+    private final List<Index> indexes = new ArrayList<>();
+    private final List<ChangeListener<T>> listeners = new ArrayList<>();
+
+    /**
+     * Observer of committed changes
+     */
+    @FunctionalInterface
+    public interface ChangeListener<T> {
+
+        /**
+         * Called inside the compute of the row with the stored instances; before is null on
+         * insert and after is null on remove. Listeners must not modify either.
+         */
+        void changed(Long id, T before, T after);
+    }
+
+    public VersionedEntityStore(Class<T> type) {
+        this.type = type;
+    }
+
+    /**
+     * Insert a new entity or update a stored one if its version is unchanged
+     * New entities get the next id; the saved instance is marked persisted
+     */
+    public T save(T entity) {
+        if (entity.getId() == null) {
+            entity.setId(idGenerator.getAndIncrement());
+        } else {
+            // Keep generated ids clear of ids assigned by the caller
+            idGenerator.accumulateAndGet(entity.getId() + 1, Math::max);
+        }
+        T snapshot = copyOf(entity);
+        snapshot.markPersisted();
+        Long expected = entity.getPersistedVersion();
+        entries.compute(entity.getId(), (id, current) -> {
+            Long actual = current != null ? current.getVersion() : null;
+            if (!Objects.equals(expected, actual)) {
+                throw new VersionConflictException(type, id, expected, actual);
+            }
+            apply(id, current, snapshot);
+            return snapshot;
+        });
+        entity.markPersisted();
+        return entity;
+    }
+
+    /**
+     * Put back an entity read from durable storage, e.g. on recovery
+     * No version check and no listeners; indexes are updated
+     */
+    public void restore(T entity) {
+        idGenerator.accumulateAndGet(entity.getId() + 1, Math::max);
+        T snapshot = copyOf(entity);
+        snapshot.markPersisted();
+        entries.compute(entity.getId(), (id, current) -> {
+            for (Index index : indexes) {
+                index.update(id, current, snapshot);
+            }
+            return snapshot;
+        });
+    }
+
+    /**
+     * Never hand out the id again, e.g. the id of a row removed before a restart
+     */
+    public void reserveId(Long id) {
+        idGenerator.accumulateAndGet(id + 1, Math::max);
+    }
+
+    private void apply(Long id, T before, T after) {
+        for (ChangeListener<T> listener : listeners) {
+            listener.changed(id, before, after);
+        }
+        for (Index index : indexes) {
+            index.update(id, before, after);
+        }
+    }
+
+    public Optional<T> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(entries.get(id)).map(this::copyOf);
+    }
+
+    /**
+     * Entity whose indexed key equals the given key
+     */
+    public <K> Optional<T> findBy(UniqueIndex<K> index, K key) {
+        return findById(index.idOf(key));
+    }
+
+    public <K> boolean existsBy(UniqueIndex<K> index, K key) {
+        return index.idOf(key) != null;
+    }
+
+    /**
+     * Entities of the group whose sort key lies in [from, to], in sort key order
+     */
+    public <G, S extends Comparable<? super S>> List<T> findRange(SortedIndex<G, S> index, G group, S from, S to) {
+        List<T> result = new ArrayList<>();
+        for (Long id : index.idsBetween(group, from, to)) {
+            T entity = entries.get(id);
+            // The row may have moved on since its index entry was read
+            if (entity != null && index.covers(entity, group, from, to)) {
+                result.add(copyOf(entity));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Visit the entities of the group whose sort key lies in [from, to], in sort key order
+     * The range is walked lazily and each row copied just before it is visited, so only one
+     * copy is alive at a time however large the range is. Rows saved during the walk may or
+     * may not be visited.
+     */
+    public <G, S extends Comparable<? super S>> void forEachInRange(SortedIndex<G, S> index, G group, S from, S to,
+                                                                   Consumer<? super T> visitor) {
+        for (Long id : index.idsBetweenView(group, from, to)) {
+            T entity = entries.get(id);
+            if (entity != null && index.covers(entity, group, from, to)) {
+                visitor.accept(copyOf(entity));
+            }
+        }
+    }
+
+    /**
+     * Up to limit entities of the group positioned strictly before (key, id), latest first
+     * A null key starts from the latest entity of the group
+     */
+    public <G, S extends Comparable<? super S>> List<T> findPageBefore(SortedIndex<G, S> index, G group,
+                                                                      S beforeKey, Long beforeId, int limit) {
+        List<T> result = new ArrayList<>();
+        for (Long id : index.idsBefore(group, beforeKey, beforeId, limit)) {
+            T entity = entries.get(id);
+            if (entity != null && index.belongsTo(entity, group)) {
+                result.add(copyOf(entity));
+            }
+        }
+        return result;
+    }
+
+    public Optional<T> findFirst(Predicate<T> filter) {
+        return entries.values().stream()
+                .filter(filter)
+                .findFirst()
+                .map(this::copyOf);
+    }
+
+    public List<T> findAll(Predicate<T> filter) {
+        return entries.values().stream()
+                .filter(filter)
+                .map(this::copyOf)
+                .collect(Collectors.toList());
+    }
+
+    public boolean anyMatch(Predicate<T> filter) {
+        return entries.values().stream().anyMatch(filter);
+    }
+
+    public boolean containsId(Long id) {
+        return id != null && entries.containsKey(id);
+    }
+
+    public Set<Long> ids() {
+        return new HashSet<>(entries.keySet());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Remove the entity
+     * @return the removed entry, or null if there was none
+     */
+    public T remove(Long id) {
+        if (id == null) {
+            return null;
+        }
+        Object[] removed = new Object[1];
+        entries.computeIfPresent(id, (key, current) -> {
+            apply(key, current, null);
+            removed[0] = current;
+            return null;
+        });
+        return type.cast(removed[0]);
+    }
+
+    /**
+     * Add a unique index on a key of the entity; entities with a null key are not indexed
+     * Indexes must be added before the first save
+     */
+    public <K> UniqueIndex<K> addIndex(Function<T, K> keyOf) {
+        return register(new UniqueIndex<>(keyOf));
+    }
+
+    /**
+     * Add a sorted index; entities with a null group or sort key are not indexed
+     * Indexes must be added before the first save
+     */
+    public <G, S extends Comparable<? super S>> SortedIndex<G, S> addSortedIndex(Function<T, G> groupOf,
+                                                                                Function<T, S> sortKeyOf) {
+        return register(new SortedIndex<>(groupOf, sortKeyOf));
+    }
+
+    /**
+     * Add a listener; listeners must be added before the first save
+     */
+    public void addListener(ChangeListener<T> listener) {
+        if (!entries.isEmpty()) {
+            throw new IllegalStateException("Listeners must be added to an empty store");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Stored instances, for serializing the whole table; callers must not modify them
+     */
+    public List<T> storedRows() {
+        return new ArrayList<>(entries.values());
+    }
+
+    private <I extends Index> I register(I index) {
+        if (!entries.isEmpty()) {
+            throw new IllegalStateException("Indexes must be added to an empty store");
+        }
+        indexes.add(index);
+        return index;
+    }
+
+    /**
+     * Secondary index kept in step with the rows
+     */
+    abstract class Index {
+
+        /**
+         * Called inside the compute of the row; before or after is null on insert and remove
+         */
+        abstract void update(Long id, T before, T after);
+    }
+
+    /**
+     * Key -> entity id
+     * A key claimed by two entities maps to the one saved last
+     */
+    public final class UniqueIndex<K> extends Index {
+
+        private final Function<T, K> keyOf;
+        private final ConcurrentMap<K, Long> ids = new ConcurrentHashMap<>();
+
+        private UniqueIndex(Function<T, K> keyOf) {
+            this.keyOf = keyOf;
+        }
+
+        Long idOf(K key) {
+            return key != null ? ids.get(key) : null;
+        }
+
+        @Override
+        void update(Long id, T before, T after) {
+            K oldKey = before != null ? keyOf.apply(before) : null;
+            K newKey = after != null ? keyOf.apply(after) : null;
+            if (oldKey != null && !oldKey.equals(newKey)) {
+                ids.remove(oldKey, id);
+            }
+            if (newKey != null) {
+                ids.put(newKey, id);
+            }
+        }
+    }
+
+    /**
+     * Group -> ids ordered by sort key, then id
+     */
+    public final class SortedIndex<G, S extends Comparable<? super S>> extends Index {
+
+        private record Position<S>(S key, long id) {
+        }
+
+        private final Function<T, G> groupOf;
+        private final Function<T, S> sortKeyOf;
+        private final Comparator<Position<S>> order =
+            Comparator.<Position<S>, S>comparing(Position::key).thenComparingLong(Position::id);
+        private final ConcurrentMap<G, ConcurrentSkipListSet<Position<S>>> groups = new ConcurrentHashMap<>();
+
+        private SortedIndex(Function<T, G> groupOf, Function<T, S> sortKeyOf) {
+            this.groupOf = groupOf;
+            this.sortKeyOf = sortKeyOf;
+        }
+
+        List<Long> idsBetween(G group, S from, S to) {
+            List<Long> ids = new ArrayList<>();
+            for (Long id : idsBetweenView(group, from, to)) {
+                ids.add(id);
+            }
+            return ids;
+        }
+
+        /**
+         * Live, weakly consistent view of the ids in [from, to]
+         */
+        Iterable<Long> idsBetweenView(G group, S from, S to) {
+            ConcurrentSkipListSet<Position<S>> positions = group != null ? groups.get(group) : null;
+            if (positions == null || from == null || to == null || from.compareTo(to) > 0) {
+                return List.of();
+            }
+            NavigableSet<Position<S>> range = positions.subSet(new Position<>(from, Long.MIN_VALUE), true,
+                                                               new Position<>(to, Long.MAX_VALUE), true);
+            return () -> range.stream().map(Position::id).iterator();
+        }
+
+        List<Long> idsBefore(G group, S beforeKey, Long beforeId, int limit) {
+            ConcurrentSkipListSet<Position<S>> positions = group != null ? groups.get(group) : null;
+            if (positions == null || limit <= 0) {
+                return List.of();
+            }
+            NavigableSet<Position<S>> earlier = beforeKey == null ? positions.descendingSet()
+                : positions.headSet(new Position<>(beforeKey, beforeId != null ? beforeId : Long.MAX_VALUE), false)
+                           .descendingSet();
+            List<Long> ids = new ArrayList<>(Math.min(limit, 64));
+            for (Position<S> position : earlier) {
+                if (ids.size() == limit) {
+                    break;
+                }
+                ids.add(position.id());
+            }
+            return ids;
+        }
+
+        boolean belongsTo(T entity, G group) {
+            return group.equals(groupOf.apply(entity));
+        }
+
+        boolean covers(T entity, G group, S from, S to) {
+            S key = sortKeyOf.apply(entity);
+            return group.equals(groupOf.apply(entity)) && key != null
+                && key.compareTo(from) >= 0 && key.compareTo(to) <= 0;
+        }
+
+        @Override
+        void update(Long id, T before, T after) {
+            G oldGroup = before != null ? groupOf.apply(before) : null;
+            S oldKey = before != null ? sortKeyOf.apply(before) : null;
+            G newGroup = after != null ? groupOf.apply(after) : null;
+            S newKey = after != null ? sortKeyOf.apply(after) : null;
+            if (Objects.equals(oldGroup, newGroup) && Objects.equals(oldKey, newKey)) {
+                return;
+            }
+            if (oldGroup != null && oldKey != null) {
+                ConcurrentSkipListSet<Position<S>> positions = groups.get(oldGroup);
+                if (positions != null) {
+                    positions.remove(new Position<>(oldKey, id));
+                }
+            }
+            if (newGroup != null && newKey != null) {
+                groups.computeIfAbsent(newGroup, group -> new ConcurrentSkipListSet<>(order))
+                      .add(new Position<>(newKey, id));
+            }
+        }
+    }
+
+    private T copyOf(T entity) {
+        return type.cast(entity.copy());
+    }
+}
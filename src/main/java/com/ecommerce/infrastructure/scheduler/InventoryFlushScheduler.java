@@ -0,0 +1,39 @@
+package com.ecommerce.infrastructure.scheduler;
+
+import com.ecommerce.application.service.InventoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Inventory Flush Scheduled Task
+ * Writes live inventory counters back to the product repository
+ */
+@Component
+public class InventoryFlushScheduler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InventoryFlushScheduler.class);
+    
+    private final InventoryService inventoryService;
+    
+    public InventoryFlushScheduler(InventoryService inventoryService) {
+        this.inventoryService = inventoryService;
+    }
+    
+    /**
+     * Periodic inventory flush
+     * Runs with a fixed delay so that flushes never overlap
+     */
+    @Scheduled(fixedDelayString = "${ecommerce.inventory.flush-interval-ms:200}")
+    public void flushInventory() {
+        try {
+            int flushed = inventoryService.flush();
+            if (flushed > 0) {
+                logger.debug("Flushed inventory for {} products", flushed);
+            }
+        } catch (Exception e) {
+            logger.error("Inventory flush task failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.infrastructure.scheduler;
+
+import com.ecommerce.infrastructure.ledger.BalanceLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ledger Trim Scheduled Task
+ * Drops balance ledger history older than the retention period
+ */
+@Component
+public class LedgerTrimScheduler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LedgerTrimScheduler.class);
+    
+    private final BalanceLedger balanceLedger;
+    
+    public LedgerTrimScheduler(BalanceLedger balanceLedger) {
+        this.balanceLedger = balanceLedger;
+    }
+    
+    /**
+     * Periodic ledger trim
+     */
+    @Scheduled(fixedDelayString = "${ecommerce.ledger.trim-interval-ms:3600000}")
+    public void trimLedger() {
+        try {
+            int dropped = balanceLedger.trim();
+            if (dropped > 0) {
+                logger.debug("Trimmed {} ledger entries older than {}", dropped, balanceLedger.historyStart());
+            }
+        } catch (Exception e) {
+            logger.error("Ledger trim task failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.infrastructure.scheduler;
+
+import com.ecommerce.application.service.MerchantIncomeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Merchant Income Flush Scheduled Task
+ * Writes live merchant income back to the merchant repository
+ */
+@Component
+public class MerchantIncomeFlushScheduler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MerchantIncomeFlushScheduler.class);
+    
+    private final MerchantIncomeService merchantIncomeService;
+    
+    public MerchantIncomeFlushScheduler(MerchantIncomeService merchantIncomeService) {
+        this.merchantIncomeService = merchantIncomeService;
+    }
+    
+    /**
+     * Periodic merchant income flush
+     * Runs with a fixed delay so that flushes never overlap
+     */
+    @Scheduled(fixedDelayString = "${ecommerce.merchant.income-flush-interval-ms:200}")
+    public void flushIncome() {
+        try {
+            int flushed = merchantIncomeService.flush();
+            if (flushed > 0) {
+                logger.debug("Flushed income for {} merchants", flushed);
+            }
+        } catch (Exception e) {
+            logger.error("Merchant income flush task failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.ecommerce.infrastructure.scheduler;
+
+import com.ecommerce.infrastructure.concurrency.HashedTimerWheel;
+import com.ecommerce.infrastructure.config.OrderConfig;
+import com.ecommerce.domain.PlatformClock;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Order Expiry Scheduler
+ * Releases unpaid reservations when the order timeout passes
+ *
+ * Every reserved order gets one timeout on a hashed timer wheel instead of being found
+ * by periodic scans of the order repository; scheduling, cancelling and expiring each
+ * cost O(1). Expiry callbacks run on virtual threads.
+ *
+ * Pending expiries live only in memory; after a restart the reservations still awaiting
+ * payment are scheduled again from their deadlines (see ReservationRecovery).
+ */
+@Component
+public class OrderExpiryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExpiryScheduler.class);
+
+    public static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final Duration timeout;
+    private final ExecutorService expiryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HashedTimerWheel wheel;
+    private final Map<String, HashedTimerWheel.Timeout> timeouts = new ConcurrentHashMap<>();
+
+    public OrderExpiryScheduler(Duration timeout) {
+        this(timeout, DEFAULT_TICK, DEFAULT_WHEEL_SIZE);
+    }
+
+    public OrderExpiryScheduler(Duration timeout, Duration tick, int wheelSize) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Order timeout must be positive");
+        }
+        this.timeout = timeout;
+        this.wheel = new HashedTimerWheel(tick, wheelSize, expiryExecutor, "order-expiry-wheel");
+    }
+
+    @Autowired
+    public OrderExpiryScheduler(OrderConfig orderConfig) {
+        this(Duration.ofMinutes(orderConfig.getTimeoutMinutes()),
+             Duration.ofMillis(orderConfig.getExpiryTickMillis()),
+             orderConfig.getExpiryWheelSize());
+    }
+
+    /**
+     * Run the expiry action for the order once the timeout passes
+     * @return the time the reservation expires
+     */
+    public LocalDateTime schedule(String orderNumber, Runnable onExpiry) {
+        LocalDateTime expiresAt = PlatformClock.now().plus(timeout);
+        schedule(orderNumber, timeout, onExpiry);
+        return expiresAt;
+    }
+
+    /**
+     * Run the expiry action for the order at the given time, or at the next tick if it has passed
+     * Used to pick up reservations made before a restart
+     */
+    public void scheduleAt(String orderNumber, LocalDateTime expiresAt, Runnable onExpiry) {
+        // A deadline already passed gives a negative delay, which the wheel fires at once
+        schedule(orderNumber, Duration.between(PlatformClock.now(), expiresAt), onExpiry);
+    }
+
+    private void schedule(String orderNumber, Duration delay, Runnable onExpiry) {
+        HashedTimerWheel.Timeout handle = wheel.schedule(() -> {
+            timeouts.remove(orderNumber);
+            try {
+                onExpiry.run();
+            } catch (Exception e) {
+                logger.error("Order expiry task failed for {}: {}", orderNumber, e.getMessage(), e);
+            }
+        }, delay);
+        timeouts.put(orderNumber, handle);
+        if (handle.isExpired()) {
+            // Fired before it was registered
+            timeouts.remove(orderNumber, handle);
+        }
+    }
+
+    /**
+     * Cancel the pending expiry of an order that was paid or cancelled
+     */
+    public boolean cancel(String orderNumber) {
+        HashedTimerWheel.Timeout handle = timeouts.remove(orderNumber);
+        return handle != null && handle.cancel();
+    }
+
+    /**
+     * Whether the order has an expiry pending
+     */
+    public boolean isScheduled(String orderNumber) {
+        return timeouts.containsKey(orderNumber);
+    }
+
+    /**
+     * Number of reservations waiting for payment or expiry
+     */
+    public int getPendingCount() {
+        return timeouts.size();
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.close();
+        expiryExecutor.shutdown();
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.infrastructure.scheduler;
+
+import com.ecommerce.application.service.EcommerceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reservation Recovery Startup Task
+ * Schedules the expiry of reservations left unpaid by a previous run
+ */
+@Component
+public class ReservationRecovery {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReservationRecovery.class);
+    
+    private final EcommerceService ecommerceService;
+    
+    public ReservationRecovery(EcommerceService ecommerceService) {
+        this.ecommerceService = ecommerceService;
+    }
+    
+    /**
+     * Pick up pending reservations once the application has started
+     * Reservations past their deadline are released right away
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverReservations() {
+        try {
+            int recovered = ecommerceService.recoverReservations();
+            if (recovered > 0) {
+                logger.info("Scheduled expiry for {} reservations awaiting payment", recovered);
+            }
+        } catch (Exception e) {
+            logger.error("Reservation recovery failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.infrastructure.transaction;
+
+import java.util.function.Supplier;
+
+/**
+ * Operation Scope
+ * Groups the writes of one business operation for stores without transactions
+ *
+ * The file profile has no transaction manager, yet a purchase saves several aggregates;
+ * FileDatabase logs everything an operation changed as a single record, so after a crash
+ * either all of it is recovered or none. Scopes opened inside a running one join it.
+ * NONE runs the action as it is, for stores that keep nothing on disk.
+ */
+public interface OperationScope {
+
+    OperationScope NONE = new OperationScope() {
+        @Override
+        public <R> R run(Supplier<R> action) {
+            return action.get();
+        }
+    };
+
+    /**
+     * Run the action as one operation
+     */
+    <R> R run(Supplier<R> action);
+}
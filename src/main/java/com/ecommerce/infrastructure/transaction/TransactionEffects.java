@@ -0,0 +1,68 @@
+package com.ecommerce.infrastructure.transaction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction Effects
+ * Ties in-memory side effects to the outcome of the current transaction
+ *
+ * Live inventory counters, income accumulators and the balance ledger live outside the
+ * database, so a rollback cannot undo a change made to them. Changes that only may happen
+ * once the data is durable are deferred to the commit; changes that must happen at once,
+ * like reserving stock, are given back if the transaction rolls back.
+ *
+ * Without a transaction (mock and file profiles) there is nothing to wait for: deferred
+ * actions run at once and rollback actions are never needed. Actions run after completion
+ * cannot fail the operation any more, so their failures are logged.
+ */
+public final class TransactionEffects {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionEffects.class);
+
+    private TransactionEffects() {
+    }
+
+    /**
+     * Run the action once the current transaction commits, or now if there is none
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runLogged(action, "after commit");
+            }
+        });
+    }
+
+    /**
+     * Run the action if the current transaction rolls back; nothing happens without one
+     */
+    public static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    runLogged(action, "after rollback");
+                }
+            }
+        });
+    }
+
+    private static void runLogged(Runnable action, String phase) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            logger.error("Side effect {} failed: {}", phase, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.ecommerce.api.aspect;
+
+import com.ecommerce.api.annotation.Idempotent;
+import com.ecommerce.api.dto.ErrorCode;
+import com.ecommerce.api.exception.BusinessException;
+import com.ecommerce.infrastructure.idempotency.IdempotencyCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IdempotencyAspectTest {
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private Signature signature;
+
+    private IdempotencyCache cache;
+    private IdempotencyAspect aspect;
+    private Idempotent idempotent;
+
+    @Idempotent
+    void annotatedEndpoint() {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cache = new IdempotencyCache(IdempotencyCache.DEFAULT_TTL, 100, new SimpleMeterRegistry());
+        aspect = new IdempotencyAspect(cache, true);
+        idempotent = getClass().getDeclaredMethod("annotatedEndpoint").getAnnotation(Idempotent.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getDeclaringTypeName()).thenReturn("EcommerceController");
+        when(signature.getName()).thenReturn("purchaseProduct");
+        when(joinPoint.getArgs()).thenReturn(new Object[0]);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private MockHttpServletResponse bindRequest(String key) {
+        return bindRequest(key, Map.of());
+    }
+
+    private MockHttpServletResponse bindRequest(String key, Map<String, String> pathVariables) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/ecommerce/purchase");
+        if (key != null) {
+            request.addHeader("Idempotency-Key", key);
+        }
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, pathVariables);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        return response;
+    }
+
+    @Test
+    void shouldProceedEveryTimeWithoutKey() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("first", "second");
+
+        bindRequest(null);
+        assertEquals("first", aspect.applyIdempotency(joinPoint, idempotent));
+        assertEquals("second", aspect.applyIdempotency(joinPoint, idempotent));
+
+        verify(joinPoint, times(2)).proceed();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldReplayResponseForRepeatedKey() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("first", "second");
+
+        MockHttpServletResponse firstResponse = bindRequest("key-1");
+        assertEquals("first", aspect.applyIdempotency(joinPoint, idempotent));
+        MockHttpServletResponse retryResponse = bindRequest("key-1");
+        assertEquals("first", aspect.applyIdempotency(joinPoint, idempotent));
+
+        verify(joinPoint, times(1)).proceed();
+        assertNull(firstResponse.getHeader(IdempotencyAspect.REPLAYED_HEADER));
+        assertEquals("true", retryResponse.getHeader(IdempotencyAspect.REPLAYED_HEADER));
+    }
+
+    @Test
+    void shouldScopeKeysPerEndpoint() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("purchase", "recharge");
+
+        bindRequest("key-1");
+        assertEquals("purchase", aspect.applyIdempotency(joinPoint, idempotent));
+        when(signature.getName()).thenReturn("rechargeUser");
+        assertEquals("recharge", aspect.applyIdempotency(joinPoint, idempotent));
+    }
+
+    @Test
+    void shouldScopeKeysPerPathVariables() throws Throwable {
+        when(signature.getName()).thenReturn("rechargeUser");
+        when(joinPoint.proceed()).thenReturn("user 1", "user 2");
+
+        bindRequest("key-1", Map.of("userId", "1"));
+        when(joinPoint.getArgs()).thenReturn(new Object[] {1L, Map.of("amount", "10.00")});
+        assertEquals("user 1", aspect.applyIdempotency(joinPoint, idempotent));
+        MockHttpServletResponse secondResponse = bindRequest("key-1", Map.of("userId", "2"));
+        when(joinPoint.getArgs()).thenReturn(new Object[] {2L, Map.of("amount", "10.00")});
+        assertEquals("user 2", aspect.applyIdempotency(joinPoint, idempotent));
+
+        verify(joinPoint, times(2)).proceed();
+        assertNull(secondResponse.getHeader(IdempotencyAspect.REPLAYED_HEADER));
+    }
+
+    @Test
+    void shouldScopeKeysPerUserInRequestBody() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("user 1", "user 2");
+
+        bindRequest("key-1");
+        when(joinPoint.getArgs()).thenReturn(new Object[] {Map.of("userId", 1, "sku", "SKU-1")});
+        assertEquals("user 1", aspect.applyIdempotency(joinPoint, idempotent));
+        when(joinPoint.getArgs()).thenReturn(new Object[] {Map.of("userId", 2, "sku", "SKU-1")});
+        assertEquals("user 2", aspect.applyIdempotency(joinPoint, idempotent));
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentBody() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("first", "second");
+
+        bindRequest("key-1");
+        when(joinPoint.getArgs()).thenReturn(new Object[] {Map.of("userId", 1, "sku", "SKU-1", "quantity", 1)});
+        assertEquals("first", aspect.applyIdempotency(joinPoint, idempotent));
+        when(joinPoint.getArgs()).thenReturn(new Object[] {Map.of("userId", 1, "sku", "SKU-1", "quantity", 5)});
+
+        BusinessException e = assertThrows(BusinessException.class,
+            () -> aspect.applyIdempotency(joinPoint, idempotent));
+        assertEquals(ErrorCode.IDEMPOTENCY_KEY_REUSED, e.getErrorCode());
+        verify(joinPoint, times(1)).proceed();
+    }
+
+    @Test
+    void shouldAnswerInProgressWhileFirstRequestOutlastsTheWait() throws Throwable {
+        IdempotencyAspect waiting = new IdempotencyAspect(
+            new IdempotencyCache(IdempotencyCache.DEFAULT_TTL, 100, Duration.ofMillis(50), new SimpleMeterRegistry()), true);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "first";
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Object> first = executor.submit(() -> {
+            bindRequest("key-1");
+            try {
+                return waiting.applyIdempotency(joinPoint, idempotent);
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        bindRequest("key-1");
+        BusinessException e = assertThrows(BusinessException.class,
+            () -> waiting.applyIdempotency(joinPoint, idempotent));
+
+        assertEquals(ErrorCode.IDEMPOTENCY_REQUEST_IN_PROGRESS, e.getErrorCode());
+        release.countDown();
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        assertEquals("first", waiting.applyIdempotency(joinPoint, idempotent));
+        verify(joinPoint, times(1)).proceed();
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldRejectOverlongKey() {
+        bindRequest("k".repeat(IdempotencyAspect.MAX_KEY_LENGTH + 1));
+
+        BusinessException e = assertThrows(BusinessException.class,
+            () -> aspect.applyIdempotency(joinPoint, idempotent));
+        assertEquals(ErrorCode.VALIDATION_ERROR, e.getErrorCode());
+    }
+
+    @Test
+    void shouldProceedWhenDisabled() throws Throwable {
+        IdempotencyAspect disabled = new IdempotencyAspect(cache, false);
+        when(joinPoint.proceed()).thenReturn("first", "second");
+
+        bindRequest("key-1");
+        assertEquals("first", disabled.applyIdempotency(joinPoint, idempotent));
+        assertEquals("second", disabled.applyIdempotency(joinPoint, idempotent));
+    }
+}
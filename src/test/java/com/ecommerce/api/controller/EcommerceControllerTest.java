@@ -1,9 +1,17 @@
 package com.ecommerce.api.controller;
 
+import com.ecommerce.application.service.AsyncPurchaseService;
 import com.ecommerce.application.service.EcommerceService;
 import com.ecommerce.application.service.ProductService;
 import com.ecommerce.application.dto.PurchaseRequest;
 import com.ecommerce.application.dto.PurchaseResponse;
+import com.ecommerce.application.dto.PurchaseStatusResponse;
+import com.ecommerce.api.dto.ErrorCode;
+import com.ecommerce.application.dto.CheckoutItem;
+import com.ecommerce.application.dto.CheckoutRequest;
+import com.ecommerce.application.dto.CheckoutResponse;
+import com.ecommerce.application.dto.ReservationResponse;
+import com.ecommerce.domain.order.InvalidOrderStateException;
 import com.ecommerce.domain.product.Product;
 import com.ecommerce.domain.Money;
 import com.ecommerce.api.config.ApiVersionConfig;
@@ -18,6 +26,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
@@ -46,6 +55,9 @@ class EcommerceControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private AsyncPurchaseService asyncPurchaseService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -106,6 +118,161 @@ class EcommerceControllerTest {
         verify(ecommerceService).processPurchase(any(PurchaseRequest.class));
     }
 
+    @Test
+    void purchaseProduct_AsyncEnabled_ShouldAcceptWithOrderNumber() throws Exception {
+        // Given
+        when(asyncPurchaseService.isEnabled()).thenReturn(true);
+        when(asyncPurchaseService.submit(any(PurchaseRequest.class)))
+            .thenReturn(PurchaseStatusResponse.pending("ORD123"));
+
+        // When & Then
+        mockMvc.perform(post(API_BASE_PATH + "/purchase")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testPurchaseRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.code").value("SUCCESS"))
+                .andExpect(jsonPath("$.message").value("Purchase accepted"))
+                .andExpect(jsonPath("$.data.orderNumber").value("ORD123"))
+                .andExpect(jsonPath("$.data.userId").value(1))
+                .andExpect(jsonPath("$.data.sku").value("IPHONE15"))
+                .andExpect(jsonPath("$.data.quantity").value(2));
+
+        verify(ecommerceService, never()).processPurchase(any(PurchaseRequest.class));
+    }
+
+    @Test
+    void reserveProduct_Success() throws Exception {
+        // Given
+        ReservationResponse reservation = new ReservationResponse("ORD123", 1L, 1L, "IPHONE15", "iPhone 15", 2,
+            Money.of("1999.98", "CNY"), java.time.LocalDateTime.of(2025, 7, 11, 12, 30));
+        when(ecommerceService.reservePurchase(any(PurchaseRequest.class))).thenReturn(reservation);
+
+        // When & Then
+        mockMvc.perform(post(API_BASE_PATH + "/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testPurchaseRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Inventory reserved, awaiting payment"))
+                .andExpect(jsonPath("$.data.orderNumber").value("ORD123"))
+                .andExpect(jsonPath("$.data.quantity").value(2))
+                .andExpect(jsonPath("$.data.expiresAt").exists());
+    }
+
+    @Test
+    void payOrder_Success() throws Exception {
+        // Given
+        when(ecommerceService.payOrder("ORD123")).thenReturn(testPurchaseResponse);
+
+        // When & Then
+        mockMvc.perform(post(API_BASE_PATH + "/orders/ORD123/pay"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Payment completed successfully"))
+                .andExpect(jsonPath("$.data.orderNumber").value("ORD123"))
+                .andExpect(jsonPath("$.data.totalAmount.amount").value(1999.98));
+    }
+
+    @Test
+    void payOrder_Expired_ShouldReturnBadRequest() throws Exception {
+        // Given
+        when(ecommerceService.payOrder("ORD123"))
+            .thenThrow(new InvalidOrderStateException("Order was cancelled or its reservation expired: ORD123"));
+
+        // When & Then
+        mockMvc.perform(post(API_BASE_PATH + "/orders/ORD123/pay"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("OPERATION_NOT_ALLOWED"));
+    }
+
+    @Test
+    void getPurchaseStatus_Completed() throws Exception {
+        // Given
+        when(asyncPurchaseService.getStatus("ORD123"))
+            .thenReturn(Optional.of(PurchaseStatusResponse.completed(testPurchaseResponse)));
+
+        // When & Then
+        mockMvc.perform(get(API_BASE_PATH + "/purchases/ORD123/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.orderNumber").value("ORD123"))
+                .andExpect(jsonPath("$.data.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.data.result.totalAmount.amount").value(1999.98));
+    }
+
+    @Test
+    void getPurchaseStatus_Failed() throws Exception {
+        // Given
+        when(asyncPurchaseService.getStatus("ORD123"))
+            .thenReturn(Optional.of(PurchaseStatusResponse.failed("ORD123", ErrorCode.INSUFFICIENT_INVENTORY, "Out of stock")));
+
+        // When & Then
+        mockMvc.perform(get(API_BASE_PATH + "/purchases/ORD123/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("FAILED"))
+                .andExpect(jsonPath("$.data.errorCode").value("INSUFFICIENT_INVENTORY"))
+                .andExpect(jsonPath("$.data.errorMessage").value("Out of stock"));
+    }
+
+    @Test
+    void getPurchaseStatus_Unknown_ShouldReturnNotFound() throws Exception {
+        // Given
+        when(asyncPurchaseService.getStatus("ORD404")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get(API_BASE_PATH + "/purchases/ORD404/status"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("RESOURCE_NOT_FOUND"));
+    }
+
+    @Test
+    void checkout_Success() throws Exception {
+        // Given
+        CheckoutResponse checkoutResponse = new CheckoutResponse("ORD124", 1L, 1L,
+            java.util.List.of(
+                new CheckoutResponse.Line("IPHONE15", "iPhone 15", 1, Money.of("999.99", "CNY")),
+                new CheckoutResponse.Line("CASE15", "iPhone 15 Case", 2, Money.of("198.00", "CNY"))),
+            3, Money.of("1197.99", "CNY"));
+        when(ecommerceService.processCheckout(any(CheckoutRequest.class))).thenReturn(checkoutResponse);
+        CheckoutRequest request = new CheckoutRequest(1L, java.util.List.of(
+            new CheckoutItem("IPHONE15", 1), new CheckoutItem("CASE15", 2)));
+
+        // When & Then
+        mockMvc.perform(post(API_BASE_PATH + "/checkout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Checkout completed successfully"))
+                .andExpect(jsonPath("$.data.orderNumber").value("ORD124"))
+                .andExpect(jsonPath("$.data.items.length()").value(2))
+                .andExpect(jsonPath("$.data.items[1].sku").value("CASE15"))
+                .andExpect(jsonPath("$.data.totalQuantity").value(3))
+                .andExpect(jsonPath("$.data.totalAmount.amount").value(1197.99));
+
+        verify(ecommerceService).processCheckout(any(CheckoutRequest.class));
+    }
+
+    @Test
+    void checkout_ValidationError_EmptyCart() throws Exception {
+        CheckoutRequest request = new CheckoutRequest(1L, java.util.List.of());
+
+        mockMvc.perform(post(API_BASE_PATH + "/checkout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(ecommerceService, never()).processCheckout(any(CheckoutRequest.class));
+    }
+
+    @Test
+    void checkout_ValidationError_NonPositiveQuantity() throws Exception {
+        CheckoutRequest request = new CheckoutRequest(1L, java.util.List.of(new CheckoutItem("IPHONE15", 0)));
+
+        mockMvc.perform(post(API_BASE_PATH + "/checkout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(ecommerceService, never()).processCheckout(any(CheckoutRequest.class));
+    }
+
     @Test
     void purchaseProduct_ValidationError_NullUserId() throws Exception {
         // Given
@@ -375,6 +375,46 @@ class MerchantControllerTest {
         verify(productService).setInventory("IPHONE15", 50);
     }
 
+    @Test
+    void markProductHot_Success() throws Exception {
+        // Given
+        testProduct.markHot(true);
+        when(merchantService.merchantExists(1L)).thenReturn(true);
+        when(productService.getProductBySku("IPHONE15")).thenReturn(testProduct);
+        when(productService.markProductHot("IPHONE15", true)).thenReturn(testProduct);
+
+        MerchantController.HotProductRequest request = new MerchantController.HotProductRequest();
+        request.setHot(true);
+
+        // When & Then
+        mockMvc.perform(put(API_BASE_PATH + "/{merchantId}/products/{sku}/hot", 1L, "IPHONE15")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.sku").value("IPHONE15"))
+                .andExpect(jsonPath("$.data.hot").value(true))
+                .andExpect(jsonPath("$.data.availableInventory").value(100));
+
+        verify(productService).markProductHot("IPHONE15", true);
+    }
+
+    @Test
+    void markProductHot_MerchantNotFound() throws Exception {
+        // Given
+        when(merchantService.merchantExists(999L)).thenReturn(false);
+
+        MerchantController.HotProductRequest request = new MerchantController.HotProductRequest();
+        request.setHot(true);
+
+        // When & Then
+        mockMvc.perform(put(API_BASE_PATH + "/{merchantId}/products/{sku}/hot", 999L, "IPHONE15")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound());
+
+        verify(productService, never()).markProductHot(anyString(), anyBoolean());
+    }
+
     @Test
     void createProduct_Success() throws Exception {
         // Given
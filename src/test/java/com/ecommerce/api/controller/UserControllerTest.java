@@ -1,7 +1,10 @@
 package com.ecommerce.api.controller;
 
+import com.ecommerce.application.dto.OrderHistoryPage;
+import com.ecommerce.application.service.OrderService;
 import com.ecommerce.application.service.UserService;
 import com.ecommerce.domain.Money;
+import com.ecommerce.domain.order.Order;
 import com.ecommerce.domain.user.User;
 import com.ecommerce.api.config.ApiVersionConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -14,6 +17,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -34,6 +38,9 @@ class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private OrderService orderService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -755,4 +762,65 @@ class UserControllerTest {
         verify(userService).rechargeUser(eq(1L), eq(Money.of("100.12", "CNY")));
         verify(userService).getUserBalance(1L);
     }
+
+    @Test
+    void getUserOrders_Success() throws Exception {
+        // Given
+        Order order = new Order("ORD-001", 1L, 2L);
+        order.addOrderItem("BOOK-001", "Clean Code", Money.of("89.00", "CNY"), 2);
+        when(userService.userExists(1L)).thenReturn(true);
+        when(orderService.getUserOrders(1L, "abc", 1)).thenReturn(new OrderHistoryPage(List.of(order), "next"));
+
+        // When & Then
+        mockMvc.perform(get(API_BASE_PATH + "/{userId}/orders", 1L)
+                .param("cursor", "abc")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.userId").value(1))
+                .andExpect(jsonPath("$.data.orders[0].orderNumber").value("ORD-001"))
+                .andExpect(jsonPath("$.data.orders[0].totalAmount").value(178.00))
+                .andExpect(jsonPath("$.data.orders[0].totalQuantity").value(2))
+                .andExpect(jsonPath("$.data.count").value(1))
+                .andExpect(jsonPath("$.data.nextCursor").value("next"))
+                .andExpect(jsonPath("$.data.hasMore").value(true));
+    }
+
+    @Test
+    void getUserOrders_DefaultsToFirstPage() throws Exception {
+        // Given
+        when(userService.userExists(1L)).thenReturn(true);
+        when(orderService.getUserOrders(1L, null, OrderService.DEFAULT_PAGE_SIZE))
+            .thenReturn(new OrderHistoryPage(List.of(), null));
+
+        // When & Then
+        mockMvc.perform(get(API_BASE_PATH + "/{userId}/orders", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.count").value(0))
+                .andExpect(jsonPath("$.data.hasMore").value(false));
+    }
+
+    @Test
+    void getUserOrders_UserNotFound() throws Exception {
+        // Given
+        when(userService.userExists(999L)).thenReturn(false);
+
+        // When & Then
+        mockMvc.perform(get(API_BASE_PATH + "/{userId}/orders", 999L))
+                .andExpect(status().isNotFound());
+
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void getUserOrders_InvalidCursor() throws Exception {
+        // Given
+        when(userService.userExists(1L)).thenReturn(true);
+        when(orderService.getUserOrders(1L, "bogus", OrderService.DEFAULT_PAGE_SIZE))
+            .thenThrow(new IllegalArgumentException("Invalid cursor: bogus"));
+
+        // When & Then
+        mockMvc.perform(get(API_BASE_PATH + "/{userId}/orders", 1L).param("cursor", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+    }
 }
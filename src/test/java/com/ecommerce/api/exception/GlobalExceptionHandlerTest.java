@@ -236,6 +236,24 @@ class GlobalExceptionHandlerTest {
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
     }
 
+    @Test
+    void determineHttpStatus_WithReusedIdempotencyKey_ShouldReturnUnprocessableEntity() {
+        BusinessException exception = new BusinessException(ErrorCode.IDEMPOTENCY_KEY_REUSED, "Key reused");
+        
+        ResponseEntity<Result<Void>> response = handler.handleBusinessException(exception, mockRequest);
+        
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+    }
+
+    @Test
+    void determineHttpStatus_WithIdempotentRequestInProgress_ShouldReturnConflict() {
+        BusinessException exception = new BusinessException(ErrorCode.IDEMPOTENCY_REQUEST_IN_PROGRESS, "Still running");
+        
+        ResponseEntity<Result<Void>> response = handler.handleBusinessException(exception, mockRequest);
+        
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
     @Test
     void determineHttpStatus_WithUnsupportedApiVersion_ShouldReturnNotAcceptable() {
         BusinessException exception = new BusinessException(ErrorCode.UNSUPPORTED_API_VERSION, "API version not supported");
@@ -318,4 +336,26 @@ class GlobalExceptionHandlerTest {
         
         assertEquals("Amount must be a positive number", response.getBody().getMessage());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void handleOptimisticLockingFailure_ShouldReturn409() {
+        com.ecommerce.infrastructure.repository.VersionConflictException exception =
+            new com.ecommerce.infrastructure.repository.VersionConflictException(
+                com.ecommerce.domain.user.User.class, 1L, 3L, 4L);
+        
+        ResponseEntity<Result<Void>> response = handler.handleOptimisticLockingFailure(exception);
+        
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(ErrorCode.CONCURRENT_MODIFICATION.getCode(), response.getBody().getCode());
+    }
+
+    @Test
+    void handleBusinessException_WithConcurrentModification_ShouldReturn409() {
+        BusinessException exception = new BusinessException(ErrorCode.CONCURRENT_MODIFICATION, "Purchase failed");
+        
+        ResponseEntity<Result<Void>> response = handler.handleBusinessException(exception, mockRequest);
+        
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(ErrorCode.CONCURRENT_MODIFICATION.getCode(), response.getBody().getCode());
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.application.dto;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckoutRequestTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void testDefaultConstructor() {
+        CheckoutRequest request = new CheckoutRequest();
+
+        assertNull(request.getUserId());
+        assertNotNull(request.getItems());
+        assertTrue(request.getItems().isEmpty());
+    }
+
+    @Test
+    void testParameterizedConstructor() {
+        List<CheckoutItem> items = List.of(new CheckoutItem("SKU1", 2), new CheckoutItem("SKU2", 1));
+
+        CheckoutRequest request = new CheckoutRequest(1L, items);
+
+        assertEquals(1L, request.getUserId());
+        assertEquals(items, request.getItems());
+        assertEquals("SKU1", request.getItems().get(0).getSku());
+        assertEquals(2, request.getItems().get(0).getQuantity());
+    }
+
+    @Test
+    void testValidRequestHasNoViolations() {
+        CheckoutRequest request = new CheckoutRequest(1L, List.of(new CheckoutItem("SKU1", 1)));
+
+        assertTrue(validator.validate(request).isEmpty());
+    }
+
+    @Test
+    void testEmptyCartIsInvalid() {
+        CheckoutRequest request = new CheckoutRequest(1L, List.of());
+
+        Set<ConstraintViolation<CheckoutRequest>> violations = validator.validate(request);
+
+        assertEquals(1, violations.size());
+        assertEquals("Cart must contain at least one item", violations.iterator().next().getMessage());
+    }
+
+    @Test
+    void testInvalidLineIsReported() {
+        CheckoutRequest request = new CheckoutRequest(1L, List.of(new CheckoutItem("", 0)));
+
+        assertEquals(2, validator.validate(request).size());
+    }
+
+    @Test
+    void testTooManyLinesIsInvalid() {
+        List<CheckoutItem> items = new ArrayList<>();
+        for (int i = 0; i <= CheckoutRequest.MAX_ITEMS; i++) {
+            items.add(new CheckoutItem("SKU" + i, 1));
+        }
+
+        assertFalse(validator.validate(new CheckoutRequest(1L, items)).isEmpty());
+    }
+
+    @Test
+    void testToString() {
+        CheckoutRequest request = new CheckoutRequest(7L, List.of(new CheckoutItem("SKU1", 3)));
+
+        assertEquals("CheckoutRequest{userId=7, items=[CheckoutItem{sku='SKU1', quantity=3}]}", request.toString());
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.application.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderCursorTest {
+
+    @Test
+    void shouldRoundTripThroughEncodedForm() {
+        OrderCursor cursor = new OrderCursor(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456789), 42L);
+
+        String encoded = cursor.encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, OrderCursor.decode(encoded));
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> OrderCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> OrderCursor.decode("YWJj"));
+        assertThrows(IllegalArgumentException.class, () -> OrderCursor.decode("MjAyNC0wNS0wMVQxMjozMHx4"));
+    }
+
+    @Test
+    void shouldRequireTimeAndId() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderCursor(null, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new OrderCursor(LocalDateTime.now(), null));
+    }
+}
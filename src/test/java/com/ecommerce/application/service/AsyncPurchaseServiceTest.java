@@ -0,0 +1,219 @@
+package com.ecommerce.application.service;
+
+import com.ecommerce.api.dto.ErrorCode;
+import com.ecommerce.api.exception.BusinessException;
+import com.ecommerce.application.dto.PurchaseRequest;
+import com.ecommerce.application.dto.PurchaseResponse;
+import com.ecommerce.application.dto.PurchaseStatusResponse;
+import com.ecommerce.domain.product.InsufficientInventoryException;
+import com.ecommerce.infrastructure.id.SnowflakeOrderNumberGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncPurchaseServiceTest {
+
+    @Mock
+    private EcommerceService ecommerceService;
+
+    private AsyncPurchaseService asyncPurchaseService;
+
+    @BeforeEach
+    void setUp() {
+        asyncPurchaseService = new AsyncPurchaseService(ecommerceService, new SnowflakeOrderNumberGenerator(1), true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncPurchaseService.shutdown();
+    }
+
+    private static PurchaseResponse responseFor(PurchaseRequest request, String orderNumber) {
+        return new PurchaseResponse(orderNumber, request.getUserId(), 1L, request.getSku(), "Product",
+                                    request.getQuantity(), null);
+    }
+
+    private void awaitIdle(AsyncPurchaseService service) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (service.getPendingCount() > 0) {
+            assertTrue(System.nanoTime() < deadline, "Purchases did not finish in time");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void submit_ShouldReturnPendingAndCompleteInBackground() throws InterruptedException {
+        PurchaseRequest request = new PurchaseRequest(1L, "SKU001", 2);
+        when(ecommerceService.processPurchase(any(PurchaseRequest.class), anyString()))
+            .thenAnswer(inv -> responseFor(inv.getArgument(0), inv.getArgument(1)));
+
+        PurchaseStatusResponse accepted = asyncPurchaseService.submit(request);
+
+        assertEquals(PurchaseStatusResponse.Status.PENDING, accepted.getStatus());
+        assertNotNull(accepted.getOrderNumber());
+        awaitIdle(asyncPurchaseService);
+
+        PurchaseStatusResponse status = asyncPurchaseService.getStatus(accepted.getOrderNumber()).orElseThrow();
+        assertEquals(PurchaseStatusResponse.Status.COMPLETED, status.getStatus());
+        assertEquals(accepted.getOrderNumber(), status.getResult().getOrderNumber());
+        verify(ecommerceService).processPurchase(request, accepted.getOrderNumber());
+    }
+
+    @Test
+    void submit_WhenPurchaseFails_ShouldRecordErrorCode() throws InterruptedException {
+        when(ecommerceService.processPurchase(any(PurchaseRequest.class), anyString()))
+            .thenThrow(new InsufficientInventoryException("Out of stock"));
+
+        String orderNumber = asyncPurchaseService.submit(new PurchaseRequest(1L, "SKU001", 2)).getOrderNumber();
+        awaitIdle(asyncPurchaseService);
+
+        PurchaseStatusResponse status = asyncPurchaseService.getStatus(orderNumber).orElseThrow();
+        assertEquals(PurchaseStatusResponse.Status.FAILED, status.getStatus());
+        assertEquals(ErrorCode.INSUFFICIENT_INVENTORY.getCode(), status.getErrorCode());
+        assertEquals("Out of stock", status.getErrorMessage());
+    }
+
+    @Test
+    void submit_WhenUnexpectedErrorOccurs_ShouldRecordInternalError() throws InterruptedException {
+        when(ecommerceService.processPurchase(any(PurchaseRequest.class), anyString()))
+            .thenThrow(new IllegalStateException("boom"));
+
+        String orderNumber = asyncPurchaseService.submit(new PurchaseRequest(1L, "SKU001", 1)).getOrderNumber();
+        awaitIdle(asyncPurchaseService);
+
+        PurchaseStatusResponse status = asyncPurchaseService.getStatus(orderNumber).orElseThrow();
+        assertEquals(ErrorCode.INTERNAL_ERROR.getCode(), status.getErrorCode());
+    }
+
+    @Test
+    void submit_ShouldRunPurchasesOfOneUserOneAtATimeInOrder() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<String> executed = new CopyOnWriteArrayList<>();
+        when(ecommerceService.processPurchase(any(PurchaseRequest.class), anyString())).thenAnswer(inv -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(2);
+            executed.add(inv.getArgument(1));
+            running.decrementAndGet();
+            return responseFor(inv.getArgument(0), inv.getArgument(1));
+        });
+
+        List<String> submitted = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            // Same user, a different SKU each time
+            submitted.add(asyncPurchaseService.submit(new PurchaseRequest(1L, "SKU" + i, 1)).getOrderNumber());
+        }
+        awaitIdle(asyncPurchaseService);
+
+        assertEquals(1, maxRunning.get());
+        assertEquals(submitted, executed);
+    }
+
+    @Test
+    void submit_ShouldRunPurchasesOfOneSkuOneAtATime() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(ecommerceService.processPurchase(any(PurchaseRequest.class), anyString())).thenAnswer(inv -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(2);
+            running.decrementAndGet();
+            return responseFor(inv.getArgument(0), inv.getArgument(1));
+        });
+
+        for (long userId = 1; userId <= 20; userId++) {
+            asyncPurchaseService.submit(new PurchaseRequest(userId, "SKU001", 1));
+        }
+        awaitIdle(asyncPurchaseService);
+
+        assertEquals(1, maxRunning.get());
+        verify(ecommerceService, times(20)).processPurchase(any(PurchaseRequest.class), anyString());
+    }
+
+    @Test
+    void submit_ShouldNotBlockUnrelatedUsersAndSkus() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(ecommerceService.processPurchase(any(PurchaseRequest.class), anyString())).thenAnswer(inv -> {
+            PurchaseRequest request = inv.getArgument(0);
+            if (request.getUserId() == 1L) {
+                release.await();
+            }
+            return responseFor(request, inv.getArgument(1));
+        });
+
+        String blocked = asyncPurchaseService.submit(new PurchaseRequest(1L, "SKU001", 1)).getOrderNumber();
+        String other = asyncPurchaseService.submit(new PurchaseRequest(2L, "SKU002", 1)).getOrderNumber();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (asyncPurchaseService.getStatus(other).orElseThrow().getStatus() == PurchaseStatusResponse.Status.PENDING) {
+            assertTrue(System.nanoTime() < deadline, "Unrelated purchase was held back");
+            Thread.sleep(5);
+        }
+        assertEquals(PurchaseStatusResponse.Status.PENDING, asyncPurchaseService.getStatus(blocked).orElseThrow().getStatus());
+
+        release.countDown();
+        awaitIdle(asyncPurchaseService);
+        assertEquals(PurchaseStatusResponse.Status.COMPLETED, asyncPurchaseService.getStatus(blocked).orElseThrow().getStatus());
+    }
+
+    @Test
+    void submit_WhenTooManyPending_ShouldRejectWithRateLimit() throws InterruptedException {
+        AsyncPurchaseService limited = new AsyncPurchaseService(ecommerceService, new SnowflakeOrderNumberGenerator(1),
+                                                                true, 10, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(ecommerceService.processPurchase(any(PurchaseRequest.class), anyString())).thenAnswer(inv -> {
+            release.await();
+            return responseFor(inv.getArgument(0), inv.getArgument(1));
+        });
+
+        limited.submit(new PurchaseRequest(1L, "SKU001", 1));
+        BusinessException e = assertThrows(BusinessException.class,
+            () -> limited.submit(new PurchaseRequest(2L, "SKU002", 1)));
+
+        assertEquals(ErrorCode.RATE_LIMIT_EXCEEDED, e.getErrorCode());
+        release.countDown();
+        awaitIdle(limited);
+        limited.shutdown();
+    }
+
+    @Test
+    void getStatus_ShouldEvictOldestBeyondCapacity() throws InterruptedException {
+        AsyncPurchaseService small = new AsyncPurchaseService(ecommerceService, new SnowflakeOrderNumberGenerator(1),
+                                                              true, 2, 10);
+        when(ecommerceService.processPurchase(any(PurchaseRequest.class), anyString()))
+            .thenAnswer(inv -> responseFor(inv.getArgument(0), inv.getArgument(1)));
+
+        String first = small.submit(new PurchaseRequest(1L, "SKU001", 1)).getOrderNumber();
+        String second = small.submit(new PurchaseRequest(1L, "SKU001", 1)).getOrderNumber();
+        String third = small.submit(new PurchaseRequest(1L, "SKU001", 1)).getOrderNumber();
+        awaitIdle(small);
+
+        assertTrue(small.getStatus(first).isEmpty());
+        assertTrue(small.getStatus(second).isPresent());
+        assertTrue(small.getStatus(third).isPresent());
+        small.shutdown();
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidLimits() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new AsyncPurchaseService(ecommerceService, new SnowflakeOrderNumberGenerator(1), true, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> new AsyncPurchaseService(ecommerceService, new SnowflakeOrderNumberGenerator(1), true, 1, 0));
+    }
+}
@@ -0,0 +1,119 @@
+package com.ecommerce.application.service;
+
+import com.ecommerce.api.EcommercePlatformApplication;
+import com.ecommerce.api.dto.ErrorCode;
+import com.ecommerce.api.exception.BusinessException;
+import com.ecommerce.application.dto.PurchaseRequest;
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.merchant.Merchant;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.infrastructure.concurrency.OptimisticRetry;
+import com.ecommerce.infrastructure.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Purchases against the JPA repositories, where every retried attempt runs in its own transaction
+ */
+@SpringBootTest(classes = EcommercePlatformApplication.class)
+@ActiveProfiles({"mysql", "h2"})
+class EcommerceServiceJpaTest {
+
+    @Autowired
+    private EcommerceService ecommerceService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MerchantService merchantService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void shouldRetryPurchasesRacingWithRechargesInFreshTransactions() throws InterruptedException {
+        // 1. One buyer whose row is written by purchases and by recharges outside the purchase locks
+        Merchant merchant = merchantService.createMerchant("JPA Race Merchant", "BL-JPA-RACE", "jpa-race@store.com", "555-0900");
+        productService.createProduct("JPA-RACE-001", "Race Item", "Contended item", Money.of("10.00", "CNY"), merchant.getId(), 100);
+        User user = userService.createUser("jpa-racer", "jpa-racer@example.com", "560-0900", "CNY");
+        userService.rechargeUser(user.getId(), Money.of("1000.00", "CNY"));
+
+        // 2. Run both at the same time
+        int rounds = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(rounds * 2);
+        AtomicInteger purchases = new AtomicInteger();
+        AtomicInteger recharges = new AtomicInteger();
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < rounds; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    ecommerceService.processPurchase(new PurchaseRequest(user.getId(), "JPA-RACE-001", 1));
+                    purchases.incrementAndGet();
+                } catch (BusinessException e) {
+                    // Giving up after repeated conflicts is allowed; anything else is not
+                    if (e.getErrorCode() != ErrorCode.CONCURRENT_MODIFICATION) {
+                        unexpected.add(e);
+                    }
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                } finally {
+                    done.countDown();
+                }
+            });
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    optimisticRetry.run("recharge", () -> userService.rechargeUser(user.getId(), Money.of("5.00", "CNY")));
+                    recharges.incrementAndGet();
+                } catch (org.springframework.dao.OptimisticLockingFailureException e) {
+                    // Counted by the totals below
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        executor.shutdownNow();
+
+        // 3. Conflicts were retried or reported as such, and every committed write counts once
+        assertEquals(List.of(), unexpected);
+        assertTrue(purchases.get() > 0);
+        Money expectedBalance = Money.of("1000.00", "CNY")
+            .add(Money.of("5.00", "CNY").multiply(recharges.get()))
+            .subtract(Money.of("10.00", "CNY").multiply(purchases.get()));
+        assertEquals(expectedBalance, userRepository.findById(user.getId()).orElseThrow().getBalance());
+        assertEquals(purchases.get(), orderService.getUserOrders(user.getId(), null, 100).orders().size());
+        
+        // 4. Live stock and income only moved for the attempts that committed
+        assertEquals(100 - purchases.get(), productService.getProductBySku("JPA-RACE-001").getAvailableInventory());
+        assertEquals(Money.of("10.00", "CNY").multiply(purchases.get()), merchantService.getMerchantBalance(merchant.getId()));
+    }
+}
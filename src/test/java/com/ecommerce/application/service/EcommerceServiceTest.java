@@ -2,16 +2,32 @@ package com.ecommerce.application.service;
 
 import com.ecommerce.application.dto.PurchaseRequest;
 import com.ecommerce.application.dto.PurchaseResponse;
+import com.ecommerce.application.dto.CheckoutItem;
+import com.ecommerce.application.dto.CheckoutRequest;
+import com.ecommerce.application.dto.CheckoutResponse;
+import com.ecommerce.application.dto.ReservationResponse;
 import com.ecommerce.domain.Money;
 import com.ecommerce.domain.user.User;
+import com.ecommerce.domain.product.AtomicInventoryCounter;
+import com.ecommerce.domain.product.InventoryCounter;
 import com.ecommerce.domain.product.Product;
 import com.ecommerce.domain.merchant.Merchant;
 import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.order.OrderStatus;
+import com.ecommerce.domain.order.InvalidOrderStateException;
+import com.ecommerce.infrastructure.concurrency.OptimisticRetry;
+import com.ecommerce.infrastructure.concurrency.PurchaseLockManager;
+import com.ecommerce.infrastructure.id.SnowflakeOrderNumberGenerator;
+import com.ecommerce.infrastructure.repository.VersionConflictException;
+import com.ecommerce.infrastructure.scheduler.OrderExpiryScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.Duration;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -30,6 +46,9 @@ class EcommerceServiceTest {
     @Mock
     private OrderService orderService;
     
+    @Mock
+    private OrderExpiryScheduler orderExpiryScheduler;
+    
     private EcommerceService ecommerceService;
 
     @BeforeEach
@@ -71,8 +90,11 @@ class EcommerceServiceTest {
         assertEquals(quantity, response.getQuantity());
         assertEquals(Money.of("40.00", "USD"), response.getTotalAmount()); // 20 * 2 = 40
         
+        // Statuses are checked from the near-caches first; the aggregates are only read under the locks
+        verify(userService).requireActiveUser(userId);
+        verify(merchantService).requireActiveMerchant(1L);
         verify(userService).getUserById(userId);
-        verify(productService).getProductBySku(productSku);
+        verify(productService, times(2)).getProductBySku(productSku);
         verify(merchantService).getMerchantById(1L);
         verify(userService).saveUser(user);
         verify(productService).saveProduct(product);
@@ -87,7 +109,7 @@ class EcommerceServiceTest {
         String productSku = "PRODUCT-001";
         int quantity = 1;
         
-        when(userService.getUserById(userId)).thenThrow(new RuntimeException("User not found with id: " + userId));
+        doThrow(new RuntimeException("User not found with id: " + userId)).when(userService).requireActiveUser(userId);
         
         PurchaseRequest request = new PurchaseRequest(userId, productSku, quantity);
         
@@ -97,6 +119,22 @@ class EcommerceServiceTest {
         assertTrue(exception.getMessage().contains("User not found"));
     }
 
+    @Test
+    void shouldRejectInactiveUserBeforeLoadingAnything() {
+        // Arrange
+        Long userId = 1L;
+        doThrow(new com.ecommerce.domain.ResourceInactiveException("User is not active. User ID: " + userId))
+            .when(userService).requireActiveUser(userId);
+        
+        PurchaseRequest request = new PurchaseRequest(userId, "PRODUCT-001", 1);
+        
+        // Act & Assert
+        assertThrows(com.ecommerce.domain.ResourceInactiveException.class,
+            () -> ecommerceService.processPurchase(request));
+        verifyNoInteractions(productService, merchantService, orderService);
+        verify(userService, never()).getUserById(anyLong());
+    }
+
     @Test
     void shouldThrowExceptionWhenProductNotFound() {
         // Arrange
@@ -104,8 +142,6 @@ class EcommerceServiceTest {
         String productSku = "nonexistent";
         int quantity = 1;
         
-        User user = new User("john", "john@example.com", "123-456-7890", "USD");
-        when(userService.getUserById(userId)).thenReturn(user);
         when(productService.getProductBySku(productSku)).thenThrow(new RuntimeException("Product not found with SKU: " + productSku));
         
         PurchaseRequest request = new PurchaseRequest(userId, productSku, quantity);
@@ -300,7 +336,7 @@ class EcommerceServiceTest {
         ecommerceService.cancelOrder(orderNumber, reason);
         
         // Assert
-        verify(orderService).getOrderByNumber(orderNumber);
+        verify(orderService, times(2)).getOrderByNumber(orderNumber); // read again under the account locks
         verify(orderService).saveOrder(order);
         verify(productService).getProductBySku("PRODUCT-001");
         verify(productService).saveProduct(product);
@@ -378,7 +414,7 @@ class EcommerceServiceTest {
         ecommerceService.cancelOrder(orderNumber, reason);
         
         // Assert
-        verify(orderService).getOrderByNumber(orderNumber);
+        verify(orderService, times(2)).getOrderByNumber(orderNumber); // read again under the account locks
         verify(userService).getUserById(1L);
         verify(merchantService).getMerchantById(2L);
         verify(productService).getProductBySku("PRODUCT-001");
@@ -437,7 +473,7 @@ class EcommerceServiceTest {
         ecommerceService.cancelOrder(orderNumber, reason);
         
         // Assert
-        verify(orderService).getOrderByNumber(orderNumber);
+        verify(orderService, times(2)).getOrderByNumber(orderNumber); // read again under the account locks
         verify(orderService).saveOrder(order);
         // Should not call user, merchant, or product services for pending orders
         verify(userService, never()).getUserById(anyLong());
@@ -667,7 +703,7 @@ class EcommerceServiceTest {
         ecommerceService.cancelOrder(orderNumber, reason);
         
         // Assert
-        verify(orderService).getOrderByNumber(orderNumber);
+        verify(orderService, times(2)).getOrderByNumber(orderNumber); // read again under the account locks
         verify(userService).getUserById(1L);
         verify(merchantService).getMerchantById(2L);
         verify(productService).getProductBySku("PRODUCT-001");
@@ -798,9 +834,461 @@ class EcommerceServiceTest {
             () -> ecommerceService.cancelOrder(orderNumber, reason));
         assertTrue(exception.getMessage().contains("Failed to cancel order"));
         
-        verify(orderService).getOrderByNumber(orderNumber);
+        verify(orderService, times(2)).getOrderByNumber(orderNumber); // read again under the account locks
         verify(productService).getProductBySku("PRODUCT-FAIL");
         // Order should not be saved if exception occurs during processing
         verify(orderService, never()).saveOrder(order);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReserveLiveInventoryWithoutSavingProduct() {
+        Long userId = 1L;
+        String productSku = "PRODUCT-LIVE";
+        User user = new User("john", "john@example.com", "123-456-7890", "USD");
+        user.setId(userId);
+        user.recharge(Money.of("100.00", "USD"));
+        Product product = new Product(productSku, "Test Product", "Description", Money.of("20.00", "USD"), 1L, 10);
+        InventoryCounter counter = new AtomicInventoryCounter(productSku, 10);
+        product.attachInventoryCounter(counter);
+        Merchant merchant = new Merchant("Test Merchant", "BL123456", "merchant@test.com", "555-1234", "USD");
+        merchant.setId(1L);
+
+        when(userService.getUserById(userId)).thenReturn(user);
+        when(productService.getProductBySku(productSku)).thenReturn(product);
+        when(merchantService.getMerchantById(1L)).thenReturn(merchant);
+
+        ecommerceService.processPurchase(new PurchaseRequest(userId, productSku, 3));
+
+        assertEquals(7, counter.available());
+        assertTrue(counter.isDirty());
+        verify(productService, never()).saveProduct(any());
+        verify(userService).saveUser(user);
+        verify(merchantService).saveMerchant(merchant);
+        verify(orderService).saveOrder(any());
+    }
+
+    @Test
+    void shouldReleaseReservedInventoryWhenPaymentStepFails() {
+        Long userId = 1L;
+        String productSku = "PRODUCT-LIVE";
+        User user = new User("john", "john@example.com", "123-456-7890", "USD");
+        user.setId(userId);
+        user.recharge(Money.of("100.00", "USD"));
+        Product product = new Product(productSku, "Test Product", "Description", Money.of("20.00", "USD"), 1L, 10);
+        InventoryCounter counter = new AtomicInventoryCounter(productSku, 10);
+        product.attachInventoryCounter(counter);
+        // Merchant settles in another currency, so crediting the income fails after stock was reserved
+        Merchant merchant = new Merchant("Test Merchant", "BL123456", "merchant@test.com", "555-1234", "CNY");
+        merchant.setId(1L);
+
+        when(userService.getUserById(userId)).thenReturn(user);
+        when(productService.getProductBySku(productSku)).thenReturn(product);
+        when(merchantService.getMerchantById(1L)).thenReturn(merchant);
+
+        assertThrows(com.ecommerce.api.exception.BusinessException.class,
+            () -> ecommerceService.processPurchase(new PurchaseRequest(userId, productSku, 3)));
+
+        assertEquals(10, counter.available());
+        verify(orderService, never()).saveOrder(any());
+    }
+
+    @Test
+    void shouldUseConfiguredOrderNumberGenerator() {
+        ecommerceService = new EcommerceService(userService, merchantService, productService, orderService,
+            PurchaseLockManager.striped(), () -> "ORD0000000000000000007");
+        User user = new User("john", "john@example.com", "123-456-7890", "USD");
+        user.setId(1L);
+        user.recharge(Money.of("100.00", "USD"));
+        Product product = new Product("PRODUCT-001", "Test Product", "Description", Money.of("20.00", "USD"), 1L, 10);
+        Merchant merchant = new Merchant("Test Merchant", "BL123456", "merchant@test.com", "555-1234", "USD");
+        merchant.setId(1L);
+
+        when(userService.getUserById(1L)).thenReturn(user);
+        when(productService.getProductBySku("PRODUCT-001")).thenReturn(product);
+        when(merchantService.getMerchantById(1L)).thenReturn(merchant);
+
+        PurchaseResponse response = ecommerceService.processPurchase(new PurchaseRequest(1L, "PRODUCT-001", 1));
+
+        assertEquals("ORD0000000000000000007", response.getOrderNumber());
+    }
+
+    @Test
+    void shouldCheckoutCartAsSingleOrder() {
+        User user = new User("john", "john@example.com", "123-456-7890", "USD");
+        user.setId(1L);
+        user.recharge(Money.of("100.00", "USD"));
+        Product phone = new Product("PHONE", "Phone", "Description", Money.of("30.00", "USD"), 1L, 5);
+        Product cable = new Product("CABLE", "Cable", "Description", Money.of("5.00", "USD"), 1L, 10);
+        phone.setId(1L);
+        cable.setId(2L);
+        Merchant merchant = new Merchant("Test Merchant", "BL123456", "merchant@test.com", "555-1234", "USD");
+        merchant.setId(1L);
+
+        when(userService.getUserById(1L)).thenReturn(user);
+        when(productService.getProductBySku("PHONE")).thenReturn(phone);
+        when(productService.getProductBySku("CABLE")).thenReturn(cable);
+        when(merchantService.getMerchantById(1L)).thenReturn(merchant);
+
+        // CABLE appears twice and is merged into one line
+        CheckoutResponse response = ecommerceService.processCheckout(new CheckoutRequest(1L, java.util.List.of(
+            new CheckoutItem("PHONE", 2), new CheckoutItem("CABLE", 1), new CheckoutItem("CABLE", 2))));
+
+        assertEquals(2, response.getItems().size());
+        assertEquals("CABLE", response.getItems().get(0).getSku());
+        assertEquals(3, response.getItems().get(0).getQuantity());
+        assertEquals(5, response.getTotalQuantity());
+        assertEquals(Money.of("75.00", "USD"), response.getTotalAmount());
+        assertEquals(Money.of("25.00", "USD"), user.getBalance());
+        assertEquals(Money.of("75.00", "USD"), merchant.getBalance());
+        assertEquals(3, phone.getAvailableInventory());
+        assertEquals(7, cable.getAvailableInventory());
+
+        verify(userService).saveUser(user);
+        verify(productService).saveProduct(phone);
+        verify(productService).saveProduct(cable);
+        verify(merchantService).saveMerchant(merchant);
+        verify(orderService, times(1)).saveOrder(any());
+    }
+
+    @Test
+    void shouldRejectCartSpanningSeveralMerchants() {
+        User user = new User("john", "john@example.com", "123-456-7890", "USD");
+        user.setId(1L);
+        Product phone = new Product("PHONE", "Phone", "Description", Money.of("30.00", "USD"), 1L, 5);
+        Product book = new Product("BOOK", "Book", "Description", Money.of("5.00", "USD"), 2L, 10);
+
+        when(userService.getUserById(1L)).thenReturn(user);
+        when(productService.getProductBySku("BOOK")).thenReturn(book);
+        when(productService.getProductBySku("PHONE")).thenReturn(phone);
+
+        com.ecommerce.api.exception.BusinessException exception = assertThrows(
+            com.ecommerce.api.exception.BusinessException.class,
+            () -> ecommerceService.processCheckout(new CheckoutRequest(1L, java.util.List.of(
+                new CheckoutItem("PHONE", 1), new CheckoutItem("BOOK", 1)))));
+
+        assertEquals(com.ecommerce.api.dto.ErrorCode.VALIDATION_ERROR, exception.getErrorCode());
+        verify(merchantService, never()).getMerchantById(any());
+        verify(orderService, never()).saveOrder(any());
+    }
+
+    @Test
+    void shouldReleaseReservedLinesWhenCheckoutFails() {
+        User user = new User("john", "john@example.com", "123-456-7890", "USD");
+        user.setId(1L);
+        user.recharge(Money.of("100.00", "USD"));
+        Product phone = new Product("PHONE", "Phone", "Description", Money.of("30.00", "USD"), 1L, 5);
+        Product cable = new Product("CABLE", "Cable", "Description", Money.of("5.00", "USD"), 1L, 10);
+        // Crediting the merchant fails after every line was reserved
+        Merchant merchant = new Merchant("Test Merchant", "BL123456", "merchant@test.com", "555-1234", "CNY");
+        merchant.setId(1L);
+
+        when(userService.getUserById(1L)).thenReturn(user);
+        when(productService.getProductBySku("PHONE")).thenReturn(phone);
+        when(productService.getProductBySku("CABLE")).thenReturn(cable);
+        when(merchantService.getMerchantById(1L)).thenReturn(merchant);
+
+        assertThrows(com.ecommerce.api.exception.BusinessException.class,
+            () -> ecommerceService.processCheckout(new CheckoutRequest(1L, java.util.List.of(
+                new CheckoutItem("PHONE", 2), new CheckoutItem("CABLE", 1)))));
+
+        assertEquals(5, phone.getAvailableInventory());
+        assertEquals(10, cable.getAvailableInventory());
+        verify(orderService, never()).saveOrder(any());
+    }
+
+    @Test
+    void shouldRejectCheckoutWithInsufficientInventoryOnAnyLine() {
+        User user = new User("john", "john@example.com", "123-456-7890", "USD");
+        user.setId(1L);
+        user.recharge(Money.of("100.00", "USD"));
+        Product phone = new Product("PHONE", "Phone", "Description", Money.of("30.00", "USD"), 1L, 5);
+        Product cable = new Product("CABLE", "Cable", "Description", Money.of("5.00", "USD"), 1L, 1);
+        Merchant merchant = new Merchant("Test Merchant", "BL123456", "merchant@test.com", "555-1234", "USD");
+        merchant.setId(1L);
+
+        when(userService.getUserById(1L)).thenReturn(user);
+        when(productService.getProductBySku("PHONE")).thenReturn(phone);
+        when(productService.getProductBySku("CABLE")).thenReturn(cable);
+        when(merchantService.getMerchantById(1L)).thenReturn(merchant);
+
+        assertThrows(com.ecommerce.domain.product.InsufficientInventoryException.class,
+            () -> ecommerceService.processCheckout(new CheckoutRequest(1L, java.util.List.of(
+                new CheckoutItem("PHONE", 1), new CheckoutItem("CABLE", 2)))));
+
+        assertEquals(5, phone.getAvailableInventory());
+        assertEquals(Money.of("100.00", "USD"), user.getBalance());
+    }
+
+    private EcommerceService reservationService() {
+        return new EcommerceService(userService, merchantService, productService, orderService,
+                                    PurchaseLockManager.striped(), new SnowflakeOrderNumberGenerator(0), orderExpiryScheduler);
+    }
+
+    private Order reservedOrder(String orderNumber, Product product, int quantity) {
+        Order order = new Order(orderNumber, 1L, 1L);
+        order.addOrderItem(product.getSku(), product.getName(), product.getPrice(), quantity);
+        order.confirm();
+        return order;
+    }
+
+    @Test
+    void shouldReserveInventoryWithoutCharging() {
+        User user = new User("john", "john@example.com", "123-456-7890", "USD");
+        user.setId(1L);
+        Product product = new Product("PRODUCT-001", "Test Product", "Description", Money.of("20.00", "USD"), 1L, 10);
+        Merchant merchant = new Merchant("Test Merchant", "BL123456", "merchant@test.com", "555-1234", "USD");
+        merchant.setId(1L);
+        java.time.LocalDateTime expiresAt = java.time.LocalDateTime.now().plusMinutes(30);
+
+        when(userService.getUserById(1L)).thenReturn(user);
+        when(productService.getProductBySku("PRODUCT-001")).thenReturn(product);
+        when(merchantService.getMerchantById(1L)).thenReturn(merchant);
+        when(orderExpiryScheduler.schedule(anyString(), any(Runnable.class))).thenReturn(expiresAt);
+
+        ReservationResponse response = reservationService().reservePurchase(new PurchaseRequest(1L, "PRODUCT-001", 3));
+
+        assertEquals(7, product.getAvailableInventory());
+        assertEquals(Money.of("60.00", "USD"), response.getTotalAmount());
+        assertEquals(expiresAt, response.getExpiresAt());
+        // Balance is only checked when paying
+        assertEquals(Money.zero("USD"), user.getBalance());
+        ArgumentCaptor<Order> saved = ArgumentCaptor.forClass(Order.class);
+        verify(orderService).saveOrder(saved.capture());
+        assertEquals(OrderStatus.CONFIRMED, saved.getValue().getStatus());
+        verify(orderExpiryScheduler).schedule(eq(response.getOrderNumber()), any(Runnable.class));
+        verify(productService).saveProduct(product);
+        verify(userService, never()).saveUser(any());
+    }
+
+    @Test
+    void shouldNotReserveWhenInventoryIsShort() {
+        User user = new User("john", "john@example.com", "123-456-7890", "USD");
+        user.setId(1L);
+        Product product = new Product("PRODUCT-001", "Test Product", "Description", Money.of("20.00", "USD"), 1L, 2);
+        Merchant merchant = new Merchant("Test Merchant", "BL123456", "merchant@test.com", "555-1234", "USD");
+        merchant.setId(1L);
+
+        when(userService.getUserById(1L)).thenReturn(user);
+        when(productService.getProductBySku("PRODUCT-001")).thenReturn(product);
+        when(merchantService.getMerchantById(1L)).thenReturn(merchant);
+
+        EcommerceService service = reservationService();
+        assertThrows(com.ecommerce.domain.product.InsufficientInventoryException.class,
+            () -> service.reservePurchase(new PurchaseRequest(1L, "PRODUCT-001", 3)));
+
+        assertEquals(2, product.getAvailableInventory());
+        verifyNoInteractions(orderExpiryScheduler);
+    }
+
+    @Test
+    void shouldPayReservedOrder() {
+        User user = new User("john", "john@example.com", "123-456-7890", "USD");
+        user.setId(1L);
+        user.recharge(Money.of("100.00", "USD"));
+        Merchant merchant = new Merchant("Test Merchant", "BL123456", "merchant@test.com", "555-1234", "USD");
+        merchant.setId(1L);
+        Product product = new Product("PRODUCT-001", "Test Product", "Description", Money.of("20.00", "USD"), 1L, 10);
+        Order order = reservedOrder("ORD001", product, 3);
+
+        when(orderService.getOrderByNumber("ORD001")).thenReturn(order);
+        when(userService.getUserById(1L)).thenReturn(user);
+        when(merchantService.getMerchantById(1L)).thenReturn(merchant);
+
+        PurchaseResponse response = reservationService().payOrder("ORD001");
+
+        assertEquals(OrderStatus.COMPLETED, order.getStatus());
+        assertEquals(Money.of("40.00", "USD"), user.getBalance());
+        assertEquals(Money.of("60.00", "USD"), merchant.getBalance());
+        assertEquals(3, response.getQuantity());
+        assertEquals("PRODUCT-001", response.getSku());
+        verify(orderService).saveOrder(order);
+        verify(orderExpiryScheduler).cancel("ORD001");
+    }
+
+    @Test
+    void shouldKeepReservationWhenPaymentLacksBalance() {
+        User user = new User("john", "john@example.com", "123-456-7890", "USD");
+        user.setId(1L);
+        Merchant merchant = new Merchant("Test Merchant", "BL123456", "merchant@test.com", "555-1234", "USD");
+        merchant.setId(1L);
+        Product product = new Product("PRODUCT-001", "Test Product", "Description", Money.of("20.00", "USD"), 1L, 10);
+        Order order = reservedOrder("ORD001", product, 3);
+
+        when(orderService.getOrderByNumber("ORD001")).thenReturn(order);
+        when(userService.getUserById(1L)).thenReturn(user);
+        when(merchantService.getMerchantById(1L)).thenReturn(merchant);
+
+        EcommerceService service = reservationService();
+        assertThrows(com.ecommerce.domain.user.InsufficientBalanceException.class, () -> service.payOrder("ORD001"));
+
+        assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+        verify(orderExpiryScheduler, never()).cancel(any());
+    }
+
+    @Test
+    void shouldRejectPaymentForExpiredReservation() {
+        Product product = new Product("PRODUCT-001", "Test Product", "Description", Money.of("20.00", "USD"), 1L, 10);
+        Order order = reservedOrder("ORD001", product, 3);
+        order.cancel("Payment timeout");
+
+        when(orderService.getOrderByNumber("ORD001")).thenReturn(order);
+
+        EcommerceService service = reservationService();
+        InvalidOrderStateException exception = assertThrows(InvalidOrderStateException.class,
+            () -> service.payOrder("ORD001"));
+
+        assertTrue(exception.getMessage().contains("expired"));
+        verify(userService, never()).saveUser(any());
+    }
+
+    @Test
+    void shouldReleaseInventoryWhenReservationExpires() {
+        User user = new User("john", "john@example.com", "123-456-7890", "USD");
+        user.setId(1L);
+        Product product = new Product("PRODUCT-001", "Test Product", "Description", Money.of("20.00", "USD"), 1L, 10);
+        Merchant merchant = new Merchant("Test Merchant", "BL123456", "merchant@test.com", "555-1234", "USD");
+        merchant.setId(1L);
+
+        when(userService.getUserById(1L)).thenReturn(user);
+        when(productService.getProductBySku("PRODUCT-001")).thenReturn(product);
+        when(merchantService.getMerchantById(1L)).thenReturn(merchant);
+        EcommerceService service = reservationService();
+        ReservationResponse reservation = service.reservePurchase(new PurchaseRequest(1L, "PRODUCT-001", 4));
+        ArgumentCaptor<Order> saved = ArgumentCaptor.forClass(Order.class);
+        verify(orderService).saveOrder(saved.capture());
+        when(orderService.getOrderByNumber(reservation.getOrderNumber())).thenReturn(saved.getValue());
+        ArgumentCaptor<Runnable> expiry = ArgumentCaptor.forClass(Runnable.class);
+        verify(orderExpiryScheduler).schedule(eq(reservation.getOrderNumber()), expiry.capture());
+        assertEquals(6, product.getAvailableInventory());
+
+        expiry.getValue().run();
+
+        assertEquals(10, product.getAvailableInventory());
+        assertEquals(OrderStatus.CANCELLED, saved.getValue().getStatus());
+        // A second expiry of the same order is a no-op
+        assertFalse(service.expireOrder(reservation.getOrderNumber()));
+        assertEquals(10, product.getAvailableInventory());
+    }
+
+    @Test
+    void shouldNotExpirePaidOrder() {
+        Product product = new Product("PRODUCT-001", "Test Product", "Description", Money.of("20.00", "USD"), 1L, 10);
+        Order order = reservedOrder("ORD001", product, 3);
+        order.processPayment();
+        order.complete();
+
+        when(orderService.getOrderByNumber("ORD001")).thenReturn(order);
+
+        assertFalse(reservationService().expireOrder("ORD001"));
+        assertEquals(OrderStatus.COMPLETED, order.getStatus());
+        verifyNoInteractions(productService);
+    }
+
+    private EcommerceService retryingService(SimpleMeterRegistry registry) {
+        return new EcommerceService(userService, merchantService, productService, orderService,
+                                    PurchaseLockManager.striped(), new SnowflakeOrderNumberGenerator(0), orderExpiryScheduler,
+                                    new OptimisticRetry(3, Duration.ZERO, Duration.ZERO, registry));
+    }
+
+    private Product liveProduct(String sku, int quantity) {
+        Product product = new Product(sku, "Test Product", "Description", Money.of("20.00", "USD"), 1L, quantity);
+        product.attachInventoryCounter(new AtomicInventoryCounter(sku, quantity));
+        return product;
+    }
+
+    private void stubPurchaseEntities(Product product) {
+        // Every read returns a fresh instance, as the repositories do
+        when(userService.getUserById(1L)).thenAnswer(invocation -> {
+            User user = new User("john", "john@example.com", "123-456-7890", "USD");
+            user.setId(1L);
+            user.recharge(Money.of("100.00", "USD"));
+            return user;
+        });
+        when(productService.getProductBySku(product.getSku())).thenReturn(product);
+        when(merchantService.getMerchantById(1L)).thenAnswer(invocation -> {
+            Merchant merchant = new Merchant("Test Merchant", "BL123456", "merchant@test.com", "555-1234", "USD");
+            merchant.setId(1L);
+            return merchant;
+        });
+    }
+
+    @Test
+    void shouldRetryPurchaseWhenFirstSaveHitsVersionConflict() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Product product = liveProduct("PRODUCT-001", 10);
+        stubPurchaseEntities(product);
+        doThrow(new VersionConflictException(User.class, 1L, 1L, 2L)).doNothing().when(userService).saveUser(any());
+
+        PurchaseResponse response = retryingService(registry).processPurchase(new PurchaseRequest(1L, "PRODUCT-001", 2));
+
+        assertNotNull(response.getOrderNumber());
+        // The stock reserved by the failed attempt was given back
+        assertEquals(8, product.getAvailableInventory());
+        verify(userService, times(2)).saveUser(any());
+        verify(orderService).saveOrder(any());
+        assertEquals(1, registry.find("ecommerce.optimistic.retries").tag("aggregate", "User").counter().count());
+    }
+
+    @Test
+    void shouldReportConflictWhenRetriesAreExhausted() {
+        Product product = liveProduct("PRODUCT-001", 10);
+        stubPurchaseEntities(product);
+        doThrow(new VersionConflictException(User.class, 1L, 1L, 2L)).when(userService).saveUser(any());
+
+        com.ecommerce.api.exception.BusinessException e = assertThrows(com.ecommerce.api.exception.BusinessException.class,
+            () -> retryingService(new SimpleMeterRegistry()).processPurchase(new PurchaseRequest(1L, "PRODUCT-001", 2)));
+
+        assertEquals(com.ecommerce.api.dto.ErrorCode.CONCURRENT_MODIFICATION, e.getErrorCode());
+        assertEquals(10, product.getAvailableInventory());
+        verify(userService, times(3)).saveUser(any());
+        verify(orderService, never()).saveOrder(any());
+    }
+
+    @Test
+    void shouldNotRetryPurchaseOnceFirstSaveSucceeded() {
+        Product product = liveProduct("PRODUCT-001", 10);
+        stubPurchaseEntities(product);
+        doThrow(new VersionConflictException(Merchant.class, 1L, 1L, 2L)).when(merchantService).saveMerchant(any());
+
+        com.ecommerce.api.exception.BusinessException e = assertThrows(com.ecommerce.api.exception.BusinessException.class,
+            () -> retryingService(new SimpleMeterRegistry()).processPurchase(new PurchaseRequest(1L, "PRODUCT-001", 2)));
+
+        assertEquals(com.ecommerce.api.dto.ErrorCode.CONCURRENT_MODIFICATION, e.getErrorCode());
+        // Re-running would charge the already saved user twice; the charge is refunded instead
+        ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+        verify(userService, times(2)).saveUser(saved.capture());
+        assertEquals(Money.of("60.00", "USD"), saved.getAllValues().get(0).getBalance());
+        // The refund is made on a fresh read, which the stub always returns with 100.00
+        assertEquals(Money.of("140.00", "USD"), saved.getAllValues().get(1).getBalance());
+        assertEquals(10, product.getAvailableInventory());
+        verify(orderService, never()).saveOrder(any());
+    }
+
+    @Test
+    void shouldUndoChargeAndIncomeWhenOrderSaveFails() {
+        Product product = liveProduct("PRODUCT-001", 10);
+        stubPurchaseEntities(product);
+        Merchant credited = new Merchant("Test Merchant", "BL123456", "merchant@test.com", "555-1234", "USD");
+        credited.setId(1L);
+        credited.receiveIncome(Money.of("40.00", "USD"));
+        when(merchantService.getMerchantById(1L)).thenAnswer(invocation -> {
+            Merchant merchant = new Merchant("Test Merchant", "BL123456", "merchant@test.com", "555-1234", "USD");
+            merchant.setId(1L);
+            return merchant;
+        }).thenReturn(credited);
+        doThrow(new VersionConflictException(Order.class, 1L, 1L, 2L)).when(orderService).saveOrder(any());
+
+        com.ecommerce.api.exception.BusinessException e = assertThrows(com.ecommerce.api.exception.BusinessException.class,
+            () -> retryingService(new SimpleMeterRegistry()).processPurchase(new PurchaseRequest(1L, "PRODUCT-001", 2)));
+
+        assertEquals(com.ecommerce.api.dto.ErrorCode.CONCURRENT_MODIFICATION, e.getErrorCode());
+        ArgumentCaptor<User> savedUsers = ArgumentCaptor.forClass(User.class);
+        verify(userService, times(2)).saveUser(savedUsers.capture());
+        assertEquals(Money.of("140.00", "USD"), savedUsers.getAllValues().get(1).getBalance());
+        ArgumentCaptor<Merchant> savedMerchants = ArgumentCaptor.forClass(Merchant.class);
+        verify(merchantService, times(2)).saveMerchant(savedMerchants.capture());
+        assertEquals(Money.of("40.00", "USD"), savedMerchants.getAllValues().get(0).getBalance());
+        assertEquals(Money.zero("USD"), savedMerchants.getAllValues().get(1).getBalance());
+        assertEquals(10, product.getAvailableInventory());
+    }
+}
@@ -0,0 +1,190 @@
+package com.ecommerce.application.service;
+
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.infrastructure.cache.ProductCache;
+import com.ecommerce.infrastructure.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private InventoryService inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService = new InventoryService(productRepository, true);
+    }
+
+    private Product newProduct(int inventory) {
+        return new Product("IPHONE15", "iPhone 15", "Latest iPhone", Money.of(100.00, "CNY"), 1L, inventory);
+    }
+
+    @Test
+    void attach_ShouldShareOneCounterAcrossLoadedCopies() {
+        Product first = newProduct(10);
+        Product second = newProduct(10);
+
+        inventoryService.attach(first);
+        inventoryService.attach(second);
+        first.reduceInventory(3);
+
+        assertEquals(7, second.getAvailableInventory());
+        assertEquals(7, inventoryService.getAvailable("IPHONE15"));
+        assertEquals(1, inventoryService.getPendingFlushCount());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void attach_OnMultiNode_ShouldRefuseCounters() {
+        InventoryService multiNode = new InventoryService(productRepository, ProductCache.disabled(), true,
+                                                          InventoryService.DEFAULT_HOT_SHARDS, true);
+        Product product = newProduct(10);
+
+        multiNode.attach(product);
+        product.reduceInventory(3);
+
+        assertFalse(multiNode.isEnabled());
+        assertFalse(product.hasLiveInventory());
+        assertEquals(7, product.getInventory().getQuantity());
+        assertEquals(0, multiNode.getPendingFlushCount());
+    }
+
+    @Test
+    void attach_WhenDisabled_ShouldLeaveProductUntouched() {
+        InventoryService disabled = new InventoryService(productRepository, false);
+        Product product = newProduct(10);
+
+        disabled.attach(product);
+
+        assertFalse(disabled.isEnabled());
+        assertFalse(product.hasLiveInventory());
+        assertEquals(-1, disabled.getAvailable("IPHONE15"));
+    }
+
+    @Test
+    void flush_ShouldPersistChangedCounters() {
+        Product live = newProduct(10);
+        inventoryService.attach(live);
+        live.reduceInventory(4);
+
+        Product stored = newProduct(10);
+        when(productRepository.findBySku("IPHONE15")).thenReturn(Optional.of(stored));
+
+        int flushed = inventoryService.flush();
+
+        assertEquals(1, flushed);
+        assertEquals(0, inventoryService.getPendingFlushCount());
+        verify(productRepository).save(stored);
+        stored.attachInventoryCounter(null);
+        assertEquals(6, stored.getAvailableInventory());
+    }
+
+    @Test
+    void flush_ShouldHandFlushedProductToCache() {
+        ProductCache productCache = new ProductCache(10, new SimpleMeterRegistry());
+        InventoryService cached = new InventoryService(productRepository, productCache, true, 4);
+        Product live = newProduct(10);
+        cached.attach(live);
+        live.reduceInventory(4);
+        Product stored = newProduct(10);
+        stored.markPersisted();
+        productCache.put(stored);
+        when(productRepository.findBySku("IPHONE15")).thenReturn(Optional.of(stored));
+        when(productRepository.save(stored)).thenAnswer(invocation -> {
+            stored.markPersisted();
+            return stored;
+        });
+
+        cached.flush();
+
+        Product cachedCopy = productCache.get("IPHONE15").orElseThrow();
+        assertEquals(stored.getVersion(), cachedCopy.getPersistedVersion());
+        cachedCopy.attachInventoryCounter(null);
+        assertEquals(6, cachedCopy.getAvailableInventory());
+    }
+
+    @Test
+    void flush_WithNothingChanged_ShouldNotTouchRepository() {
+        inventoryService.attach(newProduct(10));
+
+        assertEquals(0, inventoryService.flush());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void flush_WhenSaveFails_ShouldRetryOnNextFlush() {
+        Product live = newProduct(10);
+        inventoryService.attach(live);
+        live.reduceInventory(1);
+        when(productRepository.findBySku("IPHONE15")).thenAnswer(invocation -> Optional.of(newProduct(10)));
+        when(productRepository.save(any(Product.class)))
+            .thenThrow(new RuntimeException("Database unavailable"))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(0, inventoryService.flush());
+        assertEquals(1, inventoryService.getPendingFlushCount());
+        assertEquals(1, inventoryService.flush());
+        assertEquals(0, inventoryService.getPendingFlushCount());
+    }
+
+    @Test
+    void flush_WhenProductIsGone_ShouldDropCounter() {
+        Product live = newProduct(10);
+        inventoryService.attach(live);
+        live.reduceInventory(1);
+        when(productRepository.findBySku("IPHONE15")).thenReturn(Optional.empty());
+
+        assertEquals(0, inventoryService.flush());
+        assertEquals(-1, inventoryService.getAvailable("IPHONE15"));
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void attach_HotProduct_ShouldUseShardedCounter() {
+        Product product = newProduct(64);
+        product.markHot(true);
+
+        inventoryService.attach(product);
+
+        assertEquals(InventoryService.DEFAULT_HOT_SHARDS, inventoryService.getShardCount("IPHONE15"));
+        assertEquals(64, product.getAvailableInventory());
+    }
+
+    @Test
+    void attach_AfterHotSwitch_ShouldHandOverStockToNewCounter() {
+        Product before = newProduct(10);
+        inventoryService.attach(before);
+        before.reduceInventory(2);
+
+        Product hot = newProduct(10);
+        hot.markHot(true);
+        inventoryService.attach(hot);
+
+        assertEquals(InventoryService.DEFAULT_HOT_SHARDS, inventoryService.getShardCount("IPHONE15"));
+        assertEquals(8, hot.getAvailableInventory());
+        // The stale copy forwards to the sharded counter instead of overselling
+        before.reduceInventory(8);
+        assertEquals(0, hot.getAvailableInventory());
+        assertFalse(hot.hasEnoughInventory(1));
+    }
+
+    @Test
+    void constructor_WithNonPositiveHotShards_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new InventoryService(productRepository, true, 0));
+    }
+}
@@ -0,0 +1,165 @@
+package com.ecommerce.application.service;
+
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.ledger.MovementType;
+import com.ecommerce.domain.merchant.Merchant;
+import com.ecommerce.infrastructure.ledger.AccountType;
+import com.ecommerce.infrastructure.ledger.BalanceLedger;
+import com.ecommerce.infrastructure.ledger.LedgerEntry;
+import com.ecommerce.infrastructure.repository.MerchantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MerchantIncomeServiceTest {
+
+    @Mock
+    private MerchantRepository merchantRepository;
+
+    private BalanceLedger balanceLedger;
+    private MerchantIncomeService merchantIncomeService;
+
+    @BeforeEach
+    void setUp() {
+        balanceLedger = new BalanceLedger();
+        merchantIncomeService = new MerchantIncomeService(merchantRepository, balanceLedger, true);
+    }
+
+    private Merchant newMerchant() {
+        Merchant merchant = new Merchant("Apple Store", "BL123456", "apple@store.com", "1234567890");
+        merchant.setId(1L);
+        return merchant;
+    }
+
+    @Test
+    void attach_ShouldShareOneAccumulatorAcrossLoadedCopies() {
+        Merchant first = newMerchant();
+        Merchant second = newMerchant();
+
+        merchantIncomeService.attach(first);
+        merchantIncomeService.attach(second);
+        first.receiveIncome(Money.of("30.00", "CNY"));
+
+        assertTrue(second.hasLiveIncome());
+        assertEquals(Money.of("30.00", "CNY"), second.getBalance());
+        assertEquals(1, merchantIncomeService.getPendingFlushCount());
+        verifyNoInteractions(merchantRepository);
+    }
+
+    @Test
+    void attach_WhenDisabled_ShouldLeaveMerchantUntouched() {
+        MerchantIncomeService disabled = new MerchantIncomeService(merchantRepository, balanceLedger, false);
+        Merchant merchant = newMerchant();
+
+        disabled.attach(merchant);
+
+        assertFalse(disabled.isEnabled());
+        assertFalse(merchant.hasLiveIncome());
+    }
+
+    @Test
+    void attach_OnMultiNode_ShouldRefuseAccumulators() {
+        MerchantIncomeService multiNode = new MerchantIncomeService(merchantRepository, balanceLedger, true, true);
+        Merchant merchant = newMerchant();
+
+        multiNode.attach(merchant);
+        merchant.receiveIncome(Money.of("30.00", "CNY"));
+
+        assertFalse(multiNode.isEnabled());
+        assertFalse(merchant.hasLiveIncome());
+        assertEquals(Money.of("30.00", "CNY"), merchant.getAccount().getBalance());
+        assertEquals(0, multiNode.getPendingFlushCount());
+    }
+
+    @Test
+    void flush_ShouldPersistChangedAccumulatorsAndFeedLedger() {
+        Merchant live = newMerchant();
+        merchantIncomeService.attach(live);
+        live.receiveIncome(Money.of("50.00", "CNY"));
+        live.withdrawIncome(Money.of("20.00", "CNY"));
+
+        Merchant stored = newMerchant();
+        when(merchantRepository.findById(1L)).thenReturn(Optional.of(stored));
+
+        int flushed = merchantIncomeService.flush();
+
+        assertEquals(1, flushed);
+        assertEquals(0, merchantIncomeService.getPendingFlushCount());
+        verify(merchantRepository).save(stored);
+        stored.attachIncomeAccumulator(null);
+        assertEquals(Money.of("30.00", "CNY"), stored.getBalance());
+        assertEquals(Money.of("50.00", "CNY"), stored.getTotalIncome());
+        List<LedgerEntry> entries = balanceLedger.entries(AccountType.MERCHANT, 1L,
+            LocalDateTime.now().minusMinutes(1), LocalDateTime.now());
+        assertEquals(List.of(MovementType.INCOME, MovementType.WITHDRAWAL), entries.stream().map(LedgerEntry::type).toList());
+        assertEquals(Money.of("30.00", "CNY"), balanceLedger.balance(AccountType.MERCHANT, 1L).orElseThrow());
+    }
+
+    @Test
+    void flush_WithNothingChanged_ShouldNotTouchRepository() {
+        merchantIncomeService.attach(newMerchant());
+
+        assertEquals(0, merchantIncomeService.flush());
+        verifyNoInteractions(merchantRepository);
+    }
+
+    @Test
+    void flush_WhenSaveFails_ShouldRetryOnNextFlush() {
+        Merchant live = newMerchant();
+        merchantIncomeService.attach(live);
+        live.receiveIncome(Money.of("10.00", "CNY"));
+        when(merchantRepository.findById(1L)).thenAnswer(invocation -> Optional.of(newMerchant()));
+        when(merchantRepository.save(any(Merchant.class)))
+            .thenThrow(new RuntimeException("Database unavailable"))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(0, merchantIncomeService.flush());
+        assertEquals(1, merchantIncomeService.getPendingFlushCount());
+        assertTrue(balanceLedger.balance(AccountType.MERCHANT, 1L).isEmpty());
+        assertEquals(1, merchantIncomeService.flush());
+        assertEquals(0, merchantIncomeService.getPendingFlushCount());
+        assertEquals(Money.of("10.00", "CNY"), balanceLedger.balance(AccountType.MERCHANT, 1L).orElseThrow());
+    }
+
+    @Test
+    void flush_WhenMerchantIsGone_ShouldDropAccumulator() {
+        Merchant live = newMerchant();
+        merchantIncomeService.attach(live);
+        live.receiveIncome(Money.of("10.00", "CNY"));
+        when(merchantRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertEquals(0, merchantIncomeService.flush());
+        verify(merchantRepository, never()).save(any(Merchant.class));
+
+        // A merchant loaded afterwards starts a fresh accumulator from its persisted account
+        Merchant reloaded = newMerchant();
+        merchantIncomeService.attach(reloaded);
+        assertEquals(Money.zero("CNY"), reloaded.getBalance());
+    }
+
+    @Test
+    void flushMerchant_ShouldWriteOnlyThatMerchant() {
+        Merchant live = newMerchant();
+        merchantIncomeService.attach(live);
+        live.receiveIncome(Money.of("10.00", "CNY"));
+        when(merchantRepository.findById(1L)).thenReturn(Optional.of(newMerchant()));
+
+        assertTrue(merchantIncomeService.flush(1L));
+        assertFalse(merchantIncomeService.flush(1L));
+        assertFalse(merchantIncomeService.flush(2L));
+        // The queued entry is already clean
+        assertEquals(0, merchantIncomeService.flush());
+        verify(merchantRepository, times(1)).save(any(Merchant.class));
+    }
+}
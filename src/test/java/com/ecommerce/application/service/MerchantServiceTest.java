@@ -2,13 +2,21 @@ package com.ecommerce.application.service;
 
 import com.ecommerce.domain.merchant.Merchant;
 import com.ecommerce.domain.merchant.DuplicateMerchantException;
+import com.ecommerce.domain.merchant.MerchantIncomeAccumulator;
 import com.ecommerce.domain.Money;
+import com.ecommerce.domain.ResourceInactiveException;
+import com.ecommerce.domain.merchant.MerchantStatus;
+import com.ecommerce.infrastructure.cache.StatusCache;
+import com.ecommerce.infrastructure.ledger.AccountType;
+import com.ecommerce.infrastructure.ledger.BalanceLedger;
 import com.ecommerce.infrastructure.repository.MerchantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
@@ -25,6 +33,15 @@ class MerchantServiceTest {
     @Mock
     private MerchantRepository merchantRepository;
 
+    @Spy
+    private BalanceLedger balanceLedger = new BalanceLedger();
+
+    @Spy
+    private StatusCache<MerchantStatus> statusCache = new StatusCache<>("test.merchant.status.cache", 100, new SimpleMeterRegistry());
+
+    @Mock
+    private MerchantIncomeService merchantIncomeService;
+
     @InjectMocks
     private MerchantService merchantService;
 
@@ -100,6 +117,46 @@ class MerchantServiceTest {
         verify(merchantRepository).findById(merchantId);
     }
 
+    @Test
+    void requireActiveMerchant_ServesActiveStatusFromCache() {
+        // Given
+        Long merchantId = 1L;
+        testMerchant.setId(merchantId);
+        when(merchantRepository.findById(merchantId)).thenReturn(Optional.of(testMerchant));
+
+        // When
+        merchantService.requireActiveMerchant(merchantId);
+        merchantService.requireActiveMerchant(merchantId);
+
+        // Then
+        verify(merchantRepository, times(1)).findById(merchantId);
+    }
+
+    @Test
+    void requireActiveMerchant_AfterDeactivation_Throws() {
+        // Given
+        Long merchantId = 1L;
+        testMerchant.setId(merchantId);
+        when(merchantRepository.findById(merchantId)).thenReturn(Optional.of(testMerchant));
+        merchantService.requireActiveMerchant(merchantId);
+
+        // When
+        Merchant loaded = merchantService.getMerchantById(merchantId);
+        loaded.deactivate();
+        merchantService.saveMerchant(loaded);
+
+        // Then
+        assertEquals(Optional.of(MerchantStatus.INACTIVE), statusCache.get(merchantId));
+        assertThrows(ResourceInactiveException.class, () -> merchantService.requireActiveMerchant(merchantId));
+    }
+
+    @Test
+    void hasLiveIncome_FollowsIncomeService() {
+        when(merchantIncomeService.isEnabled()).thenReturn(true);
+
+        assertTrue(merchantService.hasLiveIncome());
+    }
+
     @Test
     void getMerchantById_MerchantNotFound() {
         // Given
@@ -125,6 +182,22 @@ class MerchantServiceTest {
         verify(merchantRepository).save(testMerchant);
     }
 
+    @Test
+    void saveMerchant_RecordsMovementsInLedger() {
+        // Given
+        testMerchant.setId(1L);
+        testMerchant.receiveIncome(Money.of("100.00", "CNY"));
+        testMerchant.withdrawIncome(Money.of("30.00", "CNY"));
+
+        // When
+        merchantService.saveMerchant(testMerchant);
+        merchantService.saveMerchant(testMerchant);
+
+        // Then
+        assertEquals(Money.of("70.00", "CNY"), balanceLedger.balance(AccountType.MERCHANT, 1L).orElseThrow());
+        verify(merchantRepository, times(2)).save(testMerchant);
+    }
+
     @Test
     void getMerchantBalance_Success() {
         // Given
@@ -223,5 +296,43 @@ class MerchantServiceTest {
         assertEquals(1, result.size());
         assertEquals(testMerchant, result.get(0));
         verify(merchantRepository).findAllActive();
+        verify(merchantIncomeService).attach(testMerchant);
+    }
+
+    @Test
+    void getMerchantById_AttachesIncomeAccumulator() {
+        // Given
+        testMerchant.setId(1L);
+        when(merchantRepository.findById(1L)).thenReturn(Optional.of(testMerchant));
+
+        // When
+        Merchant result = merchantService.getMerchantById(1L);
+
+        // Then
+        verify(merchantIncomeService).attach(result);
+    }
+
+    @Test
+    void saveMerchant_SyncsLiveIncomeBeforeSaving() {
+        // Given
+        testMerchant.setId(1L);
+        testMerchant.attachIncomeAccumulator(new MerchantIncomeAccumulator(1L, testMerchant.getAccount()));
+        testMerchant.receiveIncome(Money.of("40.00", "CNY"));
+
+        // When
+        merchantService.saveMerchant(testMerchant);
+
+        // Then
+        verify(merchantRepository).save(testMerchant);
+        assertEquals(Money.of("40.00", "CNY"), balanceLedger.balance(AccountType.MERCHANT, 1L).orElseThrow());
+    }
+
+    @Test
+    void flushIncome_DelegatesToIncomeService() {
+        // When
+        merchantService.flushIncome(1L);
+
+        // Then
+        verify(merchantIncomeService).flush(1L);
     }
 } 
\ No newline at end of file
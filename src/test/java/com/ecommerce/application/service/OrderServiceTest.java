@@ -1,14 +1,24 @@
 package com.ecommerce.application.service;
 
+import com.ecommerce.application.dto.OrderCursor;
+import com.ecommerce.application.dto.OrderHistoryPage;
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.PlatformClock;
 import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.order.OrderStatus;
 import com.ecommerce.infrastructure.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -19,9 +29,13 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
-    @InjectMocks
     private OrderService orderService;
 
+    @BeforeEach
+    void setUp() {
+        orderService = new OrderService(orderRepository);
+    }
+
     @Test
     void saveOrder_ShouldCallRepositorySave() {
         // Arrange
@@ -121,4 +135,114 @@ class OrderServiceTest {
         assertFalse(result);
         verify(orderRepository).existsByOrderNumber(orderNumber);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void forEachOrderByMerchantAndDateRange_ShouldReadWithConfiguredFetchSize() {
+        // Arrange
+        OrderService service = new OrderService(orderRepository, 2);
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 0, 0);
+        LocalDateTime end = start.plusDays(1);
+        Consumer<Order> visitor = order -> { };
+
+        // Act
+        service.forEachOrderByMerchantAndDateRange(2L, start, end, visitor);
+
+        // Assert
+        verify(orderRepository).forEachByMerchantIdAndOrderTimeBetween(2L, start, end, 2, visitor);
+    }
+
+    @Test
+    void forEachOrderTotalCompletedByMerchant_ShouldReadByCompletionTime() {
+        // Arrange
+        LocalDateTime watermark = LocalDateTime.of(2024, 5, 1, 2, 0);
+        LocalDateTime until = watermark.plusDays(1);
+        doAnswer(invocation -> {
+            Consumer<Money> visitor = invocation.getArgument(4);
+            visitor.accept(Money.of("7.00", "CNY"));
+            return null;
+        }).when(orderRepository).forEachTotalAmountByMerchantIdAndCompletedTimeIn(
+            eq(2L), eq(watermark), eq(until), eq(OrderService.DEFAULT_FETCH_SIZE), any());
+        List<Money> totals = new ArrayList<>();
+
+        // Act
+        orderService.forEachOrderTotalCompletedByMerchant(2L, watermark, until, totals::add);
+
+        // Assert
+        assertEquals(List.of(Money.of("7.00", "CNY")), totals);
+    }
+
+    @Test
+    void forEachOrderAwaitingPayment_ShouldVisitConfirmedOrders() {
+        // Arrange
+        Order reserved = orderAt(5L, LocalDateTime.of(2024, 5, 1, 9, 0));
+        doAnswer(invocation -> {
+            Consumer<Order> visitor = invocation.getArgument(2);
+            visitor.accept(reserved);
+            return null;
+        }).when(orderRepository).forEachByStatus(eq(OrderStatus.CONFIRMED), eq(OrderService.DEFAULT_FETCH_SIZE), any());
+        List<Order> visited = new ArrayList<>();
+
+        // Act
+        orderService.forEachOrderAwaitingPayment(visited::add);
+
+        // Assert
+        assertEquals(List.of(reserved), visited);
+    }
+
+    @Test
+    void constructor_WithNonPositiveFetchSize_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderService(orderRepository, 0));
+    }
+
+    private Order orderAt(Long id, LocalDateTime orderTime) {
+        PlatformClock previous = PlatformClock.install(PlatformClock.fixed(orderTime, ZoneId.systemDefault()));
+        try {
+            Order order = new Order("ORD-" + id, 1L, 2L);
+            order.setId(id);
+            return order;
+        } finally {
+            PlatformClock.install(previous);
+        }
+    }
+
+    @Test
+    void getUserOrders_WithMoreOrdersThanLimit_ShouldReturnCursorOfLastOrder() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        List<Order> newestFirst = List.of(orderAt(3L, now), orderAt(2L, now.minusMinutes(1)), orderAt(1L, now.minusMinutes(2)));
+        when(orderRepository.findByUserIdBefore(1L, null, null, 3)).thenReturn(newestFirst);
+
+        // Act
+        OrderHistoryPage page = orderService.getUserOrders(1L, null, 2);
+
+        // Assert
+        assertEquals(List.of(3L, 2L), page.orders().stream().map(Order::getId).toList());
+        assertTrue(page.hasMore());
+        assertEquals(new OrderCursor(now.minusMinutes(1), 2L), OrderCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void getUserOrders_WithCursor_ShouldContinueAfterIt() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        String cursor = new OrderCursor(now.minusMinutes(1), 2L).encode();
+        when(orderRepository.findByUserIdBefore(1L, now.minusMinutes(1), 2L, 3))
+            .thenReturn(List.of(orderAt(1L, now.minusMinutes(2))));
+
+        // Act
+        OrderHistoryPage page = orderService.getUserOrders(1L, cursor, 2);
+
+        // Assert
+        assertEquals(1, page.orders().size());
+        assertFalse(page.hasMore());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getUserOrders_WithInvalidPageSize_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.getUserOrders(1L, null, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> orderService.getUserOrders(1L, null, OrderService.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(orderRepository);
+    }
+}
@@ -2,7 +2,9 @@ package com.ecommerce.application.service;
 
 import com.ecommerce.domain.product.Product;
 import com.ecommerce.domain.Money;
+import com.ecommerce.infrastructure.cache.ProductCache;
 import com.ecommerce.infrastructure.repository.ProductRepository;
+import com.ecommerce.infrastructure.repository.VersionConflictException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,6 +26,12 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private ProductCache productCache;
+
     @InjectMocks
     private ProductService productService;
 
@@ -132,6 +140,46 @@ class ProductServiceTest {
 
         // Then
         verify(productRepository).save(testProduct);
+        verify(productCache).saved(testProduct);
+    }
+
+    @Test
+    void getProductBySku_ShouldServeCachedProduct() {
+        // Given
+        when(productCache.get("IPHONE15")).thenReturn(Optional.of(testProduct));
+
+        // When
+        Product result = productService.getProductBySku("IPHONE15");
+
+        // Then
+        assertSame(testProduct, result);
+        verify(inventoryService).attach(testProduct);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getProductBySku_ShouldCacheLoadedProduct() {
+        // Given
+        when(productRepository.findBySku("IPHONE15")).thenReturn(Optional.of(testProduct));
+
+        // When
+        productService.getProductBySku("IPHONE15");
+
+        // Then
+        verify(productCache).put(testProduct);
+    }
+
+    @Test
+    void saveProduct_ShouldInvalidateCacheWhenSaveFails() {
+        // Given
+        testProduct.setId(1L);
+        when(productRepository.save(testProduct))
+            .thenThrow(new VersionConflictException(Product.class, 1L, 0L, 1L));
+
+        // When & Then
+        assertThrows(VersionConflictException.class, () -> productService.saveProduct(testProduct));
+        verify(productCache).invalidate("IPHONE15");
+        verify(productCache, never()).saved(any());
     }
 
     @Test
@@ -502,4 +550,18 @@ class ProductServiceTest {
         assertNotNull(result);
         verify(productRepository).findAll();
     }
-} 
\ No newline at end of file
+
+    @Test
+    void markProductHot_ShouldSwitchCounterAndSave() {
+        // Given
+        when(productRepository.findBySku("IPHONE15")).thenReturn(Optional.of(testProduct));
+
+        // When
+        Product result = productService.markProductHot("IPHONE15", true);
+
+        // Then
+        assertTrue(result.isHot());
+        verify(inventoryService, times(2)).attach(testProduct);
+        verify(productRepository).save(testProduct);
+    }
+}
@@ -2,19 +2,29 @@ package com.ecommerce.application.service;
 
 import com.ecommerce.domain.settlement.Settlement;
 import com.ecommerce.domain.Money;
+import com.ecommerce.domain.PlatformClock;
 import com.ecommerce.domain.merchant.Merchant;
+import com.ecommerce.domain.ledger.BalanceMovement;
+import com.ecommerce.domain.ledger.MovementType;
+import com.ecommerce.infrastructure.ledger.AccountType;
+import com.ecommerce.infrastructure.ledger.BalanceLedger;
 import com.ecommerce.infrastructure.repository.SettlementRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Collections;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -35,9 +45,33 @@ class SettlementServiceTest {
     @Mock
     private OrderService orderService;
 
+    @Spy
+    private BalanceLedger balanceLedger = new BalanceLedger();
+
     @InjectMocks
     private SettlementService settlementService;
 
+    // Ledger whose history starts at the given time, as if the process had been up since then
+    private SettlementService withLedgerSince(LocalDateTime start) {
+        PlatformClock previous = PlatformClock.install(PlatformClock.fixed(start, ZoneId.systemDefault()));
+        try {
+            balanceLedger = spy(new BalanceLedger());
+        } finally {
+            PlatformClock.install(previous);
+        }
+        return new SettlementService(settlementRepository, merchantService, orderService, balanceLedger);
+    }
+
+    // Streams the totals to the settlement's visitor; a null start matches any start
+    private void givenCompletedOrderTotals(Long merchantId, LocalDateTime start, List<Money> totals) {
+        doAnswer(invocation -> {
+            Consumer<Money> visitor = invocation.getArgument(3);
+            totals.forEach(visitor);
+            return null;
+        }).when(orderService).forEachOrderTotalCompletedByMerchant(
+            eq(merchantId), start != null ? eq(start) : any(), any(), any());
+    }
+
     @Test
     void executeSettlement_ShouldCompleteSuccessfully() {
         // Arrange
@@ -62,6 +96,31 @@ class SettlementServiceTest {
         verify(settlementRepository, times(2)).save(any(Settlement.class));
     }
 
+    @Test
+    void executeSettlement_ShouldSettleOnPlatformClockDate() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 2, 0);
+        Merchant merchant = new Merchant("Test Merchant 1", "BL001", "test1@store.com", "555-0001");
+        merchant.setId(1L);
+        when(merchantService.getAllActiveMerchants()).thenReturn(List.of(merchant));
+        when(merchantService.getMerchantBalance(1L)).thenReturn(Money.zero("CNY"));
+        when(settlementRepository.save(any(Settlement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        PlatformClock previous = PlatformClock.install(PlatformClock.fixed(now, ZoneId.systemDefault()));
+
+        // Act
+        try {
+            settlementService.executeSettlement();
+        } finally {
+            PlatformClock.install(previous);
+        }
+
+        // Assert
+        ArgumentCaptor<Settlement> saved = ArgumentCaptor.forClass(Settlement.class);
+        verify(settlementRepository).save(saved.capture());
+        assertEquals(now.toLocalDate(), saved.getValue().getSettlementDate());
+        assertEquals(now, saved.getValue().getSettledUntil());
+    }
+
     @Test
     void executeMerchantSettlement_WithMatchedAmounts_ShouldCreateMatchedSettlement() {
         // Arrange
@@ -287,18 +346,131 @@ class SettlementServiceTest {
     }
 
     @Test
-    void getSettlementByMerchantAndDate_ShouldReturnEmptyForDemo() {
+    void getSettlementByMerchantAndDate_ShouldQueryRepository() {
         // Arrange
         Long merchantId = 1L;
         LocalDate settlementDate = LocalDate.now();
+        Settlement settlement = new Settlement(merchantId, settlementDate, Money.zero("CNY"), Money.zero("CNY"));
+        when(settlementRepository.findByMerchantIdAndSettlementDate(merchantId, settlementDate))
+            .thenReturn(Optional.of(settlement));
 
         // Act
         Optional<Settlement> result = settlementService.getSettlementByMerchantAndDate(merchantId, settlementDate);
 
+        // Assert
+        assertSame(settlement, result.orElseThrow());
+    }
+
+    @Test
+    void getSettlementByMerchantAndDate_WithoutSettlement_ShouldReturnEmpty() {
+        // Act
+        Optional<Settlement> result = settlementService.getSettlementByMerchantAndDate(1L, LocalDate.now());
+
         // Assert
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void executeMerchantSettlement_ShouldOnlyReadOrdersSincePreviousWatermark() {
+        // Arrange
+        Long merchantId = 7L;
+        LocalDate settlementDate = LocalDate.of(2024, 3, 2);
+        LocalDateTime watermark = LocalDateTime.of(2024, 3, 1, 0, 5);
+        Settlement yesterday = new Settlement(merchantId, settlementDate.minusDays(1),
+            Money.of("50.00", "CNY"), Money.of("200.00", "CNY"), watermark);
+        when(settlementRepository.findTopByMerchantIdOrderBySettlementDateDesc(merchantId))
+            .thenReturn(Optional.of(yesterday));
+        when(settlementRepository.findByMerchantIdAndSettlementDate(merchantId, settlementDate))
+            .thenReturn(Optional.empty());
+        when(merchantService.getMerchantBalance(merchantId)).thenReturn(Money.of("230.00", "CNY"));
+        givenCompletedOrderTotals(merchantId, watermark, List.of(Money.of("30.00", "CNY")));
+        when(settlementRepository.save(any(Settlement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Settlement result = settlementService.executeMerchantSettlement(merchantId, settlementDate);
+
+        // Assert
+        assertEquals(Money.of("30.00", "CNY"), result.getExpectedIncome());
+        assertTrue(result.getNotes().contains("Previous balance (2024-03-01): 200.00 CNY"));
+        assertTrue(result.getNotes().contains("Match: Yes"));
+        assertTrue(result.getSettledUntil().isAfter(watermark));
+    }
+
+    @Test
+    void executeMerchantSettlement_ShouldStartFromLatestSettlementAfterSkippedDays() {
+        // Arrange: last settled three days ago, nothing since
+        Long merchantId = 11L;
+        LocalDate settlementDate = LocalDate.of(2024, 3, 5);
+        LocalDateTime watermark = LocalDateTime.of(2024, 3, 2, 2, 0);
+        Settlement latest = new Settlement(merchantId, settlementDate.minusDays(3),
+            Money.of("10.00", "CNY"), Money.of("80.00", "CNY"), watermark);
+        when(settlementRepository.findTopByMerchantIdOrderBySettlementDateDesc(merchantId)).thenReturn(Optional.of(latest));
+        when(merchantService.getMerchantBalance(merchantId)).thenReturn(Money.of("125.00", "CNY"));
+        givenCompletedOrderTotals(merchantId, watermark, List.of(Money.of("20.00", "CNY"), Money.of("25.00", "CNY")));
+        when(settlementRepository.save(any(Settlement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Settlement result = settlementService.executeMerchantSettlement(merchantId, settlementDate);
+
+        // Assert: the skipped days are covered, not only the last one
+        assertEquals(Money.of("45.00", "CNY"), result.getExpectedIncome());
+        assertTrue(result.getNotes().contains("Match: Yes"));
+        verify(settlementRepository, never()).findByMerchantIdAndSettlementDate(merchantId, settlementDate.minusDays(1));
+    }
+
+    @Test
+    void executeMerchantSettlement_ForNewMerchant_ShouldStartAtItsCreation() {
+        // Arrange
+        Long merchantId = 12L;
+        Merchant merchant = new Merchant("Fresh Merchant", "BL012", "fresh@store.com", "555-0012");
+        merchant.setId(merchantId);
+        when(merchantService.getMerchantById(merchantId)).thenReturn(merchant);
+        when(merchantService.getMerchantBalance(merchantId)).thenReturn(Money.zero("CNY"));
+        when(settlementRepository.save(any(Settlement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        settlementService.executeMerchantSettlement(merchantId, LocalDate.now());
+
+        // Assert
+        verify(orderService).forEachOrderTotalCompletedByMerchant(eq(merchantId), eq(merchant.getCreatedAt()), any(), any());
+    }
+
+    @Test
+    void executeMerchantSettlement_ShouldRecordSettlementTimeAsWatermark() {
+        // Arrange
+        Long merchantId = 8L;
+        LocalDate settlementDate = LocalDate.now();
+        when(merchantService.getMerchantBalance(merchantId)).thenReturn(Money.zero("CNY"));
+        when(settlementRepository.save(any(Settlement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Settlement result = settlementService.executeMerchantSettlement(merchantId, settlementDate);
+
+        // Assert: the next settlement starts where this one read orders up to
+        ArgumentCaptor<LocalDateTime> endTime = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(orderService).forEachOrderTotalCompletedByMerchant(eq(merchantId), any(), endTime.capture(), any());
+        assertEquals(endTime.getValue(), result.getSettledUntil());
+    }
+
+    @Test
+    void executeMerchantSettlement_WhenAlreadySettledForDate_ShouldKeepExistingSettlement() {
+        // Arrange
+        Long merchantId = 9L;
+        LocalDate settlementDate = LocalDate.now();
+        Settlement existing = new Settlement(merchantId, settlementDate, Money.zero("CNY"), Money.zero("CNY"),
+            LocalDateTime.now());
+        when(settlementRepository.findByMerchantIdAndSettlementDate(merchantId, settlementDate))
+            .thenReturn(Optional.of(existing));
+
+        // Act
+        Settlement result = settlementService.executeMerchantSettlement(merchantId, settlementDate);
+
+        // Assert
+        assertSame(existing, result);
+        verifyNoInteractions(orderService, merchantService);
+        verify(settlementRepository, never()).save(any(Settlement.class));
+    }
+
     @Test
     void saveSettlement_WhenRepositoryThrowsException_ShouldPropagateException() {
         // Arrange
@@ -343,8 +515,7 @@ class SettlementServiceTest {
         merchant.receiveIncome(Money.of("100.00", "USD"));
         
         when(merchantService.getMerchantBalance(merchantId)).thenReturn(null); // Simulate null balance
-        when(orderService.getCompletedOrdersByMerchantAndDateRange(eq(merchantId), any(), any()))
-            .thenReturn(Collections.emptyList());
+        givenCompletedOrderTotals(merchantId, null, Collections.emptyList());
         when(settlementRepository.save(any(Settlement.class))).thenAnswer(invocation -> {
             Settlement settlement = invocation.getArgument(0);
             settlement.setId(1L);
@@ -419,6 +590,112 @@ class SettlementServiceTest {
         verify(settlementRepository).save(settlement);
     }
 
+    @Test
+    void executeMerchantSettlement_ShouldTakeOpeningBalanceFromLedger() {
+        // Arrange: income recorded before the settlement period starts
+        Long merchantId = 5L;
+        LocalDate settlementDate = LocalDate.now().plusDays(2);
+        balanceLedger.record(AccountType.MERCHANT, merchantId, List.of(
+            new BalanceMovement(MovementType.INCOME, Money.of("300.00", "CNY"), Money.of("300.00", "CNY"))));
+        
+        when(merchantService.getMerchantBalance(merchantId)).thenReturn(Money.of("300.00", "CNY"));
+        when(settlementRepository.save(any(Settlement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        Settlement result = settlementService.executeMerchantSettlement(merchantId, settlementDate);
+        
+        // Assert
+        assertEquals(Money.zero("CNY"), result.getExpectedIncome());
+        assertTrue(result.getNotes().contains("Opening balance: 300.00 CNY"));
+        assertTrue(result.getNotes().contains("Match: Yes"));
+    }
+
+    @Test
+    void executeMerchantSettlement_ShouldDeductLedgerWithdrawals() {
+        // Arrange: one completed order, part of it refunded in the same period
+        Long merchantId = 6L;
+        LocalDate settlementDate = LocalDate.now();
+        settlementService = withLedgerSince(settlementDate.minusDays(1).atStartOfDay());
+        balanceLedger.record(AccountType.MERCHANT, merchantId, List.of(
+            new BalanceMovement(MovementType.INCOME, Money.of("100.00", "CNY"), Money.of("100.00", "CNY")),
+            new BalanceMovement(MovementType.WITHDRAWAL, Money.of("40.00", "CNY"), Money.of("60.00", "CNY"))));
+        Order order = new Order("ORD-1", 1L, merchantId);
+        order.addOrderItem("SKU-1", "Product", Money.of("100.00", "CNY"), 1);
+        
+        when(merchantService.getMerchantBalance(merchantId)).thenReturn(Money.of("60.00", "CNY"));
+        givenCompletedOrderTotals(merchantId, null, List.of(order.getTotalAmount()));
+        when(settlementRepository.save(any(Settlement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        Settlement result = settlementService.executeMerchantSettlement(merchantId, settlementDate);
+        
+        // Assert
+        assertEquals(Money.of("100.00", "CNY"), result.getExpectedIncome());
+        assertTrue(result.getNotes().contains("Withdrawals: -40.00 CNY"));
+        assertTrue(result.getNotes().contains("Ledger income: 100.00 CNY"));
+        assertTrue(result.getNotes().contains("Match: Yes"));
+    }
+
+    @Test
+    void executeMerchantSettlement_WithoutLedgerHistoryForPeriod_ShouldNotVerifyBalance() {
+        // Arrange: the ledger only started after the period began, so it cannot know the opening balance
+        Long merchantId = 8L;
+        LocalDate settlementDate = LocalDate.now();
+        balanceLedger.record(AccountType.MERCHANT, merchantId, List.of(
+            new BalanceMovement(MovementType.INCOME, Money.of("100.00", "CNY"), Money.of("400.00", "CNY"))));
+        
+        when(merchantService.getMerchantBalance(merchantId)).thenReturn(Money.of("400.00", "CNY"));
+        givenCompletedOrderTotals(merchantId, null, List.of(Money.of("100.00", "CNY")));
+        when(settlementRepository.save(any(Settlement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        Settlement result = settlementService.executeMerchantSettlement(merchantId, settlementDate);
+        
+        // Assert
+        assertTrue(balanceLedger.balanceAt(AccountType.MERCHANT, merchantId, settlementDate.minusDays(1).atStartOfDay()).isEmpty());
+        assertTrue(result.getNotes().contains("No ledger history since"));
+        assertTrue(result.getNotes().contains("Match: Unverified"));
+        assertFalse(result.getNotes().contains("Opening balance"));
+    }
+
+    @Test
+    void executeMerchantSettlement_ForMerchantCreatedInPeriod_ShouldOpenAtZero() {
+        // Arrange: created after the period began, before the ledger could have seen it
+        Long merchantId = 10L;
+        LocalDate settlementDate = LocalDate.now();
+        Merchant merchant = new Merchant("New Merchant", "BL010", "new@store.com", "555-0010");
+        merchant.setId(merchantId);
+        
+        when(merchantService.getMerchantById(merchantId)).thenReturn(merchant);
+        when(merchantService.getMerchantBalance(merchantId)).thenReturn(Money.of("30.00", "CNY"));
+        givenCompletedOrderTotals(merchantId, null, List.of(Money.of("30.00", "CNY")));
+        when(settlementRepository.save(any(Settlement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        Settlement result = settlementService.executeMerchantSettlement(merchantId, settlementDate);
+        
+        // Assert
+        assertTrue(result.getNotes().contains("Opening balance: 0.00 CNY (merchant created in period)"));
+        assertTrue(result.getNotes().contains("Match: Yes"));
+    }
+
+    @Test
+    void executeMerchantSettlement_ForAccountUnseenByLedger_ShouldOpenAtCurrentBalance() {
+        // Arrange: no movements since the ledger started means the balance has not changed
+        Long merchantId = 9L;
+        LocalDate settlementDate = LocalDate.now().plusDays(2);
+        
+        when(merchantService.getMerchantBalance(merchantId)).thenReturn(Money.of("75.00", "CNY"));
+        when(settlementRepository.save(any(Settlement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        Settlement result = settlementService.executeMerchantSettlement(merchantId, settlementDate);
+        
+        // Assert
+        assertTrue(result.getNotes().contains("Opening balance: 75.00 CNY"));
+        assertTrue(result.getNotes().contains("Match: Yes"));
+    }
+
     @Test
     void calculateExpectedIncomeFromOrders_WithEmptyList_ShouldReturnZero() {
         // This tests the private method indirectly through executeMerchantSettlement
@@ -427,8 +704,7 @@ class SettlementServiceTest {
         LocalDate settlementDate = LocalDate.of(2023, 12, 25);
         
         when(merchantService.getMerchantBalance(merchantId)).thenReturn(Money.zero("CNY"));
-        when(orderService.getCompletedOrdersByMerchantAndDateRange(eq(merchantId), any(), any()))
-            .thenReturn(Collections.emptyList());
+        givenCompletedOrderTotals(merchantId, null, Collections.emptyList());
         when(settlementRepository.save(any(Settlement.class))).thenAnswer(invocation -> {
             Settlement settlement = invocation.getArgument(0);
             settlement.setId(1L);
@@ -465,8 +741,7 @@ class SettlementServiceTest {
         List<Order> completedOrders = Arrays.asList(order1, order2);
         
         when(merchantService.getMerchantBalance(merchantId)).thenReturn(Money.of("200.00", "CNY"));
-        when(orderService.getCompletedOrdersByMerchantAndDateRange(eq(merchantId), any(), any()))
-            .thenReturn(completedOrders);
+        givenCompletedOrderTotals(merchantId, null, completedOrders.stream().map(Order::getTotalAmount).toList());
         when(settlementRepository.save(any(Settlement.class))).thenAnswer(invocation -> {
             Settlement settlement = invocation.getArgument(0);
             settlement.setId(1L);
@@ -480,4 +755,28 @@ class SettlementServiceTest {
         // Expected income should be 50.00 + 150.00 = 200.00 CNY
         assertEquals(Money.of("200.00", "CNY"), result.getExpectedIncome());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void calculateExpectedIncomeFromOrders_WithNonDefaultCurrency_ShouldSumInOrderCurrency() {
+        // Arrange
+        Long merchantId = 1L;
+        LocalDate settlementDate = LocalDate.of(2023, 12, 25);
+        
+        Order order = new Order("ORD-USD", 1L, merchantId);
+        order.addOrderItem("SKU-001", "Product 1", Money.of("19.99", "USD"), 3);
+        order.confirm();
+        order.processPayment();
+        order.complete();
+        
+        when(merchantService.getMerchantBalance(merchantId)).thenReturn(Money.of("59.97", "USD"));
+        givenCompletedOrderTotals(merchantId, null, List.of(order.getTotalAmount()));
+        when(settlementRepository.save(any(Settlement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        Settlement result = settlementService.executeMerchantSettlement(merchantId, settlementDate);
+        
+        // Assert
+        assertEquals(Money.of("59.97", "USD"), result.getExpectedIncome());
+        assertTrue(result.isMatched());
+    }
+}
@@ -3,14 +3,25 @@ package com.ecommerce.application.service;
 import com.ecommerce.domain.user.User;
 import com.ecommerce.domain.user.DuplicateUserException;
 import com.ecommerce.domain.Money;
+import com.ecommerce.domain.ResourceInactiveException;
+import com.ecommerce.domain.user.UserStatus;
+import com.ecommerce.infrastructure.cache.StatusCache;
+import com.ecommerce.infrastructure.ledger.AccountType;
+import com.ecommerce.infrastructure.ledger.BalanceLedger;
 import com.ecommerce.infrastructure.repository.UserRepository;
+import com.ecommerce.infrastructure.repository.VersionConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -24,6 +35,12 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private BalanceLedger balanceLedger = new BalanceLedger();
+
+    @Spy
+    private StatusCache<UserStatus> statusCache = new StatusCache<>("test.user.status.cache", 100, new SimpleMeterRegistry());
+
     @InjectMocks
     private UserService userService;
 
@@ -100,6 +117,53 @@ class UserServiceTest {
         verify(userRepository).findById(userId);
     }
 
+    @Test
+    void requireActiveUser_ServesActiveStatusFromCache() {
+        // Given
+        Long userId = 1L;
+        testUser.setId(userId);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+
+        // When
+        userService.requireActiveUser(userId);
+        userService.requireActiveUser(userId);
+
+        // Then
+        verify(userRepository, times(1)).findById(userId);
+    }
+
+    @Test
+    void requireActiveUser_InactiveUser_ConfirmsWithRepository() {
+        // Given
+        Long userId = 1L;
+        testUser.setId(userId);
+        testUser.deactivate();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+
+        // When & Then
+        assertThrows(ResourceInactiveException.class, () -> userService.requireActiveUser(userId));
+        assertThrows(ResourceInactiveException.class, () -> userService.requireActiveUser(userId));
+        verify(userRepository, times(2)).findById(userId);
+    }
+
+    @Test
+    void saveUser_StatusChange_ReachesStatusCache() {
+        // Given
+        Long userId = 1L;
+        testUser.setId(userId);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        userService.requireActiveUser(userId);
+
+        // When
+        User loaded = userService.getUserById(userId);
+        loaded.deactivate();
+        userService.saveUser(loaded);
+
+        // Then
+        assertEquals(Optional.of(UserStatus.INACTIVE), statusCache.get(userId));
+        assertThrows(ResourceInactiveException.class, () -> userService.requireActiveUser(userId));
+    }
+
     @Test
     void getUserById_UserNotFound() {
         // Given
@@ -128,6 +192,57 @@ class UserServiceTest {
         verify(userRepository).save(testUser);
     }
 
+    @Test
+    void rechargeUser_RecordsMovementInLedger() {
+        // Given
+        Long userId = 1L;
+        testUser.setId(userId);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+
+        // When
+        userService.rechargeUser(userId, testAmount);
+        userService.rechargeUser(userId, testAmount);
+
+        // Then
+        assertEquals(Money.of("200.00", "CNY"), balanceLedger.balance(AccountType.USER, userId).orElseThrow());
+        assertTrue(testUser.drainBalanceMovements().isEmpty());
+    }
+
+    @Test
+    void rechargeUser_FailedSave_RecordsNothing() {
+        // Given
+        Long userId = 1L;
+        testUser.setId(userId);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(testUser)).thenThrow(new VersionConflictException(User.class, userId, 1L, 2L));
+
+        // When & Then
+        assertThrows(VersionConflictException.class, () -> userService.rechargeUser(userId, testAmount));
+        assertTrue(balanceLedger.balance(AccountType.USER, userId).isEmpty());
+    }
+
+    @Test
+    void rechargeUser_InTransaction_RecordsOnlyOnceCommitted() {
+        // Given
+        Long userId = 1L;
+        testUser.setId(userId);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            userService.rechargeUser(userId, testAmount);
+
+            // Then: a transaction that could still roll back is not in the ledger
+            assertTrue(balanceLedger.balance(AccountType.USER, userId).isEmpty());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            assertEquals(Money.of("100.00", "CNY"), balanceLedger.balance(AccountType.USER, userId).orElseThrow());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     void rechargeUser_UserNotFound() {
         // Given
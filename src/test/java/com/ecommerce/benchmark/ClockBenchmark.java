@@ -0,0 +1,66 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.domain.PlatformClock;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clock Benchmark
+ * Cost of reading the current time per entity or response: LocalDateTime.now() against
+ * the precise and coarse platform clocks, single-threaded and from 8 threads.
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Djmh.args="ClockBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClockBenchmark {
+
+    PlatformClock precise;
+    PlatformClock coarse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        precise = PlatformClock.precise(ZoneId.systemDefault());
+        coarse = PlatformClock.coarse(ZoneId.systemDefault(), Duration.ofMillis(10));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        coarse.close();
+    }
+
+    @Benchmark
+    public LocalDateTime localDateTimeNow() {
+        return LocalDateTime.now();
+    }
+
+    @Benchmark
+    public LocalDateTime precise() {
+        return precise.dateTime();
+    }
+
+    @Benchmark
+    public LocalDateTime coarse() {
+        return coarse.dateTime();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public LocalDateTime localDateTimeNowContended() {
+        return LocalDateTime.now();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public LocalDateTime coarseContended() {
+        return coarse.dateTime();
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.product.AtomicInventoryCounter;
+import com.ecommerce.domain.product.InsufficientInventoryException;
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.product.ShardedInventoryCounter;
+import com.ecommerce.infrastructure.concurrency.PurchaseLockManager;
+import com.ecommerce.infrastructure.concurrency.StripedLocks;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot SKU Inventory Benchmark
+ * Every thread buys the same SKU. Compares the stock step of a purchase when it runs
+ * under the SKU lock, on a single atomic counter and on a sharded flash-sale counter.
+ *
+ * Run a single thread count:
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="HotSkuInventoryBenchmark -t 4"
+ * Run the scaling sweep (1, 2, 4 ... up to twice the core count) via main():
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.main=com.ecommerce.benchmark.HotSkuInventoryBenchmark -Djmh.args=
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotSkuInventoryBenchmark {
+
+    private static final String SKU = "PHONE-001";
+    private static final int STOCK = 1_000_000_000;
+    private static final int RESTOCK = 100_000_000;
+
+    @Param({"LOCKED", "ATOMIC", "SHARDED"})
+    public String inventoryMode;
+
+    @Param({"16"})
+    public int shards;
+
+    Product product;
+    PurchaseLockManager lockManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        product = new Product(SKU, "iPhone 16 Pro", "Flash sale item", Money.of("1.00", "CNY"), 1L, STOCK);
+        lockManager = PurchaseLockManager.striped();
+        switch (inventoryMode) {
+            case "ATOMIC" -> product.attachInventoryCounter(new AtomicInventoryCounter(SKU, STOCK));
+            case "SHARDED" -> product.attachInventoryCounter(new ShardedInventoryCounter(SKU, STOCK, shards));
+            default -> { }
+        }
+    }
+
+    @Benchmark
+    public boolean reserveOne() {
+        if (!product.hasLiveInventory()) {
+            try (StripedLocks.LockHandle ignored = lockManager.lockPurchase(1L, SKU, 1L)) {
+                return reserveOrRestock();
+            }
+        }
+        return reserveOrRestock();
+    }
+
+    private boolean reserveOrRestock() {
+        try {
+            product.reduceInventory(1);
+            return true;
+        } catch (InsufficientInventoryException e) {
+            product.addInventory(RESTOCK);
+            return false;
+        }
+    }
+
+    /**
+     * Scaling sweep: same benchmark at doubling thread counts
+     */
+    public static void main(String[] args) throws RunnerException {
+        int maxThreads = Runtime.getRuntime().availableProcessors() * 2;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            Options options = new OptionsBuilder()
+                .include(HotSkuInventoryBenchmark.class.getSimpleName())
+                .threads(threads)
+                .build();
+            new Runner(options).run();
+        }
+    }
+}
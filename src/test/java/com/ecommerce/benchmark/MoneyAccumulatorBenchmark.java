@@ -0,0 +1,54 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.domain.Currency;
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.MoneyAccumulator;
+import com.ecommerce.domain.order.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Money Accumulator Benchmark
+ * Settlement-style sum over a merchant's completed orders: the previous stream reduce with
+ * Money::add, which creates a Money per order, against MoneyAccumulator.sum.
+ * 
+ * Run: mvn -Pbenchmark test-compile exec:exec -Djmh.args="MoneyAccumulatorBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyAccumulatorBenchmark {
+    
+    @Param({"1000", "100000"})
+    int orderCount;
+    
+    List<Order> orders;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            Order order = new Order("ORD-" + i, (long) i, 1L);
+            order.addOrderItem("SKU-" + (i % 50), "Product", Money.ofMinorUnits(100 + i % 9_900, "CNY"), 1 + i % 3);
+            orders.add(order);
+        }
+    }
+    
+    @Benchmark
+    public Money streamReduce() {
+        return orders.stream()
+                .map(Order::getTotalAmount)
+                .reduce(Money.zero("CNY"), Money::add);
+    }
+    
+    @Benchmark
+    public Money accumulator() {
+        return MoneyAccumulator.sum(orders, Order::getTotalAmount, Currency.CNY);
+    }
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.domain.Currency;
+import com.ecommerce.domain.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Money Benchmark
+ * Long minor-unit Money against the previous BigDecimal-backed arithmetic (reproduced
+ * here as setScale + currency string compare per operation) for add, multiply and compare,
+ * plus currency lookup, which should not allocate for a supported code.
+ * 
+ * Run: mvn -Pbenchmark test-compile exec:exec -Djmh.args="MoneyBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyBenchmark {
+    
+    Money price;
+    Money balance;
+    int quantity;
+    
+    BigDecimal legacyPrice;
+    BigDecimal legacyBalance;
+    String legacyCurrency;
+    String otherLegacyCurrency;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        price = Money.of("7999.00", "CNY");
+        balance = Money.of("123456.78", "CNY");
+        quantity = 3;
+        legacyPrice = new BigDecimal("7999.00");
+        legacyBalance = new BigDecimal("123456.78");
+        legacyCurrency = "CNY";
+        // Distinct instance, as a currency read from a request would be
+        otherLegacyCurrency = new String("CNY");
+    }
+    
+    @Benchmark
+    public Money add() {
+        return balance.add(price);
+    }
+    
+    @Benchmark
+    public Money multiply() {
+        return price.multiply(quantity);
+    }
+    
+    @Benchmark
+    public boolean compare() {
+        return balance.isGreaterThanOrEqual(price);
+    }
+    
+    @Benchmark
+    public Currency parseCurrency() {
+        return Currency.of(otherLegacyCurrency);
+    }
+    
+    @Benchmark
+    public BigDecimal legacyAdd() {
+        checkLegacyCurrency();
+        return legacyBalance.add(legacyPrice).setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    @Benchmark
+    public BigDecimal legacyMultiply() {
+        return legacyPrice.multiply(BigDecimal.valueOf(quantity)).setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    @Benchmark
+    public boolean legacyCompare() {
+        checkLegacyCurrency();
+        return legacyBalance.compareTo(legacyPrice) >= 0;
+    }
+    
+    private void checkLegacyCurrency() {
+        if (!legacyCurrency.equals(otherLegacyCurrency)) {
+            throw new IllegalArgumentException("Currency mismatch");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.infrastructure.id.SnowflakeOrderNumberGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Order Number Benchmark
+ * Snowflake generator against the previous date + AtomicLong + String.format scheme
+ * (reproduced here without its 9999-per-day limit so it can run for the whole measurement).
+ * 
+ * Run: mvn -Pbenchmark test-compile exec:exec -Djmh.args="OrderNumberBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class OrderNumberBenchmark {
+    
+    private static final DateTimeFormatter ORDER_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    
+    SnowflakeOrderNumberGenerator snowflake;
+    final AtomicLong legacySequence = new AtomicLong(1);
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        snowflake = new SnowflakeOrderNumberGenerator(1);
+    }
+    
+    @Benchmark
+    public String snowflake() {
+        return snowflake.nextOrderNumber();
+    }
+    
+    @Benchmark
+    public long snowflakeIdOnly() {
+        return snowflake.nextId();
+    }
+    
+    @Benchmark
+    public String legacyDateSequence() {
+        String currentDate = LocalDateTime.now().format(ORDER_DATE_FORMAT);
+        return String.format("ORD%s%04d", currentDate, legacySequence.getAndIncrement());
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.merchant.Merchant;
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.infrastructure.concurrency.PurchaseLockManager;
+import com.ecommerce.infrastructure.concurrency.PurchaseLockMode;
+import com.ecommerce.infrastructure.concurrency.StripedLocks;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Purchase Lock Benchmark
+ * Compares purchase throughput under a single global lock against striped (userId, sku, merchantId) locks.
+ * Every thread buys from its own user, SKU and merchant, so striped locking should scale with threads
+ * while the global lock serializes everything.
+ * 
+ * Run: mvn -Pbenchmark test-compile exec:exec -Djmh.args=PurchaseLockBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class PurchaseLockBenchmark {
+    
+    private static final int PARTIES = 64;
+    
+    @Param({"GLOBAL", "STRIPED"})
+    public PurchaseLockMode lockMode;
+    
+    PurchaseLockManager lockManager;
+    User[] users;
+    Product[] products;
+    Merchant[] merchants;
+    final AtomicInteger nextSlot = new AtomicInteger();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        lockManager = new PurchaseLockManager(lockMode, PurchaseLockManager.DEFAULT_STRIPES);
+        users = new User[PARTIES];
+        products = new Product[PARTIES];
+        merchants = new Merchant[PARTIES];
+        for (int i = 0; i < PARTIES; i++) {
+            long id = i + 1;
+            merchants[i] = new Merchant("Merchant " + id, "LICENSE-" + id, "m" + id + "@bench.com", "400-000-" + id);
+            merchants[i].setId(id);
+            products[i] = new Product("SKU-" + id, "Product " + id, "Benchmark product",
+                                      Money.of("1.00", "CNY"), id, 1_000_000_000);
+            products[i].setId(id);
+            users[i] = new User("user" + id, "u" + id + "@bench.com", "138" + id, "CNY");
+            users[i].setId(id);
+            users[i].recharge(Money.of("1000000000000.00", "CNY"));
+        }
+    }
+    
+    @State(Scope.Thread)
+    public static class Slot {
+        int index;
+        Money price;
+        
+        @Setup(Level.Trial)
+        public void setUp(PurchaseLockBenchmark benchmark) {
+            index = benchmark.nextSlot.getAndIncrement() % PARTIES;
+            price = Money.of("1.00", "CNY");
+        }
+    }
+    
+    @Benchmark
+    public Money purchase(Slot slot) {
+        User user = users[slot.index];
+        Product product = products[slot.index];
+        Merchant merchant = merchants[slot.index];
+        try (StripedLocks.LockHandle ignored =
+                 lockManager.lockPurchase(user.getId(), product.getSku(), merchant.getId())) {
+            // Same critical section as EcommerceService: check, reduce inventory, move money
+            if (!product.hasEnoughInventory(1) || !user.canAfford(slot.price)) {
+                throw new IllegalStateException("Benchmark fixture exhausted");
+            }
+            product.reduceInventory(1);
+            user.deduct(slot.price);
+            merchant.receiveIncome(slot.price);
+            return merchant.getBalance();
+        }
+    }
+}
@@ -234,4 +234,35 @@ class BaseEntityTest {
         assertTrue(time1.isBefore(time2));
         assertTrue(time2.isBefore(time3));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testNewEntityHasNoPersistedVersion() {
+        assertNull(entity.getPersistedVersion());
+        
+        entity.markAsUpdated();
+        entity.markPersisted();
+        
+        assertEquals(1L, entity.getPersistedVersion());
+        entity.markAsUpdated();
+        assertEquals(1L, entity.getPersistedVersion());
+    }
+
+    @Test
+    void testCopyIsDetachedButEqual() {
+        entity.setId(7L);
+        entity.markAsUpdated();
+        entity.markPersisted();
+        
+        BaseEntity copy = entity.copy();
+        
+        assertNotSame(entity, copy);
+        assertEquals(entity, copy);
+        assertEquals(TestEntity.class, copy.getClass());
+        assertEquals(1L, copy.getVersion());
+        assertEquals(1L, copy.getPersistedVersion());
+        
+        copy.markAsUpdated();
+        assertEquals(2L, copy.getVersion());
+        assertEquals(1L, entity.getVersion());
+    }
+}
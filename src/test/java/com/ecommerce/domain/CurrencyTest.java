@@ -0,0 +1,50 @@
+package com.ecommerce.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyTest {
+
+    @Test
+    void shouldReturnInternedInstancePerCode() {
+        assertSame(Currency.USD, Currency.of("USD"));
+        assertSame(Currency.USD, Currency.of("usd"));
+        assertSame(Currency.USD, Currency.of(" Usd "));
+        assertSame(Currency.USD, Currency.of(new String("USD")));
+    }
+
+    @Test
+    void shouldUseIsoMinorUnitScales() {
+        assertEquals(2, Currency.CNY.getScale());
+        assertEquals(2, Currency.USD.getScale());
+        assertEquals(0, Currency.JPY.getScale());
+    }
+
+    @Test
+    void shouldCacheZeroAmounts() {
+        assertSame(Currency.EUR.zero(), Currency.EUR.zero());
+        assertSame(Currency.EUR.zero(), Money.zero("eur"));
+        assertEquals(new BigDecimal("0.00"), Currency.EUR.zero().getAmount());
+        assertEquals(new BigDecimal("0"), Currency.JPY.zero().getAmount());
+    }
+
+    @Test
+    void shouldRejectBlankAndUnsupportedCodes() {
+        assertThrows(IllegalArgumentException.class, () -> Currency.of(null));
+        assertThrows(IllegalArgumentException.class, () -> Currency.of("  "));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> Currency.of("XYZ"));
+        assertTrue(e.getMessage().contains("Unsupported currency: XYZ"));
+    }
+
+    @Test
+    void shouldListSupportedCurrencies() {
+        assertEquals(9, Currency.values().size());
+        assertEquals(Set.of("CNY", "USD", "EUR", "GBP", "JPY", "HKD", "SGD", "AUD", "CAD"), Currency.codes());
+        assertEquals(Currency.codes(), Money.getSupportedCurrencies());
+        assertEquals("JPY", Currency.JPY.toString());
+    }
+}
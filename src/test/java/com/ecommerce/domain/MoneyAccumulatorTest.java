@@ -0,0 +1,81 @@
+package com.ecommerce.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyAccumulatorTest {
+
+    @Test
+    void shouldSumAmountsOfOneCurrency() {
+        MoneyAccumulator accumulator = new MoneyAccumulator()
+            .add(Money.of("10.50", "USD"))
+            .add(Money.of("0.25", "USD"))
+            .add(Money.of("-1.00", "USD"));
+
+        assertEquals(Money.of("9.75", "USD"), accumulator.total(Currency.CNY));
+        assertEquals(3, accumulator.count());
+        assertEquals(Set.of(Currency.USD), accumulator.currencies());
+    }
+
+    @Test
+    void shouldReturnZeroOfGivenCurrencyWhenEmpty() {
+        MoneyAccumulator accumulator = new MoneyAccumulator();
+
+        assertEquals(Money.zero("CNY"), accumulator.total(Currency.CNY));
+        assertEquals(Money.zero("JPY"), accumulator.totalIn(Currency.JPY));
+        assertTrue(accumulator.currencies().isEmpty());
+    }
+
+    @Test
+    void shouldKeepSeparateTotalsPerCurrency() {
+        MoneyAccumulator accumulator = new MoneyAccumulator()
+            .add(Money.of("1.00", "USD"))
+            .add(Money.of("500", "JPY"))
+            .add(Money.of("2.00", "USD"));
+
+        assertEquals(Money.of("3.00", "USD"), accumulator.totalIn(Currency.USD));
+        assertEquals(Money.of("500", "JPY"), accumulator.totalIn(Currency.JPY));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> accumulator.total(Currency.CNY));
+        assertTrue(e.getMessage().contains("Currency mismatch"));
+    }
+
+    @Test
+    void shouldCarryOverflowIntoBigDecimal() {
+        Money max = Money.ofMinorUnits(Long.MAX_VALUE, "CNY");
+        MoneyAccumulator accumulator = new MoneyAccumulator()
+            .add(max)
+            .add(max)
+            .add(Money.ofMinorUnits(2, "CNY"));
+
+        assertEquals(max.add(max).add(Money.ofMinorUnits(2, "CNY")), accumulator.total(Currency.CNY));
+        assertEquals(new BigDecimal("184467440737095516.16"), accumulator.total(Currency.CNY).getAmount());
+    }
+
+    @Test
+    void shouldAddAmountsBeyondLongRange() {
+        Money huge = Money.of("100000000000000000000.00", "CNY");
+
+        Money total = new MoneyAccumulator().add(huge).add(Money.of("0.01", "CNY")).total(Currency.CNY);
+
+        assertEquals(Money.of("100000000000000000000.01", "CNY"), total);
+    }
+
+    @Test
+    void shouldSumOneAmountPerItem() {
+        List<String> amounts = List.of("1.10", "2.20", "3.30");
+
+        assertEquals(Money.of("6.60", "EUR"),
+            MoneyAccumulator.sum(amounts, amount -> Money.of(amount, "EUR"), Currency.CNY));
+        assertEquals(Money.zero("GBP"), MoneyAccumulator.sum(List.<Money>of(), money -> money, Currency.GBP));
+    }
+
+    @Test
+    void shouldRejectNullAmount() {
+        assertThrows(IllegalArgumentException.class, () -> new MoneyAccumulator().add(null));
+    }
+}
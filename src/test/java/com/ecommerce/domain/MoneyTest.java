@@ -334,4 +334,82 @@ class MoneyTest {
         assertTrue(negativeMoney.isNegative());
         assertFalse(negativeMoney.isPositive());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldConvertToAndFromMinorUnits() {
+        assertEquals(12345, Money.of("123.45", "CNY").toMinorUnits());
+        assertEquals(-50, Money.of("-0.50", "CNY").toMinorUnits());
+        assertEquals(Money.of("123.45", "CNY"), Money.ofMinorUnits(12345, "CNY"));
+        assertEquals(Money.of("-0.05", "USD"), Money.ofMinorUnits(-5, "usd"));
+    }
+
+    @Test
+    void shouldFallBackToBigDecimalWhenLongArithmeticOverflows() {
+        Money max = Money.ofMinorUnits(Long.MAX_VALUE, "USD");
+        Money cent = Money.ofMinorUnits(1, "USD");
+
+        Money sum = max.add(cent);
+        assertEquals(new BigDecimal("92233720368547758.08"), sum.getAmount());
+        assertTrue(sum.isGreaterThan(max));
+        assertThrows(ArithmeticException.class, sum::toMinorUnits);
+
+        // Coming back into range returns to the compact form
+        assertEquals(max, sum.subtract(cent));
+        assertEquals(max.hashCode(), sum.subtract(cent).hashCode());
+
+        Money doubled = max.multiply(2);
+        assertEquals(new BigDecimal("184467440737095516.14"), doubled.getAmount());
+        assertEquals(Money.ofMinorUnits(Long.MIN_VALUE, "USD").subtract(cent).getAmount(),
+            new BigDecimal("-92233720368547758.09"));
+    }
+
+    @Test
+    void shouldCompareAndEqualAcrossRepresentations() {
+        Money huge = Money.of("100000000000000000000.00", "USD");
+        Money small = Money.of("1.00", "USD");
+
+        assertTrue(huge.isGreaterThan(small));
+        assertTrue(small.isLessThan(huge));
+        assertEquals(huge, Money.of(new BigDecimal("1E+20"), "USD"));
+        assertEquals(Money.of(new BigDecimal("1E+2"), "USD"), Money.ofMinorUnits(10000, "USD"));
+        assertNotEquals(huge, Money.of("100000000000000000000.00", "EUR"));
+    }
+
+    @Test
+    void shouldKeepHalfUpRoundingForDecimalFactors() {
+        Money money = Money.of("10.01", "USD");
+
+        assertEquals(new BigDecimal("5.01"), money.multiply(new BigDecimal("0.5")).getAmount());
+        assertEquals(new BigDecimal("0.51"), Money.of("10.10", "USD").multiply(new BigDecimal("0.05")).getAmount());
+        assertEquals(Money.of("-0.01", "USD"), Money.of("-0.005", "USD"));
+    }
+
+    @Test
+    void shouldInternCurrencyCodes() {
+        assertSame(Money.of("1.00", "USD").getCurrency(), Money.of("2.00", " usd ").getCurrency());
+        assertEquals(Money.of("1.00", "USD"), Money.of("1.00", new String("usd")));
+        assertEquals(Money.zero("USD"), Money.ofMinorUnits(0, "USD"));
+    }
+
+    @Test
+    void shouldRoundToCurrencyMinorUnit() {
+        Money yen = Money.of("1000.50", "JPY");
+
+        assertEquals(new BigDecimal("1001"), yen.getAmount());
+        assertEquals(1001, yen.toMinorUnits());
+        assertEquals(yen, Money.ofMinorUnits(1001, Currency.JPY));
+        assertEquals("1001 JPY", yen.toString());
+        assertEquals(Money.of("3003", "JPY"), yen.multiply(3));
+    }
+
+    @Test
+    void shouldExposeCurrencyUnit() {
+        Money money = Money.of(new BigDecimal("12.345"), Currency.GBP);
+
+        assertSame(Currency.GBP, money.getCurrencyUnit());
+        assertEquals("GBP", money.getCurrency());
+        assertEquals(new BigDecimal("12.35"), money.getAmount());
+        assertThrows(IllegalArgumentException.class, () -> Money.of(BigDecimal.ONE, (Currency) null));
+        assertThrows(IllegalArgumentException.class, () -> Money.zero((Currency) null));
+    }
+}
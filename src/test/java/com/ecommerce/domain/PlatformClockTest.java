@@ -0,0 +1,109 @@
+package com.ecommerce.domain;
+
+import com.ecommerce.domain.order.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlatformClockTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    private PlatformClock previous;
+
+    @AfterEach
+    void restoreClock() {
+        if (previous != null) {
+            PlatformClock.install(previous);
+        }
+    }
+
+    @Test
+    void shouldStampEntitiesWithInstalledClock() {
+        PlatformClock.FixedClock clock = PlatformClock.fixed(START, ZoneOffset.UTC);
+        previous = PlatformClock.install(clock);
+
+        Order order = new Order("ORD1", 1L, 2L);
+        assertEquals(START, order.getOrderTime());
+        assertEquals(START, order.getCreatedAt());
+        assertEquals(START, order.getUpdatedAt());
+
+        clock.advance(Duration.ofMinutes(5));
+        assertEquals(START.plusMinutes(5), PlatformClock.now());
+    }
+
+    @Test
+    void shouldKeepFixedClockConsistentWithInstant() {
+        PlatformClock.FixedClock clock = PlatformClock.fixed(START, ZoneId.of("Asia/Shanghai"));
+
+        assertEquals(START, LocalDateTime.ofInstant(clock.instant(), clock.getZone()));
+        assertEquals(START.minusHours(8), LocalDateTime.ofInstant(clock.instant(), ZoneOffset.UTC));
+        assertThrows(IllegalArgumentException.class, () -> clock.advance(Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    void shouldKeepFixedClockStillInAnotherZone() {
+        PlatformClock.FixedClock clock = PlatformClock.fixed(START, ZoneId.of("Asia/Shanghai"));
+
+        Clock utc = clock.withZone(ZoneOffset.UTC);
+        assertEquals(ZoneOffset.UTC, utc.getZone());
+        assertEquals(START.minusHours(8), LocalDateTime.now(utc));
+        clock.advance(Duration.ofMinutes(5));
+        assertEquals(START.minusHours(8).plusMinutes(5), LocalDateTime.now(utc));
+        assertSame(clock, clock.withZone(ZoneId.of("Asia/Shanghai")));
+        assertSame(clock, utc.withZone(ZoneId.of("Asia/Shanghai")));
+    }
+
+    @Test
+    void shouldReadSystemTimeWithPreciseClock() {
+        PlatformClock clock = PlatformClock.precise(ZoneId.systemDefault());
+
+        LocalDateTime before = LocalDateTime.now();
+        LocalDateTime read = clock.dateTime();
+        LocalDateTime after = LocalDateTime.now();
+
+        assertFalse(read.isBefore(before));
+        assertFalse(read.isAfter(after));
+    }
+
+    @Test
+    void shouldAdvanceCoarseClockEveryTick() throws InterruptedException {
+        try (PlatformClock clock = PlatformClock.coarse(ZoneId.systemDefault(), Duration.ofMillis(5))) {
+            LocalDateTime first = clock.dateTime();
+            assertFalse(first.isAfter(LocalDateTime.now()));
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (!clock.dateTime().isAfter(first) && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(clock.dateTime().isAfter(first));
+            assertEquals(clock.dateTime().atZone(clock.getZone()).toInstant().toEpochMilli() / 1000,
+                         clock.instant().toEpochMilli() / 1000, 1);
+        }
+    }
+
+    @Test
+    void shouldFallBackToPreciseClockWhenInstalledCoarseClockIsClosed() {
+        PlatformClock coarse = PlatformClock.coarse(ZoneId.systemDefault(), Duration.ofSeconds(60));
+        previous = PlatformClock.install(coarse);
+
+        coarse.close();
+
+        assertNotSame(coarse, PlatformClock.installed());
+        LocalDateTime before = LocalDateTime.now();
+        assertFalse(PlatformClock.now().isBefore(before));
+    }
+
+    @Test
+    void shouldRejectInvalidTick() {
+        assertThrows(IllegalArgumentException.class, () -> PlatformClock.coarse(ZoneId.systemDefault(), Duration.ZERO));
+        assertThrows(NullPointerException.class, () -> PlatformClock.install(null));
+    }
+}
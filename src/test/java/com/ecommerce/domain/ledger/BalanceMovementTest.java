@@ -0,0 +1,30 @@
+package com.ecommerce.domain.ledger;
+
+import com.ecommerce.domain.Money;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceMovementTest {
+
+    @Test
+    void shouldSignAmountByMovementType() {
+        Money amount = Money.of("12.34", "CNY");
+
+        assertEquals(1234, new BalanceMovement(MovementType.RECHARGE, amount, amount).signedMinorUnits());
+        assertEquals(1234, new BalanceMovement(MovementType.INCOME, amount, amount).signedMinorUnits());
+        assertEquals(-1234, new BalanceMovement(MovementType.DEDUCTION, amount, Money.zero("CNY")).signedMinorUnits());
+        assertEquals(-1234, new BalanceMovement(MovementType.WITHDRAWAL, amount, Money.zero("CNY")).signedMinorUnits());
+    }
+
+    @Test
+    void shouldRejectIncompleteOrNegativeMovements() {
+        Money amount = Money.of("1.00", "CNY");
+
+        assertThrows(IllegalArgumentException.class, () -> new BalanceMovement(null, amount, amount));
+        assertThrows(IllegalArgumentException.class, () -> new BalanceMovement(MovementType.RECHARGE, null, amount));
+        assertThrows(IllegalArgumentException.class, () -> new BalanceMovement(MovementType.RECHARGE, amount, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> new BalanceMovement(MovementType.RECHARGE, Money.of("-1.00", "CNY"), amount));
+    }
+}
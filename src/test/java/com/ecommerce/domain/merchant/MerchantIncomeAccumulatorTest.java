@@ -0,0 +1,92 @@
+package com.ecommerce.domain.merchant;
+
+import com.ecommerce.domain.Money;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MerchantIncomeAccumulatorTest {
+
+    private static MerchantAccount account(String balance, String totalIncome) {
+        return new MerchantAccount(Money.of(balance, "CNY"), Money.of(totalIncome, "CNY"));
+    }
+
+    @Test
+    void shouldStartFromPersistedAccount() {
+        MerchantIncomeAccumulator accumulator = new MerchantIncomeAccumulator(1L, account("80.00", "100.00"));
+
+        assertEquals(account("80.00", "100.00"), accumulator.snapshot());
+        assertEquals("CNY", accumulator.getCurrency());
+        assertFalse(accumulator.isDirty());
+    }
+
+    @Test
+    void shouldFoldCreditsAndDebitsOnRead() {
+        MerchantIncomeAccumulator accumulator = new MerchantIncomeAccumulator(1L, account("80.00", "100.00"));
+
+        accumulator.credit(Money.of("25.50", "CNY"));
+        accumulator.debit(Money.of("10.00", "CNY"));
+
+        assertEquals(Money.of("95.50", "CNY"), accumulator.balance());
+        assertEquals(Money.of("125.50", "CNY"), accumulator.totalIncome());
+    }
+
+    @Test
+    void shouldRejectInvalidAmounts() {
+        MerchantIncomeAccumulator accumulator = new MerchantIncomeAccumulator(1L, account("0.00", "0.00"));
+
+        assertThrows(IllegalArgumentException.class, () -> accumulator.credit(Money.zero("CNY")));
+        assertThrows(IllegalArgumentException.class, () -> accumulator.debit(null));
+        assertThrows(IllegalArgumentException.class, () -> accumulator.credit(Money.of("1.00", "USD")));
+        assertThrows(IllegalArgumentException.class, () -> new MerchantIncomeAccumulator(null, account("0.00", "0.00")));
+        assertFalse(accumulator.isDirty());
+    }
+
+    @Test
+    void shouldNotifyOnlyOnCleanToDirtyTransition() {
+        List<MerchantIncomeAccumulator> notified = new ArrayList<>();
+        MerchantIncomeAccumulator accumulator = new MerchantIncomeAccumulator(1L, account("0.00", "0.00"), notified::add);
+
+        accumulator.credit(Money.of("1.00", "CNY"));
+        accumulator.credit(Money.of("1.00", "CNY"));
+        assertEquals(1, notified.size());
+
+        assertTrue(accumulator.clearDirty());
+        assertFalse(accumulator.clearDirty());
+        accumulator.debit(Money.of("1.00", "CNY"));
+
+        assertEquals(2, notified.size());
+        assertTrue(accumulator.isDirty());
+    }
+
+    @Test
+    void shouldNotLoseCreditsUnderContention() throws InterruptedException {
+        MerchantIncomeAccumulator accumulator = new MerchantIncomeAccumulator(1L, account("0.00", "0.00"));
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    accumulator.credit(Money.of("0.01", "CNY"));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(Money.of("80.00", "CNY"), accumulator.balance());
+        assertEquals(Money.of("80.00", "CNY"), accumulator.totalIncome());
+    }
+}
@@ -1,8 +1,11 @@
 package com.ecommerce.domain.merchant;
 
 import com.ecommerce.domain.Money;
+import com.ecommerce.domain.ledger.BalanceMovement;
+import com.ecommerce.domain.ledger.MovementType;
 import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 class MerchantTest {
@@ -450,4 +453,92 @@ class MerchantTest {
         assertEquals(MerchantStatus.ACTIVE, merchant.getStatus());
         assertTrue(merchant.isActive());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldRecordIncomeAndWithdrawalMovements() {
+        Merchant merchant = new Merchant("Test Store", "BL123456", "test@store.com", "555-1234");
+        merchant.receiveIncome(Money.of("100.00", "CNY"));
+        merchant.withdrawIncome(Money.of("40.00", "CNY"));
+
+        List<BalanceMovement> movements = merchant.drainBalanceMovements();
+
+        assertEquals(2, movements.size());
+        assertEquals(MovementType.INCOME, movements.get(0).type());
+        assertEquals(Money.of("100.00", "CNY"), movements.get(0).balanceAfter());
+        assertEquals(MovementType.WITHDRAWAL, movements.get(1).type());
+        assertEquals(Money.of("60.00", "CNY"), movements.get(1).balanceAfter());
+        assertTrue(merchant.drainBalanceMovements().isEmpty());
+    }
+
+    @Test
+    void shouldStartCopiesWithoutPendingMovements() {
+        Merchant merchant = new Merchant("Test Store", "BL123456", "test@store.com", "555-1234");
+        merchant.receiveIncome(Money.of("100.00", "CNY"));
+
+        Merchant copy = merchant.copy();
+
+        assertTrue(copy.drainBalanceMovements().isEmpty());
+        assertEquals(Money.of("100.00", "CNY"), copy.getBalance());
+        assertEquals(1, merchant.drainBalanceMovements().size());
+    }
+
+    @Test
+    void shouldRouteIncomeThroughAttachedAccumulator() {
+        Merchant merchant = new Merchant("Test Store", "BL123456", "test@store.com", "555-1234");
+        merchant.setId(1L);
+        MerchantIncomeAccumulator accumulator = new MerchantIncomeAccumulator(1L, merchant.getAccount());
+        merchant.attachIncomeAccumulator(accumulator);
+
+        merchant.receiveIncome(Money.of("100.00", "CNY"));
+        merchant.withdrawIncome(Money.of("30.00", "CNY"));
+
+        assertTrue(merchant.hasLiveIncome());
+        assertEquals(Money.of("70.00", "CNY"), merchant.getBalance());
+        assertEquals(Money.of("100.00", "CNY"), merchant.getTotalIncome());
+        assertTrue(merchant.canWithdraw(Money.of("70.00", "CNY")));
+        assertFalse(merchant.canWithdraw(Money.of("70.01", "CNY")));
+        assertThrows(InsufficientFundsException.class, () -> merchant.withdrawIncome(Money.of("80.00", "CNY")));
+        // Nothing reaches the ledger until the live value is synced
+        assertTrue(merchant.drainBalanceMovements().isEmpty());
+    }
+
+    @Test
+    void shouldRejectAccumulatorOfAnotherMerchant() {
+        Merchant merchant = new Merchant("Test Store", "BL123456", "test@store.com", "555-1234");
+        merchant.setId(1L);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> merchant.attachIncomeAccumulator(new MerchantIncomeAccumulator(2L, merchant.getAccount())));
+    }
+
+    @Test
+    void shouldSyncLiveIncomeIntoAccountAsMovements() {
+        Merchant merchant = new Merchant("Test Store", "BL123456", "test@store.com", "555-1234");
+        merchant.setId(1L);
+        merchant.attachIncomeAccumulator(new MerchantIncomeAccumulator(1L, merchant.getAccount()));
+        merchant.receiveIncome(Money.of("100.00", "CNY"));
+        merchant.receiveIncome(Money.of("50.00", "CNY"));
+        merchant.withdrawIncome(Money.of("40.00", "CNY"));
+
+        merchant.syncIncome();
+
+        List<BalanceMovement> movements = merchant.drainBalanceMovements();
+        assertEquals(2, movements.size());
+        assertEquals(new BalanceMovement(MovementType.INCOME, Money.of("150.00", "CNY"), Money.of("150.00", "CNY")), movements.get(0));
+        assertEquals(new BalanceMovement(MovementType.WITHDRAWAL, Money.of("40.00", "CNY"), Money.of("110.00", "CNY")), movements.get(1));
+        merchant.attachIncomeAccumulator(null);
+        assertEquals(Money.of("110.00", "CNY"), merchant.getBalance());
+        assertEquals(Money.of("150.00", "CNY"), merchant.getTotalIncome());
+    }
+
+    @Test
+    void shouldNotRecordMovementsWhenAccountIsAlreadyInSync() {
+        Merchant merchant = new Merchant("Test Store", "BL123456", "test@store.com", "555-1234");
+        merchant.setId(1L);
+        merchant.attachIncomeAccumulator(new MerchantIncomeAccumulator(1L, merchant.getAccount()));
+
+        merchant.syncIncome();
+
+        assertTrue(merchant.drainBalanceMovements().isEmpty());
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.domain.product;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomicInventoryCounterTest {
+
+    @Test
+    void shouldReserveAndReleaseStock() {
+        InventoryCounter counter = new AtomicInventoryCounter("SKU001", 10);
+
+        assertTrue(counter.tryReserve(4));
+        counter.release(1);
+
+        assertEquals(7, counter.available());
+    }
+
+    @Test
+    void shouldRefuseReservationBeyondAvailableStock() {
+        InventoryCounter counter = new AtomicInventoryCounter("SKU001", 3);
+
+        assertFalse(counter.tryReserve(4));
+        assertEquals(3, counter.available());
+        assertFalse(counter.isDirty());
+    }
+
+    @Test
+    void shouldRejectInvalidQuantities() {
+        assertThrows(IllegalArgumentException.class, () -> new AtomicInventoryCounter("SKU001", -1));
+
+        InventoryCounter counter = new AtomicInventoryCounter("SKU001", 3);
+        assertThrows(IllegalArgumentException.class, () -> counter.tryReserve(0));
+        assertThrows(IllegalArgumentException.class, () -> counter.release(-1));
+    }
+
+    @Test
+    void shouldRejectReleaseThatOverflows() {
+        InventoryCounter counter = new AtomicInventoryCounter("SKU001", Integer.MAX_VALUE);
+
+        assertThrows(IllegalArgumentException.class, () -> counter.release(1));
+    }
+
+    @Test
+    void shouldNotifyOnlyOnCleanToDirtyTransition() {
+        List<InventoryCounter> notified = new ArrayList<>();
+        InventoryCounter counter = new AtomicInventoryCounter("SKU001", 10, notified::add);
+
+        counter.tryReserve(1);
+        counter.tryReserve(1);
+        assertEquals(1, notified.size());
+
+        assertTrue(counter.clearDirty());
+        assertFalse(counter.clearDirty());
+        counter.release(2);
+
+        assertEquals(2, notified.size());
+        assertTrue(counter.isDirty());
+    }
+
+    @Test
+    void shouldNeverOversellUnderContention() throws InterruptedException {
+        InventoryCounter counter = new AtomicInventoryCounter("SKU001", 1000);
+        AtomicInteger reserved = new AtomicInteger();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    if (counter.tryReserve(1)) {
+                        reserved.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1000, reserved.get());
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    void shouldHandOverStockAndForwardLaterCalls() {
+        InventoryCounter counter = new AtomicInventoryCounter("SKU001", 10);
+        InventoryCounter successor = new ShardedInventoryCounter("SKU001", 0, 4);
+
+        assertSame(successor, counter.handOverTo(successor));
+        assertTrue(counter.tryReserve(3));
+        counter.release(1);
+
+        assertEquals(8, successor.available());
+        assertEquals(8, counter.available());
+    }
+
+    @Test
+    void shouldRejectSuccessorOfAnotherSku() {
+        InventoryCounter counter = new AtomicInventoryCounter("SKU001", 10);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> counter.handOverTo(new AtomicInventoryCounter("SKU002", 0)));
+    }
+}
@@ -268,4 +268,76 @@ class ProductTest {
         
         assertTrue(product instanceof com.ecommerce.domain.BaseEntity);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldServeInventoryFromAttachedCounter() {
+        Product product = new Product("SKU-LIVE", "Product", "Desc", Money.of("50.00", "USD"), 1L, 10);
+        InventoryCounter counter = new AtomicInventoryCounter("SKU-LIVE", 10);
+        product.attachInventoryCounter(counter);
+        Long versionBefore = product.getVersion();
+        
+        product.reduceInventory(4);
+        product.addInventory(1);
+        
+        assertTrue(product.hasLiveInventory());
+        assertEquals(7, counter.available());
+        assertEquals(7, product.getAvailableInventory());
+        assertEquals(7, product.getInventory().getQuantity());
+        assertTrue(product.hasEnoughInventory(7));
+        assertFalse(product.hasEnoughInventory(8));
+        assertEquals(versionBefore, product.getVersion());
+    }
+
+    @Test
+    void shouldRejectReservationBeyondCounterStock() {
+        Product product = new Product("SKU-LIVE", "Product", "Desc", Money.of("50.00", "USD"), 1L, 3);
+        product.attachInventoryCounter(new AtomicInventoryCounter("SKU-LIVE", 3));
+        
+        assertThrows(InsufficientInventoryException.class, () -> product.reduceInventory(4));
+        assertEquals(3, product.getAvailableInventory());
+    }
+
+    @Test
+    void shouldSyncCounterValueIntoPersistedInventory() {
+        Product product = new Product("SKU-LIVE", "Product", "Desc", Money.of("50.00", "USD"), 1L, 10);
+        product.attachInventoryCounter(new AtomicInventoryCounter("SKU-LIVE", 10));
+        product.reduceInventory(6);
+        
+        product.syncInventory();
+        product.attachInventoryCounter(null);
+        
+        assertFalse(product.hasLiveInventory());
+        assertEquals(4, product.getAvailableInventory());
+    }
+
+    @Test
+    void shouldRejectCounterOfAnotherSku() {
+        Product product = new Product("SKU-LIVE", "Product", "Desc", Money.of("50.00", "USD"), 1L, 10);
+        
+        assertThrows(IllegalArgumentException.class,
+            () -> product.attachInventoryCounter(new AtomicInventoryCounter("OTHER", 10)));
+    }
+
+    @Test
+    void shouldMarkProductHot() {
+        Product product = new Product("SKU-HOT", "Product", "Desc", Money.of("50.00", "USD"), 1L, 10);
+        Long versionBefore = product.getVersion();
+        
+        product.markHot(true);
+        product.markHot(true);
+        
+        assertTrue(product.isHot());
+        assertEquals(versionBefore + 1, product.getVersion());
+        
+        product.markHot(false);
+        assertFalse(product.isHot());
+    }
+
+    @Test
+    void shouldNotMarkInactiveProductHot() {
+        Product product = new Product("SKU-HOT", "Product", "Desc", Money.of("50.00", "USD"), 1L, 10);
+        product.deactivate();
+        
+        assertThrows(com.ecommerce.domain.ResourceInactiveException.class, () -> product.markHot(true));
+    }
+}
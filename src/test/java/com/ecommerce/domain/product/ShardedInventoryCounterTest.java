@@ -0,0 +1,132 @@
+package com.ecommerce.domain.product;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedInventoryCounterTest {
+
+    @Test
+    void shouldSpreadInitialStockOverPowerOfTwoShards() {
+        ShardedInventoryCounter counter = new ShardedInventoryCounter("SKU001", 10, 3);
+
+        assertEquals(4, counter.getShardCount());
+        assertEquals(10, counter.available());
+        assertEquals(3, counter.bucketValue(0));
+        assertEquals(3, counter.bucketValue(1));
+        assertEquals(2, counter.bucketValue(2));
+        assertEquals(2, counter.bucketValue(3));
+    }
+
+    @Test
+    void shouldStealFromSiblingBucketsWhenHomeRunsShort() {
+        ShardedInventoryCounter counter = new ShardedInventoryCounter("SKU001", 8, 4);
+
+        // Needs more than any single bucket holds
+        assertTrue(counter.tryReserve(7));
+        assertEquals(1, counter.available());
+        assertTrue(counter.tryReserve(1));
+        assertFalse(counter.tryReserve(1));
+    }
+
+    @Test
+    void shouldPutStolenUnitsBackWhenTotalIsShort() {
+        ShardedInventoryCounter counter = new ShardedInventoryCounter("SKU001", 8, 4);
+
+        assertFalse(counter.tryReserve(9));
+
+        assertEquals(8, counter.available());
+        for (int shard = 0; shard < 4; shard++) {
+            assertEquals(2, counter.bucketValue(shard));
+        }
+    }
+
+    @Test
+    void shouldReleaseIntoHomeBucket() {
+        ShardedInventoryCounter counter = new ShardedInventoryCounter("SKU001", 0, 4);
+
+        counter.release(5);
+
+        assertEquals(5, counter.bucketValue(counter.homeShard()));
+        assertTrue(counter.isDirty());
+    }
+
+    @Test
+    void shouldHandOverRemainingStock() {
+        ShardedInventoryCounter counter = new ShardedInventoryCounter("SKU001", 10, 4);
+        counter.tryReserve(4);
+        InventoryCounter successor = new AtomicInventoryCounter("SKU001", 0);
+
+        counter.handOverTo(successor);
+
+        assertEquals(6, successor.available());
+        assertTrue(counter.tryReserve(6));
+        assertEquals(0, successor.available());
+    }
+
+    @Test
+    void shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedInventoryCounter("SKU001", -1, 4));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedInventoryCounter("SKU001", 1, 0));
+    }
+
+    @Test
+    void shouldNeverOversellUnderContention() throws InterruptedException {
+        ShardedInventoryCounter counter = new ShardedInventoryCounter("SKU001", 1000, 8);
+        AtomicInteger reserved = new AtomicInteger();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    int quantity = 1 + i % 3;
+                    if (counter.tryReserve(quantity)) {
+                        reserved.addAndGet(quantity);
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1000, reserved.get() + counter.available());
+    }
+
+    @Test
+    void shouldNotLoseStockWhenHandedOverUnderContention() throws InterruptedException {
+        ShardedInventoryCounter counter = new ShardedInventoryCounter("SKU001", 1000, 8);
+        InventoryCounter successor = new AtomicInventoryCounter("SKU001", 0);
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 400; i++) {
+                    if (counter.tryReserve(2)) {
+                        reserved.addAndGet(2);
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        counter.handOverTo(successor);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1000, reserved.get() + successor.available());
+    }
+}
@@ -469,4 +469,22 @@ class SettlementTest {
             Money.of("1000.00", "CNY")
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSettledUntilIsRecordedWatermark() {
+        LocalDateTime settledUntil = LocalDateTime.of(2024, 1, 15, 23, 59);
+        
+        Settlement settlement = new Settlement(1L, LocalDate.of(2024, 1, 15),
+            Money.of("10.00", "CNY"), Money.of("10.00", "CNY"), settledUntil);
+        
+        assertEquals(settledUntil, settlement.getSettledUntil());
+    }
+
+    @Test
+    void testSettledUntilFallsBackToCreationTime() {
+        Settlement settlement = new Settlement(1L, LocalDate.of(2024, 1, 15),
+            Money.of("10.00", "CNY"), Money.of("10.00", "CNY"));
+        
+        assertEquals(settlement.getCreatedAt(), settlement.getSettledUntil());
+    }
+}
@@ -2,9 +2,12 @@ package com.ecommerce.domain.user;
 
 import com.ecommerce.domain.Money;
 import com.ecommerce.domain.ResourceInactiveException;
+import com.ecommerce.domain.ledger.BalanceMovement;
+import com.ecommerce.domain.ledger.MovementType;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("User Domain Tests")
@@ -145,4 +148,49 @@ class UserTest {
             assertThrows(ResourceInactiveException.class, () -> user.deduct(amount));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Balance Movements")
+    class BalanceMovementTests {
+
+        @Test
+        @DisplayName("Should record each balance change until drained")
+        void shouldRecordBalanceChangesUntilDrained() {
+            User user = new User("john", "john@example.com", "123-456-7890", "CNY");
+            user.recharge(Money.of("100.00", "CNY"));
+            user.deduct(Money.of("30.00", "CNY"));
+
+            List<BalanceMovement> movements = user.drainBalanceMovements();
+
+            assertEquals(2, movements.size());
+            assertEquals(MovementType.RECHARGE, movements.get(0).type());
+            assertEquals(Money.of("100.00", "CNY"), movements.get(0).balanceAfter());
+            assertEquals(MovementType.DEDUCTION, movements.get(1).type());
+            assertEquals(Money.of("30.00", "CNY"), movements.get(1).amount());
+            assertEquals(Money.of("70.00", "CNY"), movements.get(1).balanceAfter());
+            assertTrue(user.drainBalanceMovements().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should not record failed deductions")
+        void shouldNotRecordFailedDeductions() {
+            User user = new User("john", "john@example.com", "123-456-7890", "CNY");
+
+            assertThrows(InsufficientBalanceException.class, () -> user.deduct(Money.of("1.00", "CNY")));
+            assertTrue(user.drainBalanceMovements().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should start copies without pending movements")
+        void shouldStartCopiesWithoutPendingMovements() {
+            User user = new User("john", "john@example.com", "123-456-7890", "CNY");
+            user.recharge(Money.of("10.00", "CNY"));
+
+            User copy = user.copy();
+            copy.recharge(Money.of("5.00", "CNY"));
+
+            assertEquals(1, copy.drainBalanceMovements().size());
+            assertEquals(1, user.drainBalanceMovements().size());
+        }
+    }
+}
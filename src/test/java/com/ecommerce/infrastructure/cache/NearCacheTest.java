@@ -0,0 +1,44 @@
+package com.ecommerce.infrastructure.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearCacheTest {
+
+    private NearCache<String, Long> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new NearCache<>("test.cache", 4, value -> value, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void invalidate_ShouldKeepClockBoundedUnderChurn() {
+        for (long i = 0; i < 1_000; i++) {
+            cache.put("KEY-" + (i % 3), i);
+            cache.invalidate("KEY-" + (i % 3));
+        }
+
+        assertEquals(0, cache.size());
+        assertTrue(cache.clockLength() <= 2 * 4 + 1, "clock length " + cache.clockLength());
+    }
+
+    @Test
+    void evict_ShouldSkipInvalidatedEntries() {
+        cache.put("A", 1L);
+        cache.put("B", 1L);
+        cache.invalidate("A");
+        cache.put("A", 2L);
+        cache.put("C", 1L);
+        cache.put("D", 1L);
+        cache.put("E", 1L);
+
+        assertEquals(4, cache.size());
+        assertTrue(cache.get("B").isEmpty());
+        assertEquals(2L, cache.get("A").orElseThrow());
+        assertEquals(1, cache.getEvictionCount());
+    }
+}
@@ -0,0 +1,182 @@
+package com.ecommerce.infrastructure.cache;
+
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.product.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ProductCache(2, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        List.copyOf(TransactionSynchronizationManager.getResourceMap().keySet())
+            .forEach(TransactionSynchronizationManager::unbindResourceIfPossible);
+    }
+
+    private static Product product(String sku) {
+        Product product = new Product(sku, "Product " + sku, "Description", Money.of("10.00", "CNY"), 1L, 10);
+        product.setId((long) sku.hashCode());
+        product.markPersisted();
+        return product;
+    }
+
+    private static void completeTransaction(boolean commit) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (commit) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        int status = commit ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK;
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void get_ShouldMissThenHandOutCopiesOfTheCachedProduct() {
+        Product product = product("SKU-1");
+
+        assertTrue(cache.get("SKU-1").isEmpty());
+        cache.put(product);
+        Product first = cache.get("SKU-1").orElseThrow();
+        Product second = cache.get("SKU-1").orElseThrow();
+
+        assertNotSame(product, first);
+        assertNotSame(first, second);
+        assertEquals("SKU-1", first.getSku());
+        assertEquals(product.getVersion(), first.getPersistedVersion());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2.0 / 3, cache.getHitRatio(), 1e-9);
+    }
+
+    @Test
+    void get_ShouldNotShareChangesBetweenCallers() {
+        cache.put(product("SKU-1"));
+
+        cache.get("SKU-1").orElseThrow().addInventory(5);
+
+        assertEquals(10, cache.get("SKU-1").orElseThrow().getAvailableInventory());
+    }
+
+    @Test
+    void put_ShouldNotReplaceNewerVersion() {
+        Product product = product("SKU-1");
+        Product stale = (Product) product.copy();
+        product.addInventory(5);
+        cache.saved(product);
+
+        cache.put(stale);
+
+        Product cached = cache.get("SKU-1").orElseThrow();
+        assertEquals(product.getVersion(), cached.getVersion());
+        assertEquals(15, cached.getAvailableInventory());
+    }
+
+    @Test
+    void put_ShouldEvictLeastRecentlyUsedBeyondBound() {
+        cache.put(product("SKU-1"));
+        cache.put(product("SKU-2"));
+        cache.get("SKU-1");
+
+        cache.put(product("SKU-3"));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertTrue(cache.get("SKU-1").isPresent());
+        assertTrue(cache.get("SKU-2").isEmpty());
+        assertTrue(cache.get("SKU-3").isPresent());
+    }
+
+    @Test
+    void invalidate_ShouldDropSku() {
+        cache.put(product("SKU-1"));
+
+        cache.invalidate("SKU-1");
+
+        assertTrue(cache.get("SKU-1").isEmpty());
+        assertEquals(0, cache.size());
+        assertEquals(1.0, meterRegistry.get("ecommerce.product.cache.evictions").tag("cause", "invalidated").counter().count());
+    }
+
+    @Test
+    void saved_ShouldPublishOnlyAfterCommit() {
+        Product product = product("SKU-1");
+        cache.put(product);
+        TransactionSynchronizationManager.initSynchronization();
+
+        product.addInventory(5);
+        cache.saved(product);
+        cache.put(product);
+
+        assertTrue(cache.get("SKU-1").isEmpty(), "uncommitted state must not be cached");
+        completeTransaction(true);
+        assertEquals(15, cache.get("SKU-1").orElseThrow().getAvailableInventory());
+    }
+
+    @Test
+    void saved_ShouldLeaveSkuUncachedOnRollback() {
+        Product product = product("SKU-1");
+        cache.put(product);
+        TransactionSynchronizationManager.initSynchronization();
+
+        product.addInventory(5);
+        cache.saved(product);
+        completeTransaction(false);
+
+        assertTrue(cache.get("SKU-1").isEmpty());
+        assertTrue(TransactionSynchronizationManager.getResourceMap().isEmpty());
+        cache.put(product("SKU-1"));
+        assertEquals(10, cache.get("SKU-1").orElseThrow().getAvailableInventory());
+    }
+
+    @Test
+    void shouldReportMetrics() {
+        cache.put(product("SKU-1"));
+        cache.get("SKU-1");
+        cache.get("SKU-2");
+        cache.put(product("SKU-2"));
+        cache.put(product("SKU-3"));
+
+        assertEquals(1.0, meterRegistry.get("ecommerce.product.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("ecommerce.product.cache.requests").tag("result", "miss").counter().count());
+        assertEquals(0.5, meterRegistry.get("ecommerce.product.cache.hit.ratio").gauge().value());
+        assertEquals(1.0, meterRegistry.get("ecommerce.product.cache.evictions").tag("cause", "size").counter().count());
+        assertEquals(2.0, meterRegistry.get("ecommerce.product.cache.entries").gauge().value());
+    }
+
+    @Test
+    void disabled_ShouldCacheNothing() {
+        ProductCache disabled = ProductCache.disabled();
+
+        disabled.put(product("SKU-1"));
+
+        assertFalse(disabled.isEnabled());
+        assertTrue(disabled.get("SKU-1").isEmpty());
+        assertEquals(0, disabled.size());
+        assertEquals(0, disabled.getMissCount());
+    }
+
+    @Test
+    void shouldRejectNegativeBound() {
+        assertThrows(IllegalArgumentException.class, () -> new ProductCache(-1, meterRegistry));
+    }
+}
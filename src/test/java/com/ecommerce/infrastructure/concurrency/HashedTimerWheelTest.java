@@ -0,0 +1,146 @@
+package com.ecommerce.infrastructure.concurrency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimerWheelTest {
+
+    private AtomicLong clock;
+    private List<String> fired;
+    private HashedTimerWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000);
+        fired = new CopyOnWriteArrayList<>();
+        // 10ms ticks, 8 buckets, tasks run inline, driven by advanceTo
+        wheel = new HashedTimerWheel(10, 8, Runnable::run, clock::get, null);
+    }
+
+    private HashedTimerWheel.Timeout schedule(String name, long delayMillis) {
+        return wheel.schedule(() -> fired.add(name), Duration.ofMillis(delayMillis));
+    }
+
+    @Test
+    void shouldRoundWheelSizeUpToPowerOfTwo() {
+        assertEquals(8, wheel.getWheelSize());
+        assertEquals(16, new HashedTimerWheel(10, 9, Runnable::run, clock::get, null).getWheelSize());
+        assertEquals(1, new HashedTimerWheel(10, 1, Runnable::run, clock::get, null).getWheelSize());
+    }
+
+    @Test
+    void shouldFireOnceDeadlinePassesButNeverEarly() {
+        schedule("a", 25);
+
+        wheel.advanceTo(29);
+        assertTrue(fired.isEmpty());
+
+        wheel.advanceTo(30);
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    void shouldFireInDeadlineOrder() {
+        schedule("late", 50);
+        schedule("early", 10);
+        schedule("middle", 30);
+
+        wheel.advanceTo(100);
+
+        assertEquals(List.of("early", "middle", "late"), fired);
+    }
+
+    @Test
+    void shouldKeepTimeoutsBeyondOneRevolutionForLaterRounds() {
+        // 8 buckets * 10ms = 80ms per revolution; 170ms lands in the same bucket as 10ms
+        schedule("next-round", 170);
+        schedule("this-round", 10);
+
+        wheel.advanceTo(100);
+        assertEquals(List.of("this-round"), fired);
+
+        wheel.advanceTo(169);
+        assertEquals(List.of("this-round"), fired);
+
+        wheel.advanceTo(170);
+        assertEquals(List.of("this-round", "next-round"), fired);
+    }
+
+    @Test
+    void shouldNotFireCancelledTimeout() {
+        HashedTimerWheel.Timeout cancelled = schedule("cancelled", 20);
+        schedule("kept", 20);
+        wheel.advanceTo(10);
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        wheel.advanceTo(50);
+
+        assertEquals(List.of("kept"), fired);
+        assertTrue(cancelled.isCancelled());
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    void shouldNotCancelExpiredTimeout() {
+        HashedTimerWheel.Timeout timeout = schedule("a", 10);
+        wheel.advanceTo(10);
+
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    void shouldFireLateArrivalsOnNextTick() {
+        wheel.advanceTo(100);
+        clock.addAndGet(-50);
+        // Deadline is already behind the wheel
+        schedule("late", 0);
+
+        wheel.advanceTo(110);
+
+        assertEquals(List.of("late"), fired);
+    }
+
+    @Test
+    void shouldSurviveFailingTask() {
+        wheel.schedule(() -> {
+            throw new IllegalStateException("boom");
+        }, Duration.ofMillis(10));
+        schedule("after", 10);
+
+        wheel.advanceTo(10);
+
+        assertEquals(List.of("after"), fired);
+    }
+
+    @Test
+    void shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimerWheel(0, 8, Runnable::run, clock::get, null));
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimerWheel(10, 0, Runnable::run, clock::get, null));
+    }
+
+    @Test
+    void shouldFireOnWorkerThreadInRealTime() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        HashedTimerWheel realWheel = new HashedTimerWheel(Duration.ofMillis(5), 16, Runnable::run, "test-wheel");
+        try {
+            realWheel.schedule(latch::countDown, Duration.ofMillis(20));
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            realWheel.close();
+        }
+        assertThrows(IllegalStateException.class, () -> realWheel.schedule(() -> { }, Duration.ZERO));
+    }
+}
@@ -0,0 +1,223 @@
+package com.ecommerce.infrastructure.concurrency;
+
+import com.ecommerce.domain.merchant.Merchant;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.infrastructure.repository.VersionConflictException;
+import com.ecommerce.infrastructure.transaction.OperationScope;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticRetryTest {
+
+    private SimpleMeterRegistry registry;
+    private OptimisticRetry retry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        retry = new OptimisticRetry(3, Duration.ZERO, Duration.ZERO, registry);
+    }
+
+    private static VersionConflictException conflictOn(Class<?> type) {
+        return new VersionConflictException(type, 1L, 1L, 2L);
+    }
+
+    /**
+     * Counts transactions instead of running them
+     */
+    private static class CountingTransactionManager extends AbstractPlatformTransactionManager {
+        int begun;
+        int committed;
+        int rolledBack;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            begun++;
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            committed++;
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rolledBack++;
+        }
+    }
+
+    private double count(String name, String aggregate) {
+        var counter = registry.find(name).tag("aggregate", aggregate).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @Test
+    void shouldReturnResultWithoutRetryingWhenNoConflict() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertEquals("done", retry.execute("purchase", () -> {
+            attempts.incrementAndGet();
+            return "done";
+        }));
+
+        assertEquals(1, attempts.get());
+        assertEquals(0, count("ecommerce.optimistic.retries", "User"));
+    }
+
+    @Test
+    void shouldRetryConflictsAndCountThemPerAggregate() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute("purchase", () -> {
+            int attempt = attempts.incrementAndGet();
+            if (attempt == 1) {
+                throw conflictOn(User.class);
+            }
+            if (attempt == 2) {
+                throw conflictOn(Merchant.class);
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, attempts.get());
+        assertEquals(1, count("ecommerce.optimistic.retries", "User"));
+        assertEquals(1, count("ecommerce.optimistic.retries", "Merchant"));
+        assertEquals(1, registry.find("ecommerce.optimistic.retries").tag("operation", "purchase")
+            .tag("aggregate", "User").counter().count());
+    }
+
+    @Test
+    void shouldRethrowLastConflictOnceAttemptsAreUsedUp() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        VersionConflictException e = assertThrows(VersionConflictException.class,
+            () -> retry.run("recharge", () -> {
+                attempts.incrementAndGet();
+                throw conflictOn(User.class);
+            }));
+
+        assertEquals("User", e.getEntityType());
+        assertEquals(3, attempts.get());
+        assertEquals(2, count("ecommerce.optimistic.retries", "User"));
+        assertEquals(1, count("ecommerce.optimistic.exhausted", "User"));
+    }
+
+    @Test
+    void shouldNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> retry.run("purchase", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void shouldBackOffBetweenAttempts() {
+        OptimisticRetry backingOff = new OptimisticRetry(3, Duration.ofMillis(1), Duration.ofMillis(5), registry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        backingOff.run("purchase", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw conflictOn(User.class);
+            }
+        });
+
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void shouldRunEveryAttemptInItsOwnTransaction() {
+        CountingTransactionManager transactionManager = new CountingTransactionManager();
+        OptimisticRetry transactional = new OptimisticRetry(3, Duration.ZERO, Duration.ZERO, registry,
+                                                            transactionManager, null);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = transactional.execute("purchase", () -> {
+            assertTrue(TransactionSynchronizationManager.isActualTransactionActive());
+            if (attempts.incrementAndGet() < 3) {
+                throw conflictOn(User.class);
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, transactionManager.begun);
+        assertEquals(2, transactionManager.rolledBack);
+        assertEquals(1, transactionManager.committed);
+    }
+
+    @Test
+    void shouldRunEveryAttemptAsOneOperationWithoutTransactionManager() {
+        AtomicInteger operations = new AtomicInteger();
+        OperationScope scope = new OperationScope() {
+            @Override
+            public <R> R run(Supplier<R> action) {
+                operations.incrementAndGet();
+                return action.get();
+            }
+        };
+        OptimisticRetry scoped = new OptimisticRetry(3, Duration.ZERO, Duration.ZERO, registry, null, null, scope);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = scoped.execute("purchase", () -> {
+            if (attempts.incrementAndGet() < 2) {
+                throw conflictOn(User.class);
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(2, operations.get());
+    }
+
+    @Test
+    void shouldLeaveConflictsInsideATransactionToTheEnclosingRetry() {
+        CountingTransactionManager transactionManager = new CountingTransactionManager();
+        OptimisticRetry transactional = new OptimisticRetry(3, Duration.ZERO, Duration.ZERO, registry,
+                                                            transactionManager, null);
+        AtomicInteger inner = new AtomicInteger();
+        AtomicInteger outer = new AtomicInteger();
+
+        transactional.run("cancellation", () -> {
+            outer.incrementAndGet();
+            transactional.run("inventoryRestore", () -> {
+                if (inner.incrementAndGet() == 1) {
+                    throw conflictOn(User.class);
+                }
+            });
+        });
+
+        assertEquals(2, outer.get());
+        assertEquals(2, inner.get());
+        assertEquals(2, transactionManager.begun);
+        assertEquals(1, transactionManager.rolledBack);
+    }
+
+    @Test
+    void shouldRejectInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new OptimisticRetry(0, Duration.ZERO, Duration.ZERO, registry));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OptimisticRetry(3, Duration.ofMillis(10), Duration.ofMillis(1), registry));
+    }
+}
@@ -0,0 +1,112 @@
+package com.ecommerce.infrastructure.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PurchaseLockManagerTest {
+
+    @Test
+    void constructor_WithNullMode_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new PurchaseLockManager(null, 16));
+    }
+
+    @Test
+    void striped_ShouldUseDefaultStripeCount() {
+        PurchaseLockManager manager = PurchaseLockManager.striped();
+        
+        assertEquals(PurchaseLockMode.STRIPED, manager.getMode());
+        assertEquals(PurchaseLockManager.DEFAULT_STRIPES, manager.getStripeCount());
+    }
+
+    @Test
+    void lockPurchase_InNoneMode_ShouldHoldNothing() {
+        PurchaseLockManager manager = new PurchaseLockManager(PurchaseLockMode.NONE, 16);
+        
+        try (StripedLocks.LockHandle handle = manager.lockPurchase(1L, "PHONE-001", 1L)) {
+            assertEquals(0, handle.getHeldStripes());
+        }
+    }
+
+    @Test
+    void lockPurchase_InGlobalMode_ShouldHoldSingleLock() {
+        PurchaseLockManager manager = new PurchaseLockManager(PurchaseLockMode.GLOBAL, 16);
+        
+        assertEquals(1, manager.getStripeCount());
+        try (StripedLocks.LockHandle handle = manager.lockPurchase(1L, "PHONE-001", 2L)) {
+            assertEquals(1, handle.getHeldStripes());
+        }
+    }
+
+    @Test
+    void lockPurchase_InStripedMode_ShouldHoldUpToThreeStripes() {
+        PurchaseLockManager manager = new PurchaseLockManager(PurchaseLockMode.STRIPED, 1024);
+        
+        try (StripedLocks.LockHandle handle = manager.lockPurchase(1L, "PHONE-001", 1L)) {
+            assertTrue(handle.getHeldStripes() >= 1 && handle.getHeldStripes() <= 3);
+        }
+    }
+
+    @Test
+    void lockPurchase_ShouldAcceptNullKeys() {
+        PurchaseLockManager manager = PurchaseLockManager.striped();
+        
+        assertDoesNotThrow(() -> manager.lockPurchase(null, null, null).close());
+    }
+
+    @Test
+    void lockPurchase_InStripedMode_ShouldSkipNullKeys() {
+        PurchaseLockManager manager = new PurchaseLockManager(PurchaseLockMode.STRIPED, 1 << 16);
+        
+        try (StripedLocks.LockHandle handle = manager.lockPurchase(1L, "PHONE-001", null)) {
+            assertEquals(2, handle.getHeldStripes());
+        }
+        try (StripedLocks.LockHandle handle = manager.lockAccounts(1L, null)) {
+            assertEquals(1, handle.getHeldStripes());
+        }
+        try (StripedLocks.LockHandle handle = manager.lockPurchase(null, null, null)) {
+            assertEquals(0, handle.getHeldStripes());
+        }
+    }
+
+    @Test
+    void lockCheckout_InStripedMode_ShouldSkipNullMerchant() {
+        PurchaseLockManager manager = new PurchaseLockManager(PurchaseLockMode.STRIPED, 1 << 16);
+        
+        try (StripedLocks.LockHandle handle = manager.lockCheckout(1L, java.util.List.of("PHONE-001", "BOOK-001"), null)) {
+            assertEquals(3, handle.getHeldStripes());
+        }
+    }
+
+    @Test
+    void keyHashes_ShouldDifferBetweenUserAndMerchantWithSameId() {
+        assertNotEquals(PurchaseLockManager.userHash(1L), PurchaseLockManager.merchantHash(1L));
+    }
+
+    @Test
+    void lockAccounts_InStripedMode_ShouldSkipSkuStripe() {
+        PurchaseLockManager manager = new PurchaseLockManager(PurchaseLockMode.STRIPED, 1 << 16);
+        
+        try (StripedLocks.LockHandle handle = manager.lockAccounts(1L, 2L)) {
+            assertEquals(2, handle.getHeldStripes());
+        }
+    }
+
+    @Test
+    void lockCheckout_InStripedMode_ShouldHoldUserMerchantAndEverySku() {
+        PurchaseLockManager manager = new PurchaseLockManager(PurchaseLockMode.STRIPED, 1 << 16);
+        
+        try (StripedLocks.LockHandle handle = manager.lockCheckout(1L, java.util.List.of("PHONE-001", "BOOK-001", "LAPTOP-001"), 2L)) {
+            assertEquals(5, handle.getHeldStripes());
+        }
+    }
+
+    @Test
+    void lockCheckout_InGlobalMode_ShouldHoldSingleLock() {
+        PurchaseLockManager manager = new PurchaseLockManager(PurchaseLockMode.GLOBAL, 16);
+        
+        try (StripedLocks.LockHandle handle = manager.lockCheckout(1L, java.util.List.of("PHONE-001", "BOOK-001"), 2L)) {
+            assertEquals(1, handle.getHeldStripes());
+        }
+    }
+}
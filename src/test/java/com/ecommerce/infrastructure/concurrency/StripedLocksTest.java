@@ -0,0 +1,115 @@
+package com.ecommerce.infrastructure.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedLocksTest {
+
+    @Test
+    void constructor_ShouldRoundStripeCountUpToPowerOfTwo() {
+        assertEquals(1, new StripedLocks(1).size());
+        assertEquals(2, new StripedLocks(2).size());
+        assertEquals(4, new StripedLocks(3).size());
+        assertEquals(1024, new StripedLocks(1000).size());
+    }
+
+    @Test
+    void constructor_WithNonPositiveStripes_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedLocks(0));
+        assertThrows(IllegalArgumentException.class, () -> new StripedLocks(-1));
+    }
+
+    @Test
+    void stripeFor_ShouldStayWithinRange() {
+        StripedLocks locks = new StripedLocks(16);
+        for (int hash = -1000; hash < 1000; hash++) {
+            int stripe = locks.stripeFor(hash);
+            assertTrue(stripe >= 0 && stripe < 16);
+        }
+    }
+
+    @Test
+    void lockStripes_ShouldCollapseDuplicateStripes() {
+        StripedLocks locks = new StripedLocks(8);
+        
+        try (StripedLocks.LockHandle handle = locks.lockStripes(3, 1, 3, 1)) {
+            assertEquals(2, handle.getHeldStripes());
+        }
+    }
+
+    @Test
+    void close_ShouldBeIdempotent() {
+        StripedLocks locks = new StripedLocks(4);
+        StripedLocks.LockHandle handle = locks.lockStripes(1);
+        
+        handle.close();
+        assertDoesNotThrow(handle::close);
+        
+        // Stripe is free again
+        try (StripedLocks.LockHandle again = locks.lockStripes(1)) {
+            assertEquals(1, again.getHeldStripes());
+        }
+    }
+
+    @Test
+    void lockStripes_WithOppositeArgumentOrder_ShouldNotDeadlock() throws InterruptedException {
+        StripedLocks locks = new StripedLocks(8);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch done = new CountDownLatch(2);
+        
+        executor.submit(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                try (StripedLocks.LockHandle ignored = locks.lockStripes(1, 6)) {
+                    // critical section
+                }
+            }
+            done.countDown();
+        });
+        executor.submit(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                try (StripedLocks.LockHandle ignored = locks.lockStripes(6, 1)) {
+                    // critical section
+                }
+            }
+            done.countDown();
+        });
+        
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdownNow();
+    }
+
+    @Test
+    void lockStripes_ShouldProvideMutualExclusionOnSameStripe() throws InterruptedException {
+        StripedLocks locks = new StripedLocks(4);
+        AtomicBoolean inside = new AtomicBoolean(false);
+        AtomicBoolean overlap = new AtomicBoolean(false);
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    try (StripedLocks.LockHandle ignored = locks.lockStripes(2)) {
+                        if (!inside.compareAndSet(false, true)) {
+                            overlap.set(true);
+                        }
+                        inside.set(false);
+                    }
+                }
+                done.countDown();
+            });
+        }
+        
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertFalse(overlap.get());
+        executor.shutdownNow();
+    }
+}
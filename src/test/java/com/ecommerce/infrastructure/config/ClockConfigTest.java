@@ -0,0 +1,49 @@
+package com.ecommerce.infrastructure.config;
+
+import com.ecommerce.domain.PlatformClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClockConfigTest {
+
+    private PlatformClock previous;
+
+    @BeforeEach
+    void rememberClock() {
+        previous = PlatformClock.installed();
+    }
+
+    @AfterEach
+    void restoreClock() {
+        PlatformClock.install(previous);
+    }
+
+    @Test
+    void shouldInstallPreciseClockByDefault() {
+        ClockConfig config = new ClockConfig();
+
+        PlatformClock clock = config.platformClock();
+
+        assertSame(clock, PlatformClock.installed());
+        assertEquals(ZoneId.systemDefault(), clock.getZone());
+    }
+
+    @Test
+    void shouldInstallCoarseClockInConfiguredZone() {
+        ClockConfig config = new ClockConfig();
+        config.setMode(ClockConfig.Mode.COARSE);
+        config.setTickMillis(5);
+        config.setZone("Asia/Shanghai");
+
+        try (PlatformClock clock = config.platformClock()) {
+            assertSame(clock, PlatformClock.installed());
+            assertEquals(ZoneId.of("Asia/Shanghai"), clock.getZone());
+            assertNotNull(PlatformClock.now());
+        }
+    }
+}
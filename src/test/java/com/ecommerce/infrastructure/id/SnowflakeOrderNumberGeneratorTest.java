@@ -0,0 +1,137 @@
+package com.ecommerce.infrastructure.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeOrderNumberGeneratorTest {
+
+    private static final long NOW = SnowflakeOrderNumberGenerator.EPOCH_MILLIS + 1_000_000L;
+
+    @Test
+    void constructor_WithNodeIdOutOfRange_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderNumberGenerator(-1));
+        assertThrows(IllegalArgumentException.class,
+            () -> new SnowflakeOrderNumberGenerator(SnowflakeOrderNumberGenerator.MAX_NODE_ID + 1));
+    }
+
+    @Test
+    void nextOrderNumber_ShouldUseFixedWidthFormat() {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(7);
+
+        String orderNumber = generator.nextOrderNumber();
+
+        assertTrue(orderNumber.matches("ORD\\d{19}"));
+        assertEquals(7, SnowflakeOrderNumberGenerator.nodeOf(SnowflakeOrderNumberGenerator.parse(orderNumber)));
+    }
+
+    @Test
+    void nextId_ShouldEncodeTimestampNodeAndSequence() {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(42, () -> NOW);
+
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        assertEquals(NOW, SnowflakeOrderNumberGenerator.timestampOf(first));
+        assertEquals(42, SnowflakeOrderNumberGenerator.nodeOf(first));
+        assertEquals(0, SnowflakeOrderNumberGenerator.sequenceOf(first));
+        assertEquals(1, SnowflakeOrderNumberGenerator.sequenceOf(second));
+    }
+
+    @Test
+    void nextId_WhenClockMovesBackwards_ShouldKeepIncreasing() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1, clock::get);
+
+        long beforeRollback = generator.nextId();
+        clock.set(NOW - 5_000);
+        long afterRollback = generator.nextId();
+
+        assertTrue(afterRollback > beforeRollback);
+        assertEquals(NOW, SnowflakeOrderNumberGenerator.timestampOf(afterRollback));
+    }
+
+    @Test
+    void nextId_WhenSequenceIsExhausted_ShouldBorrowNextMillisecond() {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1, () -> NOW);
+        long last = 0;
+        for (int i = 0; i < 4096; i++) {
+            last = generator.nextId();
+        }
+        assertEquals(4095, SnowflakeOrderNumberGenerator.sequenceOf(last));
+
+        long borrowed = generator.nextId();
+
+        assertEquals(NOW + 1, SnowflakeOrderNumberGenerator.timestampOf(borrowed));
+        assertEquals(0, SnowflakeOrderNumberGenerator.sequenceOf(borrowed));
+        assertTrue(borrowed > last);
+    }
+
+    @Test
+    void nextOrderNumber_ShouldSortByCreationTime() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(3, clock::get);
+        List<String> orderNumbers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            clock.addAndGet(i % 3);
+            orderNumbers.add(generator.nextOrderNumber());
+        }
+
+        List<String> sorted = new ArrayList<>(orderNumbers);
+        sorted.sort(null);
+
+        assertEquals(orderNumbers, sorted);
+    }
+
+    @Test
+    void format_And_Parse_ShouldRoundTrip() {
+        assertEquals("ORD0000000000000000042", SnowflakeOrderNumberGenerator.format(42));
+        assertEquals(Long.MAX_VALUE, SnowflakeOrderNumberGenerator.parse(SnowflakeOrderNumberGenerator.format(Long.MAX_VALUE)));
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeOrderNumberGenerator.parse("ORD123"));
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeOrderNumberGenerator.parse(null));
+    }
+
+    @Test
+    void nextOrderNumber_UnderContentionAcrossNodes_ShouldNeverRepeat() throws InterruptedException {
+        // Two nodes sharing a coarse clock so that sequences overflow and borrow constantly
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeOrderNumberGenerator[] nodes = {
+            new SnowflakeOrderNumberGenerator(1, clock::get),
+            new SnowflakeOrderNumberGenerator(2, clock::get)
+        };
+        int threads = 8;
+        int perThread = 20_000;
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < threads; t++) {
+            SnowflakeOrderNumberGenerator generator = nodes[t % nodes.length];
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    if (i % 1000 == 0) {
+                        clock.incrementAndGet();
+                    }
+                    seen.add(generator.nextOrderNumber());
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread, seen.size());
+    }
+}
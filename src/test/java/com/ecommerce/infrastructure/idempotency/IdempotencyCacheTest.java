@@ -0,0 +1,199 @@
+package com.ecommerce.infrastructure.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    private AtomicLong clock;
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new IdempotencyCache(Duration.ofSeconds(10), 3, meterRegistry, clock::get);
+    }
+
+    @Test
+    void execute_ShouldReplayCompletedResult() throws Throwable {
+        AtomicInteger runs = new AtomicInteger();
+
+        IdempotencyCache.Outcome first = cache.execute("k1", runs::incrementAndGet);
+        IdempotencyCache.Outcome second = cache.execute("k1", runs::incrementAndGet);
+
+        assertEquals(1, first.value());
+        assertFalse(first.replayed());
+        assertEquals(1, second.value());
+        assertTrue(second.replayed());
+        assertEquals(1, runs.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void execute_ShouldKeepKeysApart() throws Throwable {
+        assertEquals("a", cache.execute("k1", () -> "a").value());
+        assertEquals("b", cache.execute("k2", () -> "b").value());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void execute_ShouldRefuseKeyWithDifferentFingerprint() throws Throwable {
+        assertEquals("a", cache.execute("k1", "fingerprint-a", () -> "a").value());
+
+        assertThrows(IdempotencyCache.KeyReusedException.class,
+            () -> cache.execute("k1", "fingerprint-b", () -> "b"));
+        assertTrue(cache.execute("k1", "fingerprint-a", () -> "b").replayed());
+    }
+
+    @Test
+    void execute_ShouldRunAgainAfterExpiry() throws Throwable {
+        AtomicInteger runs = new AtomicInteger();
+        cache.execute("k1", runs::incrementAndGet);
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        IdempotencyCache.Outcome outcome = cache.execute("k1", runs::incrementAndGet);
+
+        assertEquals(2, outcome.value());
+        assertFalse(outcome.replayed());
+    }
+
+    @Test
+    void execute_ShouldForgetFailures() throws Throwable {
+        assertThrows(IllegalStateException.class, () -> cache.execute("k1", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(0, cache.size());
+        assertEquals("ok", cache.execute("k1", () -> "ok").value());
+    }
+
+    @Test
+    void execute_ShouldEvictOldestCompletedBeyondCapacity() throws Throwable {
+        for (int i = 0; i < 5; i++) {
+            String key = "k" + i;
+            cache.execute(key, () -> key);
+        }
+
+        assertEquals(3, cache.size());
+        // Oldest key was evicted, so it runs again
+        assertFalse(cache.execute("k0", () -> "again").replayed());
+        assertTrue(cache.execute("k4", () -> "again").replayed());
+    }
+
+    @Test
+    void execute_ShouldShareInFlightResultWithConcurrentDuplicates() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        Future<IdempotencyCache.Outcome> first = executor.submit(() -> execute("k1", () -> {
+            started.countDown();
+            release.await();
+            return runs.incrementAndGet();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<IdempotencyCache.Outcome> duplicate = executor.submit(() -> execute("k1", runs::incrementAndGet));
+        Thread.sleep(50);
+        assertFalse(duplicate.isDone());
+
+        release.countDown();
+
+        assertEquals(1, first.get(5, TimeUnit.SECONDS).value());
+        IdempotencyCache.Outcome replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertEquals(1, replayed.value());
+        assertTrue(replayed.replayed());
+        assertEquals(1, runs.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_ShouldPropagateFailureToConcurrentDuplicates() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<IdempotencyCache.Outcome> first = executor.submit(() -> execute("k1", () -> {
+            started.countDown();
+            release.await();
+            throw new IllegalStateException("boom");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<IdempotencyCache.Outcome> duplicate = executor.submit(() -> execute("k1", () -> "never"));
+        Thread.sleep(50);
+        release.countDown();
+
+        Exception firstError = assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+        Exception duplicateError = assertThrows(Exception.class, () -> duplicate.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, firstError.getCause());
+        assertInstanceOf(IllegalStateException.class, duplicateError.getCause());
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_ShouldStopWaitingForSlowRequestAfterWaitTimeout() throws Exception {
+        cache = new IdempotencyCache(Duration.ofSeconds(10), 3, Duration.ofMillis(50), meterRegistry, clock::get);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        Future<IdempotencyCache.Outcome> first = executor.submit(() -> execute("k1", () -> {
+            started.countDown();
+            release.await();
+            return "done";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(IdempotencyCache.InProgressException.class, () -> cache.execute("k1", () -> "never"));
+
+        release.countDown();
+        assertEquals("done", first.get(5, TimeUnit.SECONDS).value());
+        assertTrue(execute("k1", () -> "never").replayed());
+        executor.shutdown();
+    }
+
+    @Test
+    void metrics_ShouldBeRegistered() throws Throwable {
+        cache.execute("k1", () -> "a");
+        cache.execute("k1", () -> "a");
+
+        assertEquals(1.0, meterRegistry.get("ecommerce.idempotency.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("ecommerce.idempotency.requests").tag("result", "miss").counter().count());
+        assertEquals(1.0, meterRegistry.get("ecommerce.idempotency.entries").gauge().value());
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new IdempotencyCache(Duration.ZERO, 1, meterRegistry));
+        assertThrows(IllegalArgumentException.class,
+            () -> new IdempotencyCache(IdempotencyCache.DEFAULT_TTL, 0, meterRegistry));
+        assertThrows(IllegalArgumentException.class,
+            () -> new IdempotencyCache(IdempotencyCache.DEFAULT_TTL, 1, Duration.ZERO, meterRegistry));
+    }
+
+    private IdempotencyCache.Outcome execute(String key, IdempotencyCache.Operation operation) throws Exception {
+        try {
+            return cache.execute(key, operation);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
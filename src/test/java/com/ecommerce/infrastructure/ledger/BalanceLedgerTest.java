@@ -0,0 +1,257 @@
+package com.ecommerce.infrastructure.ledger;
+
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.PlatformClock;
+import com.ecommerce.domain.ledger.BalanceMovement;
+import com.ecommerce.domain.ledger.MovementType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceLedgerTest {
+
+    private BalanceLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new BalanceLedger(4);
+    }
+
+    private static Money cny(String amount) {
+        return Money.of(amount, "CNY");
+    }
+
+    private static BalanceMovement movement(MovementType type, String amount, String balanceAfter) {
+        return new BalanceMovement(type, cny(amount), cny(balanceAfter));
+    }
+
+    private static LocalDateTime pause() throws InterruptedException {
+        Thread.sleep(2);
+        LocalDateTime now = LocalDateTime.now();
+        Thread.sleep(2);
+        return now;
+    }
+
+    @Test
+    void shouldReportNothingForUnknownAccount() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertTrue(ledger.balance(AccountType.USER, 1L).isEmpty());
+        assertTrue(ledger.balanceAt(AccountType.USER, 1L, now).isEmpty());
+        assertTrue(ledger.netChange(AccountType.USER, 1L, now.minusDays(1), now).isEmpty());
+        assertTrue(ledger.entries(AccountType.USER, 1L, now.minusDays(1), now).isEmpty());
+    }
+
+    @Test
+    void shouldKeepAccountsApart() {
+        ledger.record(AccountType.USER, 1L, List.of(movement(MovementType.RECHARGE, "10.00", "10.00")));
+        ledger.record(AccountType.MERCHANT, 1L, List.of(movement(MovementType.INCOME, "25.00", "25.00")));
+
+        assertEquals(cny("10.00"), ledger.balance(AccountType.USER, 1L).orElseThrow());
+        assertEquals(cny("25.00"), ledger.balance(AccountType.MERCHANT, 1L).orElseThrow());
+    }
+
+    @Test
+    void shouldOpenAccountAtBalanceBeforeFirstMovement() {
+        ledger.record(AccountType.USER, 1L, List.of(movement(MovementType.DEDUCTION, "30.00", "970.00")));
+
+        List<LedgerEntry> entries = ledger.entries(AccountType.USER, 1L,
+            LocalDateTime.now().minusMinutes(1), LocalDateTime.now());
+
+        assertEquals(2, entries.size());
+        assertEquals(MovementType.OPENING, entries.get(0).type());
+        assertEquals(100000, entries.get(0).amountMinor());
+        assertEquals(MovementType.DEDUCTION, entries.get(1).type());
+        assertEquals(-3000, entries.get(1).amountMinor());
+        assertEquals(cny("-30.00"), entries.get(1).amount());
+        assertTrue(entries.get(0).sequence() < entries.get(1).sequence());
+        assertEquals(cny("970.00"), ledger.balance(AccountType.USER, 1L).orElseThrow());
+    }
+
+    @Test
+    void shouldKeepBalanceAcrossSnapshots() {
+        Money balance = cny("0.00");
+        for (int i = 1; i <= 10; i++) {
+            Money amount = cny(i + ".00");
+            balance = balance.add(amount);
+            ledger.record(AccountType.MERCHANT, 7L, List.of(
+                new BalanceMovement(MovementType.INCOME, amount, balance)));
+        }
+        balance = balance.subtract(cny("5.50"));
+        ledger.record(AccountType.MERCHANT, 7L, List.of(movement(MovementType.WITHDRAWAL, "5.50", balance.getAmount().toPlainString())));
+
+        assertEquals(cny("49.50"), ledger.balance(AccountType.MERCHANT, 7L).orElseThrow());
+    }
+
+    @Test
+    void shouldAnswerBalanceAtPointInTime() throws InterruptedException {
+        for (int i = 1; i <= 5; i++) {
+            ledger.record(AccountType.USER, 1L, List.of(movement(MovementType.RECHARGE, "1.00", i + ".00")));
+        }
+        LocalDateTime afterFive = pause();
+        for (int i = 6; i <= 9; i++) {
+            ledger.record(AccountType.USER, 1L, List.of(movement(MovementType.RECHARGE, "1.00", i + ".00")));
+        }
+        LocalDateTime afterNine = pause();
+
+        assertTrue(ledger.balanceAt(AccountType.USER, 1L, afterFive.minusDays(1)).isEmpty(), "before the history start");
+        assertEquals(cny("5.00"), ledger.balanceAt(AccountType.USER, 1L, afterFive).orElseThrow());
+        assertEquals(cny("9.00"), ledger.balanceAt(AccountType.USER, 1L, afterNine).orElseThrow());
+        assertEquals(cny("4.00"), ledger.netChange(AccountType.USER, 1L, afterFive, afterNine).orElseThrow());
+        assertEquals(4, ledger.entries(AccountType.USER, 1L, afterFive, afterNine).size());
+    }
+
+    @Test
+    void shouldFilterNetChangeByMovementType() throws InterruptedException {
+        LocalDateTime start = pause();
+        ledger.record(AccountType.MERCHANT, 2L, List.of(
+            movement(MovementType.INCOME, "100.00", "100.00"),
+            movement(MovementType.WITHDRAWAL, "20.00", "80.00"),
+            movement(MovementType.INCOME, "50.00", "130.00")));
+        LocalDateTime end = pause();
+
+        assertEquals(cny("150.00"),
+            ledger.netChange(AccountType.MERCHANT, 2L, start, end, MovementType.INCOME).orElseThrow());
+        assertEquals(cny("-20.00"),
+            ledger.netChange(AccountType.MERCHANT, 2L, start, end, MovementType.WITHDRAWAL).orElseThrow());
+        assertEquals(cny("130.00"), ledger.netChange(AccountType.MERCHANT, 2L, start, end).orElseThrow());
+        assertEquals(cny("0.00"), ledger.netChange(AccountType.MERCHANT, 2L, end, start).orElseThrow());
+    }
+
+    @Test
+    void shouldRejectMovementInOtherCurrency() {
+        ledger.record(AccountType.USER, 1L, List.of(movement(MovementType.RECHARGE, "10.00", "10.00")));
+
+        List<BalanceMovement> usd = List.of(new BalanceMovement(MovementType.RECHARGE,
+            Money.of("1.00", "USD"), Money.of("11.00", "USD")));
+
+        assertThrows(IllegalArgumentException.class, () -> ledger.record(AccountType.USER, 1L, usd));
+    }
+
+    @Test
+    void shouldIgnoreEmptyRecords() {
+        ledger.record(AccountType.USER, 1L, List.of());
+        ledger.record(AccountType.USER, null, List.of(movement(MovementType.RECHARGE, "1.00", "1.00")));
+
+        assertTrue(ledger.balance(AccountType.USER, 1L).isEmpty());
+    }
+
+    @Test
+    void shouldRejectInvalidSnapshotInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new BalanceLedger(0));
+        assertThrows(IllegalArgumentException.class, () -> new BalanceLedger(4, Duration.ZERO));
+    }
+
+    @Test
+    void shouldOpenAccountAtHistoryStart() {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 0, 0);
+        PlatformClock.FixedClock clock = PlatformClock.fixed(start, ZoneId.systemDefault());
+        PlatformClock previous = PlatformClock.install(clock);
+        try {
+            BalanceLedger fresh = new BalanceLedger(4);
+            clock.advance(Duration.ofHours(5));
+            fresh.record(AccountType.MERCHANT, 3L, List.of(movement(MovementType.INCOME, "10.00", "60.00")));
+
+            // The account held its opening balance from the start of the ledger's history
+            assertEquals(start, fresh.historyStart());
+            assertEquals(cny("50.00"), fresh.balanceAt(AccountType.MERCHANT, 3L, start.plusHours(1)).orElseThrow());
+            assertEquals(cny("60.00"), fresh.balanceAt(AccountType.MERCHANT, 3L, start.plusHours(5)).orElseThrow());
+            assertFalse(fresh.covers(start.minusSeconds(1)));
+            assertTrue(fresh.balanceAt(AccountType.MERCHANT, 3L, start.minusSeconds(1)).isEmpty());
+            assertTrue(fresh.netChange(AccountType.MERCHANT, 3L, start.minusSeconds(1), start.plusHours(5)).isEmpty());
+        } finally {
+            PlatformClock.install(previous);
+        }
+    }
+
+    @Test
+    void shouldTrimHistoryOlderThanRetention() {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 0, 0);
+        PlatformClock.FixedClock clock = PlatformClock.fixed(start, ZoneId.systemDefault());
+        PlatformClock previous = PlatformClock.install(clock);
+        try {
+            BalanceLedger fresh = new BalanceLedger(4, Duration.ofDays(1));
+            for (int i = 1; i <= 10; i++) {
+                clock.advance(Duration.ofHours(6));
+                fresh.record(AccountType.USER, 1L, List.of(movement(MovementType.RECHARGE, "1.00", i + ".00")));
+            }
+            // Ten entries six hours apart up to 05-03 12:00; snapshots after the 4th (05-02 00:00) and 8th (05-03 00:00)
+
+            // Cutoff 05-02 12:00: the first snapshot becomes the base
+            assertEquals(4, fresh.trim());
+            assertEquals(start.plusDays(1).plusHours(12), fresh.historyStart());
+            assertEquals(0, fresh.trim());
+            assertEquals(cny("10.00"), fresh.balance(AccountType.USER, 1L).orElseThrow());
+            assertEquals(cny("6.00"), fresh.balanceAt(AccountType.USER, 1L, start.plusDays(1).plusHours(12)).orElseThrow());
+            assertEquals(cny("9.00"), fresh.balanceAt(AccountType.USER, 1L, start.plusDays(2).plusHours(6)).orElseThrow());
+            assertTrue(fresh.balanceAt(AccountType.USER, 1L, start.plusDays(1)).isEmpty());
+
+            // Appending after a trim neither reopens the account nor loses count of its snapshots
+            fresh.record(AccountType.USER, 1L, List.of(
+                movement(MovementType.RECHARGE, "1.00", "11.00"),
+                movement(MovementType.RECHARGE, "1.00", "12.00")));
+            assertTrue(fresh.entries(AccountType.USER, 1L, fresh.historyStart(), clock.dateTime()).stream()
+                .noneMatch(entry -> entry.type() == MovementType.OPENING));
+
+            // Cutoff 05-03 12:00: the snapshot after the 12th entry, taken right then, becomes the base
+            clock.advance(Duration.ofDays(1));
+            assertEquals(8, fresh.trim());
+            assertEquals(cny("12.00"), fresh.balance(AccountType.USER, 1L).orElseThrow());
+            assertEquals(cny("12.00"), fresh.balanceAt(AccountType.USER, 1L, start.plusDays(2).plusHours(12)).orElseThrow());
+            assertTrue(fresh.entries(AccountType.USER, 1L, start, clock.dateTime()).isEmpty());
+            fresh.record(AccountType.USER, 1L, List.of(movement(MovementType.DEDUCTION, "2.00", "10.00")));
+            assertEquals(cny("10.00"), fresh.balanceAt(AccountType.USER, 1L, clock.dateTime()).orElseThrow());
+        } finally {
+            PlatformClock.install(previous);
+        }
+    }
+
+    @Test
+    void shouldNotLoseConcurrentAppends() throws Exception {
+        int threads = 8;
+        int perThread = 250;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        // The resulting balance is only used to open the account
+                        ledger.record(AccountType.MERCHANT, 1L,
+                            List.of(movement(MovementType.INCOME, "0.01", "0.01")));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(cny("20.00"), ledger.balance(AccountType.MERCHANT, 1L).orElseThrow());
+        List<LedgerEntry> entries = ledger.entries(AccountType.MERCHANT, 1L,
+            LocalDateTime.now().minusMinutes(1), LocalDateTime.now());
+        assertEquals(threads * perThread, entries.size());
+        for (int i = 1; i < entries.size(); i++) {
+            assertTrue(entries.get(i - 1).sequence() < entries.get(i).sequence());
+            assertFalse(entries.get(i).recordedAt().isBefore(entries.get(i - 1).recordedAt()));
+        }
+    }
+}
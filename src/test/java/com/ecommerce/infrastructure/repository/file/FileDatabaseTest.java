@@ -0,0 +1,302 @@
+package com.ecommerce.infrastructure.repository.file;
+
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.merchant.Merchant;
+import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.order.OrderStatus;
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.settlement.Settlement;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.infrastructure.repository.VersionConflictException;
+import com.ecommerce.infrastructure.repository.mock.MockMerchantRepository;
+import com.ecommerce.infrastructure.repository.mock.MockOrderRepository;
+import com.ecommerce.infrastructure.repository.mock.MockProductRepository;
+import com.ecommerce.infrastructure.repository.mock.MockSettlementRepository;
+import com.ecommerce.infrastructure.repository.mock.MockUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileDatabaseTest {
+
+    @TempDir
+    Path directory;
+
+    private FileDatabase database;
+    private MockUserRepository users;
+    private MockMerchantRepository merchants;
+    private MockProductRepository products;
+    private MockOrderRepository orders;
+    private MockSettlementRepository settlements;
+
+    private void open(int snapshotEvery) {
+        database = new FileDatabase(directory.toString(), snapshotEvery);
+        users = new MockUserRepository(database);
+        merchants = new MockMerchantRepository(database);
+        products = new MockProductRepository(database);
+        orders = new MockOrderRepository(database);
+        settlements = new MockSettlementRepository(database);
+    }
+
+    private void reopen(int snapshotEvery) {
+        database.close();
+        open(snapshotEvery);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private long logRecords() throws IOException {
+        long records = 0;
+        for (String name : files()) {
+            if (name.startsWith("wal-")) {
+                try (Stream<String> lines = Files.lines(directory.resolve(name))) {
+                    records += lines.count();
+                }
+            }
+        }
+        return records;
+    }
+
+    @Test
+    void shouldSeedDemoDataOnlyIntoFreshDatabase() {
+        open(10_000);
+        assertTrue(database.isFresh());
+        assertEquals(3, users.count());
+        users.deleteById(3L);
+
+        reopen(10_000);
+
+        assertFalse(database.isFresh());
+        assertEquals(2, users.count());
+        assertTrue(products.findBySku("BOOK-001").isPresent());
+        assertEquals(2, merchants.findAllActive().size());
+    }
+
+    @Test
+    void shouldRecoverEveryRepositoryFromTheLog() {
+        open(10_000);
+        User alice = users.findByEmail("alice@example.com").orElseThrow();
+        alice.recharge(Money.of("25.50", "CNY"));
+        users.save(alice);
+        Product book = products.findBySku("BOOK-001").orElseThrow();
+        book.reduceInventory(2);
+        products.save(book);
+        Order order = new Order("ORD-1", alice.getId(), book.getMerchantId());
+        order.addOrderItem(book.getSku(), book.getName(), book.getPrice(), 2);
+        order.confirm();
+        orders.save(order);
+        Settlement settlement = new Settlement(2L, LocalDate.of(2026, 10, 1),
+                                               Money.of("178.00", "CNY"), Money.of("178.00", "CNY"));
+        settlements.save(settlement);
+
+        reopen(10_000);
+
+        User recoveredAlice = users.findById(alice.getId()).orElseThrow();
+        assertEquals(Money.of("1025.50", "CNY"), recoveredAlice.getBalance());
+        assertEquals(alice.getVersion(), recoveredAlice.getPersistedVersion());
+        assertEquals(98, products.findBySku("BOOK-001").orElseThrow().getInventory().getQuantity());
+        Order recoveredOrder = orders.findByOrderNumber("ORD-1").orElseThrow();
+        assertEquals(OrderStatus.CONFIRMED, recoveredOrder.getStatus());
+        assertEquals(Money.of("178.00", "CNY"), recoveredOrder.getTotalAmount());
+        assertEquals(1, recoveredOrder.getItems().size());
+        assertSame(recoveredOrder, recoveredOrder.getItems().get(0).getOrder());
+        assertEquals(List.of(recoveredOrder.getId()),
+                     orders.findByUserIdBefore(alice.getId(), null, null, 10).stream().map(Order::getId).toList());
+        LocalDateTime time = recoveredOrder.getOrderTime();
+        assertEquals(1, orders.findByMerchantIdAndStatusAndOrderTimeBetween(
+            book.getMerchantId(), OrderStatus.CONFIRMED, time, time).size());
+        assertTrue(settlements.findById(settlement.getId()).isPresent());
+    }
+
+    @Test
+    void shouldKeepVersionChecksAcrossRestart() {
+        open(10_000);
+        User stale = users.findById(1L).orElseThrow();
+        User fresh = users.findById(1L).orElseThrow();
+        fresh.recharge(Money.of("1.00", "CNY"));
+        users.save(fresh);
+
+        reopen(10_000);
+
+        stale.recharge(Money.of("1.00", "CNY"));
+        assertThrows(VersionConflictException.class, () -> users.save(stale));
+        assertEquals(Money.of("1001.00", "CNY"), users.findById(1L).orElseThrow().getBalance());
+    }
+
+    @Test
+    void shouldSnapshotAndRetireLogSegments() throws Exception {
+        open(5);
+        for (int i = 0; i < 20; i++) {
+            User user = users.findById(2L).orElseThrow();
+            user.recharge(Money.of("1.00", "CNY"));
+            users.save(user);
+        }
+        database.snapshot();
+
+        assertTrue(files().contains("snapshot.json"));
+        assertEquals(1, files().stream().filter(name -> name.startsWith("wal-")).count());
+
+        User user = users.findById(2L).orElseThrow();
+        user.recharge(Money.of("1.00", "CNY"));
+        users.save(user);
+        reopen(5);
+
+        assertEquals(Money.of("521.00", "CNY"), users.findById(2L).orElseThrow().getBalance());
+        assertEquals(3, users.count());
+        assertEquals(2, merchants.findAllActive().size());
+    }
+
+    @Test
+    void shouldNotReuseIdsAfterRestart() {
+        open(10_000);
+        Long first = orders.save(new Order("ORD-1", 1L, 1L)).getId();
+
+        reopen(10_000);
+
+        Long second = orders.save(new Order("ORD-2", 1L, 1L)).getId();
+        assertTrue(second > first);
+        assertEquals(2, orders.findByUserIdBefore(1L, null, null, 10).size());
+    }
+
+    @Test
+    void shouldLogOneRecordPerOperation() throws Exception {
+        open(10_000);
+        long before = logRecords();
+
+        database.run(() -> {
+            User alice = users.findById(1L).orElseThrow();
+            alice.deduct(Money.of("89.00", "CNY"));
+            users.save(alice);
+            Product book = products.findBySku("BOOK-001").orElseThrow();
+            book.reduceInventory(1);
+            products.save(book);
+            return orders.save(new Order("ORD-1", alice.getId(), book.getMerchantId()));
+        });
+
+        assertEquals(before + 1, logRecords());
+        reopen(10_000);
+        assertEquals(Money.of("911.00", "CNY"), users.findById(1L).orElseThrow().getBalance());
+        assertEquals(99, products.findBySku("BOOK-001").orElseThrow().getInventory().getQuantity());
+        assertTrue(orders.findByOrderNumber("ORD-1").isPresent());
+    }
+
+    @Test
+    void shouldLogWhatAFailedOperationChanged() {
+        open(10_000);
+
+        assertThrows(IllegalStateException.class, () -> database.run(() -> {
+            User alice = users.findById(1L).orElseThrow();
+            alice.recharge(Money.of("1.00", "CNY"));
+            users.save(alice);
+            throw new IllegalStateException("later step failed");
+        }));
+
+        // The store kept the change, so the log must hold it as well
+        reopen(10_000);
+        assertEquals(Money.of("1001.00", "CNY"), users.findById(1L).orElseThrow().getBalance());
+    }
+
+    @Test
+    void shouldRecoverLatestVersionWhenOperationsAreLoggedOutOfOrder() throws Exception {
+        open(10_000);
+        CountDownLatch saved = new CountDownLatch(1);
+        CountDownLatch overtaken = new CountDownLatch(1);
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> database.run(() -> {
+            User alice = users.findById(1L).orElseThrow();
+            alice.recharge(Money.of("1.00", "CNY"));
+            users.save(alice);
+            saved.countDown();
+            await(overtaken);
+            return null;
+        }));
+        await(saved);
+        User alice = users.findById(1L).orElseThrow();
+        alice.recharge(Money.of("10.00", "CNY"));
+        users.save(alice);
+        overtaken.countDown();
+        slow.get(10, TimeUnit.SECONDS);
+
+        // The later save was logged first; replaying the earlier one after it must not win
+        reopen(10_000);
+        assertEquals(Money.of("1011.00", "CNY"), users.findById(1L).orElseThrow().getBalance());
+    }
+
+    @Test
+    void shouldInstallSnapshotOnlyOnceOpenOperationsAreLogged() throws Exception {
+        open(10_000);
+        CountDownLatch saved = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<Void> operation = CompletableFuture.runAsync(() -> database.run(() -> {
+            User alice = users.findById(1L).orElseThrow();
+            alice.recharge(Money.of("1.00", "CNY"));
+            users.save(alice);
+            saved.countDown();
+            await(finish);
+            return null;
+        }));
+        await(saved);
+
+        CompletableFuture<Void> snapshot = CompletableFuture.runAsync(() -> {
+            try {
+                database.snapshot();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        Thread.sleep(200);
+        assertFalse(files().contains("snapshot.json"), "snapshot must wait for the open operation");
+
+        finish.countDown();
+        operation.get(10, TimeUnit.SECONDS);
+        snapshot.get(10, TimeUnit.SECONDS);
+        reopen(10_000);
+        assertEquals(Money.of("1001.00", "CNY"), users.findById(1L).orElseThrow().getBalance());
+    }
+
+    @Test
+    void shouldNotReuseRemovedIdsAfterSnapshot() throws Exception {
+        open(10_000);
+        users.deleteById(3L);
+        database.snapshot();
+
+        reopen(10_000);
+
+        User dave = users.save(new User("dave", "dave@example.com", "13800004444", "CNY"));
+        assertEquals(4L, dave.getId());
+        reopen(10_000);
+        assertEquals(3, users.count());
+        assertTrue(users.findById(4L).isPresent());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.ecommerce.infrastructure.repository.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    private static List<String> payloads(List<WriteAheadLog.Entry> entries) {
+        return entries.stream().map(WriteAheadLog.Entry::payload).toList();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    void shouldReadBackDurableRecordsInOrder() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 0)) {
+            wal.append("a");
+            wal.append("b");
+            wal.awaitDurable(wal.append("c"));
+        }
+
+        List<WriteAheadLog.Entry> entries = WriteAheadLog.recover(directory, 0);
+
+        assertEquals(List.of("a", "b", "c"), payloads(entries));
+        assertEquals(List.of(1L, 2L, 3L), entries.stream().map(WriteAheadLog.Entry::seq).toList());
+        assertEquals(List.of("c"), payloads(WriteAheadLog.recover(directory, 2)));
+    }
+
+    @Test
+    void shouldMakeEveryConcurrentAppendDurable() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 0)) {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                String payload = "record-" + i;
+                writes.add(executor.submit(() -> wal.awaitDurable(wal.append(payload))));
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(400, WriteAheadLog.recover(directory, 0).size());
+    }
+
+    @Test
+    void shouldTruncateTornTailAndResumeAfterLastGoodRecord() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 0)) {
+            wal.append("a");
+            wal.awaitDurable(wal.append("b"));
+        }
+        Path segment = segments().get(0);
+        Files.writeString(segment, "1a2b3c 3 half-writ", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        List<WriteAheadLog.Entry> recovered = WriteAheadLog.recover(directory, 0);
+        assertEquals(List.of("a", "b"), payloads(recovered));
+
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 2)) {
+            wal.awaitDurable(wal.append("c"));
+        }
+        assertEquals(List.of("a", "b", "c"), payloads(WriteAheadLog.recover(directory, 0)));
+    }
+
+    @Test
+    void shouldStopAtCorruptRecord() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 0)) {
+            wal.append("first");
+            wal.append("second");
+            wal.awaitDurable(wal.append("third"));
+        }
+        Path segment = segments().get(0);
+        String content = Files.readString(segment);
+        Files.writeString(segment, content.replace("second", "sEcond"));
+
+        assertEquals(List.of("first"), payloads(WriteAheadLog.recover(directory, 0)));
+    }
+
+    @Test
+    void shouldRetireSegmentsCoveredBySnapshot() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 0)) {
+            wal.append("a");
+            wal.append("b");
+            long upTo = wal.roll();
+            wal.awaitDurable(wal.append("c"));
+
+            assertEquals(2, upTo);
+            assertEquals(2, segments().size());
+            wal.retire(upTo);
+        }
+
+        assertEquals(1, segments().size());
+        assertEquals(List.of("c"), payloads(WriteAheadLog.recover(directory, 2)));
+    }
+
+    @Test
+    void shouldRejectAppendsAfterClose() throws IOException {
+        WriteAheadLog wal = new WriteAheadLog(directory, 0);
+        wal.close();
+
+        assertThrows(UncheckedIOException.class, () -> wal.append("late"));
+    }
+}
@@ -0,0 +1,249 @@
+package com.ecommerce.infrastructure.repository.jpa;
+
+import com.ecommerce.api.EcommercePlatformApplication;
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.PlatformClock;
+import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.order.OrderStatus;
+import com.ecommerce.infrastructure.repository.OrderRepository;
+import com.ecommerce.infrastructure.repository.VersionConflictException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = EcommercePlatformApplication.class)
+@ActiveProfiles({"mysql", "h2"})
+class JpaOrderRepositoryTest {
+
+    private static final AtomicLong MERCHANTS = new AtomicLong(1000);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Order newOrder(String number, Long userId, Long merchantId, LocalDateTime orderTime) {
+        PlatformClock previous = PlatformClock.install(PlatformClock.fixed(orderTime, ZoneId.systemDefault()));
+        try {
+            Order order = new Order(number, userId, merchantId);
+            order.addOrderItem("SKU-1", "Product", Money.of("10.00", "CNY"), 2);
+            order.addOrderItem("SKU-2", "Other", Money.of("5.50", "CNY"), 1);
+            return order;
+        } finally {
+            PlatformClock.install(previous);
+        }
+    }
+
+    @Test
+    void shouldUseJpaImplementationWithBatchingEnabled() {
+        assertInstanceOf(JpaOrderRepository.class, orderRepository);
+        assertEquals("50", entityManagerFactory.getProperties().get("hibernate.jdbc.batch_size"));
+    }
+
+    @Test
+    void shouldSaveAndLoadOrderWithItems() {
+        Order order = orderRepository.save(newOrder("JPA-ORD-1", 1L, MERCHANTS.incrementAndGet(),
+                                                    LocalDateTime.of(2026, 1, 1, 10, 0)));
+
+        Order loaded = orderRepository.findByOrderNumber("JPA-ORD-1").orElseThrow();
+
+        assertEquals(order.getId(), loaded.getId());
+        assertEquals(2, loaded.getItems().size());
+        assertSame(loaded, loaded.getItems().get(0).getOrder());
+        assertEquals(Money.of("25.50", "CNY"), loaded.getTotalAmount());
+        assertEquals(loaded.getVersion(), loaded.getPersistedVersion());
+        assertTrue(orderRepository.existsByOrderNumber("JPA-ORD-1"));
+    }
+
+    @Test
+    void shouldBatchItemInsertsWithPooledIds() {
+        Order order = newOrder("JPA-ORD-BATCH", 1L, MERCHANTS.incrementAndGet(), LocalDateTime.of(2026, 1, 1, 10, 0));
+        for (int i = 0; i < 18; i++) {
+            order.addOrderItem("SKU-B" + i, "Bulk", Money.of("1.00", "CNY"), 1);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        orderRepository.save(order);
+
+        assertEquals(21, statistics.getEntityInsertCount());
+        // One statement for the order and one batch for all of its items, plus the select and
+        // update of a block reservation for each table if its current block ran out
+        assertTrue(statistics.getPrepareStatementCount() <= 6,
+                   "statements: " + statistics.getPrepareStatementCount());
+        assertTrue(order.getItems().stream().allMatch(item -> item.getId() != null));
+        assertEquals(20, order.getItems().stream().map(item -> item.getId()).distinct().count());
+    }
+
+    @Test
+    void shouldSaveChangesOfTheSameInstanceRepeatedly() {
+        Order order = orderRepository.save(newOrder("JPA-ORD-2", 1L, MERCHANTS.incrementAndGet(),
+                                                    LocalDateTime.of(2026, 1, 1, 10, 0)));
+        order.confirm();
+        orderRepository.save(order);
+        order.processPayment();
+        order.complete();
+        orderRepository.save(order);
+
+        Order loaded = orderRepository.findById(order.getId()).orElseThrow();
+        assertEquals(OrderStatus.COMPLETED, loaded.getStatus());
+        assertEquals(order.getVersion(), loaded.getVersion());
+    }
+
+    @Test
+    void shouldRejectSaveOfStaleCopy() {
+        Order order = orderRepository.save(newOrder("JPA-ORD-3", 1L, MERCHANTS.incrementAndGet(),
+                                                    LocalDateTime.of(2026, 1, 1, 10, 0)));
+        Order first = orderRepository.findById(order.getId()).orElseThrow();
+        Order second = orderRepository.findById(order.getId()).orElseThrow();
+        first.confirm();
+        orderRepository.save(first);
+
+        second.cancel("too late");
+
+        assertThrows(VersionConflictException.class, () -> orderRepository.save(second));
+        assertEquals(OrderStatus.CONFIRMED, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void shouldQueryMerchantRanges() {
+        Long merchantId = MERCHANTS.incrementAndGet();
+        LocalDateTime base = LocalDateTime.of(2026, 2, 1, 0, 0);
+        for (int i = 0; i < 4; i++) {
+            Order order = newOrder("JPA-RANGE-" + merchantId + "-" + i, 2L, merchantId, base.plusHours(i));
+            order.confirm();
+            if (i % 2 == 0) {
+                order.processPayment();
+                order.complete();
+            }
+            orderRepository.save(order);
+        }
+
+        List<Order> inRange = orderRepository.findByMerchantIdAndOrderTimeBetween(
+            merchantId, base.plusHours(1), base.plusHours(3));
+        List<Order> completed = orderRepository.findByMerchantIdAndStatusAndOrderTimeBetween(
+            merchantId, OrderStatus.COMPLETED, base, base.plusHours(3));
+
+        assertEquals(3, inRange.size());
+        assertTrue(inRange.stream().allMatch(order -> order.getItems().size() == 2));
+        assertEquals(List.of(base, base.plusHours(2)), completed.stream().map(Order::getOrderTime).toList());
+    }
+
+    @Test
+    void shouldVisitMerchantOrdersInChunks() {
+        Long merchantId = MERCHANTS.incrementAndGet();
+        LocalDateTime base = LocalDateTime.of(2026, 2, 2, 0, 0);
+        List<String> saved = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // Orders 1 and 2 share an order time, so a chunk boundary falls between equal times
+            Order order = newOrder("JPA-CURSOR-" + merchantId + "-" + i, 2L, merchantId,
+                                   base.plusHours(i == 2 ? 1 : i));
+            saved.add(orderRepository.save(order).getOrderNumber());
+        }
+        List<String> visited = new ArrayList<>();
+
+        orderRepository.forEachByMerchantIdAndOrderTimeBetween(merchantId, base, base.plusHours(4), 2, order -> {
+            assertEquals(2, order.getItems().size());
+            visited.add(order.getOrderNumber());
+        });
+
+        assertEquals(saved, visited);
+    }
+
+    @Test
+    void shouldVisitTotalsCompletedAfterWatermarkInChunks() {
+        Long merchantId = MERCHANTS.incrementAndGet();
+        LocalDateTime watermark = LocalDateTime.of(2026, 4, 1, 2, 0);
+        // Placed the day before; completed before, at, and twice after the watermark (at the same time)
+        List<LocalDateTime> completions = List.of(watermark.minusHours(1), watermark,
+                                                  watermark.plusHours(1), watermark.plusHours(1));
+        for (int i = 0; i < completions.size(); i++) {
+            Order order = newOrder("JPA-COMPLETED-" + merchantId + "-" + i, 2L, merchantId, watermark.minusDays(1));
+            order.confirm();
+            order.processPayment();
+            PlatformClock previous = PlatformClock.install(PlatformClock.fixed(completions.get(i), ZoneId.systemDefault()));
+            try {
+                order.complete();
+            } finally {
+                PlatformClock.install(previous);
+            }
+            orderRepository.save(order);
+        }
+        List<Money> after = new ArrayList<>();
+        List<Money> before = new ArrayList<>();
+
+        orderRepository.forEachTotalAmountByMerchantIdAndCompletedTimeIn(merchantId, watermark, watermark.plusDays(1), 1, after::add);
+        orderRepository.forEachTotalAmountByMerchantIdAndCompletedTimeIn(merchantId, watermark.minusDays(1), watermark, 1, before::add);
+
+        assertEquals(2, after.size());
+        assertEquals(2, before.size());
+    }
+
+    @Test
+    void shouldVisitOrdersInStatusInChunks() {
+        Long merchantId = MERCHANTS.incrementAndGet();
+        Long userId = 5000L + merchantId;
+        LocalDateTime base = LocalDateTime.of(2026, 2, 1, 0, 0);
+        // Two share an order time, so the keyset has to go on by id; the pending one is skipped
+        List<LocalDateTime> times = List.of(base, base.plusMinutes(1), base.plusMinutes(1));
+        List<String> confirmed = new ArrayList<>();
+        for (int i = 0; i < times.size(); i++) {
+            Order order = newOrder("JPA-STATUS-" + merchantId + "-" + i, userId, merchantId, times.get(i));
+            order.confirm();
+            confirmed.add(orderRepository.save(order).getOrderNumber());
+        }
+        orderRepository.save(newOrder("JPA-STATUS-" + merchantId + "-pending", userId, merchantId, base));
+        List<String> visited = new ArrayList<>();
+
+        orderRepository.forEachByStatus(OrderStatus.CONFIRMED, 1, order -> {
+            if (merchantId.equals(order.getMerchantId())) {
+                assertEquals(2, order.getItems().size());
+                visited.add(order.getOrderNumber());
+            }
+        });
+
+        assertEquals(confirmed, visited);
+    }
+
+    @Test
+    void shouldPageUserOrdersNewestFirst() {
+        Long userId = 5000L + MERCHANTS.incrementAndGet();
+        LocalDateTime base = LocalDateTime.of(2026, 3, 1, 0, 0);
+        for (int i = 0; i < 5; i++) {
+            orderRepository.save(newOrder("JPA-USER-" + userId + "-" + i, userId, 1L, base.plusMinutes(i)));
+        }
+
+        List<Order> firstPage = orderRepository.findByUserIdBefore(userId, null, null, 2);
+        Order last = firstPage.get(firstPage.size() - 1);
+        List<Order> secondPage = orderRepository.findByUserIdBefore(userId, last.getOrderTime(), last.getId(), 2);
+
+        assertEquals(List.of(base.plusMinutes(4), base.plusMinutes(3)),
+                     firstPage.stream().map(Order::getOrderTime).toList());
+        assertEquals(List.of(base.plusMinutes(2), base.plusMinutes(1)),
+                     secondPage.stream().map(Order::getOrderTime).toList());
+        assertEquals(2, secondPage.get(0).getItems().size());
+    }
+
+    @Test
+    void shouldDeleteOrderWithItems() {
+        Order order = orderRepository.save(newOrder("JPA-ORD-4", 1L, MERCHANTS.incrementAndGet(),
+                                                    LocalDateTime.of(2026, 1, 1, 10, 0)));
+
+        orderRepository.deleteById(order.getId());
+
+        assertTrue(orderRepository.findById(order.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.infrastructure.repository.jpa;
+
+import com.ecommerce.api.EcommercePlatformApplication;
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.merchant.Merchant;
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.settlement.Settlement;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.infrastructure.repository.MerchantRepository;
+import com.ecommerce.infrastructure.repository.ProductRepository;
+import com.ecommerce.infrastructure.repository.SettlementRepository;
+import com.ecommerce.infrastructure.repository.UserRepository;
+import com.ecommerce.infrastructure.repository.VersionConflictException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = EcommercePlatformApplication.class)
+@ActiveProfiles({"mysql", "h2"})
+class JpaUserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SettlementRepository settlementRepository;
+
+    @Test
+    void shouldFindUserByEmailAndPhoneWithBalance() {
+        User user = new User("jpa-alice", "jpa-alice@example.com", "13900001111", "CNY");
+        user.recharge(Money.of("100.00", "CNY"));
+        userRepository.save(user);
+
+        User byEmail = userRepository.findByEmail("jpa-alice@example.com").orElseThrow();
+
+        assertEquals(user.getId(), byEmail.getId());
+        assertEquals(Money.of("100.00", "CNY"), byEmail.getBalance());
+        assertTrue(userRepository.findByPhone("13900001111").isPresent());
+        assertTrue(userRepository.existsByEmail("jpa-alice@example.com"));
+        assertTrue(userRepository.existsById(user.getId()));
+        assertTrue(userRepository.getAllUserIds().contains(user.getId()));
+        assertFalse(userRepository.existsByPhone("00000000000"));
+    }
+
+    @Test
+    void shouldRejectStaleUserSave() {
+        User user = userRepository.save(new User("jpa-bob", "jpa-bob@example.com", "13900002222", "CNY"));
+        User stale = userRepository.findById(user.getId()).orElseThrow();
+        user.recharge(Money.of("10.00", "CNY"));
+        userRepository.save(user);
+
+        stale.recharge(Money.of("20.00", "CNY"));
+
+        assertThrows(VersionConflictException.class, () -> userRepository.save(stale));
+        assertEquals(Money.of("10.00", "CNY"), userRepository.findById(user.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void shouldStoreMerchantsProductsAndSettlements() {
+        Merchant merchant = merchantRepository.save(
+            new Merchant("JPA Store", "JPA-LICENSE-1", "jpa@store.com", "400-000-0000"));
+        Product product = productRepository.save(new Product("JPA-SKU-1", "Book", "A book",
+                                                              Money.of("12.00", "CNY"), merchant.getId(), 5));
+        Settlement settlement = settlementRepository.save(new Settlement(merchant.getId(), LocalDate.of(2026, 1, 1),
+                                                                         Money.of("12.00", "CNY"),
+                                                                         Money.of("12.00", "CNY")));
+
+        assertTrue(merchantRepository.findByBusinessLicense("JPA-LICENSE-1").isPresent());
+        assertTrue(merchantRepository.existsByContactEmail("jpa@store.com"));
+        assertTrue(merchantRepository.findAllActive().stream().anyMatch(m -> m.getId().equals(merchant.getId())));
+        assertEquals(5, productRepository.findBySku("JPA-SKU-1").orElseThrow().getInventory().getQuantity());
+        assertEquals(1, productRepository.findByMerchantId(merchant.getId()).size());
+        assertEquals(Money.of("12.00", "CNY"),
+                     settlementRepository.findById(settlement.getId()).orElseThrow().getExpectedIncome());
+
+        productRepository.deleteById(product.getId());
+        assertFalse(productRepository.existsBySku("JPA-SKU-1"));
+    }
+}
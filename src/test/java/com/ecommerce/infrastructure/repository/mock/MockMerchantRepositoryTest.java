@@ -0,0 +1,62 @@
+package com.ecommerce.infrastructure.repository.mock;
+
+import com.ecommerce.domain.merchant.Merchant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MockMerchantRepositoryTest {
+
+    private MockMerchantRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new MockMerchantRepository();
+    }
+
+    @Test
+    void constructor_ShouldInitializeDemoData() {
+        assertTrue(repository.existsById(1L));
+        assertTrue(repository.existsById(2L));
+        assertEquals(2, repository.findAllActive().size());
+    }
+
+    @Test
+    void findByBusinessLicenseAndContactEmail_ShouldReturnMerchant() {
+        // Given
+        Merchant saved = repository.save(new Merchant("Garden Shop", "LICENSE-003", "garden@shop.com", "400-123-4567"));
+        
+        // When & Then
+        assertEquals(saved.getId(), repository.findByBusinessLicense("LICENSE-003").orElseThrow().getId());
+        assertEquals(saved.getId(), repository.findByContactEmail("garden@shop.com").orElseThrow().getId());
+        assertTrue(repository.existsByBusinessLicense("LICENSE-001"));
+        assertTrue(repository.existsByContactEmail("books@tech.com"));
+        assertFalse(repository.existsByBusinessLicense("LICENSE-999"));
+        assertTrue(repository.findByContactEmail("nobody@shop.com").isEmpty());
+    }
+
+    @Test
+    void deleteById_ShouldRemoveLicenseAndEmailFromLookups() {
+        // When
+        repository.deleteById(1L);
+        
+        // Then
+        assertFalse(repository.existsById(1L));
+        assertFalse(repository.existsByBusinessLicense("LICENSE-001"));
+        assertFalse(repository.existsByContactEmail("apple@store.com"));
+        assertTrue(repository.existsByBusinessLicense("LICENSE-002"));
+    }
+
+    @Test
+    void save_WithExistingMerchant_ShouldKeepLookupsPointingAtIt() {
+        // Given
+        Merchant merchant = repository.findById(2L).orElseThrow();
+        
+        // When
+        repository.save(merchant);
+        
+        // Then
+        assertEquals(2L, repository.findByBusinessLicense("LICENSE-002").orElseThrow().getId());
+    }
+}
@@ -3,10 +3,14 @@ package com.ecommerce.infrastructure.repository.mock;
 import com.ecommerce.domain.order.Order;
 import com.ecommerce.domain.order.OrderStatus;
 import com.ecommerce.domain.Money;
+import com.ecommerce.domain.PlatformClock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -583,4 +587,243 @@ class MockOrderRepositoryTest {
         assertTrue(repository.existsByOrderNumber("ORD-029"));
         assertTrue(repository.existsByOrderNumber("ORD-030"));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void findByMerchantIdAndStatusAndOrderTimeBetween_ShouldFollowStatusTransitions() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Order order = new Order("ORD-031", 1L, 2L);
+        order.addOrderItem("SKU001", "Product", Money.of("100.00", "CNY"), 1);
+        Order saved = repository.save(order);
+        
+        // When
+        saved.confirm();
+        saved.processPayment();
+        saved.complete();
+        repository.save(saved);
+        
+        // Then
+        assertTrue(repository.findByMerchantIdAndStatusAndOrderTimeBetween(
+            2L, OrderStatus.PENDING, now.minusHours(1), now.plusHours(1)).isEmpty());
+        List<Order> completed = repository.findByMerchantIdAndStatusAndOrderTimeBetween(
+            2L, OrderStatus.COMPLETED, now.minusHours(1), now.plusHours(1));
+        assertEquals(1, completed.size());
+        assertEquals("ORD-031", completed.get(0).getOrderNumber());
+        assertEquals(1, repository.findByMerchantIdAndOrderTimeBetween(2L, now.minusHours(1), now.plusHours(1)).size());
+    }
+
+    @Test
+    void findByMerchantIdAndOrderTimeBetween_ShouldReturnOrdersInTimeOrderWithinRange() {
+        // Given
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 9, 0);
+        PlatformClock.FixedClock clock = PlatformClock.fixed(start, ZoneId.systemDefault());
+        PlatformClock previous = PlatformClock.install(clock);
+        try {
+            for (int i = 0; i < 5; i++) {
+                Order order = new Order("ORD-10" + i, 1L, i % 2 == 0 ? 2L : 3L);
+                order.addOrderItem("SKU001", "Product", Money.of("10.00", "CNY"), 1);
+                repository.save(order);
+                clock.advance(Duration.ofMinutes(10));
+            }
+        } finally {
+            PlatformClock.install(previous);
+        }
+        
+        // When
+        List<Order> orders = repository.findByMerchantIdAndOrderTimeBetween(
+            2L, start.plusMinutes(5), start.plusMinutes(40));
+        
+        // Then
+        assertEquals(List.of("ORD-102", "ORD-104"), orders.stream().map(Order::getOrderNumber).toList());
+    }
+
+    @Test
+    void forEachByMerchantIdAndOrderTimeBetween_ShouldVisitOrdersInTimeOrderWithinRange() {
+        // Given
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 9, 0);
+        PlatformClock.FixedClock clock = PlatformClock.fixed(start, ZoneId.systemDefault());
+        PlatformClock previous = PlatformClock.install(clock);
+        try {
+            for (int i = 0; i < 5; i++) {
+                Order order = new Order("ORD-11" + i, 1L, i % 2 == 0 ? 2L : 3L);
+                order.addOrderItem("SKU001", "Product", Money.of("10.00", "CNY"), 1);
+                repository.save(order);
+                clock.advance(Duration.ofMinutes(10));
+            }
+        } finally {
+            PlatformClock.install(previous);
+        }
+        List<String> visited = new ArrayList<>();
+        
+        // When
+        repository.forEachByMerchantIdAndOrderTimeBetween(2L, start.plusMinutes(5), start.plusMinutes(40), 1,
+                                                          order -> visited.add(order.getOrderNumber()));
+        
+        // Then
+        assertEquals(List.of("ORD-112", "ORD-114"), visited);
+    }
+
+    @Test
+    void forEachByMerchantIdAndOrderTimeBetween_ShouldHandOutCopies() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Order order = new Order("ORD-033", 1L, 2L);
+        order.addOrderItem("SKU001", "Product", Money.of("100.00", "CNY"), 1);
+        repository.save(order);
+        
+        // When
+        repository.forEachByMerchantIdAndOrderTimeBetween(2L, now.minusHours(1), now.plusHours(1), 10,
+            visited -> visited.addOrderItem("SKU002", "Product", Money.of("1.00", "CNY"), 1));
+        
+        // Then
+        assertEquals(1, repository.findByOrderNumber("ORD-033").orElseThrow().getItems().size());
+    }
+
+    @Test
+    void forEachTotalAmountByMerchantIdAndCompletedTimeIn_ShouldReadHalfOpenRangeByCompletion() {
+        // Given: placed before the watermark and completed after it, completed at it, and never completed
+        LocalDateTime watermark = LocalDateTime.of(2024, 5, 1, 2, 0);
+        PlatformClock.FixedClock clock = PlatformClock.fixed(watermark.minusHours(5), ZoneId.systemDefault());
+        PlatformClock previous = PlatformClock.install(clock);
+        try {
+            Order lateCompleted = new Order("ORD-120", 1L, 2L);
+            lateCompleted.addOrderItem("SKU001", "Product", Money.of("30.00", "CNY"), 1);
+            lateCompleted.confirm();
+            lateCompleted.processPayment();
+            Order atWatermark = new Order("ORD-121", 1L, 2L);
+            atWatermark.addOrderItem("SKU001", "Product", Money.of("40.00", "CNY"), 1);
+            atWatermark.confirm();
+            atWatermark.processPayment();
+            repository.save(new Order("ORD-122", 1L, 2L));
+            clock.advance(Duration.ofHours(5));
+            atWatermark.complete();
+            repository.save(atWatermark);
+            clock.advance(Duration.ofHours(1));
+            lateCompleted.complete();
+            repository.save(lateCompleted);
+        } finally {
+            PlatformClock.install(previous);
+        }
+        List<Money> totals = new ArrayList<>();
+        
+        // When
+        repository.forEachTotalAmountByMerchantIdAndCompletedTimeIn(2L, watermark, watermark.plusHours(1), 10, totals::add);
+        repository.forEachTotalAmountByMerchantIdAndCompletedTimeIn(2L, watermark.minusDays(1), watermark, 10, totals::add);
+        repository.forEachTotalAmountByMerchantIdAndCompletedTimeIn(3L, watermark.minusDays(1), watermark.plusDays(1), 10, totals::add);
+        
+        // Then: each completed order lands in exactly one of the adjacent windows
+        assertEquals(List.of(Money.of("30.00", "CNY"), Money.of("40.00", "CNY")), totals);
+    }
+
+    @Test
+    void forEachByStatus_ShouldVisitOrdersInStatusOldestFirst() {
+        // Given: two reservations a minute apart, one of them paid afterwards, and a pending order
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 9, 0);
+        PlatformClock.FixedClock clock = PlatformClock.fixed(start, ZoneId.systemDefault());
+        PlatformClock previous = PlatformClock.install(clock);
+        try {
+            Order first = new Order("ORD-130", 1L, 2L);
+            first.addOrderItem("SKU001", "Product", Money.of("10.00", "CNY"), 1);
+            first.confirm();
+            repository.save(first);
+            clock.advance(Duration.ofMinutes(1));
+            Order paid = new Order("ORD-131", 1L, 2L);
+            paid.addOrderItem("SKU001", "Product", Money.of("10.00", "CNY"), 1);
+            paid.confirm();
+            repository.save(paid);
+            clock.advance(Duration.ofMinutes(1));
+            Order second = new Order("ORD-132", 1L, 3L);
+            second.addOrderItem("SKU001", "Product", Money.of("10.00", "CNY"), 1);
+            second.confirm();
+            repository.save(second);
+            repository.save(new Order("ORD-133", 1L, 2L));
+            paid.processPayment();
+            repository.save(paid);
+        } finally {
+            PlatformClock.install(previous);
+        }
+        List<String> orderNumbers = new ArrayList<>();
+        
+        // When
+        repository.forEachByStatus(OrderStatus.CONFIRMED, 10, order -> orderNumbers.add(order.getOrderNumber()));
+        
+        // Then
+        assertEquals(List.of("ORD-130", "ORD-132"), orderNumbers);
+    }
+
+    @Test
+    void deleteById_ShouldRemoveOrderFromRangeQueries() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Order order = new Order("ORD-032", 1L, 2L);
+        order.addOrderItem("SKU001", "Product", Money.of("100.00", "CNY"), 1);
+        Order saved = repository.save(order);
+        
+        // When
+        repository.deleteById(saved.getId());
+        
+        // Then
+        assertTrue(repository.findByMerchantIdAndOrderTimeBetween(2L, now.minusHours(1), now.plusHours(1)).isEmpty());
+        assertTrue(repository.findByMerchantIdAndStatusAndOrderTimeBetween(
+            2L, OrderStatus.PENDING, now.minusHours(1), now.plusHours(1)).isEmpty());
+    }
+
+    @Test
+    void findByUserIdBefore_ShouldPageThroughUserOrdersNewestFirst() {
+        // Given - five orders of user 7 a minute apart, all at the same time for user 8
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 9, 0);
+        PlatformClock.FixedClock clock = PlatformClock.fixed(start, ZoneId.systemDefault());
+        PlatformClock previous = PlatformClock.install(clock);
+        try {
+            for (int i = 0; i < 5; i++) {
+                Order order = new Order("ORD-20" + i, 7L, 2L);
+                order.addOrderItem("SKU001", "Product", Money.of("10.00", "CNY"), 1);
+                repository.save(order);
+                Order other = new Order("ORD-30" + i, 8L, 2L);
+                other.addOrderItem("SKU001", "Product", Money.of("10.00", "CNY"), 1);
+                repository.save(other);
+                clock.advance(Duration.ofMinutes(1));
+            }
+        } finally {
+            PlatformClock.install(previous);
+        }
+        
+        // When
+        List<Order> first = repository.findByUserIdBefore(7L, null, null, 2);
+        Order last = first.get(first.size() - 1);
+        List<Order> second = repository.findByUserIdBefore(7L, last.getOrderTime(), last.getId(), 2);
+        Order secondLast = second.get(second.size() - 1);
+        List<Order> third = repository.findByUserIdBefore(7L, secondLast.getOrderTime(), secondLast.getId(), 2);
+        
+        // Then
+        assertEquals(List.of("ORD-204", "ORD-203"), first.stream().map(Order::getOrderNumber).toList());
+        assertEquals(List.of("ORD-202", "ORD-201"), second.stream().map(Order::getOrderNumber).toList());
+        assertEquals(List.of("ORD-200"), third.stream().map(Order::getOrderNumber).toList());
+        assertTrue(repository.findByUserIdBefore(9L, null, null, 2).isEmpty());
+        assertTrue(repository.findByUserIdBefore(null, null, null, 2).isEmpty());
+    }
+
+    @Test
+    void findByUserIdBefore_ShouldBreakOrderTimeTiesById() {
+        // Given - three orders placed in the same instant
+        LocalDateTime at = LocalDateTime.of(2024, 5, 1, 9, 0);
+        PlatformClock previous = PlatformClock.install(PlatformClock.fixed(at, ZoneId.systemDefault()));
+        try {
+            for (int i = 0; i < 3; i++) {
+                Order order = new Order("ORD-40" + i, 7L, 2L);
+                order.addOrderItem("SKU001", "Product", Money.of("10.00", "CNY"), 1);
+                repository.save(order);
+            }
+        } finally {
+            PlatformClock.install(previous);
+        }
+        
+        // When
+        List<Order> first = repository.findByUserIdBefore(7L, null, null, 2);
+        List<Order> rest = repository.findByUserIdBefore(7L, at, first.get(1).getId(), 2);
+        
+        // Then
+        assertEquals(List.of("ORD-402", "ORD-401"), first.stream().map(Order::getOrderNumber).toList());
+        assertEquals(List.of("ORD-400"), rest.stream().map(Order::getOrderNumber).toList());
+    }
+}
@@ -128,6 +128,51 @@ class MockSettlementRepositoryTest {
         assertFalse(foundSettlement.isPresent());
     }
 
+    @Test
+    void findByMerchantIdAndSettlementDate_ShouldFindOnlyThatMerchantAndDay() {
+        // Given
+        Settlement settlement = repository.save(new Settlement(
+            1L, LocalDate.of(2024, 1, 15), 
+            Money.of("1000.00", "CNY"), 
+            Money.of("1000.00", "CNY")
+        ));
+        repository.save(new Settlement(
+            1L, LocalDate.of(2024, 1, 16), 
+            Money.of("500.00", "CNY"), 
+            Money.of("1500.00", "CNY")
+        ));
+        repository.save(new Settlement(
+            2L, LocalDate.of(2024, 1, 15), 
+            Money.of("200.00", "CNY"), 
+            Money.of("200.00", "CNY")
+        ));
+        
+        // When
+        Optional<Settlement> found = repository.findByMerchantIdAndSettlementDate(1L, LocalDate.of(2024, 1, 15));
+        
+        // Then
+        assertEquals(settlement.getId(), found.orElseThrow().getId());
+        assertTrue(repository.findByMerchantIdAndSettlementDate(1L, LocalDate.of(2024, 1, 17)).isEmpty());
+        assertTrue(repository.findByMerchantIdAndSettlementDate(3L, LocalDate.of(2024, 1, 15)).isEmpty());
+        assertTrue(repository.findByMerchantIdAndSettlementDate(null, null).isEmpty());
+    }
+
+    @Test
+    void findByMerchantIdAndSettlementDate_AfterDelete_ShouldReturnEmpty() {
+        // Given
+        Settlement settlement = repository.save(new Settlement(
+            1L, LocalDate.of(2024, 1, 15), 
+            Money.of("1000.00", "CNY"), 
+            Money.of("1000.00", "CNY")
+        ));
+        
+        // When
+        repository.deleteById(settlement.getId());
+        
+        // Then
+        assertTrue(repository.findByMerchantIdAndSettlementDate(1L, LocalDate.of(2024, 1, 15)).isEmpty());
+    }
+
     @Test
     void deleteById_WithExistingId_ShouldRemoveSettlement() {
         // Given
@@ -308,6 +353,20 @@ class MockSettlementRepositoryTest {
         assertTrue(savedSettlement.isMatched());
     }
 
+    @Test
+    void findTopByMerchantIdOrderBySettlementDateDesc_ShouldReturnLatestOfMerchant() {
+        // Given
+        repository.save(new Settlement(1L, LocalDate.of(2024, 1, 20), Money.of("1.00", "CNY"), Money.of("1.00", "CNY")));
+        repository.save(new Settlement(1L, LocalDate.of(2024, 1, 15), Money.of("2.00", "CNY"), Money.of("2.00", "CNY")));
+        repository.save(new Settlement(2L, LocalDate.of(2024, 1, 25), Money.of("3.00", "CNY"), Money.of("3.00", "CNY")));
+        
+        // When & Then
+        assertEquals(LocalDate.of(2024, 1, 20),
+            repository.findTopByMerchantIdOrderBySettlementDateDesc(1L).orElseThrow().getSettlementDate());
+        assertTrue(repository.findTopByMerchantIdOrderBySettlementDateDesc(3L).isEmpty());
+        assertTrue(repository.findTopByMerchantIdOrderBySettlementDateDesc(null).isEmpty());
+    }
+
     @Test
     void repository_ShouldHaveCorrectAnnotations() {
         // Verify that the repository has the expected annotations
@@ -152,4 +152,30 @@ class MockUserRepositoryTest {
         assertTrue(MockUserRepository.class.isAnnotationPresent(org.springframework.stereotype.Repository.class));
         assertTrue(MockUserRepository.class.isAnnotationPresent(org.springframework.context.annotation.Profile.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void findByEmailAndPhone_ShouldUseCurrentData() {
+        // Given
+        User saved = repository.save(new User("dave", "dave@example.com", "13800004444", "CNY"));
+        
+        // When & Then
+        assertEquals(saved.getId(), repository.findByEmail("dave@example.com").orElseThrow().getId());
+        assertEquals(saved.getId(), repository.findByPhone("13800004444").orElseThrow().getId());
+        assertTrue(repository.existsByEmail("alice@example.com"));
+        assertTrue(repository.existsByPhone("13800002222"));
+        assertFalse(repository.existsByEmail("nobody@example.com"));
+        assertTrue(repository.findByPhone("13899999999").isEmpty());
+    }
+
+    @Test
+    void deleteById_ShouldRemoveEmailAndPhoneFromLookups() {
+        // When
+        repository.deleteById(1L);
+        
+        // Then
+        assertFalse(repository.existsByEmail("alice@example.com"));
+        assertFalse(repository.existsByPhone("13800001111"));
+        assertTrue(repository.findByEmail("alice@example.com").isEmpty());
+        assertTrue(repository.existsByEmail("bob@example.com"));
+    }
+}
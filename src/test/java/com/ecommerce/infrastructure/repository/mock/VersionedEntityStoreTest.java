@@ -0,0 +1,293 @@
+package com.ecommerce.infrastructure.repository.mock;
+
+import com.ecommerce.domain.Money;
+import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.infrastructure.repository.VersionConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedEntityStoreTest {
+
+    private VersionedEntityStore<User> store;
+
+    @BeforeEach
+    void setUp() {
+        store = new VersionedEntityStore<>(User.class);
+    }
+
+    private User newUser(String name) {
+        User user = new User(name, name + "@example.com", "1380000" + name.length(), "CNY");
+        user.recharge(Money.of("100.00", "CNY"));
+        return user;
+    }
+
+    @Test
+    void shouldAssignIdsAndMarkSavedEntityPersisted() {
+        User user = store.save(newUser("alice"));
+
+        assertEquals(1L, user.getId());
+        assertEquals(user.getVersion(), user.getPersistedVersion());
+        assertEquals(2L, store.save(newUser("bob")).getId());
+    }
+
+    @Test
+    void shouldHandOutIndependentCopies() {
+        User saved = store.save(newUser("alice"));
+
+        User first = store.findById(saved.getId()).orElseThrow();
+        User second = store.findById(saved.getId()).orElseThrow();
+        first.recharge(Money.of("50.00", "CNY"));
+
+        assertNotSame(first, second);
+        assertEquals(Money.of("100.00", "CNY"), second.getBalance());
+        assertEquals(Money.of("100.00", "CNY"), store.findById(saved.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void shouldNotLeakChangesMadeAfterSave() {
+        User user = store.save(newUser("alice"));
+
+        user.recharge(Money.of("50.00", "CNY"));
+
+        assertEquals(Money.of("100.00", "CNY"), store.findById(user.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void shouldRejectSaveOfStaleCopy() {
+        Long id = store.save(newUser("alice")).getId();
+        User first = store.findById(id).orElseThrow();
+        User stale = store.findById(id).orElseThrow();
+
+        first.recharge(Money.of("50.00", "CNY"));
+        store.save(first);
+        stale.recharge(Money.of("10.00", "CNY"));
+
+        VersionConflictException e = assertThrows(VersionConflictException.class, () -> store.save(stale));
+        assertEquals("User", e.getEntityType());
+        assertEquals(id, e.getEntityId());
+        assertEquals(stale.getPersistedVersion(), e.getExpectedVersion());
+        assertEquals(first.getVersion(), e.getActualVersion());
+        // The winner's update is kept
+        assertEquals(Money.of("150.00", "CNY"), store.findById(id).orElseThrow().getBalance());
+    }
+
+    @Test
+    void shouldAllowRepeatedSavesOfSameInstance() {
+        User user = store.save(newUser("alice"));
+
+        user.recharge(Money.of("10.00", "CNY"));
+        store.save(user);
+        user.recharge(Money.of("10.00", "CNY"));
+        store.save(user);
+
+        assertEquals(Money.of("120.00", "CNY"), store.findById(user.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void shouldRejectNewEntityReusingStoredId() {
+        User stored = store.save(newUser("alice"));
+        User impostor = newUser("mallory");
+        impostor.setId(stored.getId());
+
+        assertThrows(VersionConflictException.class, () -> store.save(impostor));
+    }
+
+    @Test
+    void shouldRejectSaveOfDeletedEntity() {
+        User user = store.save(newUser("alice"));
+        store.remove(user.getId());
+
+        user.recharge(Money.of("10.00", "CNY"));
+
+        assertThrows(VersionConflictException.class, () -> store.save(user));
+    }
+
+    @Test
+    void shouldKeepGeneratedIdsClearOfAssignedIds() {
+        User assigned = newUser("alice");
+        assigned.setId(10L);
+        store.save(assigned);
+
+        assertEquals(11L, store.save(newUser("bob")).getId());
+    }
+
+    @Test
+    void shouldCopyOrderItemsWithOrder() {
+        VersionedEntityStore<Order> orders = new VersionedEntityStore<>(Order.class);
+        Order order = new Order("ORD-1", 1L, 1L);
+        order.addOrderItem("SKU-1", "Product", Money.of("10.00", "CNY"), 2);
+        orders.save(order);
+
+        Order copy = orders.findById(order.getId()).orElseThrow();
+
+        assertEquals(1, copy.getItems().size());
+        assertNotSame(order.getItems().get(0), copy.getItems().get(0));
+        assertSame(copy, copy.getItems().get(0).getOrder());
+    }
+
+    @Test
+    void shouldLetExactlyOneConcurrentWriterWin() throws Exception {
+        Long id = store.save(newUser("alice")).getId();
+        int writers = 8;
+        List<User> copies = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            copies.add(store.findById(id).orElseThrow());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (User copy : copies) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    copy.recharge(Money.of("1.00", "CNY"));
+                    try {
+                        store.save(copy);
+                        return true;
+                    } catch (VersionConflictException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int winners = 0;
+            for (Future<Boolean> result : results) {
+                winners += result.get(5, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertEquals(1, winners);
+            assertEquals(Money.of("101.00", "CNY"), store.findById(id).orElseThrow().getBalance());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldLookUpEntitiesThroughUniqueIndex() {
+        VersionedEntityStore<User> indexed = new VersionedEntityStore<>(User.class);
+        VersionedEntityStore<User>.UniqueIndex<String> emails = indexed.addIndex(User::getEmail);
+        User alice = indexed.save(newUser("alice"));
+        indexed.save(newUser("bob"));
+
+        assertEquals(alice.getId(), indexed.findBy(emails, "alice@example.com").orElseThrow().getId());
+        assertTrue(indexed.existsBy(emails, "bob@example.com"));
+        assertFalse(indexed.existsBy(emails, "carol@example.com"));
+        assertFalse(indexed.existsBy(emails, null));
+
+        indexed.remove(alice.getId());
+
+        assertTrue(indexed.findBy(emails, "alice@example.com").isEmpty());
+        assertTrue(indexed.existsBy(emails, "bob@example.com"));
+    }
+
+    @Test
+    void shouldMoveIndexEntryWhenKeyChanges() {
+        VersionedEntityStore<User> indexed = new VersionedEntityStore<>(User.class);
+        VersionedEntityStore<User>.UniqueIndex<String> balances =
+            indexed.addIndex(user -> user.getBalance().toString());
+        User user = indexed.save(newUser("alice"));
+        String before = user.getBalance().toString();
+
+        user.recharge(Money.of("5.00", "CNY"));
+        indexed.save(user);
+
+        assertFalse(indexed.existsBy(balances, before));
+        assertEquals(user.getId(), indexed.findBy(balances, user.getBalance().toString()).orElseThrow().getId());
+    }
+
+    @Test
+    void shouldLeaveIndexUntouchedWhenSaveConflicts() {
+        VersionedEntityStore<User> indexed = new VersionedEntityStore<>(User.class);
+        VersionedEntityStore<User>.UniqueIndex<String> balances =
+            indexed.addIndex(user -> user.getBalance().toString());
+        User user = indexed.save(newUser("alice"));
+        User stale = indexed.findById(user.getId()).orElseThrow();
+        user.recharge(Money.of("5.00", "CNY"));
+        indexed.save(user);
+
+        stale.recharge(Money.of("7.00", "CNY"));
+        assertThrows(VersionConflictException.class, () -> indexed.save(stale));
+
+        assertFalse(indexed.existsBy(balances, stale.getBalance().toString()));
+        assertTrue(indexed.existsBy(balances, user.getBalance().toString()));
+    }
+
+    @Test
+    void shouldOnlyAcceptIndexesOnEmptyStore() {
+        store.save(newUser("alice"));
+
+        assertThrows(IllegalStateException.class, () -> store.addIndex(User::getEmail));
+    }
+
+    @Test
+    void shouldReturnRangeOfSortedIndexInKeyOrder() {
+        VersionedEntityStore<Order> orders = new VersionedEntityStore<>(Order.class);
+        VersionedEntityStore<Order>.SortedIndex<Long, String> byMerchant =
+            orders.addSortedIndex(Order::getMerchantId, Order::getOrderNumber);
+        for (String number : List.of("ORD-3", "ORD-1", "ORD-4", "ORD-2")) {
+            orders.save(new Order(number, 1L, 7L));
+        }
+        orders.save(new Order("ORD-2", 1L, 8L));
+
+        List<String> found = orders.findRange(byMerchant, 7L, "ORD-2", "ORD-3").stream()
+            .map(Order::getOrderNumber).toList();
+
+        assertEquals(List.of("ORD-2", "ORD-3"), found);
+        assertTrue(orders.findRange(byMerchant, 7L, "ORD-3", "ORD-2").isEmpty());
+        assertTrue(orders.findRange(byMerchant, 9L, "ORD-1", "ORD-4").isEmpty());
+    }
+
+    @Test
+    void shouldNotifyListenersOfInsertUpdateAndRemove() {
+        List<String> changes = new ArrayList<>();
+        store.addListener((id, before, after) ->
+            changes.add(id + ":" + (before != null ? before.getVersion() : null) + "->"
+                        + (after != null ? after.getVersion() : null)));
+
+        User user = store.save(newUser("alice"));
+        user.recharge(Money.of("1.00", "CNY"));
+        store.save(user);
+        store.remove(user.getId());
+
+        assertEquals(List.of("1:null->1", "1:1->2", "1:2->null"), changes);
+    }
+
+    @Test
+    void shouldRejectChangeWhenListenerThrows() {
+        VersionedEntityStore<User>.UniqueIndex<String> byEmail = store.addIndex(User::getEmail);
+        store.addListener((id, before, after) -> {
+            throw new IllegalStateException("log unavailable");
+        });
+
+        assertThrows(IllegalStateException.class, () -> store.save(newUser("alice")));
+        assertEquals(0, store.size());
+        assertFalse(store.existsBy(byEmail, "alice@example.com"));
+    }
+
+    @Test
+    void shouldRestoreEntityWithIndexesButWithoutListeners() {
+        VersionedEntityStore<User>.UniqueIndex<String> byEmail = store.addIndex(User::getEmail);
+        List<Long> notified = new ArrayList<>();
+        store.addListener((id, before, after) -> notified.add(id));
+        User user = newUser("alice");
+        user.setId(7L);
+
+        store.restore(user);
+
+        User restored = store.findBy(byEmail, "alice@example.com").orElseThrow();
+        assertEquals(user.getVersion(), restored.getPersistedVersion());
+        assertTrue(notified.isEmpty());
+        assertEquals(8L, store.save(newUser("bob")).getId());
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.infrastructure.scheduler;
+
+import com.ecommerce.application.service.InventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryFlushSchedulerTest {
+
+    @Mock
+    private InventoryService inventoryService;
+
+    private InventoryFlushScheduler inventoryFlushScheduler;
+
+    @BeforeEach
+    void setUp() {
+        inventoryFlushScheduler = new InventoryFlushScheduler(inventoryService);
+    }
+
+    @Test
+    void flushInventory_ShouldDelegateToService() {
+        when(inventoryService.flush()).thenReturn(3);
+
+        inventoryFlushScheduler.flushInventory();
+
+        verify(inventoryService, times(1)).flush();
+    }
+
+    @Test
+    void flushInventory_WithServiceException_ShouldHandleException() {
+        doThrow(new RuntimeException("Flush failed")).when(inventoryService).flush();
+
+        assertDoesNotThrow(() -> inventoryFlushScheduler.flushInventory());
+        verify(inventoryService, times(1)).flush();
+    }
+
+    @Test
+    void flushInventory_ShouldHaveScheduledAnnotation() throws NoSuchMethodException {
+        var method = InventoryFlushScheduler.class.getMethod("flushInventory");
+        assertTrue(method.isAnnotationPresent(org.springframework.scheduling.annotation.Scheduled.class));
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.infrastructure.scheduler;
+
+import com.ecommerce.infrastructure.ledger.BalanceLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerTrimSchedulerTest {
+
+    @Mock
+    private BalanceLedger balanceLedger;
+
+    private LedgerTrimScheduler ledgerTrimScheduler;
+
+    @BeforeEach
+    void setUp() {
+        ledgerTrimScheduler = new LedgerTrimScheduler(balanceLedger);
+    }
+
+    @Test
+    void trimLedger_ShouldDelegateToLedger() {
+        when(balanceLedger.trim()).thenReturn(0);
+
+        ledgerTrimScheduler.trimLedger();
+
+        verify(balanceLedger, times(1)).trim();
+    }
+
+    @Test
+    void trimLedger_WithLedgerException_ShouldHandleException() {
+        doThrow(new RuntimeException("Trim failed")).when(balanceLedger).trim();
+
+        assertDoesNotThrow(() -> ledgerTrimScheduler.trimLedger());
+        verify(balanceLedger, times(1)).trim();
+    }
+
+    @Test
+    void trimLedger_ShouldHaveScheduledAnnotation() throws NoSuchMethodException {
+        var method = LedgerTrimScheduler.class.getMethod("trimLedger");
+        assertTrue(method.isAnnotationPresent(org.springframework.scheduling.annotation.Scheduled.class));
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.infrastructure.scheduler;
+
+import com.ecommerce.application.service.MerchantIncomeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MerchantIncomeFlushSchedulerTest {
+
+    @Mock
+    private MerchantIncomeService merchantIncomeService;
+
+    private MerchantIncomeFlushScheduler merchantIncomeFlushScheduler;
+
+    @BeforeEach
+    void setUp() {
+        merchantIncomeFlushScheduler = new MerchantIncomeFlushScheduler(merchantIncomeService);
+    }
+
+    @Test
+    void flushIncome_ShouldDelegateToService() {
+        when(merchantIncomeService.flush()).thenReturn(3);
+
+        merchantIncomeFlushScheduler.flushIncome();
+
+        verify(merchantIncomeService, times(1)).flush();
+    }
+
+    @Test
+    void flushIncome_WithServiceException_ShouldHandleException() {
+        doThrow(new RuntimeException("Flush failed")).when(merchantIncomeService).flush();
+
+        assertDoesNotThrow(() -> merchantIncomeFlushScheduler.flushIncome());
+        verify(merchantIncomeService, times(1)).flush();
+    }
+
+    @Test
+    void flushIncome_ShouldHaveScheduledAnnotation() throws NoSuchMethodException {
+        var method = MerchantIncomeFlushScheduler.class.getMethod("flushIncome");
+        assertTrue(method.isAnnotationPresent(org.springframework.scheduling.annotation.Scheduled.class));
+    }
+}
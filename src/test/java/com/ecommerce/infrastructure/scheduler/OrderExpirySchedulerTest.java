@@ -0,0 +1,104 @@
+package com.ecommerce.infrastructure.scheduler;
+
+import com.ecommerce.infrastructure.config.OrderConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderExpirySchedulerTest {
+
+    private OrderExpiryScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRunExpiryActionAfterTimeout() throws InterruptedException {
+        scheduler = new OrderExpiryScheduler(Duration.ofMillis(50), Duration.ofMillis(10), 16);
+        CountDownLatch expired = new CountDownLatch(1);
+
+        LocalDateTime expiresAt = scheduler.schedule("ORD001", expired::countDown);
+
+        assertTrue(expiresAt.isAfter(LocalDateTime.now()));
+        assertEquals(1, scheduler.getPendingCount());
+        assertTrue(expired.await(5, TimeUnit.SECONDS));
+        awaitNoPending();
+    }
+
+    @Test
+    void shouldRunExpiryAtGivenDeadline() throws InterruptedException {
+        scheduler = new OrderExpiryScheduler(Duration.ofMinutes(30), Duration.ofMillis(10), 16);
+        CountDownLatch overdue = new CountDownLatch(1);
+        CountDownLatch pending = new CountDownLatch(1);
+
+        scheduler.scheduleAt("ORD001", LocalDateTime.now().minusMinutes(5), overdue::countDown);
+        scheduler.scheduleAt("ORD002", LocalDateTime.now().plusMinutes(5), pending::countDown);
+
+        assertTrue(overdue.await(5, TimeUnit.SECONDS));
+        assertTrue(scheduler.isScheduled("ORD002"));
+        assertEquals(1, pending.getCount());
+        assertTrue(scheduler.cancel("ORD002"));
+        assertFalse(scheduler.isScheduled("ORD002"));
+    }
+
+    @Test
+    void shouldNotRunCancelledExpiry() throws InterruptedException {
+        scheduler = new OrderExpiryScheduler(Duration.ofMillis(50), Duration.ofMillis(10), 16);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CountDownLatch kept = new CountDownLatch(1);
+
+        scheduler.schedule("ORD001", cancelled::countDown);
+        scheduler.schedule("ORD002", kept::countDown);
+
+        assertTrue(scheduler.cancel("ORD001"));
+        assertFalse(scheduler.cancel("ORD001"));
+        assertTrue(kept.await(5, TimeUnit.SECONDS));
+        assertEquals(1, cancelled.getCount());
+    }
+
+    @Test
+    void shouldKeepRunningWhenExpiryActionFails() throws InterruptedException {
+        scheduler = new OrderExpiryScheduler(Duration.ofMillis(20), Duration.ofMillis(10), 16);
+        CountDownLatch second = new CountDownLatch(1);
+
+        scheduler.schedule("ORD001", () -> {
+            throw new IllegalStateException("boom");
+        });
+        scheduler.schedule("ORD002", second::countDown);
+
+        assertTrue(second.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldUseOrderConfig() {
+        OrderConfig config = new OrderConfig();
+        config.setTimeoutMinutes(15);
+
+        scheduler = new OrderExpiryScheduler(config);
+
+        assertEquals(Duration.ofMinutes(15), scheduler.getTimeout());
+    }
+
+    @Test
+    void shouldRejectNonPositiveTimeout() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderExpiryScheduler(Duration.ZERO));
+    }
+
+    private void awaitNoPending() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduler.getPendingCount() > 0) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.infrastructure.scheduler;
+
+import com.ecommerce.application.service.EcommerceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationRecoveryTest {
+
+    @Mock
+    private EcommerceService ecommerceService;
+
+    private ReservationRecovery reservationRecovery;
+
+    @BeforeEach
+    void setUp() {
+        reservationRecovery = new ReservationRecovery(ecommerceService);
+    }
+
+    @Test
+    void recoverReservations_ShouldDelegateToEcommerceService() {
+        when(ecommerceService.recoverReservations()).thenReturn(2);
+
+        reservationRecovery.recoverReservations();
+
+        verify(ecommerceService, times(1)).recoverReservations();
+    }
+
+    @Test
+    void recoverReservations_WithServiceException_ShouldHandleException() {
+        doThrow(new RuntimeException("Repository unavailable")).when(ecommerceService).recoverReservations();
+
+        assertDoesNotThrow(() -> reservationRecovery.recoverReservations());
+        verify(ecommerceService, times(1)).recoverReservations();
+    }
+
+    @Test
+    void recoverReservations_ShouldRunWhenApplicationIsReady() throws NoSuchMethodException {
+        var method = ReservationRecovery.class.getMethod("recoverReservations");
+        EventListener listener = method.getAnnotation(EventListener.class);
+        assertNotNull(listener);
+        assertArrayEquals(new Class<?>[] {ApplicationReadyEvent.class}, listener.value());
+    }
+}
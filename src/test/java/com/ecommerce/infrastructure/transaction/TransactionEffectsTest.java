@@ -0,0 +1,95 @@
+package com.ecommerce.infrastructure.transaction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionEffectsTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void completeTransaction(boolean commit) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (commit) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        int status = commit ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK;
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void afterCommit_ShouldRunAtOnceWithoutTransaction() {
+        AtomicInteger runs = new AtomicInteger();
+
+        TransactionEffects.afterCommit(runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void afterCommit_ShouldWaitForCommit() {
+        AtomicInteger runs = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+
+        TransactionEffects.afterCommit(runs::incrementAndGet);
+        assertEquals(0, runs.get(), "must not run before the commit");
+
+        completeTransaction(true);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void afterCommit_ShouldNotRunOnRollback() {
+        AtomicInteger runs = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+
+        TransactionEffects.afterCommit(runs::incrementAndGet);
+        completeTransaction(false);
+
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void afterRollback_ShouldOnlyRunOnRollback() {
+        AtomicInteger runs = new AtomicInteger();
+
+        TransactionEffects.afterRollback(runs::incrementAndGet);
+        assertEquals(0, runs.get(), "nothing to undo without a transaction");
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionEffects.afterRollback(runs::incrementAndGet);
+        completeTransaction(true);
+        assertEquals(0, runs.get());
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionEffects.afterRollback(runs::incrementAndGet);
+        completeTransaction(false);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void shouldKeepRunningLaterEffectsWhenOneFails() {
+        AtomicInteger runs = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+
+        TransactionEffects.afterCommit(() -> {
+            throw new IllegalStateException("boom");
+        });
+        TransactionEffects.afterCommit(runs::incrementAndGet);
+
+        assertDoesNotThrow(() -> completeTransaction(true));
+        assertEquals(1, runs.get());
+    }
+}
@@ -3,23 +3,47 @@ package com.ecommerce.integration;
 import com.ecommerce.application.service.*;
 import com.ecommerce.application.dto.PurchaseRequest;
 import com.ecommerce.application.dto.PurchaseResponse;
+import com.ecommerce.application.dto.CheckoutItem;
+import com.ecommerce.application.dto.CheckoutRequest;
+import com.ecommerce.application.dto.CheckoutResponse;
+import com.ecommerce.application.dto.ReservationResponse;
 import com.ecommerce.domain.Money;
+import com.ecommerce.domain.PlatformClock;
 import com.ecommerce.domain.user.User;
 import com.ecommerce.domain.product.Product;
 import com.ecommerce.domain.merchant.Merchant;
 import com.ecommerce.domain.order.Order;
 import com.ecommerce.domain.order.OrderStatus;
+import com.ecommerce.domain.ledger.MovementType;
 import com.ecommerce.domain.settlement.Settlement;
+import com.ecommerce.infrastructure.concurrency.OptimisticRetry;
+import com.ecommerce.infrastructure.concurrency.PurchaseLockManager;
+import com.ecommerce.infrastructure.id.SnowflakeOrderNumberGenerator;
+import com.ecommerce.infrastructure.ledger.AccountType;
+import com.ecommerce.infrastructure.ledger.BalanceLedger;
+import com.ecommerce.infrastructure.ledger.LedgerEntry;
 import com.ecommerce.infrastructure.repository.*;
+import com.ecommerce.infrastructure.scheduler.OrderExpiryScheduler;
 import com.ecommerce.infrastructure.repository.mock.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 /**
  * Integration tests that verify complex business workflows
@@ -40,6 +64,7 @@ class EcommercePlatformIntegrationTest {
     private MerchantRepository merchantRepository;
     private OrderRepository orderRepository;
     private SettlementRepository settlementRepository;
+    private BalanceLedger balanceLedger;
 
     @BeforeEach
     void setUp() {
@@ -51,11 +76,12 @@ class EcommercePlatformIntegrationTest {
         settlementRepository = new MockSettlementRepository();
 
         // Setup services
-        userService = new UserService(userRepository);
+        balanceLedger = new BalanceLedger();
+        userService = new UserService(userRepository, balanceLedger);
         productService = new ProductService(productRepository);
-        merchantService = new MerchantService(merchantRepository);
+        merchantService = new MerchantService(merchantRepository, balanceLedger);
         orderService = new OrderService(orderRepository);
-        settlementService = new SettlementService(settlementRepository, merchantService, orderService);
+        settlementService = new SettlementService(settlementRepository, merchantService, orderService, balanceLedger);
         ecommerceService = new EcommerceService(userService, merchantService, productService, orderService);
     }
 
@@ -289,6 +315,31 @@ class EcommercePlatformIntegrationTest {
         assertEquals(initialUserBalance, totalSystemBalance);
     }
 
+    @Test
+    void shouldMirrorAccountBalancesInLedger() {
+        Merchant merchant = merchantService.createMerchant(
+            "Ledger Store", "BL444444", "ledger@store.com", "555-4444");
+        productService.createProduct(
+            "LEDGER001", "Ledger Product", "For ledger testing",
+            Money.of("30.00", "CNY"), merchant.getId(), 10);
+        User user = userService.createUser("ledger_user", "ledger@example.com", "555-0044", "CNY");
+
+        userService.rechargeUser(user.getId(), Money.of("100.00", "CNY"));
+        ecommerceService.processPurchase(new PurchaseRequest(user.getId(), "LEDGER001", 2));
+        ecommerceService.processPurchase(new PurchaseRequest(user.getId(), "LEDGER001", 1));
+        // Demo user whose balance predates the ledger
+        userService.rechargeUser(1L, Money.of("10.00", "CNY"));
+
+        assertEquals(userService.getUserBalance(user.getId()),
+            balanceLedger.balance(AccountType.USER, user.getId()).orElseThrow());
+        assertEquals(merchantService.getMerchantBalance(merchant.getId()),
+            balanceLedger.balance(AccountType.MERCHANT, merchant.getId()).orElseThrow());
+        assertEquals(userService.getUserBalance(1L), balanceLedger.balance(AccountType.USER, 1L).orElseThrow());
+        assertEquals(List.of(MovementType.RECHARGE, MovementType.DEDUCTION, MovementType.DEDUCTION),
+            balanceLedger.entries(AccountType.USER, user.getId(), LocalDateTime.now().minusMinutes(1), LocalDateTime.now())
+                .stream().map(LedgerEntry::type).toList());
+    }
+
     @Test
     void shouldMatchOrderIncomeAndMerchantBalanceInSettlement() {
         // 1. Create merchant, product, user
@@ -378,4 +429,432 @@ class EcommercePlatformIntegrationTest {
         // 4. Scheduled settlement (global)
         assertDoesNotThrow(() -> settlementService.executeSettlement());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void shouldNotOversellUnderConcurrentPurchasesOfSameSku() throws InterruptedException {
+        // 1. Create merchant and a product with limited stock
+        Merchant merchant = merchantService.createMerchant(
+            "Flash Sale Merchant", "BL000004", "flash@store.com", "555-0006");
+        productService.createProduct(
+            "FLASH001", "Flash Sale Item", "Limited stock item",
+            Money.of("10.00", "CNY"), merchant.getId(), 20);
+
+        // 2. Create more buyers than there is stock
+        int buyers = 40;
+        Long[] userIds = new Long[buyers];
+        for (int i = 0; i < buyers; i++) {
+            User user = userService.createUser("flash_user_" + i, "flash" + i + "@example.com", "556-" + i, "CNY");
+            userService.rechargeUser(user.getId(), Money.of("100.00", "CNY"));
+            userIds[i] = user.getId();
+        }
+
+        // 3. All buyers purchase at the same time
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(buyers);
+        AtomicInteger succeeded = new AtomicInteger();
+        for (Long userId : userIds) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    ecommerceService.processPurchase(new PurchaseRequest(userId, "FLASH001", 1));
+                    succeeded.incrementAndGet();
+                } catch (Exception e) {
+                    // Expected for buyers that arrive after stock runs out
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdownNow();
+
+        // 4. Exactly the available stock was sold and the money adds up
+        assertEquals(20, succeeded.get());
+        assertEquals(0, productService.getProductBySku("FLASH001").getAvailableInventory());
+        assertEquals(Money.of("200.00", "CNY"), merchantService.getMerchantBalance(merchant.getId()));
+    }
+
+    @Test
+    void shouldNotOversellWithLiveInventoryCounters() throws InterruptedException {
+        // 1. Wire services with the lock-free inventory engine enabled
+        InventoryService inventoryService = new InventoryService(productRepository, true);
+        productService = new ProductService(productRepository, inventoryService);
+        ecommerceService = new EcommerceService(userService, merchantService, productService, orderService);
+
+        Merchant merchant = merchantService.createMerchant(
+            "Counter Merchant", "BL000005", "counter@store.com", "555-0007");
+        productService.createProduct(
+            "FLASH002", "Flash Sale Item", "Limited stock item",
+            Money.of("10.00", "CNY"), merchant.getId(), 20);
+
+        int buyers = 40;
+        Long[] userIds = new Long[buyers];
+        for (int i = 0; i < buyers; i++) {
+            User user = userService.createUser("counter_user_" + i, "counter" + i + "@example.com", "557-" + i, "CNY");
+            userService.rechargeUser(user.getId(), Money.of("100.00", "CNY"));
+            userIds[i] = user.getId();
+        }
+
+        // 2. All buyers purchase at the same time
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(buyers);
+        AtomicInteger succeeded = new AtomicInteger();
+        for (Long userId : userIds) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    ecommerceService.processPurchase(new PurchaseRequest(userId, "FLASH002", 1));
+                    succeeded.incrementAndGet();
+                } catch (Exception e) {
+                    // Expected for buyers that arrive after stock runs out
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdownNow();
+
+        // 3. Live stock is exact and the flush persists it
+        assertEquals(20, succeeded.get());
+        assertEquals(0, inventoryService.getAvailable("FLASH002"));
+        assertEquals(Money.of("200.00", "CNY"), merchantService.getMerchantBalance(merchant.getId()));
+        assertEquals(1, inventoryService.flush());
+        assertEquals(0, inventoryService.getPendingFlushCount());
+    }
+
+    @Test
+    void shouldCreditHotMerchantThroughLiveIncomeAccumulator() throws InterruptedException {
+        // 1. Wire services with live inventory and live merchant income enabled
+        InventoryService inventoryService = new InventoryService(productRepository, true);
+        MerchantIncomeService merchantIncomeService = new MerchantIncomeService(merchantRepository, balanceLedger, true);
+        productService = new ProductService(productRepository, inventoryService);
+        merchantService = new MerchantService(merchantRepository, balanceLedger, merchantIncomeService);
+        settlementService = new SettlementService(settlementRepository, merchantService, orderService, balanceLedger);
+        ecommerceService = new EcommerceService(userService, merchantService, productService, orderService);
+
+        Merchant merchant = merchantService.createMerchant(
+            "Hot Merchant", "BL000006", "hot@store.com", "555-0008");
+        productService.createProduct(
+            "HOT001", "Hot Item", "Sold by a busy merchant",
+            Money.of("10.00", "CNY"), merchant.getId(), 100);
+
+        int buyers = 40;
+        Long[] userIds = new Long[buyers];
+        for (int i = 0; i < buyers; i++) {
+            User user = userService.createUser("hot_user_" + i, "hot" + i + "@example.com", "558-" + i, "CNY");
+            userService.rechargeUser(user.getId(), Money.of("100.00", "CNY"));
+            userIds[i] = user.getId();
+        }
+
+        // 2. All buyers purchase from the same merchant at the same time
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(buyers);
+        AtomicInteger succeeded = new AtomicInteger();
+        for (Long userId : userIds) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    ecommerceService.processPurchase(new PurchaseRequest(userId, "HOT001", 1));
+                    succeeded.incrementAndGet();
+                } catch (Exception e) {
+                    // Not expected; counted through succeeded
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdownNow();
+
+        // 3. Live income is exact before the merchant row is written
+        Money expectedIncome = Money.of("400.00", "CNY");
+        assertEquals(buyers, succeeded.get());
+        assertEquals(expectedIncome, merchantService.getMerchantBalance(merchant.getId()));
+        assertEquals(Money.zero("CNY"), merchantRepository.findById(merchant.getId()).orElseThrow().getAccount().getBalance());
+
+        // 4. Settlement flushes the income first and reconciles against the orders
+        Settlement settlement = settlementService.executeMerchantSettlement(merchant.getId(), LocalDate.now());
+        assertTrue(settlement.isMatched());
+        assertEquals(expectedIncome, settlement.getActualBalance());
+        assertEquals(0, merchantIncomeService.flush());
+        Merchant stored = merchantRepository.findById(merchant.getId()).orElseThrow();
+        assertEquals(expectedIncome, stored.getAccount().getTotalIncome());
+        assertEquals(expectedIncome, balanceLedger.balance(AccountType.MERCHANT, merchant.getId()).orElseThrow());
+    }
+
+    @Test
+    void shouldNotLoseUpdatesWhenRechargesRaceWithPurchases() throws InterruptedException {
+        // 1. Purchases and plain recharges of one user; recharges do not take the purchase locks
+        OptimisticRetry retry = new OptimisticRetry(20, Duration.ofMillis(1), Duration.ofMillis(10), new SimpleMeterRegistry());
+        ecommerceService = new EcommerceService(userService, merchantService, productService, orderService,
+            PurchaseLockManager.striped(), new SnowflakeOrderNumberGenerator(0),
+            new OrderExpiryScheduler(Duration.ofMinutes(30)), retry);
+        Merchant merchant = merchantService.createMerchant(
+            "Race Merchant", "BL000008", "race@store.com", "555-0010");
+        productService.createProduct("RACE-001", "Race Item", "Contended item", Money.of("10.00", "CNY"), merchant.getId(), 100);
+        User user = userService.createUser("racer", "racer@example.com", "560-0001", "CNY");
+        userService.rechargeUser(user.getId(), Money.of("1000.00", "CNY"));
+
+        // 2. Run both at the same time
+        int rounds = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(rounds * 2);
+        AtomicInteger purchases = new AtomicInteger();
+        AtomicInteger recharges = new AtomicInteger();
+        for (int i = 0; i < rounds; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    ecommerceService.processPurchase(new PurchaseRequest(user.getId(), "RACE-001", 1));
+                    purchases.incrementAndGet();
+                } catch (Exception e) {
+                    // A purchase may give up after repeated conflicts; the totals below account for it
+                } finally {
+                    done.countDown();
+                }
+            });
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    retry.run("recharge", () -> userService.rechargeUser(user.getId(), Money.of("5.00", "CNY")));
+                    recharges.incrementAndGet();
+                } catch (Exception e) {
+                    // Counted by the totals below
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdownNow();
+
+        // 3. Every successful write is reflected exactly once
+        assertTrue(purchases.get() > 0);
+        Money expectedBalance = Money.of("1000.00", "CNY")
+            .add(Money.of("5.00", "CNY").multiply(recharges.get()))
+            .subtract(Money.of("10.00", "CNY").multiply(purchases.get()));
+        assertEquals(expectedBalance, userService.getUserBalance(user.getId()));
+        assertEquals(Money.of("10.00", "CNY").multiply(purchases.get()), merchantService.getMerchantBalance(merchant.getId()));
+        assertEquals(100 - purchases.get(), productService.getProductBySku("RACE-001").getAvailableInventory());
+    }
+
+    @Test
+    void shouldRejectSaveOfStaleEntity() {
+        User user = userService.createUser("stale", "stale@example.com", "560-0002", "CNY");
+        User stale = userService.getUserById(user.getId());
+        userService.rechargeUser(user.getId(), Money.of("100.00", "CNY"));
+
+        stale.recharge(Money.of("1.00", "CNY"));
+
+        assertThrows(VersionConflictException.class, () -> userService.saveUser(stale));
+        assertEquals(Money.of("100.00", "CNY"), userService.getUserBalance(user.getId()));
+    }
+
+    @Test
+    void shouldCheckoutCartFromOneMerchantAsSingleOrder() {
+        // 1. Merchant with two products and a funded user
+        Merchant merchant = merchantService.createMerchant(
+            "Cart Merchant", "BL000006", "cart@store.com", "555-0008");
+        productService.createProduct("CART-PHONE", "Phone", "Phone", Money.of("300.00", "CNY"), merchant.getId(), 5);
+        productService.createProduct("CART-CASE", "Case", "Phone case", Money.of("20.00", "CNY"), merchant.getId(), 10);
+        User user = userService.createUser("cart_user", "cart@example.com", "558-0001", "CNY");
+        userService.rechargeUser(user.getId(), Money.of("1000.00", "CNY"));
+
+        // 2. Checkout both products at once
+        CheckoutResponse response = ecommerceService.processCheckout(new CheckoutRequest(user.getId(), List.of(
+            new CheckoutItem("CART-PHONE", 2), new CheckoutItem("CART-CASE", 3))));
+
+        // 3. One order, one payment, stock reduced on every line
+        assertEquals(Money.of("660.00", "CNY"), response.getTotalAmount());
+        Order order = orderService.getOrderByNumber(response.getOrderNumber());
+        assertEquals(2, order.getItems().size());
+        assertTrue(order.isCompleted());
+        assertEquals(Money.of("340.00", "CNY"), userService.getUserBalance(user.getId()));
+        assertEquals(Money.of("660.00", "CNY"), merchantService.getMerchantBalance(merchant.getId()));
+        assertEquals(3, productService.getProductBySku("CART-PHONE").getAvailableInventory());
+        assertEquals(7, productService.getProductBySku("CART-CASE").getAvailableInventory());
+    }
+
+    @Test
+    void shouldReleaseUnpaidReservationWhenOrderTimesOut() throws InterruptedException {
+        // 1. Short order timeout driven by the timer wheel
+        OrderExpiryScheduler expiryScheduler = new OrderExpiryScheduler(Duration.ofMillis(200), Duration.ofMillis(10), 64);
+        ecommerceService = new EcommerceService(userService, merchantService, productService, orderService,
+            PurchaseLockManager.striped(), new SnowflakeOrderNumberGenerator(0), expiryScheduler);
+        Merchant merchant = merchantService.createMerchant(
+            "Reserve Merchant", "BL000007", "reserve@store.com", "555-0009");
+        productService.createProduct("HOLD-001", "Held Item", "Reserved item", Money.of("50.00", "CNY"), merchant.getId(), 5);
+        User payer = userService.createUser("payer", "payer@example.com", "559-0001", "CNY");
+        userService.rechargeUser(payer.getId(), Money.of("500.00", "CNY"));
+        User idler = userService.createUser("idler", "idler@example.com", "559-0002", "CNY");
+
+        try {
+            // 2. Both reserve; the stock is held but nobody is charged yet
+            ReservationResponse paid = ecommerceService.reservePurchase(new PurchaseRequest(payer.getId(), "HOLD-001", 2));
+            ReservationResponse unpaid = ecommerceService.reservePurchase(new PurchaseRequest(idler.getId(), "HOLD-001", 3));
+            assertEquals(0, productService.getProductBySku("HOLD-001").getAvailableInventory());
+            assertEquals(Money.of("500.00", "CNY"), userService.getUserBalance(payer.getId()));
+
+            // 3. One pays in time
+            ecommerceService.payOrder(paid.getOrderNumber());
+            assertTrue(orderService.getOrderByNumber(paid.getOrderNumber()).isCompleted());
+            assertEquals(Money.of("400.00", "CNY"), userService.getUserBalance(payer.getId()));
+
+            // 4. The other reservation times out and gives its stock back
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!orderService.getOrderByNumber(unpaid.getOrderNumber()).isCancelled()) {
+                assertTrue(System.nanoTime() < deadline, "Reservation did not expire");
+                Thread.sleep(20);
+            }
+            assertEquals(3, productService.getProductBySku("HOLD-001").getAvailableInventory());
+            assertTrue(orderService.getOrderByNumber(paid.getOrderNumber()).isCompleted());
+            assertEquals(0, expiryScheduler.getPendingCount());
+            assertThrows(com.ecommerce.domain.order.InvalidOrderStateException.class,
+                () -> ecommerceService.payOrder(unpaid.getOrderNumber()));
+        } finally {
+            expiryScheduler.shutdown();
+        }
+    }
+
+    @Test
+    void shouldPickUpPendingReservationsAfterRestart() throws InterruptedException {
+        // 1. A node reserves twice, 20 minutes apart, and goes down before either is paid
+        PlatformClock.FixedClock clock = PlatformClock.fixed(LocalDateTime.now(), ZoneId.systemDefault());
+        PlatformClock previous = PlatformClock.install(clock);
+        OrderExpiryScheduler restartedScheduler = new OrderExpiryScheduler(Duration.ofMinutes(30), Duration.ofMillis(10), 64);
+        try {
+            OrderExpiryScheduler crashedScheduler = new OrderExpiryScheduler(Duration.ofMinutes(30), Duration.ofMillis(10), 64);
+            EcommerceService crashed = new EcommerceService(userService, merchantService, productService, orderService,
+                PurchaseLockManager.striped(), new SnowflakeOrderNumberGenerator(0), crashedScheduler);
+            Merchant merchant = merchantService.createMerchant(
+                "Restart Merchant", "BL000008", "restart@store.com", "555-0010");
+            productService.createProduct("HOLD-002", "Held Item", "Reserved item", Money.of("50.00", "CNY"), merchant.getId(), 5);
+            User buyer = userService.createUser("restarter", "restarter@example.com", "559-0003", "CNY");
+            userService.rechargeUser(buyer.getId(), Money.of("500.00", "CNY"));
+            ReservationResponse overdue = crashed.reservePurchase(new PurchaseRequest(buyer.getId(), "HOLD-002", 3));
+            clock.advance(Duration.ofMinutes(20));
+            ReservationResponse pending = crashed.reservePurchase(new PurchaseRequest(buyer.getId(), "HOLD-002", 2));
+            crashedScheduler.shutdown();
+            assertEquals(0, productService.getProductBySku("HOLD-002").getAvailableInventory());
+
+            // 2. The node comes back 15 minutes later with an empty timer wheel
+            clock.advance(Duration.ofMinutes(15));
+            ecommerceService = new EcommerceService(userService, merchantService, productService, orderService,
+                PurchaseLockManager.striped(), new SnowflakeOrderNumberGenerator(0), restartedScheduler);
+            assertEquals(2, ecommerceService.recoverReservations());
+            assertEquals(0, ecommerceService.recoverReservations(), "already scheduled");
+
+            // 3. The reservation past its deadline is released at once, the other one still waits
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!orderService.getOrderByNumber(overdue.getOrderNumber()).isCancelled()) {
+                assertTrue(System.nanoTime() < deadline, "Overdue reservation was not released");
+                Thread.sleep(20);
+            }
+            assertEquals(3, productService.getProductBySku("HOLD-002").getAvailableInventory());
+            assertTrue(orderService.getOrderByNumber(pending.getOrderNumber()).canBePaid());
+            assertEquals(1, restartedScheduler.getPendingCount());
+
+            // 4. And can still be paid
+            ecommerceService.payOrder(pending.getOrderNumber());
+            assertTrue(orderService.getOrderByNumber(pending.getOrderNumber()).isCompleted());
+            assertEquals(0, restartedScheduler.getPendingCount());
+        } finally {
+            restartedScheduler.shutdown();
+            PlatformClock.install(previous);
+        }
+    }
+
+    @Test
+    void shouldUndoRefundWhenCancelledOrderFailsToSave() {
+        assertCancellationUndoneWhenOrderSaveFails("UNDO-001");
+    }
+
+    @Test
+    void shouldUndoLiveRefundWhenCancelledOrderFailsToSave() {
+        InventoryService inventoryService = new InventoryService(productRepository, true);
+        MerchantIncomeService merchantIncomeService = new MerchantIncomeService(merchantRepository, balanceLedger, true);
+        productService = new ProductService(productRepository, inventoryService);
+        merchantService = new MerchantService(merchantRepository, balanceLedger, merchantIncomeService);
+
+        assertCancellationUndoneWhenOrderSaveFails("UNDO-002");
+    }
+
+    @Test
+    void shouldNotReturnStockTwiceWhenExpiredOrderFailsToSave() {
+        // 1. A reservation whose expiry finds the order changed meanwhile
+        OrderService failingOrders = spy(orderService);
+        OrderExpiryScheduler expiryScheduler = new OrderExpiryScheduler(Duration.ofMinutes(30));
+        try {
+            ecommerceService = new EcommerceService(userService, merchantService, productService, failingOrders,
+                PurchaseLockManager.striped(), new SnowflakeOrderNumberGenerator(0), expiryScheduler);
+            Merchant merchant = merchantService.createMerchant(
+                "Expiry Merchant", "BL000012", "expiry@store.com", "555-0012");
+            productService.createProduct("EXPIRE-001", "Expiring Item", "Reserved item", Money.of("20.00", "CNY"), merchant.getId(), 5);
+            User user = userService.createUser("expirer", "expirer@example.com", "562-0001", "CNY");
+            userService.rechargeUser(user.getId(), Money.of("100.00", "CNY"));
+            ReservationResponse reservation = ecommerceService.reservePurchase(new PurchaseRequest(user.getId(), "EXPIRE-001", 3));
+            Order reserved = orderService.getOrderByNumber(reservation.getOrderNumber());
+            doThrow(new VersionConflictException(Order.class, reserved.getId(), reserved.getVersion(), reserved.getVersion() + 1))
+                .when(failingOrders).saveOrder(argThat(order -> order.isCancelled()));
+
+            // 2. The expiry fails and gives up instead of returning the stock on every retry
+            com.ecommerce.api.exception.BusinessException e = assertThrows(com.ecommerce.api.exception.BusinessException.class,
+                () -> ecommerceService.expireOrder(reservation.getOrderNumber()));
+            assertEquals(com.ecommerce.api.dto.ErrorCode.CONCURRENT_MODIFICATION, e.getErrorCode());
+            assertEquals(2, productService.getProductBySku("EXPIRE-001").getAvailableInventory());
+            assertTrue(orderService.getOrderByNumber(reservation.getOrderNumber()).canBePaid());
+
+            // 3. Once the order saves again, the stock comes back exactly once
+            doCallRealMethod().when(failingOrders).saveOrder(any());
+            assertTrue(ecommerceService.expireOrder(reservation.getOrderNumber()));
+            assertEquals(5, productService.getProductBySku("EXPIRE-001").getAvailableInventory());
+        } finally {
+            expiryScheduler.shutdown();
+        }
+    }
+
+    /**
+     * Cancel a paid order whose final save conflicts and check that nothing moved
+     */
+    private void assertCancellationUndoneWhenOrderSaveFails(String sku) {
+        // 1. A merchant with income from an earlier sale and an order paid but not yet completed
+        OrderService failingOrders = spy(orderService);
+        ecommerceService = new EcommerceService(userService, merchantService, productService, failingOrders);
+        Merchant merchant = merchantService.createMerchant(
+            "Undo Merchant", "BL-" + sku, sku.toLowerCase() + "@store.com", "555-0011");
+        productService.createProduct(sku, "Undo Item", "Cancelled item", Money.of("20.00", "CNY"), merchant.getId(), 10);
+        User user = userService.createUser("undo_" + sku, sku.toLowerCase() + "@example.com", "561-0001", "CNY");
+        userService.rechargeUser(user.getId(), Money.of("200.00", "CNY"));
+        ecommerceService.processPurchase(new PurchaseRequest(user.getId(), sku, 3));
+        ReservationResponse reservation = ecommerceService.reservePurchase(new PurchaseRequest(user.getId(), sku, 2));
+        Order paid = orderService.getOrderByNumber(reservation.getOrderNumber());
+        paid.processPayment();
+        orderService.saveOrder(paid);
+
+        Money userBalance = userService.getUserById(user.getId()).getBalance();
+        Money merchantBalance = merchantService.getMerchantBalance(merchant.getId());
+        int stock = productService.getProductBySku(sku).getAvailableInventory();
+
+        // 2. The refund and the returned stock are written, then the order save conflicts
+        doThrow(new VersionConflictException(Order.class, paid.getId(), paid.getVersion(), paid.getVersion() + 1))
+            .when(failingOrders).saveOrder(argThat(order -> order.isCancelled()));
+        com.ecommerce.api.exception.BusinessException e = assertThrows(com.ecommerce.api.exception.BusinessException.class,
+            () -> ecommerceService.cancelOrder(reservation.getOrderNumber(), "Customer request"));
+
+        // 3. Every change is taken back and the order is still paid
+        assertEquals(com.ecommerce.api.dto.ErrorCode.CONCURRENT_MODIFICATION, e.getErrorCode());
+        assertEquals(userBalance, userService.getUserById(user.getId()).getBalance());
+        assertEquals(merchantBalance, merchantService.getMerchantBalance(merchant.getId()));
+        assertEquals(stock, productService.getProductBySku(sku).getAvailableInventory());
+        assertEquals(OrderStatus.PAID, orderService.getOrderByNumber(reservation.getOrderNumber()).getStatus());
+    }
+}